@@ -1,6 +1,8 @@
 package fr.rif.rh.cvtech.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Cvtheque.
@@ -9,4 +11,338 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Pagination pagination = new Pagination();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final Search search = new Search();
+
+    private final Deduplication deduplication = new Deduplication();
+
+    private final Geocoder geocoder = new Geocoder();
+
+    private final Dashboard dashboard = new Dashboard();
+
+    private final Pdf pdf = new Pdf();
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Deduplication getDeduplication() {
+        return deduplication;
+    }
+
+    public Geocoder getGeocoder() {
+        return geocoder;
+    }
+
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
+    public Pdf getPdf() {
+        return pdf;
+    }
+
+    public static class Pagination {
+
+        private int defaultPageSize = 20;
+
+        private int maxPageSize = 100;
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+
+    public static class BulkImport {
+
+        private int chunkSize = 1000;
+
+        private int jdbcBatchSize = 100;
+
+        private int maxReportedErrors = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getJdbcBatchSize() {
+            return jdbcBatchSize;
+        }
+
+        public void setJdbcBatchSize(int jdbcBatchSize) {
+            this.jdbcBatchSize = jdbcBatchSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class Search {
+
+        private boolean inMemoryIndex;
+
+        private Duration inMemoryIndexReconcileInterval = Duration.ofHours(1);
+
+        private String indexDirectory;
+
+        private DataSize checkpointLogSize = DataSize.ofMegabytes(64);
+
+        private boolean facetIndex = true;
+
+        private Duration facetReconcileInterval = Duration.ofHours(1);
+
+        private boolean skillIndex = true;
+
+        private Duration skillReconcileInterval = Duration.ofHours(1);
+
+        private boolean similarityIndex = true;
+
+        private Duration similarityReconcileInterval = Duration.ofHours(1);
+
+        private boolean suggestionIndex = true;
+
+        private Duration suggestionReconcileInterval = Duration.ofHours(1);
+
+        public boolean isInMemoryIndex() {
+            return inMemoryIndex;
+        }
+
+        public void setInMemoryIndex(boolean inMemoryIndex) {
+            this.inMemoryIndex = inMemoryIndex;
+        }
+
+        public Duration getInMemoryIndexReconcileInterval() {
+            return inMemoryIndexReconcileInterval;
+        }
+
+        public void setInMemoryIndexReconcileInterval(Duration inMemoryIndexReconcileInterval) {
+            this.inMemoryIndexReconcileInterval = inMemoryIndexReconcileInterval;
+        }
+
+        public String getIndexDirectory() {
+            return indexDirectory;
+        }
+
+        public void setIndexDirectory(String indexDirectory) {
+            this.indexDirectory = indexDirectory;
+        }
+
+        public DataSize getCheckpointLogSize() {
+            return checkpointLogSize;
+        }
+
+        public void setCheckpointLogSize(DataSize checkpointLogSize) {
+            this.checkpointLogSize = checkpointLogSize;
+        }
+
+        public boolean isFacetIndex() {
+            return facetIndex;
+        }
+
+        public void setFacetIndex(boolean facetIndex) {
+            this.facetIndex = facetIndex;
+        }
+
+        public Duration getFacetReconcileInterval() {
+            return facetReconcileInterval;
+        }
+
+        public void setFacetReconcileInterval(Duration facetReconcileInterval) {
+            this.facetReconcileInterval = facetReconcileInterval;
+        }
+
+        public boolean isSkillIndex() {
+            return skillIndex;
+        }
+
+        public void setSkillIndex(boolean skillIndex) {
+            this.skillIndex = skillIndex;
+        }
+
+        public Duration getSkillReconcileInterval() {
+            return skillReconcileInterval;
+        }
+
+        public void setSkillReconcileInterval(Duration skillReconcileInterval) {
+            this.skillReconcileInterval = skillReconcileInterval;
+        }
+
+        public boolean isSimilarityIndex() {
+            return similarityIndex;
+        }
+
+        public void setSimilarityIndex(boolean similarityIndex) {
+            this.similarityIndex = similarityIndex;
+        }
+
+        public Duration getSimilarityReconcileInterval() {
+            return similarityReconcileInterval;
+        }
+
+        public void setSimilarityReconcileInterval(Duration similarityReconcileInterval) {
+            this.similarityReconcileInterval = similarityReconcileInterval;
+        }
+
+        public boolean isSuggestionIndex() {
+            return suggestionIndex;
+        }
+
+        public void setSuggestionIndex(boolean suggestionIndex) {
+            this.suggestionIndex = suggestionIndex;
+        }
+
+        public Duration getSuggestionReconcileInterval() {
+            return suggestionReconcileInterval;
+        }
+
+        public void setSuggestionReconcileInterval(Duration suggestionReconcileInterval) {
+            this.suggestionReconcileInterval = suggestionReconcileInterval;
+        }
+    }
+
+    public static class Deduplication {
+
+        private double threshold = 0.8;
+
+        private int maxBucketSize = 1000;
+
+        private int maxReportedPairs = 1000;
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getMaxBucketSize() {
+            return maxBucketSize;
+        }
+
+        public void setMaxBucketSize(int maxBucketSize) {
+            this.maxBucketSize = maxBucketSize;
+        }
+
+        public int getMaxReportedPairs() {
+            return maxReportedPairs;
+        }
+
+        public void setMaxReportedPairs(int maxReportedPairs) {
+            this.maxReportedPairs = maxReportedPairs;
+        }
+    }
+
+    public static class Geocoder {
+
+        private String dataset = "classpath:config/geocoder/postal-codes.csv";
+
+        public String getDataset() {
+            return dataset;
+        }
+
+        public void setDataset(String dataset) {
+            this.dataset = dataset;
+        }
+    }
+
+    public static class Dashboard {
+
+        private boolean counters = true;
+
+        private Duration reconcileInterval = Duration.ofHours(1);
+
+        public boolean isCounters() {
+            return counters;
+        }
+
+        public void setCounters(boolean counters) {
+            this.counters = counters;
+        }
+
+        public Duration getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(Duration reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
+    public static class Pdf {
+
+        private String cacheDirectory;
+
+        private int renderThreads = 2;
+
+        private int renderQueueCapacity = 16;
+
+        private Duration renderTimeout = Duration.ofSeconds(30);
+
+        public String getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public int getRenderThreads() {
+            return renderThreads;
+        }
+
+        public void setRenderThreads(int renderThreads) {
+            this.renderThreads = renderThreads;
+        }
+
+        public int getRenderQueueCapacity() {
+            return renderQueueCapacity;
+        }
+
+        public void setRenderQueueCapacity(int renderQueueCapacity) {
+            this.renderQueueCapacity = renderQueueCapacity;
+        }
+
+        public Duration getRenderTimeout() {
+            return renderTimeout;
+        }
+
+        public void setRenderTimeout(Duration renderTimeout) {
+            this.renderTimeout = renderTimeout;
+        }
+    }
+}
@@ -1,8 +1,25 @@
 package fr.rif.rh.cvtech.config;
 
+import fr.rif.rh.cvtech.domain.geo.PostalCodeGeocoder;
+import fr.rif.rh.cvtech.repository.GeocodingListener;
+import fr.rif.rh.cvtech.repository.ResumeSearchIndexer;
+import fr.rif.rh.cvtech.repository.SuggestionIndexer;
+import fr.rif.rh.cvtech.repository.search.InMemoryResumeSearchIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeRowIndex;
+import fr.rif.rh.cvtech.repository.search.SuggestionIndex;
 import java.sql.SQLException;
+import java.util.List;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -41,6 +58,32 @@ public class DatabaseConfiguration {
         return H2ConfigurationHelper.createServer(port);
     }
 
+    /**
+     * Register the Hibernate event listeners of the application.
+     *
+     * @param inMemoryResumeSearchIndex the in-memory index of resumes, kept current by the listeners.
+     * @param resumeRowIndexes the other in-memory indexes of resumes, such as their facet bitmaps, kept current by the listeners.
+     * @param suggestionIndex the typeahead suggestions, kept current by the listeners.
+     * @param postalCodeGeocoder the geocoder of the addresses written.
+     * @return the customizer adding the listeners to the Hibernate configuration.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateEventListenersCustomizer(
+        InMemoryResumeSearchIndex inMemoryResumeSearchIndex,
+        List<ResumeRowIndex<?, ?>> resumeRowIndexes,
+        SuggestionIndex suggestionIndex,
+        PostalCodeGeocoder postalCodeGeocoder
+    ) {
+        ResumeSearchIndexer resumeSearchIndexer = new ResumeSearchIndexer(inMemoryResumeSearchIndex, resumeRowIndexes);
+        SuggestionIndexer suggestionIndexer = new SuggestionIndexer(suggestionIndex);
+        GeocodingListener geocodingListener = new GeocodingListener(postalCodeGeocoder);
+        return properties ->
+            properties.put(
+                EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new EventListenersIntegrator(resumeSearchIndexer, suggestionIndexer, geocodingListener))
+            );
+    }
+
     private String getValidPortForH2() {
         int port = Integer.parseInt(env.getProperty("server.port"));
         if (port < 10000) {
@@ -54,4 +97,46 @@ public class DatabaseConfiguration {
         }
         return String.valueOf(port);
     }
+
+    /**
+     * Appends the listeners after the default ones, so that they see the outcome of each insert, update, delete and flush.
+     */
+    private static class EventListenersIntegrator implements Integrator {
+
+        private final ResumeSearchIndexer resumeSearchIndexer;
+
+        private final SuggestionIndexer suggestionIndexer;
+
+        private final GeocodingListener geocodingListener;
+
+        EventListenersIntegrator(
+            ResumeSearchIndexer resumeSearchIndexer,
+            SuggestionIndexer suggestionIndexer,
+            GeocodingListener geocodingListener
+        ) {
+            this.resumeSearchIndexer = resumeSearchIndexer;
+            this.suggestionIndexer = suggestionIndexer;
+            this.geocodingListener = geocodingListener;
+        }
+
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.PRE_INSERT, geocodingListener);
+            registry.appendListeners(EventType.PRE_UPDATE, geocodingListener);
+            registry.appendListeners(EventType.POST_INSERT, resumeSearchIndexer);
+            registry.appendListeners(EventType.POST_UPDATE, resumeSearchIndexer);
+            registry.appendListeners(EventType.POST_DELETE, resumeSearchIndexer);
+            registry.appendListeners(EventType.POST_INSERT, suggestionIndexer);
+            registry.appendListeners(EventType.POST_UPDATE, suggestionIndexer);
+            registry.appendListeners(EventType.POST_DELETE, suggestionIndexer);
+            registry.appendListeners(EventType.FLUSH, resumeSearchIndexer);
+            registry.appendListeners(EventType.AUTO_FLUSH, resumeSearchIndexer);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            // Nothing to release
+        }
+    }
 }
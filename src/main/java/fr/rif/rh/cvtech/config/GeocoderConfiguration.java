@@ -0,0 +1,34 @@
+package fr.rif.rh.cvtech.config;
+
+import fr.rif.rh.cvtech.domain.geo.PostalCodeGeocoder;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+@Configuration
+public class GeocoderConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(GeocoderConfiguration.class);
+
+    /**
+     * Load the offline geocoder of postal codes from the {@code application.geocoder.dataset} resource.
+     *
+     * @param applicationProperties the properties of the application.
+     * @param resourceLoader the loader of the dataset.
+     * @return the geocoder.
+     * @throws IOException if the dataset could not be read.
+     */
+    @Bean
+    public PostalCodeGeocoder postalCodeGeocoder(ApplicationProperties applicationProperties, ResourceLoader resourceLoader)
+        throws IOException {
+        String dataset = applicationProperties.getGeocoder().getDataset();
+        long start = System.nanoTime();
+        PostalCodeGeocoder geocoder = PostalCodeGeocoder.load(resourceLoader.getResource(dataset).getInputStream());
+        log.debug("Loaded {} postal codes from {} in {} ms", geocoder.size(), dataset, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return geocoder;
+    }
+}
@@ -3,6 +3,11 @@ package fr.rif.rh.cvtech.config;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.web.rest.util.SparseFieldset;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.zalando.problem.jackson.ProblemModule;
@@ -27,10 +32,25 @@ public class JacksonConfiguration {
 
     /*
      * Support for Hibernate types in Jackson.
+     * Lazy associations which were not fetched are written as their identifier, so that clients can still link to them.
      */
     @Bean
     public Hibernate5Module hibernate5Module() {
-        return new Hibernate5Module();
+        return new Hibernate5Module().enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+    }
+
+    /*
+     * Support for the sparse fieldsets of the REST resources.
+     * The entities which may be read with a sparse fieldset are bound to its filter, which writes every property by default.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder ->
+            builder
+                .mixIn(Profil.class, SparseFieldset.Filtered.class)
+                .mixIn(Experience.class, SparseFieldset.Filtered.class)
+                .mixIn(Resume.class, SparseFieldset.Filtered.class)
+                .filters(SparseFieldset.defaultFilters());
     }
 
     /*
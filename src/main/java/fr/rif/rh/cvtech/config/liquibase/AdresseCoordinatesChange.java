@@ -0,0 +1,92 @@
+package fr.rif.rh.cvtech.config.liquibase;
+
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
+import fr.rif.rh.cvtech.domain.geo.PostalCodeGeocoder;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Liquibase change geocoding the existing addresses that have a postal code but no coordinates, as
+ * {@link fr.rif.rh.cvtech.repository.GeocodingListener} does on every write, since the coordinates come from the geocoder
+ * dataset and not from SQL.
+ */
+public class AdresseCoordinatesChange implements CustomTaskChange {
+
+    private String dataset;
+
+    private int updatedCount;
+
+    /**
+     * @param dataset the location of the geocoder dataset, such as {@code application.geocoder.dataset}.
+     */
+    public void setDataset(String dataset) {
+        this.dataset = dataset;
+    }
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        PostalCodeGeocoder geocoder;
+        try {
+            geocoder = PostalCodeGeocoder.load(new DefaultResourceLoader(getClass().getClassLoader()).getResource(dataset).getInputStream());
+        } catch (IOException e) {
+            throw new CustomChangeException("Could not load the geocoder dataset " + dataset, e);
+        }
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (
+            PreparedStatement select = connection.prepareStatement(
+                "select id, code_postale from adresse where code_postale is not null and latitude is null and longitude is null"
+            );
+            PreparedStatement update = connection.prepareStatement("update adresse set latitude = ?, longitude = ?, geohash = ? where id = ?");
+            ResultSet resultSet = select.executeQuery()
+        ) {
+            while (resultSet.next()) {
+                long coordinates = geocoder.locate(resultSet.getInt(2));
+                if (coordinates != PostalCodeGeocoder.NOT_FOUND) {
+                    double latitude = PostalCodeGeocoder.latitude(coordinates);
+                    double longitude = PostalCodeGeocoder.longitude(coordinates);
+                    update.setDouble(1, latitude);
+                    update.setDouble(2, longitude);
+                    update.setString(3, GeoHash.of(latitude, longitude));
+                    update.setLong(4, resultSet.getLong(1));
+                    update.addBatch();
+                    updatedCount++;
+                }
+            }
+            update.executeBatch();
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not geocode the addresses", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Geocoded " + updatedCount + " addresses";
+    }
+
+    @Override
+    public void setUp() {
+        // Nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // The dataset is read as the application reads it
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        errors.checkRequiredField("dataset", dataset);
+        return errors;
+    }
+}
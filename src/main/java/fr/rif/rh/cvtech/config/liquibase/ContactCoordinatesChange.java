@@ -0,0 +1,71 @@
+package fr.rif.rh.cvtech.config.liquibase;
+
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Liquibase change reading the coordinates of the existing contacts from their geolocation, as
+ * {@link fr.rif.rh.cvtech.domain.Contact} does on every write, since the geolocation is free text that SQL cannot parse
+ * portably.
+ */
+public class ContactCoordinatesChange implements CustomTaskChange {
+
+    private int updatedCount;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (
+            PreparedStatement select = connection.prepareStatement("select id, geolocalisation from contact where geolocalisation is not null");
+            PreparedStatement update = connection.prepareStatement("update contact set latitude = ?, longitude = ?, geohash = ? where id = ?");
+            ResultSet resultSet = select.executeQuery()
+        ) {
+            while (resultSet.next()) {
+                Optional<double[]> coordinates = GeoHash.parse(resultSet.getString(2));
+                if (coordinates.isPresent()) {
+                    double latitude = coordinates.get()[0];
+                    double longitude = coordinates.get()[1];
+                    update.setDouble(1, latitude);
+                    update.setDouble(2, longitude);
+                    update.setString(3, GeoHash.of(latitude, longitude));
+                    update.setLong(4, resultSet.getLong(1));
+                    update.addBatch();
+                    updatedCount++;
+                }
+            }
+            update.executeBatch();
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not read the coordinates of the contacts", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Read the coordinates of " + updatedCount + " contacts";
+    }
+
+    @Override
+    public void setUp() {
+        // Nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // No resource to read
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
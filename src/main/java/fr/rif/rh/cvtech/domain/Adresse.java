@@ -1,5 +1,7 @@
 package fr.rif.rh.cvtech.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
 import java.io.Serializable;
 import javax.persistence.*;
 import org.hibernate.annotations.Cache;
@@ -30,6 +32,23 @@ public class Adresse implements Serializable {
     @Column(name = "code_postale")
     private Integer codePostale;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    /**
+     * The geohash of the coordinates, kept current by their setters, see {@link GeoHash}.
+     */
+    @JsonIgnore
+    @Column(name = "geohash", length = GeoHash.MAX_PRECISION)
+    private String geohash;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -84,6 +103,46 @@ public class Adresse implements Serializable {
         this.codePostale = codePostale;
     }
 
+    public Double getLatitude() {
+        return this.latitude;
+    }
+
+    public Adresse latitude(Double latitude) {
+        this.setLatitude(latitude);
+        return this;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+        this.geohash = GeoHash.of(latitude, longitude);
+    }
+
+    public Double getLongitude() {
+        return this.longitude;
+    }
+
+    public Adresse longitude(Double longitude) {
+        this.setLongitude(longitude);
+        return this;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+        this.geohash = GeoHash.of(latitude, longitude);
+    }
+
+    public String getGeohash() {
+        return this.geohash;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -111,6 +170,8 @@ public class Adresse implements Serializable {
             ", adresse='" + getAdresse() + "'" +
             ", nomVille='" + getNomVille() + "'" +
             ", codePostale=" + getCodePostale() +
+            ", latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
             "}";
     }
 }
@@ -36,6 +36,10 @@ public class Avis implements Serializable {
     @Column(name = "date_avis")
     private String dateAvis;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -116,6 +120,14 @@ public class Avis implements Serializable {
         this.dateAvis = dateAvis;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -1,5 +1,7 @@
 package fr.rif.rh.cvtech.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
 import java.io.Serializable;
 import javax.persistence.*;
 import org.hibernate.annotations.Cache;
@@ -36,6 +38,23 @@ public class Contact implements Serializable {
     @Column(name = "message")
     private String message;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    /**
+     * The geohash of the coordinates, kept current on every write, see {@link GeoHash}.
+     */
+    @JsonIgnore
+    @Column(name = "geohash", length = GeoHash.MAX_PRECISION)
+    private String geohash;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -116,6 +135,59 @@ public class Contact implements Serializable {
         this.message = message;
     }
 
+    public Double getLatitude() {
+        return this.latitude;
+    }
+
+    public Contact latitude(Double latitude) {
+        this.setLatitude(latitude);
+        return this;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return this.longitude;
+    }
+
+    public Contact longitude(Double longitude) {
+        this.setLongitude(longitude);
+        return this;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getGeohash() {
+        return this.geohash;
+    }
+
+    /**
+     * Read the coordinates from the geolocation when it is written as coordinates, and update the geohash.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void updateCoordinates() {
+        GeoHash
+            .parse(geolocalisation)
+            .ifPresent(coordinates -> {
+                latitude = coordinates[0];
+                longitude = coordinates[1];
+            });
+        geohash = GeoHash.of(latitude, longitude);
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -145,6 +217,8 @@ public class Contact implements Serializable {
             ", prenom='" + getPrenom() + "'" +
             ", mail='" + getMail() + "'" +
             ", message='" + getMessage() + "'" +
+            ", latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
             "}";
     }
 }
@@ -26,6 +26,10 @@ public class Langue implements Serializable {
     @Column(name = "langue")
     private Language langue;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -54,6 +58,14 @@ public class Langue implements Serializable {
         this.langue = langue;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
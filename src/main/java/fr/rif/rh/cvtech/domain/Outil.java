@@ -24,6 +24,10 @@ public class Outil implements Serializable {
     @Column(name = "nom_outil")
     private String nomOutil;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -52,6 +56,14 @@ public class Outil implements Serializable {
         this.nomOutil = nomOutil;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
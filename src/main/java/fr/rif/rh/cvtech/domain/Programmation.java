@@ -27,6 +27,10 @@ public class Programmation implements Serializable {
     @Column(name = "taux_de_langage")
     private Integer tauxDeLangage;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -68,6 +72,14 @@ public class Programmation implements Serializable {
         this.tauxDeLangage = tauxDeLangage;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
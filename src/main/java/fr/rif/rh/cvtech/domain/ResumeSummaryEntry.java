@@ -0,0 +1,142 @@
+package fr.rif.rh.cvtech.domain;
+
+import fr.rif.rh.cvtech.domain.enumeration.Language;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A row of the {@code resume_summary} read model: the fields of a {@link Resume} and of its parts displayed by the recruiter
+ * lists, flattened into one table so that a list page is read from one index range, without any join.
+ * <p>
+ * The rows are written by SQL only, in the transaction writing the resume or its parts, see
+ * {@link fr.rif.rh.cvtech.repository.ResumeSearchIndexer}, so the entity is immutable and not cached.
+ */
+@Entity
+@Immutable
+@Table(name = "resume_summary")
+public class ResumeSummaryEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "resume_id")
+    private Long id;
+
+    @Column(name = "titre")
+    private String titre;
+
+    @Column(name = "date_creation", nullable = false)
+    private ZonedDateTime dateCreation;
+
+    @Column(name = "user_login")
+    private String userLogin;
+
+    @Column(name = "profession")
+    private String profession;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "country")
+    private String country;
+
+    @Column(name = "nom")
+    private String nom;
+
+    @Column(name = "prenom")
+    private String prenom;
+
+    @Column(name = "nom_poste")
+    private String nomPoste;
+
+    @Column(name = "nom_entreprise")
+    private String nomEntreprise;
+
+    @Column(name = "nom_etude")
+    private String nomEtude;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "langue")
+    private Language langue;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitre() {
+        return titre;
+    }
+
+    public ZonedDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    public String getProfession() {
+        return profession;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public String getNomPoste() {
+        return nomPoste;
+    }
+
+    public String getNomEntreprise() {
+        return nomEntreprise;
+    }
+
+    public String getNomEtude() {
+        return nomEtude;
+    }
+
+    public Language getLangue() {
+        return langue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResumeSummaryEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((ResumeSummaryEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResumeSummaryEntry{" +
+            "id=" + getId() +
+            ", titre='" + getTitre() + "'" +
+            ", dateCreation='" + getDateCreation() + "'" +
+            ", userLogin='" + getUserLogin() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,156 @@
+package fr.rif.rh.cvtech.domain.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Geohash encoding of coordinates, and the geometry needed to search points around a location by geohash prefix.
+ * <p>
+ * A geohash interleaves the bits of the longitude and latitude of a point, most significant first, in base 32: every point
+ * of a cell of the grid of a given precision shares the same geohash prefix, so an ordinary index on the geohash column
+ * serves prefix queries on every database.
+ */
+public final class GeoHash {
+
+    /**
+     * The precision of stored geohashes, about 37 mm by 19 mm.
+     */
+    public static final int MAX_PRECISION = 12;
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private static final Pattern COORDINATES = Pattern.compile("\\s*([-+]?\\d{1,3}(?:\\.\\d+)?)\\s*[,;\\s]\\s*([-+]?\\d{1,3}(?:\\.\\d+)?)\\s*");
+
+    private GeoHash() {}
+
+    /**
+     * @return whether the coordinates are a point on Earth.
+     */
+    public static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180;
+    }
+
+    /**
+     * Parse coordinates written as a latitude and a longitude in decimal degrees, separated by a comma, a semicolon or spaces.
+     *
+     * @param text the text, for example {@code "45.764, 4.8357"}.
+     * @return the latitude and the longitude, or nothing if the text is not valid coordinates.
+     */
+    public static Optional<double[]> parse(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = COORDINATES.matcher(text);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        double latitude = Double.parseDouble(matcher.group(1));
+        double longitude = Double.parseDouble(matcher.group(2));
+        return isValid(latitude, longitude) ? Optional.of(new double[] { latitude, longitude }) : Optional.empty();
+    }
+
+    /**
+     * Encode coordinates.
+     *
+     * @param latitude the latitude, in degrees.
+     * @param longitude the longitude, in degrees.
+     * @param precision the number of characters of the geohash.
+     * @return the geohash of the cell containing the point.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        char[] hash = new char[precision];
+        boolean longitudeBit = true;
+        for (int i = 0; i < precision; i++) {
+            int character = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                character <<= 1;
+                if (longitudeBit) {
+                    double middle = (minLongitude + maxLongitude) / 2;
+                    if (longitude >= middle) {
+                        character |= 1;
+                        minLongitude = middle;
+                    } else {
+                        maxLongitude = middle;
+                    }
+                } else {
+                    double middle = (minLatitude + maxLatitude) / 2;
+                    if (latitude >= middle) {
+                        character |= 1;
+                        minLatitude = middle;
+                    } else {
+                        maxLatitude = middle;
+                    }
+                }
+                longitudeBit = !longitudeBit;
+            }
+            hash[i] = BASE32[character];
+        }
+        return new String(hash);
+    }
+
+    /**
+     * @return the great-circle distance between two points, in kilometers.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a =
+            Math.pow(Math.sin(deltaLatitude / 2), 2) +
+            Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Find the geohash cells covering a circle: the cell of its center and its neighbours, at the finest precision whose cells
+     * are larger than the radius.
+     *
+     * @param latitude the latitude of the center, in degrees.
+     * @param longitude the longitude of the center, in degrees.
+     * @param radiusKm the radius, in kilometers.
+     * @return the geohashes of the cells, or an empty list if the circle is too large, or too close to a pole, to be covered.
+     */
+    public static List<String> coveringCells(double latitude, double longitude, double radiusKm) {
+        double farthestLatitude = Math.min(90, Math.abs(latitude) + radiusKm / KM_PER_DEGREE);
+        double kmPerLongitudeDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+        for (int precision = MAX_PRECISION; precision > 0; precision--) {
+            double cellLatitude = 180 / Math.pow(2, (5 * precision) / 2);
+            double cellLongitude = 360 / Math.pow(2, (5 * precision + 1) / 2);
+            if (cellLatitude * KM_PER_DEGREE >= radiusKm && cellLongitude * kmPerLongitudeDegree >= radiusKm) {
+                Set<String> cells = new LinkedHashSet<>();
+                for (int latitudeStep = -1; latitudeStep <= 1; latitudeStep++) {
+                    for (int longitudeStep = -1; longitudeStep <= 1; longitudeStep++) {
+                        double cellPointLatitude = Math.max(-90, Math.min(90, latitude + latitudeStep * cellLatitude));
+                        double cellPointLongitude = wrapLongitude(longitude + longitudeStep * cellLongitude);
+                        cells.add(encode(cellPointLatitude, cellPointLongitude, precision));
+                    }
+                }
+                return new ArrayList<>(cells);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * @return the geohash of valid coordinates at {@link #MAX_PRECISION}, or {@code null}.
+     */
+    public static String of(Double latitude, Double longitude) {
+        return isValid(latitude, longitude) ? encode(latitude, longitude, MAX_PRECISION) : null;
+    }
+
+    private static double wrapLongitude(double longitude) {
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+}
@@ -0,0 +1,164 @@
+package fr.rif.rh.cvtech.domain.geo;
+
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.IntLongHashMap;
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Offline geocoder of French postal codes, resolving them to the coordinates and the name of their city from a dataset held in
+ * memory.
+ * <p>
+ * Lookups go through primitive-keyed maps, without boxing: the postal code maps to its coordinates packed in a {@code long},
+ * as the latitude and the longitude in millionths of a degree, and to the number of its city in the table of city names.
+ * City names are also looked up ignoring case, accents and punctuation, to normalize their spelling.
+ * <p>
+ * The dataset is a UTF-8 text file of {@code code;city;latitude;longitude} lines, after a header line. Lines starting with
+ * {@code #} are comments. When a postal code is listed more than once, its first line wins.
+ */
+public final class PostalCodeGeocoder {
+
+    /**
+     * Returned by {@link #locate} for an unknown postal code; not a valid packing of coordinates.
+     */
+    public static final long NOT_FOUND = Long.MIN_VALUE;
+
+    private static final double MICRODEGREES = 1_000_000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final IntLongHashMap coordinates = new IntLongHashMap();
+
+    private final IntIntHashMap cities = new IntIntHashMap();
+
+    private final ObjectIntHashMap<String> citiesByName = new ObjectIntHashMap<>();
+
+    private final List<String> cityNames = new ArrayList<>();
+
+    private PostalCodeGeocoder() {}
+
+    /**
+     * Load a dataset.
+     *
+     * @param dataset the dataset, closed once read.
+     * @return the geocoder.
+     * @throws IOException if the dataset could not be read, or has an invalid line.
+     */
+    public static PostalCodeGeocoder load(InputStream dataset) throws IOException {
+        PostalCodeGeocoder geocoder = new PostalCodeGeocoder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(dataset, StandardCharsets.UTF_8))) {
+            boolean header = true;
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                String[] fields = line.split(";", -1);
+                try {
+                    geocoder.add(
+                        Integer.parseInt(fields[0].strip()),
+                        fields[1].strip(),
+                        Double.parseDouble(fields[2].strip()),
+                        Double.parseDouble(fields[3].strip())
+                    );
+                } catch (RuntimeException e) {
+                    throw new IOException("Invalid postal code at line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        return geocoder;
+    }
+
+    /**
+     * @return the number of postal codes.
+     */
+    public int size() {
+        return coordinates.size();
+    }
+
+    /**
+     * Locate a postal code.
+     *
+     * @param postalCode the postal code.
+     * @return the coordinates of its city, to read with {@link #latitude} and {@link #longitude}, or {@link #NOT_FOUND}.
+     */
+    public long locate(int postalCode) {
+        return coordinates.getOrDefault(postalCode, NOT_FOUND);
+    }
+
+    /**
+     * @return the latitude of coordinates returned by {@link #locate}, in degrees.
+     */
+    public static double latitude(long coordinates) {
+        return (int) (coordinates >> 32) / MICRODEGREES;
+    }
+
+    /**
+     * @return the longitude of coordinates returned by {@link #locate}, in degrees.
+     */
+    public static double longitude(long coordinates) {
+        return (int) coordinates / MICRODEGREES;
+    }
+
+    /**
+     * @return the name of the city of a postal code, or {@code null} if the postal code is unknown.
+     */
+    public String city(int postalCode) {
+        int city = cities.getOrDefault(postalCode, -1);
+        return city < 0 ? null : cityNames.get(city);
+    }
+
+    /**
+     * Normalize the spelling of a city name.
+     *
+     * @param name the name, in any case, with or without accents and hyphens.
+     * @return the name of the city as spelled in the dataset, or {@code null} if no city has this name.
+     */
+    public String normalizeCity(String name) {
+        if (name == null) {
+            return null;
+        }
+        int city = citiesByName.getOrDefault(key(name), -1);
+        return city < 0 ? null : cityNames.get(city);
+    }
+
+    private void add(int postalCode, String city, double latitude, double longitude) {
+        if (!GeoHash.isValid(latitude, longitude) || city.isEmpty()) {
+            throw new IllegalArgumentException("Invalid city or coordinates");
+        }
+        if (coordinates.containsKey(postalCode)) {
+            return;
+        }
+        String key = key(city);
+        int number = citiesByName.getOrDefault(key, -1);
+        if (number < 0) {
+            number = cityNames.size();
+            cityNames.add(city);
+            citiesByName.put(key, number);
+        }
+        long packed = ((long) (int) Math.round(latitude * MICRODEGREES) << 32) | ((int) Math.round(longitude * MICRODEGREES) & 0xFFFFFFFFL);
+        coordinates.put(postalCode, packed);
+        cities.put(postalCode, number);
+    }
+
+    private static String key(String name) {
+        String folded = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+}
@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AdresseRepository extends JpaRepository<Adresse, Long> {}
+public interface AdresseRepository extends KeysetRepository<Adresse>, VersionedRepository<Adresse> {}
@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AvisRepository extends JpaRepository<Avis, Long> {}
+public interface AvisRepository extends KeysetRepository<Avis>, VersionedRepository<Avis> {}
@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, Long> {}
+public interface ContactRepository extends KeysetRepository<Contact>, VersionedRepository<Contact> {}
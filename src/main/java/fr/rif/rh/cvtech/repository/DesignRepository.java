@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DesignRepository extends JpaRepository<Design, Long> {}
+public interface DesignRepository extends KeysetRepository<Design>, VersionedRepository<Design> {}
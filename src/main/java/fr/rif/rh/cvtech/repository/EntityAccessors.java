@@ -0,0 +1,251 @@
+package fr.rif.rh.cvtech.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+
+/**
+ * The accessors of an entity class, compiled once per class, for the patches of the REST resources and the entities read by
+ * {@link SparseFieldsetRepository}.
+ * <p>
+ * The properties a patch may write are the singular attributes of the JPA metamodel that Jackson would deserialize through a
+ * setter, except the ID and the version. They are read through method handles on their fields and written through method
+ * handles on their setters, so that a patch costs no reflective lookup and its writes are recorded by the dirty tracking of
+ * the enhanced entities, which a write to the field would bypass. A new instance, which is not managed, has its singular
+ * attributes written through method handles on their fields instead, as Hibernate writes the entities it loads.
+ */
+public final class EntityAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle constructor;
+
+    private final MethodHandle versionGetter;
+
+    private final Map<String, Property> properties;
+
+    private final Map<String, MethodHandle> fieldSetters;
+
+    private EntityAccessors(
+        MethodHandle constructor,
+        MethodHandle versionGetter,
+        Map<String, Property> properties,
+        Map<String, MethodHandle> fieldSetters
+    ) {
+        this.constructor = constructor;
+        this.versionGetter = versionGetter;
+        this.properties = Collections.unmodifiableMap(properties);
+        this.fieldSetters = fieldSetters;
+    }
+
+    /**
+     * Compile the accessors of an entity class.
+     *
+     * @param type the entity class.
+     * @param metamodel the metamodel of the persistence unit.
+     * @param objectMapper the mapper reading the values of the basic properties.
+     * @return the accessors.
+     */
+    public static EntityAccessors of(Class<?> type, Metamodel metamodel, ObjectMapper objectMapper) {
+        EntityType<?> entityType = metamodel.entity(type);
+        Map<String, Method> setters = objectMapper
+            .getDeserializationConfig()
+            .introspect(objectMapper.constructType(type))
+            .findProperties()
+            .stream()
+            .filter(BeanPropertyDefinition::hasSetter)
+            .collect(Collectors.toMap(BeanPropertyDefinition::getName, property -> property.getSetter().getAnnotated()));
+        MethodHandle constructor;
+        MethodHandle versionGetter = null;
+        Map<String, Property> properties = new LinkedHashMap<>();
+        Map<String, MethodHandle> fieldSetters = new HashMap<>();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+            for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+                if (!(attribute.getJavaMember() instanceof Field)) {
+                    throw new IllegalStateException("The attribute " + attribute.getName() + " of " + type.getName() + " is not a field");
+                }
+                Field field = (Field) attribute.getJavaMember();
+                fieldSetters.put(attribute.getName(), lookup.unreflectSetter(field).asType(SETTER_TYPE));
+                if (attribute.isId() || !(attribute.isVersion() || setters.containsKey(attribute.getName()))) {
+                    continue;
+                }
+                if (attribute.isVersion()) {
+                    versionGetter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                    continue;
+                }
+                boolean association =
+                    attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ONE_TO_ONE ||
+                    attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE;
+                properties.put(
+                    attribute.getName(),
+                    new Property(
+                        attribute.getName(),
+                        lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                        lookup.unreflect(setters.get(attribute.getName())).asType(SETTER_TYPE),
+                        association ? null : objectMapper.readerFor(objectMapper.constructType(field.getGenericType())),
+                        association ? attribute.getJavaType() : null,
+                        field.getType().isPrimitive()
+                    )
+                );
+            }
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot access the fields of " + type.getName(), e);
+        }
+        if (versionGetter == null) {
+            throw new IllegalStateException("The entity " + type.getName() + " has no version");
+        }
+        return new EntityAccessors(constructor, versionGetter, properties, fieldSetters);
+    }
+
+    /**
+     * @return a new instance of the entity class, which is not managed.
+     */
+    public Object newInstance() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Write a singular attribute of a new instance to its field.
+     *
+     * @param entity the instance, which must not be managed.
+     * @param attribute the name of the singular attribute.
+     * @param value the value.
+     * @throws IllegalArgumentException if the entity has no such singular attribute.
+     */
+    public void setField(Object entity, String attribute, Object value) {
+        MethodHandle setter = fieldSetters.get(attribute);
+        if (setter == null) {
+            throw new IllegalArgumentException("No singular attribute " + attribute);
+        }
+        invokeSetter(setter, entity, value);
+    }
+
+    /**
+     * Read the version of an entity.
+     *
+     * @param entity the entity.
+     * @return the version.
+     */
+    public Object getVersion(Object entity) {
+        return invokeGetter(versionGetter, entity);
+    }
+
+    /**
+     * @return the properties a patch may write, by name, in the order of the metamodel.
+     */
+    public Map<String, Property> getProperties() {
+        return properties;
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object entity) {
+        try {
+            return (Object) getter.invokeExact(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void invokeSetter(MethodHandle setter, Object entity, Object value) {
+        try {
+            setter.invokeExact(entity, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A property a patch may write.
+     */
+    public static final class Property {
+
+        private final String name;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final ObjectReader reader;
+
+        private final Class<?> targetType;
+
+        private final boolean primitive;
+
+        private Property(
+            String name,
+            MethodHandle getter,
+            MethodHandle setter,
+            ObjectReader reader,
+            Class<?> targetType,
+            boolean primitive
+        ) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.reader = reader;
+            this.targetType = targetType;
+            this.primitive = primitive;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the reader of the values of a basic property, or {@code null} for an association.
+         */
+        public ObjectReader getReader() {
+            return reader;
+        }
+
+        /**
+         * @return the entity class an association refers to, or {@code null} for a basic property.
+         */
+        public Class<?> getTargetType() {
+            return targetType;
+        }
+
+        public boolean isAssociation() {
+            return targetType != null;
+        }
+
+        public boolean isPrimitive() {
+            return primitive;
+        }
+
+        public Object get(Object entity) {
+            return invokeGetter(getter, entity);
+        }
+
+        public void set(Object entity, Object value) {
+            invokeSetter(setter, entity, value);
+        }
+    }
+}
@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EtudeRepository extends JpaRepository<Etude, Long> {}
+public interface EtudeRepository extends KeysetRepository<Etude>, VersionedRepository<Etude> {}
@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ExperienceRepository extends JpaRepository<Experience, Long> {}
+public interface ExperienceRepository extends KeysetRepository<Experience>, VersionedRepository<Experience> {}
@@ -0,0 +1,132 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.Adresse;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
+import fr.rif.rh.cvtech.domain.geo.PostalCodeGeocoder;
+import java.util.Arrays;
+import java.util.Objects;
+import org.hibernate.event.spi.AbstractPreDatabaseOperationEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener enriching addresses with the {@link PostalCodeGeocoder}, whichever repository writes them.
+ * <p>
+ * An {@link Adresse} with a known postal code gets the coordinates of its city, unless it has its own, and the name of its
+ * city if it has none; the name it has is otherwise only normalized to the spelling of the dataset. The coordinates are
+ * replaced when the postal code changes and they do not. The city of a {@link Profil} is normalized the same way. The
+ * addresses written before the listener existed are geocoded by
+ * {@link fr.rif.rh.cvtech.config.liquibase.AdresseCoordinatesChange}.
+ * <p>
+ * The values are read from the state written by the statement, and set both in that state and, through the persister, in the
+ * managed entity, since the listener runs once Hibernate has read the state from the entity.
+ */
+public class GeocodingListener implements PreInsertEventListener, PreUpdateEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient PostalCodeGeocoder geocoder;
+
+    public GeocodingListener(PostalCodeGeocoder geocoder) {
+        this.geocoder = geocoder;
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        enrich(new Write(event, event.getState()), null);
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        enrich(new Write(event, event.getState()), event.getOldState());
+        return false;
+    }
+
+    private void enrich(Write write, Object[] oldState) {
+        Class<?> entityType = write.persister.getMappedClass();
+        if (Adresse.class.isAssignableFrom(entityType)) {
+            enrichAdresse(write, oldState);
+        } else if (Profil.class.isAssignableFrom(entityType)) {
+            String city = (String) write.get("city");
+            String normalized = geocoder.normalizeCity(city);
+            if (normalized != null && !normalized.equals(city)) {
+                write.set("city", normalized);
+            }
+        }
+    }
+
+    private void enrichAdresse(Write write, Object[] oldState) {
+        Integer postalCode = (Integer) write.get("codePostale");
+        if (postalCode == null) {
+            return;
+        }
+        Double latitude = (Double) write.get("latitude");
+        Double longitude = (Double) write.get("longitude");
+        boolean located = latitude != null || longitude != null;
+        if (
+            oldState != null &&
+            !Objects.equals(oldState[write.index("codePostale")], postalCode) &&
+            Objects.equals(oldState[write.index("latitude")], latitude) &&
+            Objects.equals(oldState[write.index("longitude")], longitude)
+        ) {
+            located = false;
+        }
+        if (!located) {
+            long coordinates = geocoder.locate(postalCode);
+            if (coordinates != PostalCodeGeocoder.NOT_FOUND) {
+                latitude = PostalCodeGeocoder.latitude(coordinates);
+                longitude = PostalCodeGeocoder.longitude(coordinates);
+                write.set("latitude", latitude);
+                write.set("longitude", longitude);
+                write.set("geohash", GeoHash.of(latitude, longitude));
+            }
+        }
+        String nomVille = (String) write.get("nomVille");
+        String city = nomVille == null || nomVille.isBlank() ? geocoder.city(postalCode) : geocoder.normalizeCity(nomVille);
+        if (city != null && !city.equals(nomVille)) {
+            write.set("nomVille", city);
+        }
+    }
+
+    /**
+     * The state written by a statement, and the managed entity it was read from.
+     */
+    private static final class Write {
+
+        private final EntityPersister persister;
+
+        private final Object[] state;
+
+        private final Object entity;
+
+        Write(AbstractPreDatabaseOperationEvent event, Object[] state) {
+            this.persister = event.getPersister();
+            this.state = state;
+            // Entities are managed under their key before their insert is executed, their IDs being generated by a sequence
+            EventSource session = event.getSession();
+            this.entity = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(event.getId(), persister));
+        }
+
+        int index(String property) {
+            return Arrays.asList(persister.getPropertyNames()).indexOf(property);
+        }
+
+        Object get(String property) {
+            return state[index(property)];
+        }
+
+        void set(String property, Object value) {
+            int index = index(property);
+            state[index] = value;
+            if (entity != null) {
+                persister.setPropertyValue(entity, index, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package fr.rif.rh.cvtech.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository fragment adding keyset pagination on the primary key to the entity repositories.
+ * <p>
+ * The queries are derived for each repository extending this interface. The {@link Pageable} passed to them must be the
+ * first page, sorted on {@code id} in the direction of the seek: the returned {@link Slice} is read with one extra row
+ * to know whether there is a next page, and never runs a count query.
+ *
+ * @param <T> the domain type the repository manages.
+ */
+@NoRepositoryBean
+public interface KeysetRepository<T> extends JpaRepository<T, Long> {
+    Slice<T> findAllBy(Pageable pageable);
+
+    Slice<T> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<T> findByIdLessThan(Long id, Pageable pageable);
+}
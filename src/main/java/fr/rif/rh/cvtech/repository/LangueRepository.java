@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface LangueRepository extends JpaRepository<Langue, Long> {}
+public interface LangueRepository extends KeysetRepository<Langue>, VersionedRepository<Langue> {}
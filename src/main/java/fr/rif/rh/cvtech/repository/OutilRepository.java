@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OutilRepository extends JpaRepository<Outil, Long> {}
+public interface OutilRepository extends KeysetRepository<Outil>, VersionedRepository<Outil> {}
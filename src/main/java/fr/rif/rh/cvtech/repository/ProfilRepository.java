@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProfilRepository extends JpaRepository<Profil, Long> {}
+public interface ProfilRepository extends KeysetRepository<Profil>, VersionedRepository<Profil> {}
@@ -9,4 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProgrammationRepository extends JpaRepository<Programmation, Long> {}
+public interface ProgrammationRepository extends KeysetRepository<Programmation>, VersionedRepository<Programmation> {}
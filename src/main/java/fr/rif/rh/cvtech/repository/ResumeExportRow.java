@@ -0,0 +1,258 @@
+package fr.rif.rh.cvtech.repository;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import fr.rif.rh.cvtech.domain.enumeration.Language;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only projection of a {@link fr.rif.rh.cvtech.domain.Resume} for the bulk exports, with its profile, contact,
+ * experience, study, language, programming language, design skill and address flattened into columns.
+ * <p>
+ * It is built by a constructor expression, so exporting does not fill the persistence context. The title, creation date,
+ * profile and contact columns are named after those of the bulk import, which reads them back; the ID, owner, experience,
+ * study, language, programming language, design skill and address columns are only exported, and ignored by the import. The
+ * portfolio and the reviews are deliberately not exported.
+ */
+// prettier-ignore
+@JsonPropertyOrder({
+    "id", "titre", "dateCreation", "userLogin", "dateNaissance", "profession", "city", "country", "website", "description", "nom", "prenom", "mail",
+    "nomEntreprise", "nomPoste", "dateExperience", "descriptionExperience", "nomEtude", "anneeEtude", "langue",
+    "nomLangage", "tauxDeLangage", "nomDesign", "tauxDeDesign", "adresse", "nomVille", "codePostale"
+})
+public final class ResumeExportRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String titre;
+
+    private final ZonedDateTime dateCreation;
+
+    private final String userLogin;
+
+    private final Instant dateNaissance;
+
+    private final String profession;
+
+    private final String city;
+
+    private final String country;
+
+    private final String website;
+
+    private final String description;
+
+    private final String nom;
+
+    private final String prenom;
+
+    private final String mail;
+
+    private final String nomEntreprise;
+
+    private final String nomPoste;
+
+    private final Instant dateExperience;
+
+    private final String descriptionExperience;
+
+    private final String nomEtude;
+
+    private final Instant anneeEtude;
+
+    private final Language langue;
+
+    private final String nomLangage;
+
+    private final Integer tauxDeLangage;
+
+    private final String nomDesign;
+
+    private final Integer tauxDeDesign;
+
+    private final String adresse;
+
+    private final String nomVille;
+
+    private final Integer codePostale;
+
+    public ResumeExportRow(
+        Long id,
+        String titre,
+        ZonedDateTime dateCreation,
+        String userLogin,
+        Instant dateNaissance,
+        String profession,
+        String city,
+        String country,
+        String website,
+        String description,
+        String nom,
+        String prenom,
+        String mail,
+        String nomEntreprise,
+        String nomPoste,
+        Instant dateExperience,
+        String descriptionExperience,
+        String nomEtude,
+        Instant anneeEtude,
+        Language langue,
+        String nomLangage,
+        Integer tauxDeLangage,
+        String nomDesign,
+        Integer tauxDeDesign,
+        String adresse,
+        String nomVille,
+        Integer codePostale
+    ) {
+        this.id = id;
+        this.titre = titre;
+        this.dateCreation = dateCreation;
+        this.userLogin = userLogin;
+        this.dateNaissance = dateNaissance;
+        this.profession = profession;
+        this.city = city;
+        this.country = country;
+        this.website = website;
+        this.description = description;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.mail = mail;
+        this.nomEntreprise = nomEntreprise;
+        this.nomPoste = nomPoste;
+        this.dateExperience = dateExperience;
+        this.descriptionExperience = descriptionExperience;
+        this.nomEtude = nomEtude;
+        this.anneeEtude = anneeEtude;
+        this.langue = langue;
+        this.nomLangage = nomLangage;
+        this.tauxDeLangage = tauxDeLangage;
+        this.nomDesign = nomDesign;
+        this.tauxDeDesign = tauxDeDesign;
+        this.adresse = adresse;
+        this.nomVille = nomVille;
+        this.codePostale = codePostale;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitre() {
+        return titre;
+    }
+
+    public ZonedDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    public Instant getDateNaissance() {
+        return dateNaissance;
+    }
+
+    public String getProfession() {
+        return profession;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getWebsite() {
+        return website;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public String getMail() {
+        return mail;
+    }
+
+    public String getNomEntreprise() {
+        return nomEntreprise;
+    }
+
+    public String getNomPoste() {
+        return nomPoste;
+    }
+
+    public Instant getDateExperience() {
+        return dateExperience;
+    }
+
+    public String getDescriptionExperience() {
+        return descriptionExperience;
+    }
+
+    public String getNomEtude() {
+        return nomEtude;
+    }
+
+    public Instant getAnneeEtude() {
+        return anneeEtude;
+    }
+
+    public Language getLangue() {
+        return langue;
+    }
+
+    public String getNomLangage() {
+        return nomLangage;
+    }
+
+    public Integer getTauxDeLangage() {
+        return tauxDeLangage;
+    }
+
+    public String getNomDesign() {
+        return nomDesign;
+    }
+
+    public Integer getTauxDeDesign() {
+        return tauxDeDesign;
+    }
+
+    public String getAdresse() {
+        return adresse;
+    }
+
+    public String getNomVille() {
+        return nomVille;
+    }
+
+    public Integer getCodePostale() {
+        return codePostale;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResumeExportRow{" +
+            "id=" + getId() +
+            ", titre='" + getTitre() + "'" +
+            ", dateCreation='" + getDateCreation() + "'" +
+            ", userLogin='" + getUserLogin() + "'" +
+            "}";
+    }
+}
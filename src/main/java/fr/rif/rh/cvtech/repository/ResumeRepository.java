@@ -1,16 +1,62 @@
 package fr.rif.rh.cvtech.repository;
 
 import fr.rif.rh.cvtech.domain.Resume;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the Resume entity.
+ * <p>
+ * The keyset pages of {@link ResumeRepositoryWithEntityGraph} and of {@link ResumeSummary} seek on {@code (dateCreation, id)},
+ * which is backed by the {@code idx_resume__date_creation_id} index, and by the {@code idx_resume_summary__date_creation_id}
+ * index for the summaries: they are read from the {@link fr.rif.rh.cvtech.domain.ResumeSummaryEntry} read model only. The
+ * {@link Pageable} passed to the summary queries must be the first page, sorted on these two properties in the direction of
+ * the seek.
+ * <p>
+ * The {@link ResumeExportRow} stream must be consumed within a transaction and closed: rows are read from the JDBC result set
+ * as the stream is, {@value #EXPORT_FETCH_SIZE} at a time.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ResumeRepository extends JpaRepository<Resume, Long> {
+public interface ResumeRepository extends ResumeRepositoryWithEntityGraph, ResumeSearchRepository, VersionedRepository<Resume> {
     @Query("select resume from Resume resume where resume.user.login = ?#{principal.username}")
     List<Resume> findByUserIsCurrentUser();
+
+    String SUMMARY_QUERY =
+        "select new fr.rif.rh.cvtech.repository.ResumeSummary(summary.id, summary.titre, summary.dateCreation," +
+        " summary.profession, summary.city, summary.country, summary.userLogin, summary.nom, summary.prenom, summary.nomPoste," +
+        " summary.nomEntreprise, summary.nomEtude, summary.langue)" +
+        " from ResumeSummaryEntry summary";
+
+    @Query(SUMMARY_QUERY)
+    List<ResumeSummary> findFirstSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_QUERY + " where summary.dateCreation > :dateCreation or (summary.dateCreation = :dateCreation and summary.id > :id)")
+    List<ResumeSummary> findSummaryPageAfter(@Param("dateCreation") ZonedDateTime dateCreation, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_QUERY + " where summary.dateCreation < :dateCreation or (summary.dateCreation = :dateCreation and summary.id < :id)")
+    List<ResumeSummary> findSummaryPageBefore(@Param("dateCreation") ZonedDateTime dateCreation, @Param("id") Long id, Pageable pageable);
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(
+        "select new fr.rif.rh.cvtech.repository.ResumeExportRow(resume.id, resume.titre, resume.dateCreation, user.login," +
+        " profil.dateNaissance, profil.profession, profil.city, profil.country, profil.website, profil.description," +
+        " contact.nom, contact.prenom, contact.mail," +
+        " experience.nomEntreprise, experience.nomPoste, experience.dateExperience, experience.descriptionExperience," +
+        " etude.nomEtude, etude.anneeEtude, langue.langue, programmation.nomLangage, programmation.tauxDeLangage," +
+        " design.nomDesign, design.tauxDeDesign, adresse.adresse, adresse.nomVille, adresse.codePostale)" +
+        " from Resume resume left join resume.profil profil left join resume.contact contact left join resume.user user" +
+        " left join resume.experience experience left join resume.etude etude left join resume.langue langue" +
+        " left join resume.programmation programmation left join resume.design design left join resume.adresse adresse" +
+        " order by resume.id"
+    )
+    Stream<ResumeExportRow> streamAllExportRows();
 }
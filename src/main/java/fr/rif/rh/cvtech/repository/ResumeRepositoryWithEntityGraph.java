@@ -0,0 +1,64 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.Resume;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Repository fragment loading resumes with a runtime entity graph, so that the requested parts are fetched in the same
+ * statement as the resume and the other ones are left unloaded.
+ * <p>
+ * Parts are named after the associations of {@link Resume}, optionally followed by one association of the part:
+ * {@code profil}, {@code experience.outil}, {@code etude.adresseEtude}...
+ * <p>
+ * The versions of a resume with its parts list the version of the resume, then the version of each part in the order the parts
+ * were given, a nested part following its parent, and {@code null} for a part the resume does not have. They change whenever
+ * the resume or one of the given parts is updated.
+ */
+public interface ResumeRepositoryWithEntityGraph {
+    /**
+     * Get one resume with the given parts.
+     *
+     * @param id the id of the resume.
+     * @param include the parts to fetch.
+     * @return the resume, if it exists.
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException if a part is not an association of the resume.
+     */
+    Optional<Resume> findOneWithParts(Long id, Collection<String> include);
+
+    /**
+     * Get a keyset page of resumes ordered by {@code (dateCreation, id)}, with the given parts.
+     *
+     * @param dateCreation the creation date of the last resume of the previous page, or {@code null} for the first page.
+     * @param id the id of the last resume of the previous page, or {@code null} for the first page.
+     * @param direction the direction of the seek.
+     * @param limit the maximum number of resumes to return.
+     * @param include the parts to fetch.
+     * @return the resumes.
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException if a part is not an association of the resume.
+     */
+    List<Resume> findKeysetPageWithParts(ZonedDateTime dateCreation, Long id, Sort.Direction direction, int limit, Collection<String> include);
+
+    /**
+     * Get the versions of one resume with the given parts, without loading them.
+     *
+     * @param id the id of the resume.
+     * @param include the parts to read the versions of.
+     * @return the versions, if the resume exists.
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException if a part is not an association of the resume.
+     */
+    Optional<List<Long>> findVersionsWithParts(Long id, Collection<String> include);
+
+    /**
+     * Get the versions of a loaded resume with the given parts.
+     *
+     * @param resume the resume, loaded with the given parts.
+     * @param include the parts to read the versions of.
+     * @return the versions.
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException if a part is not an association of the resume.
+     */
+    List<Long> getVersionsWithParts(Resume resume, Collection<String> include);
+}
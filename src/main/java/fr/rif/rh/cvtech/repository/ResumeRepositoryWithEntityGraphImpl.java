@@ -0,0 +1,184 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.Resume;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Utility repository to load resumes with a dynamic fetch graph, see {@link ResumeRepositoryWithEntityGraph}.
+ */
+public class ResumeRepositoryWithEntityGraphImpl implements ResumeRepositoryWithEntityGraph {
+
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Resume> findOneWithParts(Long id, Collection<String> include) {
+        // A query rather than EntityManager#find, which would serve the resume from the second-level cache and ignore the graph
+        return entityManager
+            .createQuery("select resume from Resume resume where resume.id = :id", Resume.class)
+            .setParameter("id", id)
+            .setHint(FETCH_GRAPH_HINT, entityGraph(include))
+            .getResultStream()
+            .findFirst();
+    }
+
+    @Override
+    public List<Resume> findKeysetPageWithParts(
+        ZonedDateTime dateCreation,
+        Long id,
+        Sort.Direction direction,
+        int limit,
+        Collection<String> include
+    ) {
+        String comparison = direction.isAscending() ? ">" : "<";
+        String order = direction.isAscending() ? "asc" : "desc";
+        StringBuilder jpql = new StringBuilder("select resume from Resume resume");
+        if (dateCreation != null) {
+            jpql
+                .append(" where resume.dateCreation ")
+                .append(comparison)
+                .append(" :dateCreation or (resume.dateCreation = :dateCreation and resume.id ")
+                .append(comparison)
+                .append(" :id)");
+        }
+        jpql.append(" order by resume.dateCreation ").append(order).append(", resume.id ").append(order);
+
+        TypedQuery<Resume> query = entityManager
+            .createQuery(jpql.toString(), Resume.class)
+            .setHint(FETCH_GRAPH_HINT, entityGraph(include))
+            .setMaxResults(limit);
+        if (dateCreation != null) {
+            query.setParameter("dateCreation", dateCreation).setParameter("id", id);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Optional<List<Long>> findVersionsWithParts(Long id, Collection<String> include) {
+        List<String> paths = partPaths(include);
+        Map<String, String> aliases = new LinkedHashMap<>();
+        StringBuilder select = new StringBuilder("select resume.version");
+        StringBuilder from = new StringBuilder(" from Resume resume");
+        for (String path : paths) {
+            int dot = path.lastIndexOf('.');
+            String parent = dot < 0 ? "resume" : aliases.get(path.substring(0, dot));
+            String alias = "part" + aliases.size();
+            aliases.put(path, alias);
+            select.append(", ").append(alias).append(".version");
+            from.append(" left join ").append(parent).append('.').append(path.substring(dot + 1)).append(' ').append(alias);
+        }
+        return entityManager
+            .createQuery(select.append(from).append(" where resume.id = :id").toString(), Tuple.class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .map(tuple -> {
+                List<Long> versions = new ArrayList<>(tuple.getElements().size());
+                for (int i = 0; i < tuple.getElements().size(); i++) {
+                    versions.add(tuple.get(i, Long.class));
+                }
+                return versions;
+            });
+    }
+
+    @Override
+    public List<Long> getVersionsWithParts(Resume resume, Collection<String> include) {
+        List<String> paths = partPaths(include);
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Map<String, Object> parts = new LinkedHashMap<>();
+        List<Long> versions = new ArrayList<>(paths.size() + 1);
+        versions.add(resume.getVersion());
+        for (String path : paths) {
+            int dot = path.lastIndexOf('.');
+            Object parent = dot < 0 ? resume : parts.get(path.substring(0, dot));
+            Object part = null;
+            Long version = null;
+            if (parent != null) {
+                part = Hibernate.unproxy(session.getEntityPersister(null, parent).getPropertyValue(parent, path.substring(dot + 1)));
+            }
+            if (part != null) {
+                EntityPersister persister = session.getEntityPersister(null, part);
+                version = (Long) persister.getVersion(part);
+            }
+            parts.put(path, part);
+            versions.add(version);
+        }
+        return versions;
+    }
+
+    /**
+     * Validate the parts, and list their paths with the path of the parent of each nested part before it.
+     */
+    private List<String> partPaths(Collection<String> include) {
+        ManagedType<Resume> resumeType = entityManager.getMetamodel().managedType(Resume.class);
+        Set<String> paths = new LinkedHashSet<>();
+        for (String path : include) {
+            int dot = path.indexOf('.');
+            String part = dot < 0 ? path : path.substring(0, dot);
+            Attribute<? super Resume, ?> attribute = association(resumeType, part);
+            paths.add(part);
+            if (dot >= 0) {
+                association(entityManager.getMetamodel().managedType(attribute.getJavaType()), path.substring(dot + 1));
+                paths.add(path);
+            }
+        }
+        return new ArrayList<>(paths);
+    }
+
+    private EntityGraph<Resume> entityGraph(Collection<String> include) {
+        ManagedType<Resume> resumeType = entityManager.getMetamodel().managedType(Resume.class);
+        Map<String, Set<String>> parts = new LinkedHashMap<>();
+        for (String path : include) {
+            int dot = path.indexOf('.');
+            String part = dot < 0 ? path : path.substring(0, dot);
+            Attribute<? super Resume, ?> attribute = association(resumeType, part);
+            Set<String> nestedParts = parts.computeIfAbsent(part, name -> new LinkedHashSet<>());
+            if (dot >= 0) {
+                String nestedPart = path.substring(dot + 1);
+                association(entityManager.getMetamodel().managedType(attribute.getJavaType()), nestedPart);
+                nestedParts.add(nestedPart);
+            }
+        }
+
+        EntityGraph<Resume> graph = entityManager.createEntityGraph(Resume.class);
+        parts.forEach((part, nestedParts) -> {
+            if (nestedParts.isEmpty()) {
+                graph.addAttributeNodes(part);
+            } else {
+                Subgraph<?> subgraph = graph.addSubgraph(part);
+                nestedParts.forEach(subgraph::addAttributeNodes);
+            }
+        });
+        return graph;
+    }
+
+    private static <X> Attribute<? super X, ?> association(ManagedType<X> type, String name) {
+        Attribute<? super X, ?> attribute = type.getAttribute(name);
+        if (!attribute.isAssociation()) {
+            throw new IllegalArgumentException(name + " is not an association of " + type.getJavaType().getSimpleName());
+        }
+        return attribute;
+    }
+}
@@ -0,0 +1,288 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Design;
+import fr.rif.rh.cvtech.domain.Etude;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Langue;
+import fr.rif.rh.cvtech.domain.Outil;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Programmation;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.domain.User;
+import fr.rif.rh.cvtech.repository.search.InMemoryResumeSearchIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeRowIndex;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener keeping the {@code resume.search_text} column and the {@code resume_summary} read model current, whichever
+ * repository writes the resume or one of its searchable or listed parts.
+ * <p>
+ * The IDs of the written entities are collected while a session flushes, and at the end of the flush the search text of the
+ * affected resumes is recomputed by one SQL statement per entity type. The column is not mapped by {@link Resume}: it is only
+ * read by the search queries of {@link ResumeSearchRepositoryImpl}. The {@link fr.rif.rh.cvtech.domain.ResumeSummaryEntry}
+ * rows of the affected resumes are replaced the same way, and those of the deleted resumes are deleted, so the read model
+ * commits or rolls back with the resumes.
+ * <p>
+ * When the {@link InMemoryResumeSearchIndex} is enabled, the recomputed search text is read back in the same transaction, and
+ * the in-memory index is updated with it, and with the deleted resumes, once the transaction commits. So is each enabled
+ * {@link ResumeRowIndex}, with the rows of the affected resumes.
+ */
+public class ResumeSearchIndexer
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener, FlushEventListener, AutoFlushEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_IDS_PER_STATEMENT = 1000;
+
+    private static final String UPDATE_SEARCH_TEXT =
+        "update resume set search_text = concat_ws(' ', titre," +
+        " (select concat_ws(' ', e.nom_poste, e.nom_entreprise, e.description_experience, o.nom_outil)" +
+        " from experience e left join outil o on o.id = e.outil_id where e.id = resume.experience_id)," +
+        " (select concat_ws(' ', p.profession, p.description) from profil p where p.id = resume.profil_id)," +
+        " (select et.nom_etude from etude et where et.id = resume.etude_id))";
+
+    private static final String SELECT_SEARCH_TEXT = "select id, search_text from resume";
+
+    /**
+     * The resumes to update when an entity of a given type is written, as a condition on the IDs of the written entities.
+     */
+    private static final Map<Class<?>, String> AFFECTED_RESUMES = Map.of(
+        Resume.class,
+        "id in (%s)",
+        Experience.class,
+        "experience_id in (%s)",
+        Profil.class,
+        "profil_id in (%s)",
+        Etude.class,
+        "etude_id in (%s)",
+        Outil.class,
+        "experience_id in (select e.id from experience e where e.outil_id in (%s))",
+        Langue.class,
+        "langue_id in (%s)",
+        Programmation.class,
+        "programmation_id in (%s)",
+        Design.class,
+        "design_id in (%s)",
+        Contact.class,
+        "contact_id in (%s)",
+        User.class,
+        "user_id in (%s)"
+    );
+
+    /**
+     * The types of the entities whose fields are copied to {@code resume_summary}.
+     */
+    private static final Set<Class<?>> SUMMARY_SOURCES = Set.of(
+        Resume.class,
+        User.class,
+        Profil.class,
+        Contact.class,
+        Experience.class,
+        Etude.class,
+        Langue.class
+    );
+
+    private static final String DELETE_SUMMARIES = ResumeSummaryEntryRepository.DELETE_SUMMARIES + " where resume_id in ";
+
+    private final transient Map<EventSource, Map<Class<?>, Set<Serializable>>> pending = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final transient Map<EventSource, Set<Long>> pendingDeletions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final transient InMemoryResumeSearchIndex inMemoryIndex;
+
+    private final transient List<ResumeRowIndex<?, ?>> rowIndexes;
+
+    public ResumeSearchIndexer(InMemoryResumeSearchIndex inMemoryIndex, List<ResumeRowIndex<?, ?>> rowIndexes) {
+        this.inMemoryIndex = inMemoryIndex;
+        this.rowIndexes = rowIndexes;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueue(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueue(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Resume) {
+            pendingDeletions.computeIfAbsent(event.getSession(), key -> new LinkedHashSet<>()).add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        reindex(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        reindex(event.getSession());
+    }
+
+    private void enqueue(EventSource session, Object entity, Serializable id) {
+        Class<?> type = entity.getClass();
+        if (AFFECTED_RESUMES.containsKey(type)) {
+            pending.computeIfAbsent(session, key -> new LinkedHashMap<>()).computeIfAbsent(type, key -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    private void reindex(EventSource session) {
+        Map<Class<?>, Set<Serializable>> written = pending.remove(session);
+        Set<Long> deleted = pendingDeletions.remove(session);
+        if (written != null) {
+            Map<Long, String> searchTexts = new HashMap<>();
+            List<ResumeRowIndex<?, ?>.Rows> rows = new ArrayList<>();
+            for (ResumeRowIndex<?, ?> rowIndex : rowIndexes) {
+                if (rowIndex.isEnabled()) {
+                    rows.add(rowIndex.newRows());
+                }
+            }
+            session.doWork(connection -> {
+                for (Map.Entry<Class<?>, Set<Serializable>> entry : written.entrySet()) {
+                    List<Serializable> ids = new ArrayList<>(entry.getValue());
+                    for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                        List<Serializable> batch = ids.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, ids.size()));
+                        String where = " where " + String.format(AFFECTED_RESUMES.get(entry.getKey()), placeholders(batch));
+                        try (PreparedStatement statement = prepare(connection, UPDATE_SEARCH_TEXT + where, batch)) {
+                            statement.executeUpdate();
+                        }
+                        String affected = " where resume.id in (select id from resume" + where + ")";
+                        if (SUMMARY_SOURCES.contains(entry.getKey())) {
+                            replaceSummaries(connection, where, affected, batch);
+                        }
+                        if (inMemoryIndex.isEnabled()) {
+                            readSearchTexts(connection, SELECT_SEARCH_TEXT + where, batch, searchTexts);
+                        }
+                        for (ResumeRowIndex<?, ?>.Rows indexRows : rows) {
+                            readRows(connection, indexRows.getSelect() + affected, batch, indexRows);
+                        }
+                    }
+                }
+            });
+            if (!searchTexts.isEmpty()) {
+                afterCommit(session, () -> inMemoryIndex.update(searchTexts));
+            }
+            for (ResumeRowIndex<?, ?>.Rows indexRows : rows) {
+                if (!indexRows.isEmpty()) {
+                    afterCommit(session, indexRows::apply);
+                }
+            }
+        }
+        if (deleted != null) {
+            List<Serializable> ids = new ArrayList<>(deleted);
+            session.doWork(connection -> {
+                for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                    List<Serializable> batch = ids.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, ids.size()));
+                    try (PreparedStatement statement = prepare(connection, DELETE_SUMMARIES + "(" + placeholders(batch) + ")", batch)) {
+                        statement.executeUpdate();
+                    }
+                }
+            });
+        }
+        if (deleted != null && isAnyIndexEnabled()) {
+            afterCommit(
+                session,
+                () -> {
+                    if (inMemoryIndex.isEnabled()) {
+                        inMemoryIndex.remove(deleted);
+                    }
+                    rowIndexes.stream().filter(ResumeRowIndex::isEnabled).forEach(rowIndex -> rowIndex.remove(deleted));
+                }
+            );
+        }
+    }
+
+    private boolean isAnyIndexEnabled() {
+        return inMemoryIndex.isEnabled() || rowIndexes.stream().anyMatch(ResumeRowIndex::isEnabled);
+    }
+
+    private static String placeholders(List<Serializable> ids) {
+        return String.join(",", Collections.nCopies(ids.size(), "?"));
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, List<Serializable> ids) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < ids.size(); i++) {
+            statement.setObject(i + 1, ids.get(i));
+        }
+        return statement;
+    }
+
+    private static void replaceSummaries(Connection connection, String where, String affected, List<Serializable> ids)
+        throws SQLException {
+        String deleteSql = DELETE_SUMMARIES + "(select id from resume" + where + ")";
+        try (PreparedStatement statement = prepare(connection, deleteSql, ids)) {
+            statement.executeUpdate();
+        }
+        try (PreparedStatement statement = prepare(connection, ResumeSummaryEntryRepository.INSERT_SUMMARIES + affected, ids)) {
+            statement.executeUpdate();
+        }
+    }
+
+    private static void readSearchTexts(Connection connection, String sql, List<Serializable> ids, Map<Long, String> searchTexts)
+        throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, ids); ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                searchTexts.put(resultSet.getLong(1), resultSet.getString(2));
+            }
+        }
+    }
+
+    private static void readRows(Connection connection, String sql, List<Serializable> ids, ResumeRowIndex<?, ?>.Rows rows)
+        throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, ids); ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(resultSet);
+            }
+        }
+    }
+
+    private static void afterCommit(EventSource session, Runnable action) {
+        session
+            .getActionQueue()
+            .registerProcess(
+                (AfterTransactionCompletionProcess) (success, completedSession) -> {
+                    if (success) {
+                        action.run();
+                    }
+                }
+            );
+    }
+}
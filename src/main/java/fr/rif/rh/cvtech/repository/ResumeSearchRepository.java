@@ -0,0 +1,56 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.Resume;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Repository fragment searching resumes by keywords, in the text of the resume and of its experience, tool, profile and
+ * studies, as maintained by {@link ResumeSearchIndexer}.
+ * <p>
+ * On PostgreSQL the search is a full-text one, on the GIN indexed {@code tsvector} of the requested language, and results are
+ * ranked by relevance. On other databases, used for development and tests, it falls back to matching every keyword as a
+ * substring, most recent resumes first.
+ * <p>
+ * When the {@link fr.rif.rh.cvtech.repository.search.InMemoryResumeSearchIndex} is enabled and built, the queries without
+ * quoted phrases are served from it on every database instead: resumes matching every word of an alternative, and none of
+ * its words prefixed by {@code -}, are returned most recently written first. The in-memory index does not stem words, and
+ * ignores the language.
+ */
+public interface ResumeSearchRepository {
+    /**
+     * Search a page of resumes.
+     *
+     * @param query the keywords, in PostgreSQL web search syntax: quoted phrases, {@code or}, and {@code -} to exclude a word.
+     * @param language the language of the keywords, {@code fr} or {@code en}; keywords in any other language are searched as French.
+     * @param pageable the page to get, its sort is ignored.
+     * @return the page of resumes, most relevant first, with their owner.
+     */
+    Page<Resume> search(String query, String language, Pageable pageable);
+
+    /**
+     * Search the IDs of all the resumes matching keywords, in no particular order.
+     *
+     * @param query the keywords, see {@link #search}.
+     * @param language the language of the keywords, see {@link #search}.
+     * @return the IDs of the matching resumes.
+     */
+    List<Long> searchIds(String query, String language);
+
+    /**
+     * Search a page of resumes located within a radius, nearest first.
+     * <p>
+     * A resume is located at the coordinates of its contact, or else of its address. Candidates are found by the geohash
+     * prefixes of the cells covering the radius, on the indexed geohash columns, then filtered by their exact distance.
+     *
+     * @param query the keywords the resumes must also match, see {@link #search}, or {@code null} to match every resume.
+     * @param language the language of the keywords, see {@link #search}.
+     * @param latitude the latitude of the center, in degrees.
+     * @param longitude the longitude of the center, in degrees.
+     * @param radiusKm the radius, in kilometers.
+     * @param pageable the page to get, its sort is ignored.
+     * @return the page of resumes, nearest first, with their owner.
+     */
+    Page<Resume> searchNear(String query, String language, double latitude, double longitude, double radiusKm, Pageable pageable);
+}
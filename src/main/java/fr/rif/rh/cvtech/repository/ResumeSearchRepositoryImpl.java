@@ -0,0 +1,258 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
+import fr.rif.rh.cvtech.repository.search.InMemoryResumeSearchIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeInvertedIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Utility repository to search resumes, see {@link ResumeSearchRepository}.
+ */
+public class ResumeSearchRepositoryImpl implements ResumeSearchRepository {
+
+    private static final String DEFAULT_LANGUAGE = "fr";
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    /**
+     * Text search configuration of each language of the application.
+     */
+    private static final Map<String, String> TEXT_SEARCH_CONFIGURATIONS = Map.of("fr", "french", "en", "english");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InMemoryResumeSearchIndex inMemoryIndex;
+
+    private Boolean fullText;
+
+    @Override
+    public Page<Resume> search(String query, String language, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+        Optional<ResumeInvertedIndex.Hits> hits = inMemoryIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.isPresent()) {
+            return load(Arrays.stream(hits.get().getResumeIds()).boxed().collect(Collectors.toList()), hits.get().getTotal(), pageable);
+        }
+        return searchDatabase(query, language, pageable);
+    }
+
+    @Override
+    public List<Long> searchIds(String query, String language) {
+        Optional<ResumeInvertedIndex.Hits> hits = inMemoryIndex.search(query, 0, Integer.MAX_VALUE);
+        if (hits.isPresent()) {
+            return Arrays.stream(hits.get().getResumeIds()).boxed().collect(Collectors.toList());
+        }
+        KeywordCondition condition = keywordCondition(query, language);
+        Query ids = entityManager.createNativeQuery("select resume.id from resume where " + condition.sql);
+        condition.bind(ids);
+        @SuppressWarnings("unchecked")
+        List<Number> resultList = ids.getResultList();
+        return resultList.stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<Resume> searchNear(String query, String language, double latitude, double longitude, double radiusKm, Pageable pageable) {
+        List<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm);
+        Query candidates = entityManager.createNativeQuery(
+            "select resume.id, contact.latitude, contact.longitude from resume join contact on contact.id = resume.contact_id" +
+            " where " +
+            prefixCondition("contact.geohash", cells) +
+            " union all" +
+            " select resume.id, adresse.latitude, adresse.longitude from resume join adresse on adresse.id = resume.adresse_id" +
+            " left join contact on contact.id = resume.contact_id" +
+            " where contact.geohash is null and " +
+            prefixCondition("adresse.geohash", cells)
+        );
+        for (int i = 0; i < cells.size(); i++) {
+            candidates.setParameter("cell" + i, cells.get(i) + "%");
+        }
+        List<LocatedResume> located = new ArrayList<>();
+        for (Object row : candidates.getResultList()) {
+            Object[] columns = (Object[]) row;
+            double distance = GeoHash.distanceKm(
+                latitude,
+                longitude,
+                ((Number) columns[1]).doubleValue(),
+                ((Number) columns[2]).doubleValue()
+            );
+            if (distance <= radiusKm) {
+                located.add(new LocatedResume(((Number) columns[0]).longValue(), distance));
+            }
+        }
+        if (query != null && !query.isBlank() && !located.isEmpty()) {
+            Set<Long> matching = matching(query, language, located.stream().map(resume -> resume.id).collect(Collectors.toList()));
+            located.removeIf(resume -> !matching.contains(resume.id));
+        }
+        located.sort(Comparator.comparingDouble((LocatedResume resume) -> resume.distance).thenComparingLong(resume -> resume.id));
+        List<Long> pageIds = located
+            .stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .map(resume -> resume.id)
+            .collect(Collectors.toList());
+        return load(pageIds, located.size(), pageable);
+    }
+
+    private Page<Resume> searchDatabase(String query, String language, Pageable pageable) {
+        KeywordCondition condition = keywordCondition(query, language);
+        Query ids = entityManager.createNativeQuery("select resume.id from resume where " + condition.sql + " order by " + condition.order);
+        Query count = entityManager.createNativeQuery("select count(*) from resume where " + condition.sql);
+        condition.bind(ids);
+        condition.bind(count);
+        return page(ids, count, pageable);
+    }
+
+    /**
+     * @return the IDs, among the given ones, of the resumes matching the keywords.
+     */
+    private Set<Long> matching(String query, String language, List<Long> resumeIds) {
+        Optional<ResumeInvertedIndex.Hits> hits = inMemoryIndex.search(query, 0, Integer.MAX_VALUE);
+        if (hits.isPresent()) {
+            return Arrays.stream(hits.get().getResumeIds()).boxed().collect(Collectors.toSet());
+        }
+        KeywordCondition condition = keywordCondition(query, language);
+        Set<Long> matching = new HashSet<>();
+        for (int from = 0; from < resumeIds.size(); from += MAX_IDS_PER_QUERY) {
+            Query ids = entityManager.createNativeQuery("select resume.id from resume where " + condition.sql + " and resume.id in (:ids)");
+            condition.bind(ids);
+            ids.setParameter("ids", resumeIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, resumeIds.size())));
+            for (Object id : ids.getResultList()) {
+                matching.add(((Number) id).longValue());
+            }
+        }
+        return matching;
+    }
+
+    private KeywordCondition keywordCondition(String query, String language) {
+        return isFullText() ? fullTextCondition(query, language) : substringsCondition(query);
+    }
+
+    private KeywordCondition fullTextCondition(String query, String language) {
+        String lang = TEXT_SEARCH_CONFIGURATIONS.containsKey(language) ? language : DEFAULT_LANGUAGE;
+        String vector = "resume.search_vector_" + lang;
+        String tsQuery = "websearch_to_tsquery(cast(:configuration as regconfig), :query)";
+        KeywordCondition condition = new KeywordCondition(
+            vector + " @@ " + tsQuery,
+            "ts_rank(" + vector + ", " + tsQuery + ") desc, resume.id"
+        );
+        condition.parameters.put("configuration", TEXT_SEARCH_CONFIGURATIONS.get(lang));
+        condition.parameters.put("query", query);
+        return condition;
+    }
+
+    private KeywordCondition substringsCondition(String query) {
+        List<String> keywords = Arrays.asList(query.toLowerCase(Locale.ROOT).trim().split("\\s+"));
+        StringBuilder match = new StringBuilder("1 = 1");
+        for (int i = 0; i < keywords.size(); i++) {
+            match.append(" and lower(resume.search_text) like :keyword").append(i).append(" escape '\\'");
+        }
+        KeywordCondition condition = new KeywordCondition(match.toString(), "resume.date_creation desc, resume.id desc");
+        for (int i = 0; i < keywords.size(); i++) {
+            String pattern = "%" + keywords.get(i).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            condition.parameters.put("keyword" + i, pattern);
+        }
+        return condition;
+    }
+
+    /**
+     * @return the condition on a geohash column to start with one of the cells, or to be set if there are none.
+     */
+    private static String prefixCondition(String column, List<String> cells) {
+        if (cells.isEmpty()) {
+            return column + " is not null";
+        }
+        StringBuilder condition = new StringBuilder("(");
+        for (int i = 0; i < cells.size(); i++) {
+            condition.append(i == 0 ? "" : " or ").append(column).append(" like :cell").append(i);
+        }
+        return condition.append(")").toString();
+    }
+
+    private Page<Resume> page(Query ids, Query count, Pageable pageable) {
+        @SuppressWarnings("unchecked")
+        List<Long> pageIds = ((List<Number>) ids
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList()).stream()
+            .map(Number::longValue)
+            .collect(Collectors.toList());
+        return load(pageIds, ((Number) count.getSingleResult()).longValue(), pageable);
+    }
+
+    private Page<Resume> load(List<Long> pageIds, long total, Pageable pageable) {
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        List<Resume> resumes = entityManager
+            .createQuery("select resume from Resume resume left join fetch resume.user where resume.id in :ids", Resume.class)
+            .setParameter("ids", pageIds)
+            .getResultList();
+        resumes.sort(Comparator.comparingInt(resume -> pageIds.indexOf(resume.getId())));
+        return new PageImpl<>(resumes, pageable, total);
+    }
+
+    private boolean isFullText() {
+        if (fullText == null) {
+            fullText =
+                entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect() instanceof
+                PostgreSQL81Dialect;
+        }
+        return fullText;
+    }
+
+    /**
+     * A condition of a native query on the {@code resume} table matching keywords, with its parameters and the order of
+     * relevance of the matching resumes.
+     */
+    private static final class KeywordCondition {
+
+        private final String sql;
+
+        private final String order;
+
+        private final Map<String, Object> parameters = new HashMap<>();
+
+        private KeywordCondition(String sql, String order) {
+            this.sql = sql;
+            this.order = order;
+        }
+
+        void bind(Query query) {
+            parameters.forEach(query::setParameter);
+        }
+    }
+
+    private static final class LocatedResume {
+
+        private final long id;
+
+        private final double distance;
+
+        private LocatedResume(long id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.enumeration.Language;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only projection of a {@link fr.rif.rh.cvtech.domain.Resume} for the recruiter lists.
+ * <p>
+ * It is built by a constructor expression selecting only the displayed columns of the
+ * {@link fr.rif.rh.cvtech.domain.ResumeSummaryEntry} read model, so neither the resume nor its parts are joined, hydrated as
+ * entities or put in the second-level cache.
+ */
+public final class ResumeSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String titre;
+
+    private final ZonedDateTime dateCreation;
+
+    private final String profession;
+
+    private final String city;
+
+    private final String country;
+
+    private final String userLogin;
+
+    private final String nom;
+
+    private final String prenom;
+
+    private final String nomPoste;
+
+    private final String nomEntreprise;
+
+    private final String nomEtude;
+
+    private final Language langue;
+
+    public ResumeSummary(
+        Long id,
+        String titre,
+        ZonedDateTime dateCreation,
+        String profession,
+        String city,
+        String country,
+        String userLogin,
+        String nom,
+        String prenom,
+        String nomPoste,
+        String nomEntreprise,
+        String nomEtude,
+        Language langue
+    ) {
+        this.id = id;
+        this.titre = titre;
+        this.dateCreation = dateCreation;
+        this.profession = profession;
+        this.city = city;
+        this.country = country;
+        this.userLogin = userLogin;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.nomPoste = nomPoste;
+        this.nomEntreprise = nomEntreprise;
+        this.nomEtude = nomEtude;
+        this.langue = langue;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitre() {
+        return titre;
+    }
+
+    public ZonedDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public String getProfession() {
+        return profession;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public String getNomPoste() {
+        return nomPoste;
+    }
+
+    public String getNomEntreprise() {
+        return nomEntreprise;
+    }
+
+    public String getNomEtude() {
+        return nomEtude;
+    }
+
+    public Language getLangue() {
+        return langue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResumeSummary{" +
+            "id=" + getId() +
+            ", titre='" + getTitre() + "'" +
+            ", dateCreation='" + getDateCreation() + "'" +
+            ", profession='" + getProfession() + "'" +
+            ", city='" + getCity() + "'" +
+            ", country='" + getCountry() + "'" +
+            ", userLogin='" + getUserLogin() + "'" +
+            ", nom='" + getNom() + "'" +
+            ", prenom='" + getPrenom() + "'" +
+            ", nomPoste='" + getNomPoste() + "'" +
+            ", nomEntreprise='" + getNomEntreprise() + "'" +
+            ", nomEtude='" + getNomEtude() + "'" +
+            ", langue='" + getLangue() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,45 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.domain.ResumeSummaryEntry;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the ResumeSummaryEntry entity.
+ * <p>
+ * The rows are computed from the resume tables by {@link #SELECT_SUMMARIES}: {@link ResumeSearchIndexer} replaces the rows of
+ * the written resumes as their transaction flushes, and {@link #deleteAllSummaries} then {@link #insertAllSummaries} rebuild
+ * the whole table, for example after resumes were written by SQL.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ResumeSummaryEntryRepository extends JpaRepository<ResumeSummaryEntry, Long> {
+    /**
+     * The {@code resume_summary} columns of each resume, to complete with a condition on the resume.
+     */
+    String SELECT_SUMMARIES =
+        "select resume.id, resume.titre, resume.date_creation, jhi_user.login, profil.profession, profil.city, profil.country," +
+        " contact.nom, contact.prenom, experience.nom_poste, experience.nom_entreprise, etude.nom_etude, langue.langue" +
+        " from resume" +
+        " left join jhi_user on jhi_user.id = resume.user_id" +
+        " left join profil on profil.id = resume.profil_id" +
+        " left join contact on contact.id = resume.contact_id" +
+        " left join experience on experience.id = resume.experience_id" +
+        " left join etude on etude.id = resume.etude_id" +
+        " left join langue on langue.id = resume.langue_id";
+
+    String INSERT_SUMMARIES =
+        "insert into resume_summary (resume_id, titre, date_creation, user_login, profession, city, country," +
+        " nom, prenom, nom_poste, nom_entreprise, nom_etude, langue) " +
+        SELECT_SUMMARIES;
+
+    String DELETE_SUMMARIES = "delete from resume_summary";
+
+    @Modifying
+    @Query(value = DELETE_SUMMARIES, nativeQuery = true)
+    int deleteAllSummaries();
+
+    @Modifying
+    @Query(value = INSERT_SUMMARIES, nativeQuery = true)
+    int insertAllSummaries();
+}
@@ -0,0 +1,163 @@
+package fr.rif.rh.cvtech.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading entities with only some of their attributes, for the sparse fieldsets of the REST resources.
+ * <p>
+ * The query selects the ID, the version, the sort keys and the requested attributes as a tuple, so the other columns, such
+ * as long descriptions, are neither read nor transferred. Each row is copied into a new instance of the entity, which is not
+ * managed: its other attributes are left unset, and an association is a reference to its target, which is not loaded. The
+ * instance is created and written through the {@link EntityAccessors} of its class, so a row costs no reflective lookup.
+ */
+@Repository
+public class SparseFieldsetRepository {
+
+    private static final String ROOT = "entity";
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<Class<?>, EntityAccessors> accessors = new ConcurrentHashMap<>();
+
+    public SparseFieldsetRepository(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get an entity with only some of its attributes.
+     *
+     * @param type the entity class.
+     * @param fields the names of the singular attributes to read.
+     * @param id the ID of the entity.
+     * @param <T> type of the entity.
+     * @return the entity, or nothing if it does not exist.
+     * @throws IllegalArgumentException if a field is not a singular attribute of the entity.
+     */
+    public <T> Optional<T> findById(Class<T> type, Collection<String> fields, Long id) {
+        Map<String, SingularAttribute<? super T, ?>> attributes = attributes(type, fields, Sort.unsorted());
+        TypedQuery<Tuple> query = entityManager
+            .createQuery(select(type, attributes).append(" where ").append(ROOT).append(".id = :id").toString(), Tuple.class)
+            .setParameter("id", id);
+        return query.getResultStream().findFirst().map(row -> hydrate(type, attributes, row));
+    }
+
+    /**
+     * Get a keyset page of entities with only some of their attributes.
+     *
+     * @param type the entity class.
+     * @param fields the names of the singular attributes to read.
+     * @param pageable the first page, with the size of the page and the sort keys, which must end with a unique key and
+     * share a direction.
+     * @param after the values of the sort keys of the last entity of the previous page, none for the first page.
+     * @param <T> type of the entity.
+     * @return the page, read with one extra row to know whether there is a next page.
+     * @throws IllegalArgumentException if a field or a sort key is not a singular attribute of the entity.
+     */
+    public <T> Slice<T> findSlice(Class<T> type, Collection<String> fields, Pageable pageable, Object... after) {
+        List<Sort.Order> orders = pageable.getSort().toList();
+        Map<String, SingularAttribute<? super T, ?>> attributes = attributes(type, fields, pageable.getSort());
+        StringBuilder jpql = select(type, attributes);
+        if (after.length > 0) {
+            jpql.append(" where ").append(seek(orders, 0));
+        }
+        jpql.append(
+            orders
+                .stream()
+                .map(order -> ROOT + "." + order.getProperty() + " " + order.getDirection())
+                .collect(Collectors.joining(", ", " order by ", ""))
+        );
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class).setMaxResults(pageable.getPageSize() + 1);
+        for (int i = 0; i < after.length; i++) {
+            query.setParameter("after" + i, after[i]);
+        }
+        List<T> content = new ArrayList<>(pageable.getPageSize() + 1);
+        for (Tuple row : query.getResultList()) {
+            content.add(hydrate(type, attributes, row));
+        }
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private <T> Map<String, SingularAttribute<? super T, ?>> attributes(Class<T> type, Collection<String> fields, Sort sort) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(type);
+        Map<String, SingularAttribute<? super T, ?>> attributes = new LinkedHashMap<>();
+        attributes.put("id", entityType.getSingularAttribute("id"));
+        attributes.put("version", entityType.getSingularAttribute("version"));
+        for (Sort.Order order : sort) {
+            attributes.put(order.getProperty(), entityType.getSingularAttribute(order.getProperty()));
+        }
+        for (String field : fields) {
+            attributes.put(field, entityType.getSingularAttribute(field));
+        }
+        return attributes;
+    }
+
+    private static StringBuilder select(Class<?> type, Map<String, ? extends SingularAttribute<?, ?>> attributes) {
+        StringBuilder select = new StringBuilder("select ");
+        StringBuilder joins = new StringBuilder();
+        for (SingularAttribute<?, ?> attribute : attributes.values()) {
+            if (select.length() > "select ".length()) {
+                select.append(", ");
+            }
+            if (attribute.isAssociation()) {
+                // Joined rather than navigated, which would be an inner join dropping the entities without the association
+                String alias = "join" + attribute.getName();
+                joins.append(" left join ").append(ROOT).append('.').append(attribute.getName()).append(' ').append(alias);
+                select.append(alias).append(".id");
+            } else {
+                select.append(ROOT).append('.').append(attribute.getName());
+            }
+        }
+        return select.append(" from ").append(type.getSimpleName()).append(' ').append(ROOT).append(joins);
+    }
+
+    private static String seek(List<Sort.Order> orders, int index) {
+        Sort.Order order = orders.get(index);
+        String key = ROOT + "." + order.getProperty();
+        String seek = key + (order.isAscending() ? " > " : " < ") + ":after" + index;
+        if (index == orders.size() - 1) {
+            return seek;
+        }
+        return "(" + seek + " or (" + key + " = :after" + index + " and " + seek(orders, index + 1) + "))";
+    }
+
+    private <T> T hydrate(Class<T> type, Map<String, SingularAttribute<? super T, ?>> attributes, Tuple row) {
+        EntityAccessors entityAccessors = accessors.computeIfAbsent(
+            type,
+            key -> EntityAccessors.of(key, entityManager.getMetamodel(), objectMapper)
+        );
+        T entity = type.cast(entityAccessors.newInstance());
+        int index = 0;
+        for (SingularAttribute<? super T, ?> attribute : attributes.values()) {
+            Object value = row.get(index++);
+            if (value != null && attribute.isAssociation()) {
+                value = entityManager.getReference(attribute.getJavaType(), value);
+            }
+            entityAccessors.setField(entity, attribute.getName(), value);
+        }
+        return entity;
+    }
+}
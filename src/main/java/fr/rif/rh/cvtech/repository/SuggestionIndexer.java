@@ -0,0 +1,106 @@
+package fr.rif.rh.cvtech.repository;
+
+import fr.rif.rh.cvtech.repository.search.SuggestionIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener keeping the {@link SuggestionIndex} current, whichever repository writes the suggested values.
+ * <p>
+ * The values written are compared with the values they replace, from the state Hibernate loaded, and the difference is
+ * counted once the transaction commits. An entity updated without its loaded state, as by {@code Session#update}, is not
+ * counted until the index is rebuilt.
+ */
+public class SuggestionIndexer implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The sources of the suggested fields, by entity type.
+     */
+    private static final Map<Class<?>, List<Map.Entry<SuggestionIndex.Field, SuggestionIndex.Source>>> SOURCES = new HashMap<>();
+
+    static {
+        for (SuggestionIndex.Field field : SuggestionIndex.Field.values()) {
+            for (SuggestionIndex.Source source : field.getSources()) {
+                SOURCES.computeIfAbsent(source.getEntityType(), key -> new ArrayList<>()).add(Map.entry(field, source));
+            }
+        }
+    }
+
+    private final transient SuggestionIndex suggestionIndex;
+
+    public SuggestionIndexer(SuggestionIndex suggestionIndex) {
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        count(event.getSession(), event.getEntity(), event.getPersister(), null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() != null) {
+            count(event.getSession(), event.getEntity(), event.getPersister(), event.getOldState(), event.getState());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        count(event.getSession(), event.getEntity(), event.getPersister(), event.getDeletedState(), null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void count(EventSource session, Object entity, EntityPersister persister, Object[] oldState, Object[] state) {
+        List<Map.Entry<SuggestionIndex.Field, SuggestionIndex.Source>> sources = SOURCES.get(entity.getClass());
+        if (sources == null || !suggestionIndex.isEnabled()) {
+            return;
+        }
+        Map<SuggestionIndex.Field, Map<String, Integer>> changes = new EnumMap<>(SuggestionIndex.Field.class);
+        List<String> propertyNames = Arrays.asList(persister.getPropertyNames());
+        for (Map.Entry<SuggestionIndex.Field, SuggestionIndex.Source> source : sources) {
+            int index = propertyNames.indexOf(source.getValue().getProperty());
+            Object oldValue = oldState == null ? null : oldState[index];
+            Object value = state == null ? null : state[index];
+            if (!Objects.equals(oldValue, value)) {
+                Map<String, Integer> counts = changes.computeIfAbsent(source.getKey(), key -> new HashMap<>());
+                if (oldValue != null) {
+                    counts.merge((String) oldValue, -1, Integer::sum);
+                }
+                if (value != null) {
+                    counts.merge((String) value, 1, Integer::sum);
+                }
+            }
+        }
+        if (!changes.isEmpty()) {
+            session
+                .getActionQueue()
+                .registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completedSession) -> {
+                        if (success) {
+                            suggestionIndex.update(changes);
+                        }
+                    }
+                );
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package fr.rif.rh.cvtech.repository;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository fragment reading the optimistic locking version of an entity without loading it.
+ *
+ * @param <T> the domain type the repository manages, which must have a {@code version} attribute.
+ */
+@NoRepositoryBean
+public interface VersionedRepository<T> extends JpaRepository<T, Long> {
+    /**
+     * Get the version of an entity.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity, if it exists.
+     */
+    @Query("select entity.version from #{#entityName} entity where entity.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,428 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * The {@link ResumeInvertedIndex} of all resumes, serving searches from memory instead of the database.
+ * <p>
+ * The index is built once the application is ready, from the {@code resume.search_text} column, and is then kept current by
+ * {@link fr.rif.rh.cvtech.repository.ResumeSearchIndexer} as transactions writing resumes commit. Until it is built, when it
+ * is disabled, or for the queries it does not support, {@link #search} returns nothing and searches go to the database.
+ * <p>
+ * The index is disabled unless {@code application.search.in-memory-index} is set. Each node holds its own index, which only
+ * sees the transactions committed on that node, so it is meant for single node deployments; it is rebuilt every
+ * {@code application.search.in-memory-index-reconcile-interval}, which corrects the resumes written otherwise. It returns
+ * the most recently written resumes first instead of ranking them, and does not stem words.
+ * <p>
+ * When an index directory is configured, the index is checkpointed there as a memory-mapped {@link ResumeIndexSegment},
+ * and the changes made since are appended to a {@link ResumeIndexLog}. On restart the index is loaded from the last segment
+ * and its log instead of being rebuilt from the database, unless the database holds another number of resumes, or another
+ * highest ID, than the loaded index. This only detects the resumes created or deleted meanwhile: those updated on another
+ * node or while this one was stopped, and the changes committed but not logged because of a crash, are served as loaded
+ * until the next reconcile. A new checkpoint is taken once the log outgrows its configured size: like a rebuild, it
+ * writes a copy of the index to the new segment without holding the lock, then replaces the index with the segment and
+ * the changes made meanwhile, which start the new log.
+ */
+@Component
+public class InMemoryResumeSearchIndex extends RebuildableIndex<InMemoryResumeSearchIndex.Generation> {
+
+    private static final String SELECT_SEARCH_TEXTS = "select id, search_text from resume order by id";
+
+    private static final String SELECT_WATERMARK = "select count(*), coalesce(max(id), 0) from resume";
+
+    private static final int LOAD_BATCH_SIZE = 10000;
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.seg");
+
+    private static final Pattern INDEX_FILE = Pattern.compile("(?:segment|changes)-(\\d+)\\.(?:seg|tmp|log)");
+
+    private final Logger log = LoggerFactory.getLogger(InMemoryResumeSearchIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Path directory;
+
+    private final DataSize checkpointLogSize;
+
+    /**
+     * The sequence of the last segment written or loaded, only used by builds, which are run one at a time.
+     */
+    private long sequence;
+
+    public InMemoryResumeSearchIndex(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, ApplicationProperties applicationProperties) {
+        super(
+            applicationProperties.getSearch().isInMemoryIndex(),
+            taskScheduler,
+            applicationProperties.getSearch().getInMemoryIndexReconcileInterval()
+        );
+        ApplicationProperties.Search search = applicationProperties.getSearch();
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = search.getIndexDirectory() == null || search.getIndexDirectory().isBlank()
+            ? null
+            : Paths.get(search.getIndexDirectory());
+        this.checkpointLogSize = search.getCheckpointLogSize();
+    }
+
+    /**
+     * Search resumes in memory, see {@link ResumeInvertedIndex#search}.
+     *
+     * @param query the query, in PostgreSQL web search syntax.
+     * @param offset the number of matching resumes to skip.
+     * @param limit the maximum number of resume IDs to return.
+     * @return the matching resumes, or nothing if the index is not built or does not support the query.
+     */
+    public Optional<ResumeInvertedIndex.Hits> search(String query, int offset, int limit) {
+        if (!ResumeInvertedIndex.supports(query)) {
+            return Optional.empty();
+        }
+        return read(generation -> generation.index.search(query, offset, limit));
+    }
+
+    /**
+     * Index committed resumes.
+     *
+     * @param searchTexts the search text of each resume, by resume ID.
+     */
+    public void update(Map<Long, String> searchTexts) {
+        apply(generation -> {
+            append(generation, changeLog -> changeLog.appendIndex(searchTexts));
+            searchTexts.forEach(generation.index::index);
+        });
+    }
+
+    /**
+     * Remove deleted resumes from the index.
+     *
+     * @param resumeIds the IDs of the resumes.
+     */
+    public void remove(Collection<Long> resumeIds) {
+        apply(generation -> {
+            append(generation, changeLog -> changeLog.appendRemove(resumeIds));
+            resumeIds.forEach(generation.index::remove);
+        });
+    }
+
+    /**
+     * Write the index to a new segment, and start a new log for the changes made after it.
+     */
+    public void checkpoint() {
+        if (directory == null || !isBuilt()) {
+            return;
+        }
+        try {
+            rebuild(() -> persist(read(generation -> generation.index.copy()).orElseThrow()));
+        } catch (UncheckedIOException e) {
+            log.warn("Could not checkpoint the in-memory resume index to {}", directory, e.getCause());
+        }
+    }
+
+    /**
+     * Write a new checkpoint once the log outgrows its configured size, or if the log could not be written to.
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void checkpointIfNeeded() {
+        if (directory != null && read(this::needsCheckpoint).orElse(false)) {
+            checkpoint();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // Applied as a change, so that an index being built is closed once it replaces the current one
+        apply(this::closeChangeLog);
+    }
+
+    /**
+     * Load the index from its last segment and log if it is current, or build it from the database.
+     */
+    @Override
+    protected Generation buildAtStartup() {
+        Generation loaded = load();
+        if (loaded != null) {
+            if (isCurrent(loaded.index)) {
+                return loaded;
+            }
+            closeChangeLog(loaded);
+        }
+        return build();
+    }
+
+    /**
+     * Build the index of all resumes, tokenizing them in parallel, and write it to a new segment.
+     */
+    @Override
+    protected Generation build() {
+        ResumeInvertedIndex rebuilt = new ResumeInvertedIndex();
+        BatchLoader loader = new BatchLoader(rebuilt);
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_SEARCH_TEXTS);
+                statement.setFetchSize(LOAD_BATCH_SIZE);
+                return statement;
+            },
+            loader
+        );
+        loader.flush();
+        if (directory == null) {
+            return new Generation(rebuilt, 0, null);
+        }
+        try {
+            return persist(rebuilt);
+        } catch (UncheckedIOException e) {
+            log.warn("Could not checkpoint the in-memory resume index to {}", directory, e.getCause());
+            return new Generation(rebuilt, 0, null);
+        }
+    }
+
+    @Override
+    protected void replaced(Generation previous, Generation rebuilt) {
+        if (previous != null) {
+            closeChangeLog(previous);
+        }
+        if (directory != null) {
+            // Files older than the new segment, or all of them if it could not be written, no longer describe the index
+            deleteFilesBefore(rebuilt.sequence == 0 ? Long.MAX_VALUE : rebuilt.sequence);
+        }
+    }
+
+    @Override
+    protected String describe(Generation generation) {
+        return (
+            "the in-memory index of " +
+            generation.index.size() +
+            " resumes" +
+            (generation.sequence == 0 ? "" : ", checkpointed to segment " + generation.sequence)
+        );
+    }
+
+    /**
+     * Write an index to a new segment, and open it with a new log.
+     *
+     * @param index the index, which must not change while it is written.
+     * @return the index of the segment.
+     * @throws UncheckedIOException if the segment or the log could not be written.
+     */
+    private Generation persist(ResumeInvertedIndex index) {
+        try {
+            Files.createDirectories(directory);
+            // Numbered after any segment left over by a failed load, so that it is never loaded instead of this one
+            long next = Math.max(sequence, lastSegmentSequence()) + 1;
+            Path segmentFile = directory.resolve("segment-" + next + ".seg");
+            Path temporary = directory.resolve("segment-" + next + ".tmp");
+            index.writeSegment(temporary);
+            Files.move(temporary, segmentFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            ResumeInvertedIndex reloaded = new ResumeInvertedIndex(ResumeIndexSegment.open(segmentFile));
+            Path logFile = directory.resolve("changes-" + next + ".log");
+            Files.deleteIfExists(logFile);
+            ResumeIndexLog changeLog = ResumeIndexLog.openAndReplay(logFile, reloaded);
+            sequence = next;
+            return new Generation(reloaded, next, changeLog);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load the index from its last segment, replaying its log.
+     *
+     * @return the index, or {@code null} if there is none or it could not be read.
+     */
+    private Generation load() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return null;
+        }
+        try {
+            long last = lastSegmentSequence();
+            if (last == 0) {
+                return null;
+            }
+            ResumeInvertedIndex loaded = new ResumeInvertedIndex(ResumeIndexSegment.open(directory.resolve("segment-" + last + ".seg")));
+            ResumeIndexLog changeLog = ResumeIndexLog.openAndReplay(directory.resolve("changes-" + last + ".log"), loaded);
+            sequence = last;
+            log.info("Loaded {} resumes in memory from {}", loaded.size(), directory);
+            return new Generation(loaded, last, changeLog);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load the in-memory resume index from {}, rebuilding it", directory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Tell whether the loaded index holds as many resumes as the database, up to the same ID: resumes created or deleted on
+     * another node, or while this one was stopped, are only in the database. Updated resumes are left to the reconcile.
+     */
+    private boolean isCurrent(ResumeInvertedIndex loaded) {
+        long[] watermark = jdbcTemplate.queryForObject(
+            SELECT_WATERMARK,
+            (resultSet, row) -> new long[] { resultSet.getLong(1), resultSet.getLong(2) }
+        );
+        if (watermark[0] == loaded.size() && watermark[1] == loaded.maxResumeId()) {
+            return true;
+        }
+        log.info(
+            "The in-memory resume index loaded from {} holds {} resumes up to ID {}, the database {} up to ID {}, rebuilding it",
+            directory,
+            loaded.size(),
+            loaded.maxResumeId(),
+            watermark[0],
+            watermark[1]
+        );
+        return false;
+    }
+
+    private boolean needsCheckpoint(Generation generation) {
+        if (generation.changeLog == null) {
+            return true;
+        }
+        try {
+            return generation.changeLog.size() >= checkpointLogSize.toBytes();
+        } catch (IOException e) {
+            log.warn("Could not read the size of the in-memory resume index log", e);
+            return false;
+        }
+    }
+
+    private long lastSegmentSequence() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .map(file -> SEGMENT_FILE.matcher(file.getFileName().toString()))
+                .filter(Matcher::matches)
+                .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                .max()
+                .orElse(0);
+        }
+    }
+
+    private void deleteFilesBefore(long current) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files
+                .filter(file -> {
+                    Matcher matcher = INDEX_FILE.matcher(file.getFileName().toString());
+                    return matcher.matches() && Long.parseLong(matcher.group(1)) < current;
+                })
+                .forEach(file -> {
+                    try {
+                        Files.delete(file);
+                    } catch (IOException e) {
+                        log.warn("Could not delete {}", file, e);
+                    }
+                });
+        } catch (IOException e) {
+            log.warn("Could not list {}", directory, e);
+        }
+    }
+
+    /**
+     * Append a change to the log of an index; if it cannot be, stop logging and delete the files, so that the index is
+     * rebuilt on restart unless a new checkpoint is written first.
+     */
+    private void append(Generation generation, LogAppender appender) {
+        if (generation.changeLog == null) {
+            return;
+        }
+        try {
+            appender.append(generation.changeLog);
+        } catch (IOException e) {
+            log.warn("Could not append to the in-memory resume index log, the index will be rebuilt on restart", e);
+            closeChangeLog(generation);
+            deleteFilesBefore(Long.MAX_VALUE);
+        }
+    }
+
+    private void closeChangeLog(Generation generation) {
+        if (generation.changeLog == null) {
+            return;
+        }
+        try {
+            generation.changeLog.close();
+        } catch (IOException e) {
+            log.warn("Could not close the in-memory resume index log", e);
+        }
+        generation.changeLog = null;
+    }
+
+    /**
+     * An index, with the sequence of the segment it was loaded from and the log of the changes made since.
+     */
+    static final class Generation {
+
+        private final ResumeInvertedIndex index;
+
+        private final long sequence;
+
+        private ResumeIndexLog changeLog;
+
+        /**
+         * @param index the index.
+         * @param sequence the sequence of its segment, {@code 0} if it is only held in memory.
+         * @param changeLog the log of the changes made since the segment, or {@code null} if they are not logged.
+         */
+        Generation(ResumeInvertedIndex index, long sequence, ResumeIndexLog changeLog) {
+            this.index = index;
+            this.sequence = sequence;
+            this.changeLog = changeLog;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LogAppender {
+        void append(ResumeIndexLog changeLog) throws IOException;
+    }
+
+    /**
+     * Reads the resumes in batches, so that each batch is tokenized in parallel while keeping a bounded number of texts in memory.
+     */
+    private static class BatchLoader implements RowCallbackHandler {
+
+        private final ResumeInvertedIndex target;
+
+        private final long[] ids = new long[LOAD_BATCH_SIZE];
+
+        private final String[] texts = new String[LOAD_BATCH_SIZE];
+
+        private int count;
+
+        BatchLoader(ResumeInvertedIndex target) {
+            this.target = target;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            ids[count] = resultSet.getLong(1);
+            texts[count++] = resultSet.getString(2);
+            if (count == LOAD_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            target.indexAll(ids, texts, count, ForkJoinPool.commonPool());
+            count = 0;
+        }
+    }
+}
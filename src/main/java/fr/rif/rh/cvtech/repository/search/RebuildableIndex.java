@@ -0,0 +1,212 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+
+/**
+ * An in-memory structure built from the database once the application is ready, then kept current by the changes committed
+ * since, and replaced by a new one each time it is rebuilt.
+ * <p>
+ * The changes committed while the structure is rebuilt are recorded, and applied to the new structure before it replaces
+ * the current one. Reads share a read lock, changes and the replacement take the write lock. When a reconcile interval is
+ * given, the structure is also rebuilt at that interval, to correct the changes that do not replay exactly.
+ *
+ * @param <T> the type of the structure.
+ */
+public abstract class RebuildableIndex<T> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final boolean enabled;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Duration reconcileInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Object rebuildLock = new Object();
+
+    private T current;
+
+    /**
+     * The changes made while the structure is rebuilt, to apply to the new structure before it replaces the current one.
+     */
+    private List<Consumer<T>> changesDuringRebuild;
+
+    /**
+     * @param enabled whether the structure is built.
+     * @param taskScheduler the scheduler rebuilding the structure at the reconcile interval, or {@code null} if there is none.
+     * @param reconcileInterval the interval at which the structure is rebuilt once built, or {@code null} to only build it at
+     * startup.
+     */
+    protected RebuildableIndex(boolean enabled, TaskScheduler taskScheduler, Duration reconcileInterval) {
+        this.enabled = enabled;
+        this.taskScheduler = taskScheduler;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild(this::buildAtStartup);
+            if (reconcileInterval != null) {
+                taskScheduler.scheduleWithFixedDelay(this::reconcile, Instant.now().plus(reconcileInterval), reconcileInterval);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the structure from the database, once it was built at startup.
+     */
+    public void reconcile() {
+        if (isBuilt()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Build the structure from the database, and replace the current one with it.
+     */
+    public void rebuild() {
+        rebuild(this::build);
+    }
+
+    /**
+     * Build a new structure, without holding the lock, and replace the current one with it once the changes made meanwhile
+     * are applied to it. Builds are run one at a time.
+     *
+     * @param builder the function building the structure.
+     */
+    protected void rebuild(Supplier<T> builder) {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            long start = System.nanoTime();
+            try {
+                T rebuilt = builder.get();
+                T previous;
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                    previous = current;
+                    current = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Built {} in {} ms", describe(rebuilt), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                replaced(previous, rebuilt);
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the structure is built.
+     */
+    public boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return current != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Build a new structure from the database.
+     *
+     * @return the structure.
+     */
+    protected abstract T build();
+
+    /**
+     * Build the structure once the application is ready, by default from the database as {@link #build()} does.
+     *
+     * @return the structure.
+     */
+    protected T buildAtStartup() {
+        return build();
+    }
+
+    /**
+     * Release a structure once it is replaced, when no change is applied to it anymore.
+     *
+     * @param previous the replaced structure, or {@code null} if there was none.
+     * @param rebuilt the structure replacing it.
+     */
+    protected void replaced(T previous, T rebuilt) {
+        // Nothing to release by default
+    }
+
+    /**
+     * @param built a structure.
+     * @return the description of the structure logged once it is built, such as the number of resumes it holds.
+     */
+    protected abstract String describe(T built);
+
+    /**
+     * Read the current structure, under the read lock.
+     *
+     * @param reader the function reading the structure, which must not return {@code null}.
+     * @param <R> the type of the result.
+     * @return the result of the function, or nothing if the structure is not built.
+     */
+    protected <R> Optional<R> read(Function<T, R> reader) {
+        lock.readLock().lock();
+        try {
+            return current == null ? Optional.empty() : Optional.of(reader.apply(current));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a committed change to the current structure, and to the one being rebuilt, under the write lock.
+     *
+     * @param change the change.
+     */
+    protected void apply(Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            if (current != null) {
+                change.accept(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of resumes by city, country, profession, language and creation month, and the average programming language level
+ * by programming language, updated without locking.
+ * <p>
+ * The counters hold the {@link Contribution} last set for each resume: setting a resume again adds the difference between its
+ * new and its previous contribution, so setting the same contribution twice, or removing a resume twice, changes nothing.
+ * Readers and writers never wait for each other, and a reader may see a change half applied.
+ */
+public class ResumeDashboardCounters {
+
+    /**
+     * The dimensions along which resumes are counted.
+     */
+    public enum Dimension {
+        CITY,
+        COUNTRY,
+        PROFESSION,
+        LANGUAGE,
+        MONTH,
+    }
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+
+    private final ConcurrentMap<Long, Contribution> contributions = new ConcurrentHashMap<>();
+
+    private final Map<Dimension, ConcurrentMap<String, LongAdder>> counts = new EnumMap<>(Dimension.class);
+
+    private final ConcurrentMap<String, LongAdder> levelSums = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongAdder> levelCounts = new ConcurrentHashMap<>();
+
+    public ResumeDashboardCounters() {
+        for (Dimension dimension : DIMENSIONS) {
+            counts.put(dimension, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Set the contribution of a resume, replacing its previous one.
+     *
+     * @param resumeId the ID of the resume.
+     * @param contribution the values of the resume.
+     */
+    public void set(long resumeId, Contribution contribution) {
+        Contribution previous = contributions.put(resumeId, contribution);
+        if (previous != null) {
+            add(previous, -1);
+        }
+        add(contribution, 1);
+    }
+
+    /**
+     * Remove the contribution of a resume.
+     *
+     * @param resumeId the ID of the resume.
+     */
+    public void remove(long resumeId) {
+        Contribution previous = contributions.remove(resumeId);
+        if (previous != null) {
+            add(previous, -1);
+        }
+    }
+
+    public int size() {
+        return contributions.size();
+    }
+
+    /**
+     * Read the counters.
+     *
+     * @return the counts, and the average levels, sorted by value.
+     */
+    public Snapshot snapshot() {
+        Map<Dimension, Map<String, Long>> resumeCounts = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : DIMENSIONS) {
+            Map<String, Long> values = new TreeMap<>();
+            counts
+                .get(dimension)
+                .forEach((value, count) -> {
+                    long sum = count.sum();
+                    if (sum > 0) {
+                        values.put(value, sum);
+                    }
+                });
+            resumeCounts.put(dimension, values);
+        }
+        Map<String, Double> averageLevels = new TreeMap<>();
+        levelCounts.forEach((language, count) -> {
+            long resumes = count.sum();
+            LongAdder sum = levelSums.get(language);
+            if (resumes > 0 && sum != null) {
+                averageLevels.put(language, (double) sum.sum() / resumes);
+            }
+        });
+        return new Snapshot(contributions.size(), resumeCounts, averageLevels);
+    }
+
+    private void add(Contribution contribution, int sign) {
+        for (Dimension dimension : DIMENSIONS) {
+            String value = contribution.values[dimension.ordinal()];
+            if (value != null) {
+                counts.get(dimension).computeIfAbsent(value, key -> new LongAdder()).add(sign);
+            }
+        }
+        if (contribution.programmingLanguage != null && contribution.level != null) {
+            levelSums.computeIfAbsent(contribution.programmingLanguage, key -> new LongAdder()).add((long) sign * contribution.level);
+            levelCounts.computeIfAbsent(contribution.programmingLanguage, key -> new LongAdder()).add(sign);
+        }
+    }
+
+    /**
+     * The values a resume is counted under.
+     */
+    public static final class Contribution {
+
+        private final String[] values;
+
+        private final String programmingLanguage;
+
+        private final Integer level;
+
+        /**
+         * @param values the value of the resume along each dimension, by dimension ordinal, {@code null} if it has none.
+         * @param programmingLanguage the name of the programming language of the resume, if any.
+         * @param level the level of the resume in its programming language, if any.
+         */
+        public Contribution(String[] values, String programmingLanguage, Integer level) {
+            if (values.length != DIMENSIONS.length) {
+                throw new IllegalArgumentException("Expected " + DIMENSIONS.length + " values, got " + values.length);
+            }
+            this.values = values.clone();
+            this.programmingLanguage = programmingLanguage;
+            this.level = level;
+        }
+    }
+
+    /**
+     * The counters at one point in time.
+     */
+    public static final class Snapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long resumes;
+
+        private final Map<Dimension, Map<String, Long>> counts;
+
+        private final Map<String, Double> averageLevels;
+
+        Snapshot(long resumes, Map<Dimension, Map<String, Long>> counts, Map<String, Double> averageLevels) {
+            this.resumes = resumes;
+            this.counts = counts;
+            this.averageLevels = averageLevels;
+        }
+
+        public long getResumes() {
+            return resumes;
+        }
+
+        /**
+         * @return the number of resumes of each value, by dimension.
+         */
+        public Map<Dimension, Map<String, Long>> getCounts() {
+            return counts;
+        }
+
+        /**
+         * @return the average level of the resumes in each programming language, by programming language name.
+         */
+        public Map<String, Double> getAverageLevels() {
+            return averageLevels;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link ResumeDashboardCounters} of all resumes, read by the recruiter dashboard without querying the database.
+ * <p>
+ * The counters are built once the application is ready, unless {@code application.dashboard.counters} is {@code false}. They
+ * are rebuilt every {@code application.dashboard.reconcile-interval}, so that any drift, such as resumes written by SQL or
+ * two commits of the same resume applied out of order, is corrected.
+ */
+@Component
+public class ResumeDashboardIndex extends ResumeRowIndex<ResumeDashboardCounters, ResumeDashboardCounters.Contribution> {
+
+    /**
+     * The ID of each resume with the values it is counted under, to complete with a condition on the resume.
+     */
+    private static final String SELECT_CONTRIBUTIONS =
+        "select resume.id, profil.city, profil.country, profil.profession, langue.langue, resume.date_creation," +
+        " programmation.nom_langage, programmation.taux_de_langage" +
+        " from resume" +
+        " left join profil on profil.id = resume.profil_id" +
+        " left join langue on langue.id = resume.langue_id" +
+        " left join programmation on programmation.id = resume.programmation_id";
+
+    public ResumeDashboardIndex(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, ApplicationProperties applicationProperties) {
+        super(
+            jdbcTemplate,
+            applicationProperties.getDashboard().isCounters(),
+            taskScheduler,
+            applicationProperties.getDashboard().getReconcileInterval(),
+            SELECT_CONTRIBUTIONS
+        );
+    }
+
+    /**
+     * Read the counters.
+     *
+     * @return the counters, or nothing if they are not built.
+     */
+    public Optional<ResumeDashboardCounters.Snapshot> snapshot() {
+        return read(ResumeDashboardCounters::snapshot);
+    }
+
+    @Override
+    protected ResumeDashboardCounters create() {
+        return new ResumeDashboardCounters();
+    }
+
+    @Override
+    protected ResumeDashboardCounters.Contribution readRow(ResultSet resultSet) throws SQLException {
+        String[] values = new String[ResumeDashboardCounters.Dimension.values().length];
+        values[ResumeDashboardCounters.Dimension.CITY.ordinal()] = resultSet.getString(2);
+        values[ResumeDashboardCounters.Dimension.COUNTRY.ordinal()] = resultSet.getString(3);
+        values[ResumeDashboardCounters.Dimension.PROFESSION.ordinal()] = resultSet.getString(4);
+        values[ResumeDashboardCounters.Dimension.LANGUAGE.ordinal()] = resultSet.getString(5);
+        Timestamp dateCreation = resultSet.getTimestamp(6);
+        if (dateCreation != null) {
+            values[ResumeDashboardCounters.Dimension.MONTH.ordinal()] =
+                YearMonth.from(dateCreation.toInstant().atOffset(ZoneOffset.UTC)).toString();
+        }
+        int level = resultSet.getInt(8);
+        return new ResumeDashboardCounters.Contribution(values, resultSet.getString(7), resultSet.wasNull() ? null : level);
+    }
+
+    @Override
+    protected void set(ResumeDashboardCounters counters, long resumeId, ResumeDashboardCounters.Contribution contribution) {
+        counters.set(resumeId, contribution);
+    }
+
+    @Override
+    protected void unset(ResumeDashboardCounters counters, long resumeId) {
+        counters.remove(resumeId);
+    }
+
+    @Override
+    protected String describe(ResumeDashboardCounters counters) {
+        return "the dashboard counters of " + counters.size() + " resumes";
+    }
+}
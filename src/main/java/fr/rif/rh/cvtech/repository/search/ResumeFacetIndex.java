@@ -0,0 +1,203 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Facet counts of resumes, from a compressed bitmap of resume IDs per facet value.
+ * <p>
+ * The bitmaps are built once the application is ready, unless {@code application.search.facet-index} is {@code false}, and
+ * rebuilt every {@code application.search.facet-reconcile-interval}, so that the resumes written on other nodes are counted.
+ * Counting intersects the bitmap of each value with the selected resumes, without materializing the intersections. Resume IDs
+ * must fit in an {@code int}.
+ */
+@Component
+public class ResumeFacetIndex extends ResumeRowIndex<ResumeFacetIndex.Bitmaps, String[]> {
+
+    /**
+     * The facets, in the order of the columns of {@link #SELECT_FACET_VALUES}.
+     */
+    public enum Facet {
+        CITY,
+        COUNTRY,
+        PROFESSION,
+        LANGUAGE,
+        TOOL;
+
+        public String parameterName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The ID of each resume with the value of each facet, to complete with a condition on the resume.
+     */
+    private static final String SELECT_FACET_VALUES =
+        "select resume.id, profil.city, profil.country, profil.profession, langue.langue, outil.nom_outil from resume" +
+        " left join profil on profil.id = resume.profil_id" +
+        " left join langue on langue.id = resume.langue_id" +
+        " left join experience on experience.id = resume.experience_id" +
+        " left join outil on outil.id = experience.outil_id";
+
+    private static final Facet[] FACETS = Facet.values();
+
+    public ResumeFacetIndex(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, ApplicationProperties applicationProperties) {
+        super(
+            jdbcTemplate,
+            applicationProperties.getSearch().isFacetIndex(),
+            taskScheduler,
+            applicationProperties.getSearch().getFacetReconcileInterval(),
+            SELECT_FACET_VALUES
+        );
+    }
+
+    /**
+     * Count the resumes of each facet value, among the given resumes and those matching filters.
+     *
+     * @param resumeIds the IDs of the resumes to count, such as those matching a search, or {@code null} for all resumes.
+     * @param filters the value each resume must have, by facet.
+     * @param size the maximum number of values to count per facet.
+     * @return the counts of the most frequent values of each facet, most frequent first, or nothing if the bitmaps are not
+     * built.
+     */
+    public Optional<Map<Facet, Map<String, Integer>>> count(Collection<Long> resumeIds, Map<Facet, String> filters, int size) {
+        RoaringBitmap matches;
+        if (resumeIds != null) {
+            matches = new RoaringBitmap();
+            for (long resumeId : resumeIds) {
+                matches.add(Math.toIntExact(resumeId));
+            }
+        } else {
+            matches = null;
+        }
+        return read(bitmaps -> count(bitmaps, matches, filters, size));
+    }
+
+    @Override
+    protected Bitmaps create() {
+        return new Bitmaps();
+    }
+
+    @Override
+    protected String[] readRow(ResultSet resultSet) throws SQLException {
+        String[] values = new String[FACETS.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = resultSet.getString(i + 2);
+        }
+        return values;
+    }
+
+    @Override
+    protected void set(Bitmaps bitmaps, long resumeId, String[] values) {
+        bitmaps.set(resumeId, values);
+    }
+
+    @Override
+    protected void unset(Bitmaps bitmaps, long resumeId) {
+        bitmaps.remove(resumeId);
+    }
+
+    @Override
+    protected void complete(Bitmaps bitmaps) {
+        bitmaps.optimize();
+    }
+
+    @Override
+    protected String describe(Bitmaps bitmaps) {
+        return "the facet bitmaps of " + bitmaps.all.getCardinality() + " resumes";
+    }
+
+    static Map<Facet, Map<String, Integer>> count(Bitmaps bitmaps, RoaringBitmap matches, Map<Facet, String> filters, int size) {
+        RoaringBitmap selection = matches == null ? bitmaps.all : RoaringBitmap.and(matches, bitmaps.all);
+        for (Map.Entry<Facet, String> filter : filters.entrySet()) {
+            RoaringBitmap values = bitmaps.values.get(filter.getKey()).get(filter.getValue());
+            selection = values == null ? new RoaringBitmap() : RoaringBitmap.and(selection, values);
+        }
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : FACETS) {
+            List<Map.Entry<String, Integer>> facetCounts = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> value : bitmaps.values.get(facet).entrySet()) {
+                int count = RoaringBitmap.andCardinality(value.getValue(), selection);
+                if (count > 0) {
+                    facetCounts.add(Map.entry(value.getKey(), count));
+                }
+            }
+            facetCounts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> top = new LinkedHashMap<>();
+            facetCounts.stream().limit(size).forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+            counts.put(facet, top);
+        }
+        return counts;
+    }
+
+    /**
+     * The bitmap of all resumes, and of the resumes having each value of each facet.
+     * <p>
+     * The values of each resume are kept, so that removing a resume only clears the bitmaps of its own values.
+     */
+    static final class Bitmaps {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+
+        private final Map<Facet, Map<String, RoaringBitmap>> values = new EnumMap<>(Facet.class);
+
+        private final Map<Long, String[]> resumeValues = new HashMap<>();
+
+        Bitmaps() {
+            for (Facet facet : FACETS) {
+                values.put(facet, new HashMap<>());
+            }
+        }
+
+        void set(long resumeId, String[] facetValues) {
+            remove(resumeId);
+            int id = Math.toIntExact(resumeId);
+            all.add(id);
+            resumeValues.put(resumeId, facetValues);
+            for (Facet facet : FACETS) {
+                String value = facetValues[facet.ordinal()];
+                if (value != null) {
+                    values.get(facet).computeIfAbsent(value, key -> new RoaringBitmap()).add(id);
+                }
+            }
+        }
+
+        void remove(long resumeId) {
+            String[] facetValues = resumeValues.remove(resumeId);
+            if (facetValues == null) {
+                return;
+            }
+            int id = Math.toIntExact(resumeId);
+            all.remove(id);
+            for (Facet facet : FACETS) {
+                String value = facetValues[facet.ordinal()];
+                if (value != null) {
+                    Map<String, RoaringBitmap> bitmaps = values.get(facet);
+                    RoaringBitmap bitmap = bitmaps.get(value);
+                    if (bitmap != null && bitmap.checkedRemove(id) && bitmap.isEmpty()) {
+                        bitmaps.remove(value);
+                    }
+                }
+            }
+        }
+
+        void optimize() {
+            all.runOptimize();
+            values.values().forEach(facetValues -> facetValues.values().forEach(RoaringBitmap::runOptimize));
+        }
+    }
+}
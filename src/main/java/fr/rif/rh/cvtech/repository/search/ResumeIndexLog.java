@@ -0,0 +1,154 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Log of the changes made to a {@link ResumeInvertedIndex} since its segment was written, replayed on top of the segment
+ * when the index is loaded.
+ * <p>
+ * This is not a write-ahead log: a change is appended once its transaction has committed, so a crash in between loses it,
+ * as does a system crash before the log is forced. The changes missing from the log are corrected by the periodic
+ * reconcile of {@link InMemoryResumeSearchIndex}, which rebuilds the index from the database.
+ * <p>
+ * Each record is the length and CRC32 of its payload, then the payload: the operation, the resume ID and, for an indexed
+ * resume, the UTF-8 bytes of its search text. Records are written as they are appended, under the lock of the index, and
+ * only forced to disk when the log is closed; a record only partly written, by a crash, ends the log.
+ */
+public final class ResumeIndexLog implements Closeable {
+
+    private static final byte INDEX = 1;
+
+    private static final byte REMOVE = 2;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final FileChannel channel;
+
+    private ResumeIndexLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Open a log, creating it if needed, and replay its records.
+     *
+     * @param file the log file.
+     * @param index the index to replay the records on.
+     * @return the log, positioned after its last complete record.
+     * @throws IOException if the log could not be read.
+     */
+    public static ResumeIndexLog openAndReplay(Path file, ResumeInvertedIndex index) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            while (read(channel, header.clear(), position)) {
+                int length = header.getInt(0);
+                if (length < 9 || position + RECORD_HEADER_SIZE + length > channel.size()) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!read(channel, payload, position + RECORD_HEADER_SIZE) || checksum(payload.flip()) != header.getInt(4)) {
+                    break;
+                }
+                byte operation = payload.get(0);
+                long resumeId = payload.getLong(1);
+                if (operation == INDEX) {
+                    index.index(resumeId, new String(payload.array(), 9, length - 9, StandardCharsets.UTF_8));
+                } else if (operation == REMOVE) {
+                    index.remove(resumeId);
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+            channel.truncate(position);
+            channel.position(position);
+            return new ResumeIndexLog(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append indexed resumes to the log.
+     *
+     * @param searchTexts the search text of each resume, by resume ID.
+     * @throws IOException if the log could not be written.
+     */
+    public void appendIndex(Map<Long, String> searchTexts) throws IOException {
+        List<ByteBuffer> records = new ArrayList<>(searchTexts.size());
+        searchTexts.forEach((resumeId, text) ->
+            records.add(record(INDEX, resumeId, text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8)))
+        );
+        write(records);
+    }
+
+    /**
+     * Append removed resumes to the log.
+     *
+     * @param resumeIds the IDs of the resumes.
+     * @throws IOException if the log could not be written.
+     */
+    public void appendRemove(Collection<Long> resumeIds) throws IOException {
+        List<ByteBuffer> records = new ArrayList<>(resumeIds.size());
+        resumeIds.forEach(resumeId -> records.add(record(REMOVE, resumeId, new byte[0])));
+        write(records);
+    }
+
+    /**
+     * @return the size of the log, in bytes.
+     * @throws IOException if the size could not be read.
+     */
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void write(List<ByteBuffer> records) throws IOException {
+        for (ByteBuffer record : records) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+    }
+
+    private static ByteBuffer record(byte operation, long resumeId, byte[] text) {
+        ByteBuffer payload = ByteBuffer.allocate(9 + text.length).put(operation).putLong(resumeId).put(text);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.capacity());
+        record.putInt(payload.capacity()).putInt(checksum(payload.flip())).put(payload.rewind());
+        return record.flip();
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 checksum = new CRC32();
+        checksum.update(payload.duplicate());
+        return (int) checksum.getValue();
+    }
+
+    private static boolean read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,184 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable segment of a {@link ResumeInvertedIndex}, memory-mapped from a file written by
+ * {@link ResumeInvertedIndex#writeSegment}, so that it is held by the page cache of the operating system instead of the heap.
+ * <p>
+ * After a fixed header, the file holds the resume ID of each document, the resume IDs sorted with their document, the posting
+ * lists, the UTF-8 bytes of the words, and the table of the words in the order of their bytes, each with the position and
+ * length of its word and of its posting list. A CRC32 of everything after the header is checked when the segment is opened.
+ */
+public final class ResumeIndexSegment {
+
+    static final int MAGIC = 0x43565849;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    private static final int WORD_ENTRY_INTS = 4;
+
+    private final int documentCount;
+
+    private final int wordCount;
+
+    private final LongBuffer resumeIds;
+
+    private final LongBuffer sortedResumeIds;
+
+    private final IntBuffer documentsOfSortedIds;
+
+    private final IntBuffer postings;
+
+    private final ByteBuffer words;
+
+    private final IntBuffer wordTable;
+
+    private ResumeIndexSegment(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a resume index segment");
+        }
+        documentCount = buffer.getInt(8);
+        wordCount = buffer.getInt(12);
+        int postingCount = buffer.getInt(16);
+        int wordsSize = buffer.getInt(20);
+        int expectedChecksum = buffer.getInt(24);
+        long expectedSize =
+            HEADER_SIZE + 20L * documentCount + 4L * postingCount + wordsSize + 4L * WORD_ENTRY_INTS * wordCount;
+        if (buffer.capacity() != expectedSize) {
+            throw new IOException("Truncated resume index segment");
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(region(buffer, HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("Corrupted resume index segment");
+        }
+        int position = HEADER_SIZE;
+        resumeIds = region(buffer, position, 8 * documentCount).asLongBuffer();
+        position += 8 * documentCount;
+        sortedResumeIds = region(buffer, position, 8 * documentCount).asLongBuffer();
+        position += 8 * documentCount;
+        documentsOfSortedIds = region(buffer, position, 4 * documentCount).asIntBuffer();
+        position += 4 * documentCount;
+        postings = region(buffer, position, 4 * postingCount).asIntBuffer();
+        position += 4 * postingCount;
+        words = region(buffer, position, wordsSize);
+        position += wordsSize;
+        wordTable = region(buffer, position, 4 * WORD_ENTRY_INTS * wordCount).asIntBuffer();
+    }
+
+    /**
+     * Map a segment file.
+     *
+     * @param file the file written by {@link ResumeInvertedIndex#writeSegment}.
+     * @return the segment.
+     * @throws IOException if the file could not be read, or is not a complete segment.
+     */
+    public static ResumeIndexSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Resume index segment is too large");
+            }
+            return new ResumeIndexSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int documentCount() {
+        return documentCount;
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    long resumeId(int document) {
+        return resumeIds.get(document);
+    }
+
+    /**
+     * @return the document of a resume, or {@code -1} if the resume is not in the segment.
+     */
+    int document(long resumeId) {
+        int low = 0;
+        int high = documentCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long id = sortedResumeIds.get(middle);
+            if (id < resumeId) {
+                low = middle + 1;
+            } else if (id > resumeId) {
+                high = middle - 1;
+            } else {
+                return documentsOfSortedIds.get(middle);
+            }
+        }
+        return -1;
+    }
+
+    byte[] word(int index) {
+        byte[] word = new byte[wordTable.get(index * WORD_ENTRY_INTS + 1)];
+        region(words, wordTable.get(index * WORD_ENTRY_INTS), word.length).get(word);
+        return word;
+    }
+
+    IntBuffer posting(int index) {
+        int start = wordTable.get(index * WORD_ENTRY_INTS + 2);
+        int length = wordTable.get(index * WORD_ENTRY_INTS + 3);
+        IntBuffer posting = postings.duplicate();
+        posting.position(start).limit(start + length);
+        return posting.slice();
+    }
+
+    /**
+     * @return the posting list of a word, or {@code null} if no document of the segment contains it.
+     */
+    IntBuffer posting(String word) {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = wordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = compare(middle, bytes);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return posting(middle);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compare a word of the segment to UTF-8 bytes, as unsigned bytes.
+     */
+    private int compare(int index, byte[] bytes) {
+        int offset = wordTable.get(index * WORD_ENTRY_INTS);
+        int length = wordTable.get(index * WORD_ENTRY_INTS + 1);
+        for (int i = 0; i < Math.min(length, bytes.length); i++) {
+            int order = Integer.compare(Byte.toUnsignedInt(words.get(offset + i)), Byte.toUnsignedInt(bytes[i]));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(length, bytes.length);
+    }
+
+    private static ByteBuffer region(ByteBuffer buffer, int position, int length) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(position).limit(position + length);
+        return region.slice();
+    }
+}
@@ -0,0 +1,740 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongIntHashMap;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * In-memory inverted index of the search text of resumes: for each word, the resumes whose text contains it.
+ * <p>
+ * Each indexed resume gets a document number, in the order it is indexed, and the posting list of a word is the sorted
+ * primitive array of the documents containing it, so that the resumes matching several words are found by intersecting
+ * arrays. Re-indexing or removing a resume only marks its previous document as deleted; the index is compacted once
+ * deleted documents outnumber live ones.
+ * <p>
+ * The index may start from a memory-mapped {@link ResumeIndexSegment}, whose documents come first: the documents indexed
+ * since are then kept on the heap, and {@link #writeSegment} merges both into a new segment.
+ * <p>
+ * Words are lower-cased and stripped of their accents, both when indexing and when searching. The index is safe for
+ * concurrent use: searches share a read lock, updates take the write lock.
+ */
+public final class ResumeInvertedIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Documents tokenized by a single fork-join task when indexing a batch.
+     */
+    private static final int TOKENIZE_THRESHOLD = 1024;
+
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private static final int[] NO_DOCUMENTS = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ResumeIndexSegment segment;
+
+    private final int segmentDocuments;
+
+    private final Map<String, IntArrayList> postings = new HashMap<>();
+
+    /**
+     * The live documents on the heap, by resume ID; those of the segment are looked up in it.
+     */
+    private final LongIntHashMap liveDocuments = new LongIntHashMap();
+
+    private long[] resumeIds = new long[TOKENIZE_THRESHOLD];
+
+    private int documents;
+
+    private int liveCount;
+
+    private final BitSet deleted = new BitSet();
+
+    private int deletedCount;
+
+    /**
+     * The resumes matching a search: their total number, and the IDs of the requested page of them.
+     */
+    public static final class Hits {
+
+        private static final Hits NONE = new Hits(0, new long[0]);
+
+        private final int total;
+
+        private final long[] resumeIds;
+
+        private Hits(int total, long[] resumeIds) {
+            this.total = total;
+            this.resumeIds = resumeIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public long[] getResumeIds() {
+            return resumeIds;
+        }
+    }
+
+    public ResumeInvertedIndex() {
+        this((ResumeIndexSegment) null);
+    }
+
+    /**
+     * Create an index holding the documents of a segment.
+     *
+     * @param segment the segment, or {@code null} to start empty.
+     */
+    public ResumeInvertedIndex(ResumeIndexSegment segment) {
+        this.segment = segment;
+        this.segmentDocuments = segment == null ? 0 : segment.documentCount();
+        this.documents = segmentDocuments;
+        this.liveCount = segmentDocuments;
+    }
+
+    /**
+     * Copy an index, sharing its segment, which is immutable.
+     */
+    private ResumeInvertedIndex(ResumeInvertedIndex index) {
+        this(index.segment);
+        index.postings.forEach((word, posting) -> postings.put(word, posting.clone()));
+        liveDocuments.putAll(index.liveDocuments);
+        resumeIds = index.resumeIds.clone();
+        documents = index.documents;
+        liveCount = index.liveCount;
+        deleted.or(index.deleted);
+        deletedCount = index.deletedCount;
+    }
+
+    /**
+     * Copy the index, so that the copy can be written to a segment while the index keeps changing. Only the documents
+     * indexed since the segment are copied.
+     *
+     * @return the copy.
+     */
+    public ResumeInvertedIndex copy() {
+        lock.readLock().lock();
+        try {
+            return new ResumeInvertedIndex(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a batch of resumes, tokenizing their text in parallel.
+     *
+     * @param ids the IDs of the resumes.
+     * @param texts the search text of each resume, {@code null} for a resume without text.
+     * @param count the number of resumes of the arrays to index.
+     * @param pool the pool to tokenize the text in.
+     */
+    public void indexAll(long[] ids, String[] texts, int count, ForkJoinPool pool) {
+        Map<String, IntArrayList> batch = pool.invoke(new TokenizeTask(texts, 0, count));
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                removeDocument(ids[i]);
+            }
+            int first = documents;
+            ensureCapacity(first + count - segmentDocuments);
+            for (int i = 0; i < count; i++) {
+                resumeIds[first + i - segmentDocuments] = ids[i];
+                liveDocuments.put(ids[i], first + i);
+            }
+            documents += count;
+            liveCount += count;
+            for (Map.Entry<String, IntArrayList> entry : batch.entrySet()) {
+                IntArrayList relative = entry.getValue();
+                IntArrayList posting = postings.computeIfAbsent(entry.getKey(), word -> new IntArrayList(relative.size()));
+                for (int i = 0; i < relative.elementsCount; i++) {
+                    posting.add(first + relative.buffer[i]);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index a resume, replacing its previous text if it was already indexed.
+     *
+     * @param resumeId the ID of the resume.
+     * @param text the search text of the resume, {@code null} for a resume without text.
+     */
+    public void index(long resumeId, String text) {
+        Set<String> words = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeDocument(resumeId);
+            int document = documents++;
+            ensureCapacity(documents - segmentDocuments);
+            resumeIds[document - segmentDocuments] = resumeId;
+            liveDocuments.put(resumeId, document);
+            liveCount++;
+            for (String word : words) {
+                postings.computeIfAbsent(word, key -> new IntArrayList()).add(document);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a resume from the index, if it is indexed.
+     *
+     * @param resumeId the ID of the resume.
+     */
+    public void remove(long resumeId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(resumeId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tell whether a query can be searched in the index: quoted phrases cannot, as the index does not keep the position of
+     * words, nor can alternatives made only of excluded words, as the index does not list the resumes without a word.
+     *
+     * @param query the query, in PostgreSQL web search syntax.
+     * @return whether {@link #search} matches the resumes PostgreSQL would, ignoring stemming.
+     */
+    public static boolean supports(String query) {
+        return query.indexOf('"') < 0 && parse(query) != null;
+    }
+
+    /**
+     * Search the resumes matching a query in PostgreSQL web search syntax, without its quoted phrases: those whose text
+     * contains every word, and none of the words prefixed by {@code -}, of one of the alternatives separated by {@code or}.
+     *
+     * @param query the query, see {@link #supports}.
+     * @param offset the number of matching resumes to skip.
+     * @param limit the maximum number of resume IDs to return.
+     * @return the matching resumes, most recently indexed first, or none if the query is not supported.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<Clause> clauses = parse(query);
+        if (clauses == null || clauses.isEmpty()) {
+            return Hits.NONE;
+        }
+        lock.readLock().lock();
+        try {
+            // A document matches within the segment or within the heap, as it holds all its words in either one
+            int[] segmentMatches = NO_DOCUMENTS;
+            int[] heapMatches = NO_DOCUMENTS;
+            for (Clause clause : clauses) {
+                if (segment != null) {
+                    segmentMatches = union(segmentMatches, match(segmentPostings(clause.required), segmentPostings(clause.excluded)));
+                }
+                heapMatches = union(heapMatches, match(heapPostings(clause.required), heapPostings(clause.excluded)));
+            }
+            int[] matches = Arrays.copyOf(segmentMatches, segmentMatches.length + heapMatches.length);
+            System.arraycopy(heapMatches, 0, matches, segmentMatches.length, heapMatches.length);
+            int live = 0;
+            for (int document : matches) {
+                if (!deleted.get(document)) {
+                    matches[live++] = document;
+                }
+            }
+            int from = Math.min(offset, live);
+            int to = (int) Math.min((long) from + limit, live);
+            long[] ids = new long[to - from];
+            for (int i = from; i < to; i++) {
+                ids[i - from] = resumeId(matches[live - 1 - i]);
+            }
+            return new Hits(live, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed resumes.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the highest ID of the indexed resumes, or {@code 0} if the index is empty.
+     */
+    public long maxResumeId() {
+        lock.readLock().lock();
+        try {
+            long max = 0;
+            for (int document = deleted.nextClearBit(0); document < documents; document = deleted.nextClearBit(document + 1)) {
+                max = Math.max(max, resumeId(document));
+            }
+            return max;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the live documents of the index to a new segment file, renumbered in their current order.
+     *
+     * @param file the file to write, replaced if it exists.
+     * @throws IOException if the file could not be written, or if the index is too large for a single segment.
+     */
+    public void writeSegment(Path file) throws IOException {
+        lock.readLock().lock();
+        try (
+            FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            int[] renumbered = new int[documents];
+            long[] liveIds = new long[liveCount];
+            int live = 0;
+            for (int document = 0; document < documents; document++) {
+                if (deleted.get(document)) {
+                    renumbered[document] = -1;
+                } else {
+                    liveIds[live] = resumeId(document);
+                    renumbered[document] = live++;
+                }
+            }
+
+            List<byte[]> heapWords = new ArrayList<>(postings.size());
+            for (String word : postings.keySet()) {
+                heapWords.add(word.getBytes(StandardCharsets.UTF_8));
+            }
+            heapWords.sort(Arrays::compareUnsigned);
+
+            channel.position(ResumeIndexSegment.HEADER_SIZE);
+            CRC32 checksum = new CRC32();
+            DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new CheckedOutputStream(Channels.newOutputStream(channel), checksum), 1 << 16)
+            );
+            for (long id : liveIds) {
+                output.writeLong(id);
+            }
+            long[] sortedIds = liveIds.clone();
+            Arrays.sort(sortedIds);
+            LongIntHashMap documentOfId = new LongIntHashMap(liveIds.length);
+            for (int document = 0; document < liveIds.length; document++) {
+                documentOfId.put(liveIds[document], document);
+            }
+            for (long id : sortedIds) {
+                output.writeLong(id);
+            }
+            for (long id : sortedIds) {
+                output.writeInt(documentOfId.get(id));
+            }
+
+            // Postings, merging the words of the segment and of the heap in the order of their UTF-8 bytes
+            List<byte[]> words = new ArrayList<>();
+            IntArrayList postingStarts = new IntArrayList();
+            IntArrayList postingLengths = new IntArrayList();
+            long postingsSize = 0;
+            int segmentWord = 0;
+            int heapWord = 0;
+            int segmentWords = segment == null ? 0 : segment.wordCount();
+            while (segmentWord < segmentWords || heapWord < heapWords.size()) {
+                byte[] fromSegment = segmentWord < segmentWords ? segment.word(segmentWord) : null;
+                byte[] fromHeap = heapWord < heapWords.size() ? heapWords.get(heapWord) : null;
+                int order = fromSegment == null ? 1 : fromHeap == null ? -1 : Arrays.compareUnsigned(fromSegment, fromHeap);
+                byte[] word = order <= 0 ? fromSegment : fromHeap;
+                int length = 0;
+                if (order <= 0) {
+                    length += writePosting(output, segment.posting(segmentWord++), renumbered);
+                }
+                if (order >= 0) {
+                    IntArrayList posting = postings.get(new String(fromHeap, StandardCharsets.UTF_8));
+                    length += writePosting(output, IntBuffer.wrap(posting.buffer, 0, posting.elementsCount), renumbered);
+                    heapWord++;
+                }
+                if (length > 0) {
+                    words.add(word);
+                    postingStarts.add((int) postingsSize);
+                    postingLengths.add(length);
+                    postingsSize += length;
+                }
+            }
+            int wordsSize = 0;
+            for (byte[] word : words) {
+                output.write(word);
+                wordsSize += word.length;
+            }
+            int wordOffset = 0;
+            for (int i = 0; i < words.size(); i++) {
+                output.writeInt(wordOffset);
+                output.writeInt(words.get(i).length);
+                output.writeInt(postingStarts.get(i));
+                output.writeInt(postingLengths.get(i));
+                wordOffset += words.get(i).length;
+            }
+            output.flush();
+
+            long size = channel.position();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Resume index of " + size + " bytes is too large for a single segment");
+            }
+            ByteBuffer header = ByteBuffer.allocate(ResumeIndexSegment.HEADER_SIZE);
+            header
+                .putInt(ResumeIndexSegment.MAGIC)
+                .putInt(ResumeIndexSegment.VERSION)
+                .putInt(liveIds.length)
+                .putInt(words.size())
+                .putInt((int) postingsSize)
+                .putInt(wordsSize)
+                .putInt((int) checksum.getValue())
+                .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split a text into its distinct words, lower-cased and without accents.
+     */
+    static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Split a query into its alternatives, like {@code websearch_to_tsquery} does: {@code or} separates them, and binds
+     * looser than the words of each alternative.
+     *
+     * @return the alternatives, or {@code null} if one of them has no required word.
+     */
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        Clause clause = new Clause();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.equalsIgnoreCase("or")) {
+                if (!clause.isEmpty()) {
+                    clauses.add(clause);
+                    clause = new Clause();
+                }
+            } else if (word.length() > 1 && word.charAt(0) == '-') {
+                clause.excluded.addAll(tokenize(word.substring(1)));
+            } else {
+                clause.required.addAll(tokenize(word));
+            }
+        }
+        if (!clause.isEmpty()) {
+            clauses.add(clause);
+        }
+        for (Clause parsed : clauses) {
+            if (parsed.required.isEmpty()) {
+                return null;
+            }
+        }
+        return clauses;
+    }
+
+    private List<IntBuffer> segmentPostings(List<String> words) {
+        List<IntBuffer> lists = new ArrayList<>(words.size());
+        for (String word : words) {
+            lists.add(segment.posting(word));
+        }
+        return lists;
+    }
+
+    private List<IntBuffer> heapPostings(List<String> words) {
+        List<IntBuffer> lists = new ArrayList<>(words.size());
+        for (String word : words) {
+            IntArrayList posting = postings.get(word);
+            lists.add(posting == null ? null : IntBuffer.wrap(posting.buffer, 0, posting.elementsCount));
+        }
+        return lists;
+    }
+
+    /**
+     * Find the documents in every required posting list and in no excluded one, {@code null} standing for a missing list.
+     */
+    private static int[] match(List<IntBuffer> required, List<IntBuffer> excluded) {
+        if (required.contains(null)) {
+            return NO_DOCUMENTS;
+        }
+        required.sort(Comparator.comparingInt(IntBuffer::limit));
+        int[] matches = new int[required.get(0).limit()];
+        required.get(0).duplicate().rewind().get(matches);
+        int count = matches.length;
+        for (int i = 1; i < required.size() && count > 0; i++) {
+            count = retain(matches, count, required.get(i), true);
+        }
+        for (IntBuffer posting : excluded) {
+            if (posting != null && count > 0) {
+                count = retain(matches, count, posting, false);
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Merge two sorted arrays of documents, without duplicates.
+     */
+    private static int[] union(int[] left, int[] right) {
+        if (left.length == 0) {
+            return right;
+        }
+        if (right.length == 0) {
+            return left;
+        }
+        int[] merged = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length || j < right.length) {
+            int next = j == right.length || (i < left.length && left[i] <= right[j]) ? left[i] : right[j];
+            merged[count++] = next;
+            while (i < left.length && left[i] == next) {
+                i++;
+            }
+            while (j < right.length && right[j] == next) {
+                j++;
+            }
+        }
+        return count == merged.length ? merged : Arrays.copyOf(merged, count);
+    }
+
+    /**
+     * Keep the documents of a sorted array that are, or are not, in a posting list.
+     *
+     * @return the number of documents kept, at the start of the array.
+     */
+    private static int retain(int[] documents, int count, IntBuffer posting, boolean inPosting) {
+        int size = posting.limit();
+        int position = 0;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            position = advance(posting, size, position, documents[i]);
+            boolean found = position < size && posting.get(position) == documents[i];
+            if (found == inPosting) {
+                documents[kept++] = documents[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Find the first position, from a given one, of a sorted list whose document is not lower than a target, galloping so
+     * that intersecting a short list with a long one does not scan the long one.
+     */
+    private static int advance(IntBuffer list, int size, int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && list.get(high) < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (list.get(middle) < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Write the live documents of a posting list, renumbered.
+     *
+     * @return the number of documents written.
+     */
+    private static int writePosting(DataOutputStream output, IntBuffer posting, int[] renumbered) throws IOException {
+        int written = 0;
+        for (int i = 0; i < posting.limit(); i++) {
+            int document = renumbered[posting.get(i)];
+            if (document >= 0) {
+                output.writeInt(document);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private long resumeId(int document) {
+        return document < segmentDocuments ? segment.resumeId(document) : resumeIds[document - segmentDocuments];
+    }
+
+    private void removeDocument(long resumeId) {
+        int document = liveDocuments.getOrDefault(resumeId, -1);
+        if (document >= 0) {
+            liveDocuments.remove(resumeId);
+            deleted.set(document);
+            deletedCount++;
+            liveCount--;
+        } else if (segment != null) {
+            document = segment.document(resumeId);
+            if (document >= 0 && !deleted.get(document)) {
+                deleted.set(document);
+                liveCount--;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > resumeIds.length) {
+            resumeIds = Arrays.copyOf(resumeIds, Math.max(capacity, resumeIds.length + (resumeIds.length >> 1)));
+        }
+    }
+
+    /**
+     * Renumber the live documents of the heap, keeping their order so that posting lists stay sorted. The deleted documents
+     * of the segment stay until the next segment is written.
+     */
+    private void compactIfNeeded() {
+        int heapDocuments = documents - segmentDocuments;
+        if (deletedCount < MIN_DELETED_TO_COMPACT || deletedCount * 2 < heapDocuments) {
+            return;
+        }
+        int[] renumbered = new int[heapDocuments];
+        long[] liveIds = new long[Math.max(heapDocuments - deletedCount, TOKENIZE_THRESHOLD)];
+        int live = 0;
+        for (int document = 0; document < heapDocuments; document++) {
+            if (deleted.get(segmentDocuments + document)) {
+                renumbered[document] = -1;
+            } else {
+                liveIds[live] = resumeIds[document];
+                renumbered[document] = segmentDocuments + live++;
+            }
+        }
+        for (Iterator<IntArrayList> iterator = postings.values().iterator(); iterator.hasNext();) {
+            IntArrayList posting = iterator.next();
+            int kept = 0;
+            for (int i = 0; i < posting.elementsCount; i++) {
+                int document = renumbered[posting.buffer[i] - segmentDocuments];
+                if (document >= 0) {
+                    posting.buffer[kept++] = document;
+                }
+            }
+            posting.elementsCount = kept;
+            if (kept == 0) {
+                iterator.remove();
+            }
+        }
+        liveDocuments.clear();
+        for (int document = 0; document < live; document++) {
+            liveDocuments.put(liveIds[document], segmentDocuments + document);
+        }
+        resumeIds = liveIds;
+        documents = segmentDocuments + live;
+        deleted.clear(segmentDocuments, segmentDocuments + heapDocuments);
+        deletedCount = 0;
+    }
+
+    /**
+     * Tokenize a range of texts, returning the posting lists of the range with documents numbered from the start of the texts.
+     */
+    private static class TokenizeTask extends RecursiveTask<Map<String, IntArrayList>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient String[] texts;
+
+        private final int from;
+
+        private final int to;
+
+        TokenizeTask(String[] texts, int from, int to) {
+            this.texts = texts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, IntArrayList> compute() {
+            if (to - from <= TOKENIZE_THRESHOLD) {
+                Map<String, IntArrayList> postings = new HashMap<>();
+                for (int document = from; document < to; document++) {
+                    for (String word : tokenize(texts[document])) {
+                        postings.computeIfAbsent(word, key -> new IntArrayList()).add(document);
+                    }
+                }
+                return postings;
+            }
+            int middle = (from + to) >>> 1;
+            TokenizeTask left = new TokenizeTask(texts, from, middle);
+            left.fork();
+            Map<String, IntArrayList> right = new TokenizeTask(texts, middle, to).compute();
+            Map<String, IntArrayList> postings = left.join();
+            // The documents of the right half all follow those of the left half, so appending keeps the lists sorted
+            right.forEach((word, posting) -> postings.merge(word, posting, (first, second) -> {
+                first.addAll(second);
+                return first;
+            }));
+            return postings;
+        }
+    }
+
+    /**
+     * An alternative of a query: the words a resume must contain, and those it must not.
+     */
+    private static final class Clause {
+
+        private final List<String> required = new ArrayList<>();
+
+        private final List<String> excluded = new ArrayList<>();
+
+        boolean isEmpty() {
+            return required.isEmpty() && excluded.isEmpty();
+        }
+    }
+}
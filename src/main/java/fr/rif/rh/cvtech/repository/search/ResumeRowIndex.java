@@ -0,0 +1,158 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * A {@link RebuildableIndex} holding a row of values per resume, read by a query selecting the ID of each resume followed by
+ * its values.
+ * <p>
+ * The structure is built from all the rows of the query, and the rows of the resumes written by a transaction are read again
+ * by {@link fr.rif.rh.cvtech.repository.ResumeSearchIndexer}, with the query restricted to these resumes, and set once the
+ * transaction commits. Setting the row of a resume replaces its previous one, so that a change replayed after a rebuild
+ * changes nothing.
+ *
+ * @param <T> the type of the structure.
+ * @param <V> the type of the values of a resume.
+ */
+public abstract class ResumeRowIndex<T, V> extends RebuildableIndex<T> {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String select;
+
+    /**
+     * @param jdbcTemplate the template running the query.
+     * @param enabled whether the structure is built.
+     * @param taskScheduler the scheduler rebuilding the structure, see {@link RebuildableIndex}.
+     * @param reconcileInterval the interval at which the structure is rebuilt, see {@link RebuildableIndex}.
+     * @param select the query selecting the ID of each resume followed by its values, to complete with a condition on the
+     * resume.
+     */
+    protected ResumeRowIndex(
+        JdbcTemplate jdbcTemplate,
+        boolean enabled,
+        TaskScheduler taskScheduler,
+        Duration reconcileInterval,
+        String select
+    ) {
+        super(enabled, taskScheduler, reconcileInterval);
+        this.jdbcTemplate = jdbcTemplate;
+        this.select = select;
+    }
+
+    /**
+     * Start reading the rows of the resumes written by a transaction.
+     *
+     * @return the rows, to {@link Rows#apply} once the transaction commits.
+     */
+    public Rows newRows() {
+        return new Rows();
+    }
+
+    /**
+     * Update the rows of committed resumes.
+     *
+     * @param rows the values of each resume, by resume ID.
+     */
+    public void update(Map<Long, V> rows) {
+        apply(target -> rows.forEach((resumeId, values) -> set(target, resumeId, values)));
+    }
+
+    /**
+     * Remove deleted resumes.
+     *
+     * @param resumeIds the IDs of the resumes.
+     */
+    public void remove(Collection<Long> resumeIds) {
+        apply(target -> resumeIds.forEach(resumeId -> unset(target, resumeId)));
+    }
+
+    @Override
+    protected T build() {
+        T built = create();
+        jdbcTemplate.query(
+            select + " order by resume.id",
+            (RowCallbackHandler) resultSet -> set(built, resultSet.getLong(1), readRow(resultSet))
+        );
+        complete(built);
+        return built;
+    }
+
+    /**
+     * @return a new empty structure.
+     */
+    protected abstract T create();
+
+    /**
+     * Read the values of a row of the query.
+     *
+     * @param resultSet the result set, on the row.
+     * @return the values of the resume.
+     * @throws SQLException if the values could not be read.
+     */
+    protected abstract V readRow(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Set the values of a resume, replacing its previous ones.
+     */
+    protected abstract void set(T target, long resumeId, V values);
+
+    /**
+     * Remove a resume, if it is in the structure.
+     */
+    protected abstract void unset(T target, long resumeId);
+
+    /**
+     * Complete a structure once all resumes are set, before it is used.
+     */
+    protected void complete(T built) {
+        // Nothing to complete by default
+    }
+
+    /**
+     * The rows of the resumes written by a transaction.
+     */
+    public final class Rows {
+
+        private final Map<Long, V> rows = new HashMap<>();
+
+        private Rows() {}
+
+        /**
+         * @return the query selecting the ID of each resume followed by its values, to complete with a condition on the
+         * resume.
+         */
+        public String getSelect() {
+            return select;
+        }
+
+        /**
+         * Read a row of the query.
+         *
+         * @param resultSet the result set, on the row.
+         * @throws SQLException if the values could not be read.
+         */
+        public void add(ResultSet resultSet) throws SQLException {
+            rows.put(resultSet.getLong(1), readRow(resultSet));
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        /**
+         * Update the structure with the rows read.
+         */
+        public void apply() {
+            update(rows);
+        }
+    }
+}
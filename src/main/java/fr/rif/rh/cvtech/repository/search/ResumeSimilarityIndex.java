@@ -0,0 +1,95 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link ResumeTermVectors} of all resumes, finding the resumes most similar to a given one from memory.
+ * <p>
+ * The vectors are built once the application is ready, unless {@code application.search.similarity-index} is {@code false},
+ * and rebuilt every {@code application.search.similarity-reconcile-interval}, so that the resumes written on other nodes are
+ * compared.
+ */
+@Component
+public class ResumeSimilarityIndex extends ResumeRowIndex<ResumeTermVectors, String> {
+
+    /**
+     * The ID of each resume with the text of its experience, education and skills, to complete with a condition on the resume.
+     */
+    private static final String SELECT_TEXT =
+        "select resume.id, experience.nom_poste, experience.nom_entreprise, experience.description_experience, outil.nom_outil," +
+        " etude.nom_etude, programmation.nom_langage, design.nom_design" +
+        " from resume" +
+        " left join experience on experience.id = resume.experience_id" +
+        " left join outil on outil.id = experience.outil_id" +
+        " left join etude on etude.id = resume.etude_id" +
+        " left join programmation on programmation.id = resume.programmation_id" +
+        " left join design on design.id = resume.design_id";
+
+    private static final int TEXT_COLUMNS = 7;
+
+    public ResumeSimilarityIndex(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, ApplicationProperties applicationProperties) {
+        super(
+            jdbcTemplate,
+            applicationProperties.getSearch().isSimilarityIndex(),
+            taskScheduler,
+            applicationProperties.getSearch().getSimilarityReconcileInterval(),
+            SELECT_TEXT
+        );
+    }
+
+    /**
+     * Find the resumes most similar to a resume, see {@link ResumeTermVectors#similar}.
+     *
+     * @param resumeId the ID of the resume.
+     * @param limit the maximum number of resumes to return.
+     * @return the most similar resumes, most similar first, or nothing if the vectors are not built.
+     */
+    public Optional<List<ResumeTermVectors.SimilarResume>> similar(long resumeId, int limit) {
+        return read(vectors -> vectors.similar(resumeId, limit));
+    }
+
+    @Override
+    protected ResumeTermVectors create() {
+        return new ResumeTermVectors();
+    }
+
+    @Override
+    protected String readRow(ResultSet resultSet) throws SQLException {
+        StringJoiner text = new StringJoiner(" ");
+        for (int column = 2; column < 2 + TEXT_COLUMNS; column++) {
+            String value = resultSet.getString(column);
+            if (value != null) {
+                text.add(value);
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    protected void set(ResumeTermVectors vectors, long resumeId, String text) {
+        vectors.set(resumeId, text);
+    }
+
+    @Override
+    protected void unset(ResumeTermVectors vectors, long resumeId) {
+        vectors.remove(resumeId);
+    }
+
+    @Override
+    protected void complete(ResumeTermVectors vectors) {
+        vectors.updateNorms();
+    }
+
+    @Override
+    protected String describe(ResumeTermVectors vectors) {
+        return "the term vectors of " + vectors.size() + " resumes";
+    }
+}
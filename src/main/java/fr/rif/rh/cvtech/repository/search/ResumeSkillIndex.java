@@ -0,0 +1,86 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link ResumeSkillMatrix} of all resumes, ranking them against job profiles from memory.
+ * <p>
+ * The matrix is built once the application is ready, unless {@code application.search.skill-index} is {@code false}, and
+ * rebuilt every {@code application.search.skill-reconcile-interval}, so that the resumes written on other nodes are ranked.
+ */
+@Component
+public class ResumeSkillIndex extends ResumeRowIndex<ResumeSkillMatrix, ResumeSkillMatrix.Skills> {
+
+    /**
+     * The ID of each resume with its programming language and design skill, to complete with a condition on the resume.
+     */
+    private static final String SELECT_SKILLS =
+        "select resume.id, programmation.nom_langage, programmation.taux_de_langage, design.nom_design, design.taux_de_design" +
+        " from resume" +
+        " left join programmation on programmation.id = resume.programmation_id" +
+        " left join design on design.id = resume.design_id";
+
+    public ResumeSkillIndex(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, ApplicationProperties applicationProperties) {
+        super(
+            jdbcTemplate,
+            applicationProperties.getSearch().isSkillIndex(),
+            taskScheduler,
+            applicationProperties.getSearch().getSkillReconcileInterval(),
+            SELECT_SKILLS
+        );
+    }
+
+    /**
+     * Rank the resumes against a job profile, see {@link ResumeSkillMatrix#rank}.
+     *
+     * @param requirements the skills of the job profile.
+     * @param limit the maximum number of resumes to return.
+     * @return the best ranked resumes, best first, or nothing if the matrix is not built.
+     */
+    public Optional<List<ResumeSkillMatrix.Match>> rank(List<ResumeSkillMatrix.Requirement> requirements, int limit) {
+        return read(matrix -> matrix.rank(requirements, limit, ForkJoinPool.commonPool()));
+    }
+
+    @Override
+    protected ResumeSkillMatrix create() {
+        return new ResumeSkillMatrix();
+    }
+
+    @Override
+    protected ResumeSkillMatrix.Skills readRow(ResultSet resultSet) throws SQLException {
+        return new ResumeSkillMatrix.Skills(
+            resultSet.getString(2),
+            getInteger(resultSet, 3),
+            resultSet.getString(4),
+            getInteger(resultSet, 5)
+        );
+    }
+
+    @Override
+    protected void set(ResumeSkillMatrix matrix, long resumeId, ResumeSkillMatrix.Skills skills) {
+        matrix.set(resumeId, skills);
+    }
+
+    @Override
+    protected void unset(ResumeSkillMatrix matrix, long resumeId) {
+        matrix.remove(resumeId);
+    }
+
+    @Override
+    protected String describe(ResumeSkillMatrix matrix) {
+        return "the skill matrix of " + matrix.size() + " resumes";
+    }
+
+    private static Integer getInteger(ResultSet resultSet, int column) throws SQLException {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+    }
+}
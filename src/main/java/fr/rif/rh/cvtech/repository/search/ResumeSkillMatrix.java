@@ -0,0 +1,479 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Columnar snapshot of the programming language and design skill of resumes, ranking them against a job profile.
+ * <p>
+ * Each resume is a document, numbered in the order it was added. The skills of the documents are held in primitive columns:
+ * the number of the language and of the design skill in a dictionary of skill names, and their rates, as percentages.
+ * Ranking scans the columns in chunks run in parallel, each keeping its best documents in a bounded heap, and merges the
+ * heaps. A removed resume keeps its document, without skills, until the removed documents outnumber the others, when the
+ * columns are compacted.
+ * <p>
+ * The matrix is not thread-safe: it must not be changed while it is ranking.
+ */
+public final class ResumeSkillMatrix {
+
+    static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private static final int MIN_REMOVED_TO_COMPACT = 1024;
+
+    private final Map<String, Integer> skillNumbers = new HashMap<>();
+
+    private final LongIntHashMap documents = new LongIntHashMap();
+
+    private int documentCount;
+
+    private long[] resumeIds = new long[INITIAL_CAPACITY];
+
+    private int[] languages = new int[INITIAL_CAPACITY];
+
+    private byte[] languageRates = new byte[INITIAL_CAPACITY];
+
+    private int[] designs = new int[INITIAL_CAPACITY];
+
+    private byte[] designRates = new byte[INITIAL_CAPACITY];
+
+    /**
+     * @return the number of resumes in the matrix.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Add a resume to the matrix, or replace its skills.
+     *
+     * @param resumeId the ID of the resume.
+     * @param skills the skills of the resume.
+     */
+    public void set(long resumeId, Skills skills) {
+        int document = documents.getOrDefault(resumeId, NONE);
+        if (document == NONE) {
+            document = documentCount++;
+            if (document == resumeIds.length) {
+                grow();
+            }
+            resumeIds[document] = resumeId;
+            documents.put(resumeId, document);
+        }
+        languages[document] = skillNumber(skills.language);
+        languageRates[document] = rate(skills.languageRate);
+        designs[document] = skillNumber(skills.design);
+        designRates[document] = rate(skills.designRate);
+    }
+
+    /**
+     * Remove a resume from the matrix.
+     *
+     * @param resumeId the ID of the resume.
+     */
+    public void remove(long resumeId) {
+        int document = documents.getOrDefault(resumeId, NONE);
+        if (document != NONE) {
+            documents.remove(resumeId);
+            languages[document] = NONE;
+            designs[document] = NONE;
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Rank the resumes against a job profile.
+     * <p>
+     * A resume is ranked if it has at least one of the skills of the profile, and has each required skill at its minimum rate
+     * at least. Its score is the sum of the rates of its skills of the profile, each multiplied by its weight. A skill held both
+     * as language and as design skill counts once, at its best rate. Requirements on the same skill are merged.
+     *
+     * @param requirements the skills of the job profile.
+     * @param limit the maximum number of resumes to return.
+     * @param pool the pool to scan the columns with.
+     * @return the best ranked resumes, best first, ties in the order the resumes were added.
+     */
+    public List<Match> rank(List<Requirement> requirements, int limit, ForkJoinPool pool) {
+        Query query = new Query(skillNumbers.size(), requirements.size());
+        for (Requirement requirement : requirements) {
+            Integer skill = skillNumbers.get(normalize(requirement.skill));
+            if (skill != null) {
+                query.add(skill, requirement);
+            } else if (requirement.minimum != null) {
+                // No resume has a required skill that is not in the dictionary
+                return Collections.emptyList();
+            }
+        }
+        // A resume has two skills at most
+        if (query.criterionCount == 0 || query.requiredCount > 2 || limit <= 0 || documentCount == 0) {
+            return Collections.emptyList();
+        }
+        TopDocuments top = pool.invoke(new RankTask(query, limit, 0, documentCount));
+        return top.toMatches(resumeIds);
+    }
+
+    /**
+     * Renumber the documents of the resumes in the matrix, in the order they were added, once the removed documents outnumber
+     * them.
+     */
+    private void compactIfNeeded() {
+        int liveCount = documents.size();
+        int removedCount = documentCount - liveCount;
+        if (removedCount < MIN_REMOVED_TO_COMPACT || removedCount <= liveCount) {
+            return;
+        }
+        int renumbered = 0;
+        for (int document = 0; document < documentCount; document++) {
+            long resumeId = resumeIds[document];
+            if (documents.getOrDefault(resumeId, NONE) == document) {
+                resumeIds[renumbered] = resumeId;
+                languages[renumbered] = languages[document];
+                languageRates[renumbered] = languageRates[document];
+                designs[renumbered] = designs[document];
+                designRates[renumbered] = designRates[document];
+                documents.put(resumeId, renumbered++);
+            }
+        }
+        documentCount = renumbered;
+        int capacity = Math.max(INITIAL_CAPACITY, liveCount);
+        resumeIds = Arrays.copyOf(resumeIds, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        languageRates = Arrays.copyOf(languageRates, capacity);
+        designs = Arrays.copyOf(designs, capacity);
+        designRates = Arrays.copyOf(designRates, capacity);
+    }
+
+    private void grow() {
+        int capacity = resumeIds.length * 2;
+        resumeIds = Arrays.copyOf(resumeIds, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        languageRates = Arrays.copyOf(languageRates, capacity);
+        designs = Arrays.copyOf(designs, capacity);
+        designRates = Arrays.copyOf(designRates, capacity);
+    }
+
+    private int skillNumber(String skill) {
+        String name = normalize(skill);
+        return name == null ? NONE : skillNumbers.computeIfAbsent(name, key -> skillNumbers.size());
+    }
+
+    private static String normalize(String skill) {
+        if (skill == null || skill.isBlank()) {
+            return null;
+        }
+        return skill.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the rate as a percentage, missing rates being 0.
+     */
+    private static byte rate(Integer rate) {
+        return rate == null ? 0 : (byte) Math.max(0, Math.min(100, rate));
+    }
+
+    /**
+     * The skills of a resume, any of which may be {@code null}.
+     */
+    public static final class Skills {
+
+        private final String language;
+
+        private final Integer languageRate;
+
+        private final String design;
+
+        private final Integer designRate;
+
+        public Skills(String language, Integer languageRate, String design, Integer designRate) {
+            this.language = language;
+            this.languageRate = languageRate;
+            this.design = design;
+            this.designRate = designRate;
+        }
+    }
+
+    /**
+     * A skill of a job profile.
+     */
+    public static final class Requirement {
+
+        private final String skill;
+
+        private final Integer minimum;
+
+        private final double weight;
+
+        /**
+         * @param skill the name of the skill, compared ignoring case.
+         * @param minimum the minimum rate of the skill, or {@code null} if the skill is not required.
+         * @param weight the weight of the rate of the skill in the score.
+         */
+        public Requirement(String skill, Integer minimum, double weight) {
+            this.skill = skill;
+            this.minimum = minimum;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A ranked resume.
+     */
+    public static final class Match {
+
+        private final long resumeId;
+
+        private final double score;
+
+        Match(long resumeId, double score) {
+            this.resumeId = resumeId;
+            this.score = score;
+        }
+
+        public long getResumeId() {
+            return resumeId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * A job profile resolved against the dictionary: the criterion of each skill number, and the weight, minimum rate and
+     * requiredness of each criterion.
+     */
+    private static final class Query {
+
+        private final int[] criteria;
+
+        private final double[] criterionWeights;
+
+        private final int[] criterionMinimums;
+
+        private final boolean[] required;
+
+        private int criterionCount;
+
+        private int requiredCount;
+
+        Query(int skillCount, int requirementCount) {
+            criteria = new int[skillCount];
+            Arrays.fill(criteria, NONE);
+            criterionWeights = new double[requirementCount];
+            criterionMinimums = new int[requirementCount];
+            required = new boolean[requirementCount];
+        }
+
+        void add(int skill, Requirement requirement) {
+            int criterion = criteria[skill];
+            if (criterion == NONE) {
+                criterion = criterionCount++;
+                criteria[skill] = criterion;
+            }
+            criterionWeights[criterion] += requirement.weight;
+            if (requirement.minimum != null) {
+                if (!required[criterion]) {
+                    required[criterion] = true;
+                    requiredCount++;
+                }
+                criterionMinimums[criterion] = Math.max(criterionMinimums[criterion], requirement.minimum);
+            }
+        }
+    }
+
+    /**
+     * Scans a range of documents, splitting it in halves until it is a chunk.
+     */
+    private final class RankTask extends RecursiveTask<TopDocuments> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Query query;
+
+        private final int limit;
+
+        private final int from;
+
+        private final int to;
+
+        RankTask(Query query, int limit, int from, int to) {
+            this.query = query;
+            this.limit = limit;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopDocuments compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            RankTask left = new RankTask(query, limit, from, middle);
+            left.fork();
+            TopDocuments right = new RankTask(query, limit, middle, to).compute();
+            TopDocuments top = left.join();
+            top.addAll(right);
+            return top;
+        }
+
+        private TopDocuments scan() {
+            int[] criteria = query.criteria;
+            double[] weights = query.criterionWeights;
+            int[] minimums = query.criterionMinimums;
+            boolean[] required = query.required;
+            int requiredCount = query.requiredCount;
+            TopDocuments top = new TopDocuments(Math.min(limit, to - from));
+            for (int document = from; document < to; document++) {
+                int language = languages[document];
+                int design = designs[document];
+                int languageCriterion = language == NONE ? NONE : criteria[language];
+                int designCriterion = design == NONE ? NONE : criteria[design];
+                if (languageCriterion == NONE && designCriterion == NONE) {
+                    continue;
+                }
+                int languageRate = languageRates[document];
+                int designRate = designRates[document];
+                if (languageCriterion == designCriterion) {
+                    languageRate = Math.max(languageRate, designRate);
+                    designCriterion = NONE;
+                }
+                double score = 0;
+                int requiredMet = 0;
+                if (languageCriterion != NONE) {
+                    if (languageRate < minimums[languageCriterion]) {
+                        continue;
+                    }
+                    score += weights[languageCriterion] * languageRate;
+                    if (required[languageCriterion]) {
+                        requiredMet++;
+                    }
+                }
+                if (designCriterion != NONE) {
+                    if (designRate < minimums[designCriterion]) {
+                        continue;
+                    }
+                    score += weights[designCriterion] * designRate;
+                    if (required[designCriterion]) {
+                        requiredMet++;
+                    }
+                }
+                if (requiredMet == requiredCount) {
+                    top.offer(document, score);
+                }
+            }
+            return top;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best documents, its root being the worst of them.
+     */
+    private static final class TopDocuments {
+
+        private final int capacity;
+
+        private int[] documents;
+
+        private double[] scores;
+
+        private int size;
+
+        TopDocuments(int capacity) {
+            this.capacity = capacity;
+            int initialCapacity = Math.min(capacity, 64);
+            documents = new int[initialCapacity];
+            scores = new double[initialCapacity];
+        }
+
+        void offer(int document, double score) {
+            if (size < capacity) {
+                if (size == documents.length) {
+                    int grown = (int) Math.min(capacity, 2L * documents.length);
+                    documents = Arrays.copyOf(documents, grown);
+                    scores = Arrays.copyOf(scores, grown);
+                }
+                documents[size] = document;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && ranksBefore(score, document, scores[0], documents[0])) {
+                documents[0] = document;
+                scores[0] = score;
+                siftDown(0, size);
+            }
+        }
+
+        void addAll(TopDocuments other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.documents[i], other.scores[i]);
+            }
+        }
+
+        List<Match> toMatches(long[] resumeIds) {
+            // Sort the heap in place, each removed root going after the remaining documents
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            List<Match> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                matches.add(new Match(resumeIds[documents[i]], scores[i]));
+            }
+            return matches;
+        }
+
+        private static boolean ranksBefore(double score, int document, double otherScore, int otherDocument) {
+            return score > otherScore || (score == otherScore && document < otherDocument);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!ranksBefore(scores[parent], documents[parent], scores[index], documents[index])) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int end) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < end && ranksBefore(scores[worst], documents[worst], scores[left], documents[left])) {
+                    worst = left;
+                }
+                if (right < end && ranksBefore(scores[worst], documents[worst], scores[right], documents[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int document = documents[i];
+            documents[i] = documents[j];
+            documents[j] = document;
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import com.carrotsearch.hppc.FloatArrayList;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntFloatHashMap;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import com.carrotsearch.hppc.cursors.IntFloatCursor;
+import java.nio.ByteBuffer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Sparse TF-IDF vectors of the text of resumes, finding the resumes most similar to a given one by cosine similarity.
+ * <p>
+ * The vector of each resume is stored off-heap, in a direct buffer, as its term numbers in increasing order, each with the
+ * logarithm of its frequency in the text; the inverse document frequency of each term is applied when comparing, so that
+ * vectors do not change as other resumes are added. Each term also has the posting list of the documents containing it.
+ * <p>
+ * A query keeps only the {@value #MAX_QUERY_TERMS} terms of the resume with the highest weight, as these are the ones that
+ * make it specific, and accumulates the scores of the documents of their posting lists, normalized by the norm of each
+ * document when it was added or the norms were last updated. The best of these documents are then ranked by their exact
+ * cosine similarity with the whole vector of the resume.
+ * <p>
+ * Like {@link ResumeInvertedIndex}, replacing or removing a resume only marks its document as deleted, and the vectors are
+ * compacted once deleted documents outnumber live ones. The vectors are not thread-safe.
+ */
+public final class ResumeTermVectors {
+
+    static final int MAX_QUERY_TERMS = 25;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int ENTRY_BYTES = Integer.BYTES + Float.BYTES;
+
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    /**
+     * The documents ranked exactly for each similar resume requested.
+     */
+    private static final int RERANKED_PER_RESULT = 4;
+
+    private final ObjectIntHashMap<String> termNumbers = new ObjectIntHashMap<>();
+
+    private final IntArrayList documentFrequencies = new IntArrayList();
+
+    private final List<IntArrayList> postings = new ArrayList<>();
+
+    private final List<FloatArrayList> postingWeights = new ArrayList<>();
+
+    private final LongIntHashMap liveDocuments = new LongIntHashMap();
+
+    private final BitSet deleted = new BitSet();
+
+    private int documents;
+
+    private int deletedCount;
+
+    private long[] resumeIds = new long[INITIAL_CAPACITY];
+
+    private int[] offsets = new int[INITIAL_CAPACITY];
+
+    private int[] lengths = new int[INITIAL_CAPACITY];
+
+    private float[] norms = new float[INITIAL_CAPACITY];
+
+    private ByteBuffer entries = ByteBuffer.allocateDirect(INITIAL_CAPACITY * 32 * ENTRY_BYTES);
+
+    private int entryCount;
+
+    /**
+     * A resume similar to the one of a query.
+     */
+    public static final class SimilarResume {
+
+        private final long resumeId;
+
+        private final double score;
+
+        SimilarResume(long resumeId, double score) {
+            this.resumeId = resumeId;
+            this.score = score;
+        }
+
+        public long getResumeId() {
+            return resumeId;
+        }
+
+        /**
+         * @return the cosine similarity of the TF-IDF vectors of the resumes, between 0 and 1.
+         */
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * @return the number of resumes with a vector.
+     */
+    public int size() {
+        return liveDocuments.size();
+    }
+
+    /**
+     * Add the vector of a resume, or replace it.
+     *
+     * @param resumeId the ID of the resume.
+     * @param text the text of the resume; a resume without words has no vector, and is similar to none.
+     */
+    public void set(long resumeId, String text) {
+        removeDocument(resumeId);
+        Map<String, Integer> counts = termCounts(text);
+        if (!counts.isEmpty()) {
+            // Sorting the term numbers with the counts in the low bits orders the entries of the vector
+            long[] terms = new long[counts.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                terms[i++] = ((long) termNumber(count.getKey()) << 32) | count.getValue();
+            }
+            Arrays.sort(terms);
+            int document = documents++;
+            if (document == resumeIds.length) {
+                grow();
+            }
+            ensureEntryCapacity(entryCount + terms.length);
+            resumeIds[document] = resumeId;
+            offsets[document] = entryCount;
+            lengths[document] = terms.length;
+            for (long entry : terms) {
+                int term = (int) (entry >>> 32);
+                float weight = (float) (1 + Math.log((int) entry));
+                entries.putInt(entryCount * ENTRY_BYTES, term);
+                entries.putFloat(entryCount * ENTRY_BYTES + Integer.BYTES, weight);
+                entryCount++;
+                documentFrequencies.buffer[term]++;
+                postings.get(term).add(document);
+                postingWeights.get(term).add(weight);
+            }
+            liveDocuments.put(resumeId, document);
+            norms[document] = (float) norm(document);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove the vector of a resume.
+     *
+     * @param resumeId the ID of the resume.
+     */
+    public void remove(long resumeId) {
+        removeDocument(resumeId);
+        compactIfNeeded();
+    }
+
+    /**
+     * Find the resumes most similar to a resume.
+     *
+     * @param resumeId the ID of the resume.
+     * @param limit the maximum number of resumes to return.
+     * @return the most similar resumes, most similar first, or none if the resume has no vector.
+     */
+    public List<SimilarResume> similar(long resumeId, int limit) {
+        int document = liveDocuments.getOrDefault(resumeId, NONE);
+        if (document == NONE || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int length = lengths[document];
+        int[] terms = new int[length];
+        double[] weights = new double[length];
+        List<Integer> queryTerms = new ArrayList<>(length);
+        double squaredNorm = 0;
+        for (int i = 0; i < length; i++) {
+            terms[i] = term(offsets[document] + i);
+            weights[i] = weight(offsets[document] + i) * idf(terms[i]);
+            squaredNorm += weights[i] * weights[i];
+            // A term of this resume only finds no other one
+            if (documentFrequencies.get(terms[i]) > 1) {
+                queryTerms.add(i);
+            }
+        }
+        queryTerms.sort(Comparator.comparingDouble((Integer i) -> weights[i]).reversed());
+
+        IntFloatHashMap accumulators = new IntFloatHashMap();
+        for (int i : queryTerms.subList(0, Math.min(MAX_QUERY_TERMS, queryTerms.size()))) {
+            double idf = idf(terms[i]);
+            IntArrayList posting = postings.get(terms[i]);
+            FloatArrayList postingWeight = postingWeights.get(terms[i]);
+            for (int j = 0; j < posting.elementsCount; j++) {
+                int candidate = posting.buffer[j];
+                if (candidate != document && !deleted.get(candidate)) {
+                    accumulators.addTo(candidate, (float) (weights[i] * postingWeight.buffer[j] * idf / norms[candidate]));
+                }
+            }
+        }
+
+        // The scores are positive, so that the order of their bits is their order
+        long[] candidates = new long[accumulators.size()];
+        int count = 0;
+        for (IntFloatCursor accumulator : accumulators) {
+            candidates[count++] = ((long) Float.floatToIntBits(accumulator.value) << 32) | accumulator.key;
+        }
+        Arrays.sort(candidates);
+        int reranked = (int) Math.min(candidates.length, (long) limit * RERANKED_PER_RESULT);
+        double queryNorm = Math.sqrt(squaredNorm);
+        List<SimilarResume> similar = new ArrayList<>(reranked);
+        for (int i = candidates.length - 1; i >= candidates.length - reranked; i--) {
+            int candidate = (int) candidates[i];
+            similar.add(new SimilarResume(resumeIds[candidate], cosine(terms, weights, queryNorm, candidate)));
+        }
+        similar.sort(Comparator.comparingDouble(SimilarResume::getScore).reversed().thenComparingLong(SimilarResume::getResumeId));
+        return similar.subList(0, Math.min(limit, similar.size()));
+    }
+
+    /**
+     * Update the norms of the documents with the current document frequencies, as they are after adding many resumes.
+     */
+    public void updateNorms() {
+        for (int document = 0; document < documents; document++) {
+            if (!deleted.get(document)) {
+                norms[document] = (float) norm(document);
+            }
+        }
+    }
+
+    static Map<String, Integer> termCounts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (text == null) {
+            return counts;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String word : NON_WORD.split(folded)) {
+            // Single letters are elisions and initials
+            if (word.length() > 1) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private double cosine(int[] terms, double[] weights, double queryNorm, int document) {
+        double dot = 0;
+        double squaredNorm = 0;
+        int i = 0;
+        for (int entry = offsets[document]; entry < offsets[document] + lengths[document]; entry++) {
+            int term = term(entry);
+            double weight = weight(entry) * idf(term);
+            squaredNorm += weight * weight;
+            while (i < terms.length && terms[i] < term) {
+                i++;
+            }
+            if (i < terms.length && terms[i] == term) {
+                dot += weights[i] * weight;
+            }
+        }
+        return dot == 0 ? 0 : dot / (queryNorm * Math.sqrt(squaredNorm));
+    }
+
+    private double norm(int document) {
+        double squaredNorm = 0;
+        for (int entry = offsets[document]; entry < offsets[document] + lengths[document]; entry++) {
+            double weight = weight(entry) * idf(term(entry));
+            squaredNorm += weight * weight;
+        }
+        return Math.sqrt(squaredNorm);
+    }
+
+    private double idf(int term) {
+        int documentFrequency = documentFrequencies.get(term);
+        return documentFrequency == 0 ? 0 : Math.log(1 + (double) liveDocuments.size() / documentFrequency);
+    }
+
+    private int term(int entry) {
+        return entries.getInt(entry * ENTRY_BYTES);
+    }
+
+    private float weight(int entry) {
+        return entries.getFloat(entry * ENTRY_BYTES + Integer.BYTES);
+    }
+
+    private int termNumber(String word) {
+        int term = termNumbers.getOrDefault(word, NONE);
+        if (term == NONE) {
+            term = termNumbers.size();
+            termNumbers.put(word, term);
+            documentFrequencies.add(0);
+            postings.add(new IntArrayList());
+            postingWeights.add(new FloatArrayList());
+        }
+        return term;
+    }
+
+    private void removeDocument(long resumeId) {
+        int document = liveDocuments.getOrDefault(resumeId, NONE);
+        if (document == NONE) {
+            return;
+        }
+        liveDocuments.remove(resumeId);
+        deleted.set(document);
+        deletedCount++;
+        for (int entry = offsets[document]; entry < offsets[document] + lengths[document]; entry++) {
+            documentFrequencies.buffer[term(entry)]--;
+        }
+    }
+
+    private void grow() {
+        int capacity = resumeIds.length * 2;
+        resumeIds = Arrays.copyOf(resumeIds, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        norms = Arrays.copyOf(norms, capacity);
+    }
+
+    private void ensureEntryCapacity(int count) {
+        if ((long) count * ENTRY_BYTES > entries.capacity()) {
+            long capacity = Math.max((long) count * ENTRY_BYTES, 2L * entries.capacity());
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.toIntExact(capacity));
+            grown.put(entries.duplicate().position(0).limit(entryCount * ENTRY_BYTES));
+            entries = grown;
+        }
+    }
+
+    /**
+     * Renumber the live documents in their current order, dropping the deleted ones from the vectors and posting lists, and
+     * update the norms with the current document frequencies.
+     */
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_DELETED_TO_COMPACT || deletedCount <= liveDocuments.size()) {
+            return;
+        }
+        int liveCount = liveDocuments.size();
+        int liveEntries = 0;
+        for (int document = 0; document < documents; document++) {
+            if (!deleted.get(document)) {
+                liveEntries += lengths[document];
+            }
+        }
+        ByteBuffer compacted = ByteBuffer.allocateDirect(Math.max(liveEntries, INITIAL_CAPACITY) * ENTRY_BYTES);
+        long[] compactedResumeIds = new long[Math.max(liveCount, INITIAL_CAPACITY)];
+        int[] compactedOffsets = new int[compactedResumeIds.length];
+        int[] compactedLengths = new int[compactedResumeIds.length];
+        postings.forEach(IntArrayList::clear);
+        postingWeights.forEach(FloatArrayList::clear);
+        int renumbered = 0;
+        int entry = 0;
+        for (int document = 0; document < documents; document++) {
+            if (deleted.get(document)) {
+                continue;
+            }
+            compactedResumeIds[renumbered] = resumeIds[document];
+            compactedOffsets[renumbered] = entry;
+            compactedLengths[renumbered] = lengths[document];
+            for (int i = offsets[document]; i < offsets[document] + lengths[document]; i++) {
+                int term = term(i);
+                float weight = weight(i);
+                compacted.putInt(entry * ENTRY_BYTES, term);
+                compacted.putFloat(entry * ENTRY_BYTES + Integer.BYTES, weight);
+                postings.get(term).add(renumbered);
+                postingWeights.get(term).add(weight);
+                entry++;
+            }
+            liveDocuments.put(resumeIds[document], renumbered);
+            renumbered++;
+        }
+        entries = compacted;
+        entryCount = entry;
+        resumeIds = compactedResumeIds;
+        offsets = compactedOffsets;
+        lengths = compactedLengths;
+        norms = new float[compactedResumeIds.length];
+        documents = renumbered;
+        deleted.clear();
+        deletedCount = 0;
+        updateNorms();
+    }
+}
@@ -0,0 +1,149 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import fr.rif.rh.cvtech.domain.Adresse;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Outil;
+import fr.rif.rh.cvtech.domain.Profil;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Typeahead suggestions of company, job title, city and tool names, from a {@link SuggestionTrie} per field.
+ * <p>
+ * The tries are built once the application is ready from the values stored in the database, weighted by the number of rows
+ * using them, unless {@code application.search.suggestion-index} is {@code false}. They are then kept current by
+ * {@link fr.rif.rh.cvtech.repository.SuggestionIndexer} as transactions writing these values commit.
+ * <p>
+ * The counts are changed by the uses each transaction adds and removes, which do not replay exactly: the changes of a
+ * transaction committed before a rebuild reads the database, but applied once the rebuild started, are counted twice. The
+ * tries are therefore rebuilt every {@code application.search.suggestion-reconcile-interval}, which bounds how long a count
+ * may drift.
+ */
+@Component
+public class SuggestionIndex extends RebuildableIndex<Map<SuggestionIndex.Field, SuggestionTrie>> {
+
+    /**
+     * The fields suggested, each from the columns of the entities holding its values.
+     */
+    public enum Field {
+        COMPANY(new Source(Experience.class, "nomEntreprise", "experience", "nom_entreprise")),
+        JOB_TITLE(new Source(Experience.class, "nomPoste", "experience", "nom_poste")),
+        CITY(new Source(Adresse.class, "nomVille", "adresse", "nom_ville"), new Source(Profil.class, "city", "profil", "city")),
+        TOOL(new Source(Outil.class, "nomOutil", "outil", "nom_outil"));
+
+        private final List<Source> sources;
+
+        Field(Source... sources) {
+            this.sources = List.of(sources);
+        }
+
+        public List<Source> getSources() {
+            return sources;
+        }
+
+        public String parameterName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        /**
+         * @param parameterName the name of the field in a request, see {@link #parameterName()}.
+         * @return the field, or nothing if there is no field of that name.
+         */
+        public static Optional<Field> fromParameterName(String parameterName) {
+            return Arrays.stream(values()).filter(field -> field.parameterName().equals(parameterName)).findFirst();
+        }
+    }
+
+    /**
+     * A property of an entity holding values of a field, and the column it is mapped to.
+     */
+    public static final class Source {
+
+        private final Class<?> entityType;
+
+        private final String property;
+
+        private final String table;
+
+        private final String column;
+
+        Source(Class<?> entityType, String property, String table, String column) {
+            this.entityType = entityType;
+            this.property = property;
+            this.table = table;
+            this.column = column;
+        }
+
+        public Class<?> getEntityType() {
+            return entityType;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SuggestionIndex(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler, ApplicationProperties applicationProperties) {
+        super(
+            applicationProperties.getSearch().isSuggestionIndex(),
+            taskScheduler,
+            applicationProperties.getSearch().getSuggestionReconcileInterval()
+        );
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Suggest the most frequent values of a field starting with a prefix, see {@link SuggestionTrie#suggest}.
+     *
+     * @param field the field.
+     * @param prefix the prefix.
+     * @param limit the maximum number of values to suggest.
+     * @return the values, most frequent first, or nothing if the tries are not built.
+     */
+    public Optional<List<SuggestionTrie.Suggestion>> suggest(Field field, String prefix, int limit) {
+        return read(tries -> tries.get(field).suggest(prefix, limit));
+    }
+
+    /**
+     * Count committed changes of the values of fields.
+     *
+     * @param changes the number of uses added to each value, negative for removed uses, by field.
+     */
+    public void update(Map<Field, Map<String, Integer>> changes) {
+        apply(target -> changes.forEach((field, counts) -> counts.forEach(target.get(field)::add)));
+    }
+
+    @Override
+    protected Map<Field, SuggestionTrie> build() {
+        Map<Field, SuggestionTrie> built = new EnumMap<>(Field.class);
+        for (Field field : FIELDS) {
+            SuggestionTrie trie = new SuggestionTrie();
+            for (Source source : field.sources) {
+                jdbcTemplate.query(
+                    "select " + source.column + ", count(*) from " + source.table + " group by " + source.column,
+                    (RowCallbackHandler) resultSet -> trie.add(resultSet.getString(1), resultSet.getInt(2))
+                );
+            }
+            built.put(field, trie);
+        }
+        return built;
+    }
+
+    @Override
+    protected String describe(Map<Field, SuggestionTrie> tries) {
+        return "the suggestion tries of " + tries.values().stream().mapToInt(SuggestionTrie::size).sum() + " values";
+    }
+}
@@ -0,0 +1,251 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix tree of the values of a field, suggesting the most frequent values starting with a prefix.
+ * <p>
+ * Values are keyed ignoring case, accents and punctuation, so that the variants of a value are counted as one suggestion,
+ * shown with its most frequent spelling. Each node holds the count of its value and the highest count below it, so that the
+ * most frequent completions are found best first, without visiting the whole subtree. Counts are updated incrementally,
+ * and nodes left without values are pruned.
+ * <p>
+ * The tree is not thread-safe.
+ */
+public final class SuggestionTrie {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Node root = new Node();
+
+    private int size;
+
+    /**
+     * A suggested value, with the number of times it is used, all spellings included.
+     */
+    public static final class Suggestion {
+
+        private final String value;
+
+        private final int count;
+
+        Suggestion(String value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * @return the number of distinct values, ignoring case, accents and punctuation.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Count uses of a value.
+     *
+     * @param value the value, as spelled.
+     * @param count the number of uses to add, negative to remove uses.
+     */
+    public void add(String value, int count) {
+        if (value == null || count == 0) {
+            return;
+        }
+        String key = key(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                if (count < 0) {
+                    return;
+                }
+                child = node.addChild(key.charAt(i));
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+        boolean wasValue = node.count > 0;
+        node.count(value, count);
+        size += (node.count > 0 ? 1 : 0) - (wasValue ? 1 : 0);
+        for (int i = key.length(); i >= 0; i--) {
+            Node current = path[i];
+            if (i > 0 && current.count == 0 && current.childCount == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            } else {
+                current.updateMaxCount();
+            }
+        }
+    }
+
+    /**
+     * Suggest the most frequent values starting with a prefix.
+     *
+     * @param prefix the prefix, compared ignoring case, accents and punctuation.
+     * @param limit the maximum number of values to suggest.
+     * @return the values, most frequent first, then in alphabetical order.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        String key = key(prefix == null ? "" : prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (node == null || limit <= 0) {
+            return suggestions;
+        }
+        // Nodes are queued by the highest count below them, and again as a value by their own count, so that a value is
+        // polled once no node left can hold a more frequent one
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(
+            Comparator.comparingInt((Candidate candidate) -> candidate.count).reversed().thenComparing(Candidate::order)
+        );
+        queue.add(new Candidate(node, node.maxCount, false));
+        while (!queue.isEmpty() && suggestions.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.value) {
+                suggestions.add(new Suggestion(candidate.node.spelling(), candidate.count));
+                continue;
+            }
+            if (candidate.node.count > 0) {
+                queue.add(new Candidate(candidate.node, candidate.node.count, true));
+            }
+            for (int i = 0; i < candidate.node.childCount; i++) {
+                Node child = candidate.node.children[i];
+                queue.add(new Candidate(child, child.maxCount, false));
+            }
+        }
+        return suggestions;
+    }
+
+    static String key(String value) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(folded).replaceAll(" ").strip();
+    }
+
+    private static final class Candidate {
+
+        private final Node node;
+
+        private final int count;
+
+        private final boolean value;
+
+        Candidate(Node node, int count, boolean value) {
+            this.node = node;
+            this.count = count;
+            this.value = value;
+        }
+
+        /**
+         * Among equal counts, values come before nodes, and values in alphabetical order.
+         */
+        String order() {
+            return value ? "0" + node.spelling() : "1";
+        }
+    }
+
+    private static final class Node {
+
+        private char[] labels = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private int childCount;
+
+        private int count;
+
+        private int maxCount;
+
+        /**
+         * The number of uses of each spelling of the value of the node, or {@code null} if it has never been a value.
+         */
+        private Map<String, Integer> spellings;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index < 0 ? null : children[index];
+        }
+
+        Node addChild(char label) {
+            int index = -Arrays.binarySearch(labels, 0, childCount, label) - 1;
+            if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(2, childCount * 2));
+                children = Arrays.copyOf(children, labels.length);
+            }
+            System.arraycopy(labels, index, labels, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            Node child = new Node();
+            labels[index] = label;
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                System.arraycopy(labels, index + 1, labels, index, childCount - index - 1);
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                children[--childCount] = null;
+            }
+        }
+
+        void count(String spelling, int delta) {
+            if (spellings == null) {
+                spellings = new HashMap<>(2);
+            }
+            int spellingCount = spellings.getOrDefault(spelling, 0) + delta;
+            if (spellingCount > 0) {
+                spellings.put(spelling, spellingCount);
+            } else {
+                spellings.remove(spelling);
+            }
+            count = spellings.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        void updateMaxCount() {
+            int max = count;
+            for (int i = 0; i < childCount; i++) {
+                max = Math.max(max, children[i].maxCount);
+            }
+            maxCount = max;
+        }
+
+        /**
+         * @return the most frequent spelling, the first in alphabetical order among equally frequent ones.
+         */
+        String spelling() {
+            return spellings
+                .entrySet()
+                .stream()
+                .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package fr.rif.rh.cvtech.service;
+
+import com.carrotsearch.hppc.LongHashSet;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Finds near-duplicate documents, each a set of shingles, with MinHash signatures bucketed by locality-sensitive hashing.
+ * <p>
+ * The signature of a document holds {@value #HASHES} minimum hashes of its shingles, the probability that two documents have the
+ * same minimum for a hash being the Jaccard similarity of their shingles. The signature is split in {@value #BANDS} bands, and
+ * documents having the same hash for a band are candidate pairs, so that only documents likely to be similar are compared:
+ * pairs above a similarity of about 0.7 are very likely to be candidates, pairs below 0.4 very unlikely. Candidates are then
+ * compared on their signatures, of which only the lowest byte of each minimum is kept, the similarity being corrected for the
+ * chance that different minimums share it.
+ * <p>
+ * A document takes {@value #HASHES} bytes and {@value #BANDS} band hashes in memory. The detector is not thread-safe.
+ */
+public final class NearDuplicateDetector {
+
+    static final int HASHES = 128;
+
+    static final int BANDS = 16;
+
+    private static final int ROWS = HASHES / BANDS;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The probability that two different minimums have the same lowest byte.
+     */
+    private static final double BYTE_COLLISION = 1.0 / 256;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private int documentCount;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private byte[] signatures = new byte[INITIAL_CAPACITY * HASHES];
+
+    private int[] bandHashes = new int[INITIAL_CAPACITY * BANDS];
+
+    private long skippedBuckets;
+
+    /**
+     * A pair of near-duplicate documents.
+     */
+    public static final class Pair {
+
+        private final long firstId;
+
+        private final long secondId;
+
+        private final double similarity;
+
+        Pair(long firstId, long secondId, double similarity) {
+            this.firstId = firstId;
+            this.secondId = secondId;
+            this.similarity = similarity;
+        }
+
+        public long getFirstId() {
+            return firstId;
+        }
+
+        public long getSecondId() {
+            return secondId;
+        }
+
+        /**
+         * @return the estimated Jaccard similarity of the shingles of the documents.
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+
+    /**
+     * The shingles of a resume: the pairs of consecutive words of its text, the letter trigrams of its contact name, its words
+     * sorted so that a swapped first and last name still match, and its contact email address.
+     *
+     * @param text the text of the resume, may be {@code null}.
+     * @param nom the last name of the contact, may be {@code null}.
+     * @param prenom the first name of the contact, may be {@code null}.
+     * @param mail the email address of the contact, may be {@code null}.
+     * @return the shingles, ignoring case, accents and punctuation.
+     */
+    public static Set<String> shingles(String text, String nom, String prenom, String mail) {
+        Set<String> shingles = new LinkedHashSet<>();
+        String[] words = words(text);
+        if (words.length == 1) {
+            shingles.add(words[0]);
+        }
+        for (int i = 1; i < words.length; i++) {
+            shingles.add(words[i - 1] + ' ' + words[i]);
+        }
+        String[] names = words((prenom == null ? "" : prenom) + ' ' + (nom == null ? "" : nom));
+        if (names.length > 0) {
+            Arrays.sort(names);
+            String name = ' ' + String.join(" ", names) + ' ';
+            for (int i = 3; i <= name.length(); i++) {
+                shingles.add("name:" + name.substring(i - 3, i));
+            }
+        }
+        if (mail != null && !mail.isBlank()) {
+            shingles.add("mail:" + mail.strip().toLowerCase(Locale.ROOT));
+        }
+        return shingles;
+    }
+
+    /**
+     * @return the number of documents added.
+     */
+    public int size() {
+        return documentCount;
+    }
+
+    /**
+     * @return the number of buckets skipped by the last {@link #findPairs} as larger than its maximum.
+     */
+    public long getSkippedBuckets() {
+        return skippedBuckets;
+    }
+
+    /**
+     * Add a document. A document without shingles is ignored, being similar to no other.
+     *
+     * @param id the ID of the document.
+     * @param shingles the shingles of the document.
+     */
+    public void add(long id, Collection<String> shingles) {
+        if (shingles.isEmpty()) {
+            return;
+        }
+        long[] minimums = new long[HASHES];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            // The hashes of a shingle are derived from two independent ones, h1 + i * h2
+            long h1 = mix(hash(shingle));
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            long h = h1;
+            for (int i = 0; i < HASHES; i++) {
+                if (h < minimums[i]) {
+                    minimums[i] = h;
+                }
+                h += h2;
+            }
+        }
+        if (documentCount == ids.length) {
+            grow();
+        }
+        int document = documentCount++;
+        ids[document] = id;
+        for (int i = 0; i < HASHES; i++) {
+            signatures[document * HASHES + i] = (byte) minimums[i];
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long h = band;
+            for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                h = mix(h ^ minimums[row]);
+            }
+            bandHashes[document * BANDS + band] = (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Find the pairs of documents whose estimated similarity reaches a threshold.
+     * <p>
+     * The documents of a bucket are all compared with one another, so buckets larger than a maximum, which typically hold many
+     * copies of the same boilerplate, are skipped, see {@link #getSkippedBuckets()}.
+     *
+     * @param threshold the minimum similarity, between 0 and 1.
+     * @param maxBucketSize the maximum number of documents of a bucket.
+     * @return the pairs, the most similar first, the lowest ID of each pair first.
+     */
+    public List<Pair> findPairs(double threshold, int maxBucketSize) {
+        skippedBuckets = 0;
+        LongHashSet candidates = new LongHashSet();
+        List<Pair> pairs = new ArrayList<>();
+        long[] keys = new long[documentCount];
+        for (int band = 0; band < BANDS; band++) {
+            // Sorting the band hashes with the document numbers in the low bits brings each bucket together
+            for (int document = 0; document < documentCount; document++) {
+                keys[document] = ((long) bandHashes[document * BANDS + band] << 32) | document;
+            }
+            Arrays.parallelSort(keys);
+            int start = 0;
+            for (int end = 1; end <= documentCount; end++) {
+                if (end < documentCount && (keys[end] >>> 32) == (keys[start] >>> 32)) {
+                    continue;
+                }
+                if (end - start > maxBucketSize) {
+                    skippedBuckets++;
+                } else {
+                    for (int i = start; i < end; i++) {
+                        for (int j = i + 1; j < end; j++) {
+                            int first = (int) keys[i];
+                            int second = (int) keys[j];
+                            if (candidates.add(((long) first << 32) | second)) {
+                                double similarity = similarity(first, second);
+                                if (similarity >= threshold) {
+                                    pairs.add(pair(first, second, similarity));
+                                }
+                            }
+                        }
+                    }
+                }
+                start = end;
+            }
+        }
+        pairs.sort((a, b) -> {
+            int bySimilarity = Double.compare(b.similarity, a.similarity);
+            if (bySimilarity != 0) {
+                return bySimilarity;
+            }
+            int byFirstId = Long.compare(a.firstId, b.firstId);
+            return byFirstId != 0 ? byFirstId : Long.compare(a.secondId, b.secondId);
+        });
+        return pairs;
+    }
+
+    private double similarity(int first, int second) {
+        int matches = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (signatures[first * HASHES + i] == signatures[second * HASHES + i]) {
+                matches++;
+            }
+        }
+        double similarity = ((double) matches / HASHES - BYTE_COLLISION) / (1 - BYTE_COLLISION);
+        return Math.max(0, similarity);
+    }
+
+    private Pair pair(int first, int second, double similarity) {
+        long firstId = ids[first];
+        long secondId = ids[second];
+        return firstId <= secondId ? new Pair(firstId, secondId, similarity) : new Pair(secondId, firstId, similarity);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        signatures = Arrays.copyOf(signatures, capacity * HASHES);
+        bandHashes = Arrays.copyOf(bandHashes, capacity * BANDS);
+    }
+
+    private static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        String stripped = NON_WORD.matcher(folded).replaceAll(" ").strip();
+        return stripped.isEmpty() ? new String[0] : stripped.split(" ");
+    }
+
+    /**
+     * FNV-1a hash of the characters of a string.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, spreading each bit of the input over the whole output.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
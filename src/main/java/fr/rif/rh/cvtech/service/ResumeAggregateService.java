@@ -0,0 +1,146 @@
+package fr.rif.rh.cvtech.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fr.rif.rh.cvtech.domain.Resume;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service saving a {@link Resume} together with all of its parts, in a single transaction.
+ * <p>
+ * The resume is read from its JSON representation, so that only the members present in the body are written. Each part is
+ * saved before the rows referencing it: addresses and tools first, then experiences and studies, then the other parts and
+ * finally the resume. A part is handled according to its members:
+ * <ul>
+ * <li>without an ID, it is inserted;</li>
+ * <li>with an ID only, as a lazy part the resume was read without, it is linked to the resume and left unchanged;</li>
+ * <li>with an ID and other members, it is loaded and only these members are copied onto it; it must be at the version of its
+ * {@code version} member, if any.</li>
+ * </ul>
+ * The user owning the resume is only ever linked, by its ID. The inserts are grouped into JDBC batches by entity type
+ * ({@code hibernate.jdbc.batch_size} with {@code hibernate.order_inserts}), and their IDs come from the pooled
+ * {@code sequence_generator}, so saving a whole resume takes a handful of statements.
+ */
+@Service
+@Transactional
+public class ResumeAggregateService {
+
+    private static final String ID = "id";
+
+    private static final String VERSION = "version";
+
+    private final Logger log = LoggerFactory.getLogger(ResumeAggregateService.class);
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public ResumeAggregateService(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Save a resume and all of its parts.
+     * <p>
+     * Members left out of the body are left unchanged, and a part set to {@code null} is unlinked from the resume, but not
+     * deleted.
+     *
+     * @param resume the JSON representation of the resume, with its parts nested.
+     * @return the saved resume, with its parts.
+     * @throws IllegalArgumentException if a member of the body is not valid, or if a part does not exist.
+     * @throws ObjectOptimisticLockingFailureException if the resume or a part is not at the version of its body.
+     */
+    public Resume save(JsonNode resume) {
+        log.debug("Request to save Resume aggregate : {}", resume);
+        return savePart(Resume.class, resume);
+    }
+
+    private <T> T savePart(Class<T> type, JsonNode part) {
+        if (part.isNull()) {
+            return null;
+        }
+        if (!part.isObject()) {
+            throw new IllegalArgumentException("A " + type.getSimpleName() + " must be an object");
+        }
+        JsonNode id = part.get(ID);
+        if (id != null && !id.isNull() && !id.canConvertToLong()) {
+            throw new IllegalArgumentException("Invalid ID of " + type.getSimpleName() + ": " + id);
+        }
+        if (id != null && !id.isNull() && part.size() == 1) {
+            return entityManager.getReference(type, id.longValue());
+        }
+
+        // The parts are saved first, and their members left out of the copy Jackson reads the other members from
+        ObjectNode members = ((ObjectNode) part).deepCopy();
+        members.remove(ID);
+        JsonNode version = members.remove(VERSION);
+        Map<String, Object> associations = new LinkedHashMap<>();
+        EntityType<T> entityType = entityManager.getMetamodel().entity(type);
+        for (SingularAttribute<? super T, ?> attribute : entityType.getSingularAttributes()) {
+            JsonNode value = members.remove(attribute.getName());
+            if (value == null) {
+                continue;
+            }
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ONE_TO_ONE) {
+                associations.put(attribute.getName(), savePart(attribute.getJavaType(), value));
+            } else if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE) {
+                associations.put(attribute.getName(), reference(attribute.getJavaType(), value));
+            } else {
+                members.set(attribute.getName(), value);
+            }
+        }
+
+        T entity;
+        BeanWrapper wrapper;
+        try {
+            if (id == null || id.isNull()) {
+                entity = objectMapper.treeToValue(members, type);
+                wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+            } else {
+                entity = entityManager.find(type, id.longValue());
+                if (entity == null) {
+                    throw new IllegalArgumentException("No " + type.getSimpleName() + " with ID " + id);
+                }
+                wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+                if (version != null && !version.isNull() && !Objects.equals(wrapper.getPropertyValue(VERSION), version.asLong())) {
+                    throw new ObjectOptimisticLockingFailureException(type, id.longValue());
+                }
+                objectMapper.readerForUpdating(entity).readValue(members);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + e.getMessage(), e);
+        }
+        associations.forEach(wrapper::setPropertyValue);
+        if (id == null || id.isNull()) {
+            entityManager.persist(entity);
+        }
+        return entity;
+    }
+
+    private <T> T reference(Class<T> type, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        JsonNode id = value.isObject() ? value.get(ID) : value;
+        if (id == null || !id.canConvertToLong()) {
+            throw new IllegalArgumentException("A " + type.getSimpleName() + " is only linked by its ID");
+        }
+        return entityManager.getReference(type, id.longValue());
+    }
+}
@@ -0,0 +1,121 @@
+package fr.rif.rh.cvtech.service;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import fr.rif.rh.cvtech.service.dto.ResumeDuplicateReport;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service scanning all resumes for near duplicates, such as the resumes of a candidate who created several accounts, or
+ * resumes imported twice.
+ * <p>
+ * Each resume is reduced to the shingles of its search text and of its contact name and email address, see
+ * {@link NearDuplicateDetector#shingles}, as the resumes are streamed from the database, and pairs are then found by
+ * locality-sensitive hashing, without comparing every resume with every other. A scan runs in the background, one at a time,
+ * and its {@link ResumeDuplicateReport} is kept until the next one starts.
+ */
+@Service
+public class ResumeDeduplicationService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_RESUMES =
+        "select resume.id, resume.search_text, contact.nom, contact.prenom, contact.mail from resume" +
+        " left join contact on contact.id = resume.contact_id";
+
+    private final Logger log = LoggerFactory.getLogger(ResumeDeduplicationService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final double threshold;
+
+    private final int maxBucketSize;
+
+    private final int maxReportedPairs;
+
+    private ResumeDuplicateReport latestReport;
+
+    public ResumeDeduplicationService(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.threshold = applicationProperties.getDeduplication().getThreshold();
+        this.maxBucketSize = applicationProperties.getDeduplication().getMaxBucketSize();
+        this.maxReportedPairs = applicationProperties.getDeduplication().getMaxReportedPairs();
+    }
+
+    /**
+     * Start a scan in the background, unless one is running.
+     *
+     * @return the report of the scan started, or of the scan running.
+     */
+    public synchronized ResumeDuplicateReport startScan() {
+        if (latestReport != null && latestReport.getState() == ResumeDuplicateReport.State.RUNNING) {
+            return latestReport;
+        }
+        ResumeDuplicateReport report = new ResumeDuplicateReport(UUID.randomUUID().toString(), threshold);
+        latestReport = report;
+        taskExecutor.execute(() -> scan(report));
+        return report;
+    }
+
+    /**
+     * Get the report of the running scan, or else of the last one.
+     *
+     * @return the report, or nothing if no scan was started.
+     */
+    public synchronized Optional<ResumeDuplicateReport> getLatestReport() {
+        return Optional.ofNullable(latestReport);
+    }
+
+    private void scan(ResumeDuplicateReport report) {
+        log.info("Starting resume duplicate scan {}", report.getId());
+        long start = System.nanoTime();
+        try {
+            NearDuplicateDetector detector = new NearDuplicateDetector();
+            // The transaction lets the driver stream the rows instead of reading them all at once
+            transactionTemplate.executeWithoutResult(transaction ->
+                jdbcTemplate.query(
+                    SELECT_RESUMES,
+                    (RowCallbackHandler) resultSet -> {
+                        String text = resultSet.getString(2);
+                        String nom = resultSet.getString(3);
+                        String prenom = resultSet.getString(4);
+                        String mail = resultSet.getString(5);
+                        detector.add(resultSet.getLong(1), NearDuplicateDetector.shingles(text, nom, prenom, mail));
+                        report.resumeScanned();
+                    }
+                )
+            );
+            List<NearDuplicateDetector.Pair> pairs = detector.findPairs(threshold, maxBucketSize);
+            report.complete(pairs.size(), pairs.subList(0, Math.min(maxReportedPairs, pairs.size())), detector.getSkippedBuckets());
+            log.info("Finished resume duplicate scan in {} ms: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), report);
+        } catch (RuntimeException e) {
+            log.warn("Resume duplicate scan {} failed after {} resumes", report.getId(), report.getResumesScanned(), e);
+            report.fail(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package fr.rif.rh.cvtech.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fr.rif.rh.cvtech.repository.ResumeExportRow;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting all resumes in bulk, as CSV with a header line, NDJSON or a JSON array.
+ * <p>
+ * Rows are streamed from the database and written as they are read, so memory use does not depend on the number of resumes.
+ * The output is flushed after the first row so that the client starts receiving data at once, and then whenever the
+ * underlying buffer is full.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ResumeExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON,
+        JSON,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(ResumeExportService.class);
+
+    private final ResumeRepository resumeRepository;
+
+    private final ObjectWriter csvWriter;
+
+    private final ObjectWriter jsonWriter;
+
+    public ResumeExportService(ResumeRepository resumeRepository, ObjectMapper objectMapper) {
+        this.resumeRepository = resumeRepository;
+        CsvMapper csvMapper = CsvMapper.builder().addModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        this.csvWriter = withoutFlushOrClose(csvMapper.writer(csvMapper.schemaFor(ResumeExportRow.class).withHeader()));
+        this.jsonWriter = withoutFlushOrClose(objectMapper.writer());
+    }
+
+    /**
+     * Export all resumes, in the order of their IDs.
+     *
+     * @param format the format to write the resumes in.
+     * @param output the stream to write the resumes to, it is left open.
+     * @throws IOException if the resumes could not be written.
+     */
+    public void export(Format format, OutputStream output) throws IOException {
+        log.debug("Request to export all Resumes as {}", format);
+        long count = 0;
+        try (Stream<ResumeExportRow> rows = resumeRepository.streamAllExportRows(); SequenceWriter writer = sequenceWriter(format, output)) {
+            Iterator<ResumeExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++count == 1) {
+                    writer.flush();
+                }
+            }
+        }
+        if (format == Format.NDJSON && count > 0) {
+            output.write('\n');
+        }
+        output.flush();
+        log.debug("Exported {} Resumes as {}", count, format);
+    }
+
+    private SequenceWriter sequenceWriter(Format format, OutputStream output) throws IOException {
+        switch (format) {
+            case CSV:
+                return csvWriter.writeValues(output);
+            case NDJSON:
+                return jsonWriter.withRootValueSeparator("\n").writeValues(output);
+            default:
+                return jsonWriter.writeValuesAsArray(output);
+        }
+    }
+
+    private static ObjectWriter withoutFlushOrClose(ObjectWriter writer) {
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
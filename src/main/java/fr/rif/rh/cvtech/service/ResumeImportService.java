@@ -0,0 +1,228 @@
+package fr.rif.rh.cvtech.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.service.dto.ResumeImportRecord;
+import fr.rif.rh.cvtech.service.dto.ResumeImportStatus;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for importing resumes in bulk, from a CSV or NDJSON stream, gzipped or not.
+ * <p>
+ * The stream is parsed one record at a time and the records are saved in chunks of {@code application.bulk-import.chunk-size},
+ * each in its own transaction, so that memory use does not depend on the size of the file. Each chunk is inserted with JDBC
+ * batching and without populating the second level cache. Invalid records are rejected and reported in the
+ * {@link ResumeImportStatus}, while a malformed stream fails the import, keeping the chunks already committed.
+ */
+@Service
+public class ResumeImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON,
+    }
+
+    private static final int RETAINED_IMPORTS = 20;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final Logger log = LoggerFactory.getLogger(ResumeImportService.class);
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectReader ndjsonReader;
+
+    private final ObjectReader csvReader;
+
+    private final Validator validator;
+
+    private final int chunkSize;
+
+    private final int jdbcBatchSize;
+
+    private final int maxReportedErrors;
+
+    private final Map<String, ResumeImportStatus> imports = Collections.synchronizedMap(
+        new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResumeImportStatus> eldest) {
+                return size() > RETAINED_IMPORTS && eldest.getValue().getState() != ResumeImportStatus.State.RUNNING;
+            }
+        }
+    );
+
+    public ResumeImportService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        Validator validator,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ndjsonReader = objectMapper.readerFor(ResumeImportRecord.class);
+        CsvMapper csvMapper = CsvMapper.builder().addModule(new JavaTimeModule()).enable(CsvParser.Feature.EMPTY_STRING_AS_NULL).build();
+        this.csvReader = csvMapper.readerFor(ResumeImportRecord.class).with(CsvSchema.emptySchema().withHeader());
+        this.validator = validator;
+        this.chunkSize = applicationProperties.getBulkImport().getChunkSize();
+        this.jdbcBatchSize = applicationProperties.getBulkImport().getJdbcBatchSize();
+        this.maxReportedErrors = applicationProperties.getBulkImport().getMaxReportedErrors();
+    }
+
+    /**
+     * Import the resumes read from a stream.
+     *
+     * @param input the stream of records, with a header line for CSV, gzipped or not.
+     * @param format the format of the records.
+     * @return the status of the import, once it is over.
+     */
+    public ResumeImportStatus importResumes(InputStream input, Format format) {
+        ResumeImportStatus status = new ResumeImportStatus(UUID.randomUUID().toString(), format.name(), maxReportedErrors);
+        imports.put(status.getId(), status);
+        log.info("Starting resume import {} from {}", status.getId(), format);
+        ObjectReader reader = format == Format.CSV ? csvReader : ndjsonReader;
+        try (MappingIterator<ResumeImportRecord> records = reader.readValues(decompress(input))) {
+            List<ResumeImportRecord> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                ResumeImportRecord record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    record = records.nextValue();
+                } catch (JsonMappingException e) {
+                    // The record is well formed but its values are not, the iterator resumes with the next record
+                    status.recordRead();
+                    status.recordRejected(status.getRecordsRead(), e.getOriginalMessage());
+                    continue;
+                }
+                status.recordRead();
+                Set<ConstraintViolation<ResumeImportRecord>> violations = validator.validate(record);
+                if (!violations.isEmpty()) {
+                    status.recordRejected(status.getRecordsRead(), describe(violations));
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    save(chunk, status);
+                    chunk.clear();
+                }
+            }
+            save(chunk, status);
+            status.complete();
+            log.info("Finished resume import {}: {}", status.getId(), status);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Resume import {} failed after {} records", status.getId(), status.getRecordsRead(), e);
+            status.fail(e.getMessage());
+        }
+        return status;
+    }
+
+    /**
+     * Get the status of an import, running or recently over.
+     *
+     * @param id the id of the import.
+     * @return the status of the import.
+     */
+    public Optional<ResumeImportStatus> getStatus(String id) {
+        return Optional.ofNullable(imports.get(id));
+    }
+
+    /**
+     * Get the status of the running and recently over imports.
+     *
+     * @return the statuses, the oldest import first.
+     */
+    public List<ResumeImportStatus> getStatuses() {
+        synchronized (imports) {
+            return new ArrayList<>(imports.values());
+        }
+    }
+
+    private void save(List<ResumeImportRecord> chunk, ResumeImportStatus status) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(transaction -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setCacheMode(CacheMode.IGNORE);
+            session.setJdbcBatchSize(jdbcBatchSize);
+            for (ResumeImportRecord record : chunk) {
+                Resume resume = new Resume()
+                    .titre(record.getTitre())
+                    .dateCreation(record.getDateCreation() == null ? ZonedDateTime.now() : record.getDateCreation());
+                if (record.getDateNaissance() != null) {
+                    Profil profil = new Profil()
+                        .dateNaissance(record.getDateNaissance())
+                        .profession(record.getProfession())
+                        .city(record.getCity())
+                        .country(record.getCountry())
+                        .website(record.getWebsite())
+                        .description(record.getDescription());
+                    session.persist(profil);
+                    resume.setProfil(profil);
+                }
+                if (record.getNom() != null || record.getPrenom() != null || record.getMail() != null) {
+                    Contact contact = new Contact().nom(record.getNom()).prenom(record.getPrenom()).mail(record.getMail());
+                    session.persist(contact);
+                    resume.setContact(contact);
+                }
+                session.persist(resume);
+            }
+            session.flush();
+            session.clear();
+        });
+        status.recordsImported(chunk.size());
+    }
+
+    private static String describe(Set<ConstraintViolation<ResumeImportRecord>> violations) {
+        return violations
+            .stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        buffered.mark(2);
+        int magic = buffered.read() | (buffered.read() << 8);
+        buffered.reset();
+        return magic == GZIP_MAGIC ? new GZIPInputStream(buffered) : buffered;
+    }
+}
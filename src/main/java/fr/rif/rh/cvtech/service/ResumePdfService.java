@@ -0,0 +1,265 @@
+package fr.rif.rh.cvtech.service;
+
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+/**
+ * Service rendering a {@link Resume} as a PDF document.
+ * <p>
+ * The resume is first rendered as HTML by the Thymeleaf template {@value #TEMPLATE}, which is cheap, then laid out as a PDF,
+ * which is not. The PDF is cached on disk under the ID of the resume, the locale and a hash of its HTML: as long as neither
+ * the resume nor the template change, the cached file is served again, and once they do the new version replaces the previous
+ * ones of the same locale. Layouts run on a pool of {@code application.pdf.render-threads} threads, and the requests for a
+ * resume whose layout is running wait for it instead of starting another one.
+ */
+@Service
+public class ResumePdfService {
+
+    private static final String TEMPLATE = "pdf/resume";
+
+    private static final List<String> PARTS = List.of(
+        "profil",
+        "contact",
+        "experience.outil",
+        "etude",
+        "langue",
+        "programmation",
+        "design"
+    );
+
+    private static final int VERSION_LENGTH = 16;
+
+    private static final int MAX_OPEN_ATTEMPTS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(ResumePdfService.class);
+
+    private final ResumeRepository resumeRepository;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path cacheDirectory;
+
+    private final Duration renderTimeout;
+
+    private final ThreadPoolExecutor renderExecutor;
+
+    private final ConcurrentMap<Path, CompletableFuture<Path>> renders = new ConcurrentHashMap<>();
+
+    public ResumePdfService(
+        ResumeRepository resumeRepository,
+        SpringTemplateEngine templateEngine,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) throws IOException {
+        ApplicationProperties.Pdf pdf = applicationProperties.getPdf();
+        this.resumeRepository = resumeRepository;
+        this.templateEngine = templateEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheDirectory =
+            Files.createDirectories(
+                pdf.getCacheDirectory() == null || pdf.getCacheDirectory().isBlank()
+                    ? Paths.get(System.getProperty("java.io.tmpdir"), "cvtheque-resume-pdf")
+                    : Paths.get(pdf.getCacheDirectory())
+            );
+        this.renderTimeout = pdf.getRenderTimeout();
+        this.renderExecutor =
+            new ThreadPoolExecutor(
+                pdf.getRenderThreads(),
+                pdf.getRenderThreads(),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pdf.getRenderQueueCapacity()),
+                new CustomizableThreadFactory("resume-pdf-")
+            );
+    }
+
+    /**
+     * Open the PDF of a resume, rendering it unless it is cached.
+     * <p>
+     * The file stays readable through the channel returned even if a newer version of the resume replaces it.
+     *
+     * @param resumeId the ID of the resume.
+     * @param locale the locale of the titles of the document.
+     * @return the PDF file, open for reading, or nothing if the resume does not exist.
+     * @throws RejectedExecutionException if the PDF must be rendered and too many renders are waiting already.
+     * @throws IOException if the PDF could not be rendered, or not within {@code application.pdf.render-timeout}.
+     */
+    public Optional<FileChannel> openPdf(long resumeId, Locale locale) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            Optional<Path> pdf = getPdf(resumeId, locale);
+            if (pdf.isEmpty()) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(FileChannel.open(pdf.get(), StandardOpenOption.READ));
+            } catch (NoSuchFileException e) {
+                // Deleted by the render of a newer version since it was found, which the next attempt finds
+                if (attempt == MAX_OPEN_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("The PDF of resume {} was replaced before it was opened", resumeId);
+            }
+        }
+    }
+
+    private Optional<Path> getPdf(long resumeId, Locale locale) throws IOException {
+        Instant readAt = Instant.now();
+        Optional<String> html = transactionTemplate.execute(transaction ->
+            resumeRepository.findOneWithParts(resumeId, PARTS).map(resume -> renderHtml(resume, locale))
+        );
+        if (html.isEmpty()) {
+            return Optional.empty();
+        }
+        String prefix = resumeId + "_" + locale.toLanguageTag() + "_";
+        Path file = cacheDirectory.resolve(prefix + version(html.get()) + ".pdf");
+        if (Files.exists(file)) {
+            return Optional.of(file);
+        }
+
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> running = renders.putIfAbsent(file, render);
+        if (running == null) {
+            running = render;
+            try {
+                renderExecutor.execute(() -> {
+                    try {
+                        render.complete(renderPdf(resumeId, html.get(), readAt, prefix, file));
+                    } catch (IOException | RuntimeException e) {
+                        render.completeExceptionally(e);
+                    } finally {
+                        renders.remove(file, render);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                renders.remove(file, render);
+                render.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.of(running.get(renderTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering the PDF of resume " + resumeId, e);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out rendering the PDF of resume " + resumeId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw (RejectedExecutionException) e.getCause();
+            }
+            throw new IOException("Could not render the PDF of resume " + resumeId, e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    private String renderHtml(Resume resume, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable("resume", resume);
+        return templateEngine.process(TEMPLATE, context);
+    }
+
+    /**
+     * Lay out the PDF of a resume, then delete the versions of the same locale read from the database before it.
+     *
+     * @param resumeId the ID of the resume.
+     * @param html the HTML of the resume.
+     * @param readAt the time the resume was read, set as the last modified time of the file.
+     * @param prefix the prefix of the files of the versions of the resume in the locale.
+     * @param file the file of the version.
+     * @return the file.
+     * @throws IOException if the PDF could not be written.
+     */
+    private Path renderPdf(long resumeId, String html, Instant readAt, String prefix, Path file) throws IOException {
+        long start = System.nanoTime();
+        Path temporary = Files.createTempFile(cacheDirectory, resumeId + "-", ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                PdfRendererBuilder builder = new PdfRendererBuilder();
+                builder.useFastMode();
+                builder.withHtmlContent(html, null);
+                builder.toStream(output);
+                builder.run();
+            }
+            Files.setLastModifiedTime(temporary, FileTime.from(readAt));
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        // The older versions of the resume will not be served again, the newer ones rendered concurrently are kept
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(cacheDirectory, prefix + "*.pdf")) {
+            for (Path version : versions) {
+                try {
+                    if (Files.getLastModifiedTime(version).toInstant().isBefore(readAt)) {
+                        Files.deleteIfExists(version);
+                    }
+                } catch (NoSuchFileException e) {
+                    // Deleted by a concurrent render
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not delete the previous PDF of resume {}", resumeId, e);
+        }
+        log.debug("Rendered the PDF of resume {} in {} ms", resumeId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return file;
+    }
+
+    private static String version(String html) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(html.getBytes(StandardCharsets.UTF_8));
+            StringBuilder version = new StringBuilder(VERSION_LENGTH);
+            for (int i = 0; i < VERSION_LENGTH / 2; i++) {
+                version.append(String.format("%02x", digest[i]));
+            }
+            return version.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package fr.rif.rh.cvtech.service;
+
+import fr.rif.rh.cvtech.repository.ResumeSummaryEntryRepository;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service managing the {@link fr.rif.rh.cvtech.domain.ResumeSummaryEntry} read model.
+ */
+@Service
+@Transactional
+public class ResumeSummaryService {
+
+    private final Logger log = LoggerFactory.getLogger(ResumeSummaryService.class);
+
+    private final ResumeSummaryEntryRepository resumeSummaryEntryRepository;
+
+    public ResumeSummaryService(ResumeSummaryEntryRepository resumeSummaryEntryRepository) {
+        this.resumeSummaryEntryRepository = resumeSummaryEntryRepository;
+    }
+
+    /**
+     * Recompute the summaries of all resumes, in one transaction, replacing the current ones.
+     * <p>
+     * The summaries are kept current as resumes are written through JPA, so this is only needed to backfill them, or after
+     * resumes were written by SQL.
+     *
+     * @return the number of summaries.
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        resumeSummaryEntryRepository.deleteAllSummaries();
+        int count = resumeSummaryEntryRepository.insertAllSummaries();
+        log.info("Rebuilt {} resume summaries in {} ms", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return count;
+    }
+}
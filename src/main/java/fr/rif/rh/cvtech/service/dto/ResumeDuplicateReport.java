@@ -0,0 +1,122 @@
+package fr.rif.rh.cvtech.service.dto;
+
+import fr.rif.rh.cvtech.service.NearDuplicateDetector;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A DTO representing the progress and outcome of a scan for near-duplicate resumes.
+ * <p>
+ * It is updated by the thread running the scan, and may be read concurrently by the resource.
+ */
+public class ResumeDuplicateReport {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private final String id;
+
+    private final double threshold;
+
+    private final Instant startedAt;
+
+    private final AtomicLong resumesScanned = new AtomicLong();
+
+    private volatile State state = State.RUNNING;
+
+    private volatile Instant finishedAt;
+
+    private volatile long pairsFound;
+
+    private volatile long bucketsSkipped;
+
+    private volatile List<NearDuplicateDetector.Pair> pairs = List.of();
+
+    private volatile String failure;
+
+    public ResumeDuplicateReport(String id, double threshold) {
+        this.id = id;
+        this.threshold = threshold;
+        this.startedAt = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getResumesScanned() {
+        return resumesScanned.get();
+    }
+
+    /**
+     * @return the number of pairs found, which may be more than the pairs reported.
+     */
+    public long getPairsFound() {
+        return pairsFound;
+    }
+
+    public long getBucketsSkipped() {
+        return bucketsSkipped;
+    }
+
+    /**
+     * @return the most similar pairs found, the most similar first.
+     */
+    public List<NearDuplicateDetector.Pair> getPairs() {
+        return pairs;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void resumeScanned() {
+        resumesScanned.incrementAndGet();
+    }
+
+    public void complete(long pairsFound, List<NearDuplicateDetector.Pair> pairs, long bucketsSkipped) {
+        this.pairsFound = pairsFound;
+        this.pairs = List.copyOf(pairs);
+        this.bucketsSkipped = bucketsSkipped;
+        this.finishedAt = Instant.now();
+        this.state = State.COMPLETED;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        this.finishedAt = Instant.now();
+        this.state = State.FAILED;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResumeDuplicateReport{" +
+            "id='" + id + '\'' +
+            ", state=" + state +
+            ", resumesScanned=" + getResumesScanned() +
+            ", pairsFound=" + pairsFound +
+            ", bucketsSkipped=" + bucketsSkipped +
+            "}";
+    }
+}
@@ -0,0 +1,161 @@
+package fr.rif.rh.cvtech.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO representing one record of a resume bulk import: a resume with its profile and contact, flattened so that it can be
+ * read from a CSV row as well as from an NDJSON line.
+ * <p>
+ * The profile is only imported when the birth date, which it requires, is given.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ResumeImportRecord {
+
+    @Size(max = 255)
+    private String titre;
+
+    private ZonedDateTime dateCreation;
+
+    private Instant dateNaissance;
+
+    @Size(max = 255)
+    private String profession;
+
+    @Size(max = 255)
+    private String city;
+
+    @Size(max = 255)
+    private String country;
+
+    @Size(max = 255)
+    private String website;
+
+    @Size(max = 255)
+    private String description;
+
+    @Size(max = 255)
+    private String nom;
+
+    @Size(max = 255)
+    private String prenom;
+
+    @Email
+    @Size(max = 255)
+    private String mail;
+
+    public String getTitre() {
+        return titre;
+    }
+
+    public void setTitre(String titre) {
+        this.titre = titre;
+    }
+
+    public ZonedDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(ZonedDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    public Instant getDateNaissance() {
+        return dateNaissance;
+    }
+
+    public void setDateNaissance(Instant dateNaissance) {
+        this.dateNaissance = dateNaissance;
+    }
+
+    public String getProfession() {
+        return profession;
+    }
+
+    public void setProfession(String profession) {
+        this.profession = profession;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getWebsite() {
+        return website;
+    }
+
+    public void setWebsite(String website) {
+        this.website = website;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public void setPrenom(String prenom) {
+        this.prenom = prenom;
+    }
+
+    public String getMail() {
+        return mail;
+    }
+
+    public void setMail(String mail) {
+        this.mail = mail;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "the profile requires a dateNaissance")
+    public boolean isProfilComplete() {
+        return dateNaissance != null || (profession == null && city == null && country == null && website == null && description == null);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResumeImportRecord{" +
+            "titre='" + titre + '\'' +
+            ", dateCreation=" + dateCreation +
+            ", dateNaissance=" + dateNaissance +
+            ", profession='" + profession + '\'' +
+            ", city='" + city + '\'' +
+            ", country='" + country + '\'' +
+            ", website='" + website + '\'' +
+            ", description='" + description + '\'' +
+            ", nom='" + nom + '\'' +
+            ", prenom='" + prenom + '\'' +
+            ", mail='" + mail + '\'' +
+            "}";
+    }
+}
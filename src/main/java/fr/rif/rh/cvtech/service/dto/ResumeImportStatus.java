@@ -0,0 +1,141 @@
+package fr.rif.rh.cvtech.service.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A DTO representing the progress of a resume bulk import.
+ * <p>
+ * It is updated by the thread running the import, and may be read concurrently by the status resource.
+ */
+public class ResumeImportStatus {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private final String id;
+
+    private final String format;
+
+    private final Instant startedAt;
+
+    private final int maxReportedErrors;
+
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.RUNNING;
+
+    private volatile Instant finishedAt;
+
+    private final AtomicLong recordsRead = new AtomicLong();
+
+    private final AtomicLong recordsImported = new AtomicLong();
+
+    private final AtomicLong recordsRejected = new AtomicLong();
+
+    private volatile String failure;
+
+    public ResumeImportStatus(String id, String format, int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.maxReportedErrors = maxReportedErrors;
+        this.startedAt = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead.get();
+    }
+
+    public long getRecordsImported() {
+        return recordsImported.get();
+    }
+
+    public long getRecordsRejected() {
+        return recordsRejected.get();
+    }
+
+    /**
+     * @return the number of records imported per second since the import started.
+     */
+    public long getRecordsPerSecond() {
+        Instant end = finishedAt == null ? Instant.now() : finishedAt;
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return recordsImported.get() * 1000 / millis;
+    }
+
+    /**
+     * @return the first rejected records, with the reason of their rejection.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void recordRead() {
+        recordsRead.incrementAndGet();
+    }
+
+    public void recordsImported(int count) {
+        recordsImported.addAndGet(count);
+    }
+
+    public void recordRejected(long recordNumber, String reason) {
+        recordsRejected.incrementAndGet();
+        if (errors.size() < maxReportedErrors) {
+            errors.add("Record " + recordNumber + ": " + reason);
+        }
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResumeImportStatus{" +
+            "id='" + id + '\'' +
+            ", format='" + format + '\'' +
+            ", state=" + state +
+            ", recordsRead=" + recordsRead +
+            ", recordsImported=" + recordsImported +
+            ", recordsRejected=" + recordsRejected +
+            "}";
+    }
+}
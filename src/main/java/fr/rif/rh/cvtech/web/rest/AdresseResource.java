@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Adresse;
 import fr.rif.rh.cvtech.repository.AdresseRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Adresse}.
@@ -34,8 +42,14 @@ public class AdresseResource {
 
     private final AdresseRepository adresseRepository;
 
-    public AdresseResource(AdresseRepository adresseRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public AdresseResource(AdresseRepository adresseRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.adresseRepository = adresseRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class AdresseResource {
      *
      * @param id the id of the adresse to save.
      * @param adresse the adresse to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the adresse the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated adresse,
      * or with status {@code 400 (Bad Request)} if the adresse is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the adresse is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the adresse couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/adresses/{id}")
-    public ResponseEntity<Adresse> updateAdresse(@PathVariable(value = "id", required = false) final Long id, @RequestBody Adresse adresse)
-        throws URISyntaxException {
+    public ResponseEntity<Adresse> updateAdresse(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Adresse adresse,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Adresse : {}, {}", id, adresse);
         if (adresse.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,90 +98,91 @@ public class AdresseResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!adresseRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = adresseRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            adresse.setVersion(version);
         }
 
-        Adresse result = adresseRepository.save(adresse);
+        Adresse result = adresseRepository.saveAndFlush(adresse);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, adresse.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /adresses/:id} : Partial updates given fields of an existing adresse, field will ignore if it is null
+     * {@code PATCH  /adresses/:id} : Partial updates given fields of an existing adresse, with a merge patch or a JSON Patch.
      *
      * @param id the id of the adresse to save.
-     * @param adresse the adresse to update.
+     * @param patch the patch of the adresse, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the adresse the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated adresse,
-     * or with status {@code 400 (Bad Request)} if the adresse is not valid,
-     * or with status {@code 404 (Not Found)} if the adresse is not found,
+     * or with status {@code 400 (Bad Request)} if the adresse is not found or if the patch or the patched adresse is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the adresse is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the adresse couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/adresses/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/adresses/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" }
+    )
     public ResponseEntity<Adresse> partialUpdateAdresse(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Adresse adresse
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Adresse partially : {}, {}", id, adresse);
-        if (adresse.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, adresse.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!adresseRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Adresse> result = adresseRepository
-            .findById(adresse.getId())
-            .map(existingAdresse -> {
-                if (adresse.getAdresse() != null) {
-                    existingAdresse.setAdresse(adresse.getAdresse());
-                }
-                if (adresse.getNomVille() != null) {
-                    existingAdresse.setNomVille(adresse.getNomVille());
-                }
-                if (adresse.getCodePostale() != null) {
-                    existingAdresse.setCodePostale(adresse.getCodePostale());
-                }
-
-                return existingAdresse;
-            })
-            .map(adresseRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, adresse.getId().toString())
-        );
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Adresse partially : {}, {}", id, patch);
+        Adresse adresse = adresseRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, adresse.getVersion(), ENTITY_NAME);
+
+        Adresse result = adresseRepository.saveAndFlush(entityPatcher.patch(adresse, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /adresses} : get all the adresses.
+     * {@code GET  /adresses} : get a page of the adresses, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of adresses in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of adresses in body.
      */
     @GetMapping("/adresses")
-    public List<Adresse> getAllAdresses() {
-        log.debug("REST request to get all Adresses");
-        return adresseRepository.findAll();
+    public ResponseEntity<List<Adresse>> getAllAdresses(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Adresses");
+        return keysetPaginator.getPage(adresseRepository, Adresse::getId, Adresse::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /adresses/:id} : get the "id" adresse.
      *
      * @param id the id of the adresse to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the adresse, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the adresse,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/adresses/{id}")
     public ResponseEntity<Adresse> getAdresse(@PathVariable Long id) {
         log.debug("REST request to get Adresse : {}", id);
         Optional<Adresse> adresse = adresseRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(adresse);
+        return EntityTagUtil.wrapOrNotFound(adresse, Adresse::getVersion);
     }
 
     /**
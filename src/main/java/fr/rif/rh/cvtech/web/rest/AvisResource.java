@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Avis;
 import fr.rif.rh.cvtech.repository.AvisRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Avis}.
@@ -34,8 +42,14 @@ public class AvisResource {
 
     private final AvisRepository avisRepository;
 
-    public AvisResource(AvisRepository avisRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public AvisResource(AvisRepository avisRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.avisRepository = avisRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class AvisResource {
      *
      * @param id the id of the avis to save.
      * @param avis the avis to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the avis the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated avis,
      * or with status {@code 400 (Bad Request)} if the avis is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the avis is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the avis couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/avis/{id}")
-    public ResponseEntity<Avis> updateAvis(@PathVariable(value = "id", required = false) final Long id, @RequestBody Avis avis)
-        throws URISyntaxException {
+    public ResponseEntity<Avis> updateAvis(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Avis avis,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Avis : {}, {}", id, avis);
         if (avis.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,94 +98,88 @@ public class AvisResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!avisRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = avisRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            avis.setVersion(version);
         }
 
-        Avis result = avisRepository.save(avis);
+        Avis result = avisRepository.saveAndFlush(avis);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, avis.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /avis/:id} : Partial updates given fields of an existing avis, field will ignore if it is null
+     * {@code PATCH  /avis/:id} : Partial updates given fields of an existing avis, with a merge patch or a JSON Patch.
      *
      * @param id the id of the avis to save.
-     * @param avis the avis to update.
+     * @param patch the patch of the avis, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the avis the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated avis,
-     * or with status {@code 400 (Bad Request)} if the avis is not valid,
-     * or with status {@code 404 (Not Found)} if the avis is not found,
+     * or with status {@code 400 (Bad Request)} if the avis is not found or if the patch or the patched avis is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the avis is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the avis couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/avis/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Avis> partialUpdateAvis(@PathVariable(value = "id", required = false) final Long id, @RequestBody Avis avis)
-        throws URISyntaxException {
-        log.debug("REST request to partial update Avis partially : {}, {}", id, avis);
-        if (avis.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, avis.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!avisRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Avis> result = avisRepository
-            .findById(avis.getId())
-            .map(existingAvis -> {
-                if (avis.getNomAvis() != null) {
-                    existingAvis.setNomAvis(avis.getNomAvis());
-                }
-                if (avis.getPrenomAvis() != null) {
-                    existingAvis.setPrenomAvis(avis.getPrenomAvis());
-                }
-                if (avis.getPhotoAvis() != null) {
-                    existingAvis.setPhotoAvis(avis.getPhotoAvis());
-                }
-                if (avis.getDescriptionAvis() != null) {
-                    existingAvis.setDescriptionAvis(avis.getDescriptionAvis());
-                }
-                if (avis.getDateAvis() != null) {
-                    existingAvis.setDateAvis(avis.getDateAvis());
-                }
-
-                return existingAvis;
-            })
-            .map(avisRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, avis.getId().toString())
-        );
+    @PatchMapping(value = "/avis/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
+    public ResponseEntity<Avis> partialUpdateAvis(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Avis partially : {}, {}", id, patch);
+        Avis avis = avisRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, avis.getVersion(), ENTITY_NAME);
+
+        Avis result = avisRepository.saveAndFlush(entityPatcher.patch(avis, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /avis} : get all the avis.
+     * {@code GET  /avis} : get a page of the avis, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of avis in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of avis in body.
      */
     @GetMapping("/avis")
-    public List<Avis> getAllAvis() {
-        log.debug("REST request to get all Avis");
-        return avisRepository.findAll();
+    public ResponseEntity<List<Avis>> getAllAvis(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Avis");
+        return keysetPaginator.getPage(avisRepository, Avis::getId, Avis::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /avis/:id} : get the "id" avis.
      *
      * @param id the id of the avis to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the avis, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the avis,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/avis/{id}")
     public ResponseEntity<Avis> getAvis(@PathVariable Long id) {
         log.debug("REST request to get Avis : {}", id);
         Optional<Avis> avis = avisRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(avis);
+        return EntityTagUtil.wrapOrNotFound(avis, Avis::getVersion);
     }
 
     /**
@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Contact;
 import fr.rif.rh.cvtech.repository.ContactRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Contact}.
@@ -34,8 +42,14 @@ public class ContactResource {
 
     private final ContactRepository contactRepository;
 
-    public ContactResource(ContactRepository contactRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public ContactResource(ContactRepository contactRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.contactRepository = contactRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class ContactResource {
      *
      * @param id the id of the contact to save.
      * @param contact the contact to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the contact the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated contact,
      * or with status {@code 400 (Bad Request)} if the contact is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the contact is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the contact couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/contacts/{id}")
-    public ResponseEntity<Contact> updateContact(@PathVariable(value = "id", required = false) final Long id, @RequestBody Contact contact)
-        throws URISyntaxException {
+    public ResponseEntity<Contact> updateContact(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Contact contact,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Contact : {}, {}", id, contact);
         if (contact.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,96 +98,91 @@ public class ContactResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!contactRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = contactRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            contact.setVersion(version);
         }
 
-        Contact result = contactRepository.save(contact);
+        Contact result = contactRepository.saveAndFlush(contact);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, contact.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /contacts/:id} : Partial updates given fields of an existing contact, field will ignore if it is null
+     * {@code PATCH  /contacts/:id} : Partial updates given fields of an existing contact, with a merge patch or a JSON Patch.
      *
      * @param id the id of the contact to save.
-     * @param contact the contact to update.
+     * @param patch the patch of the contact, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the contact the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated contact,
-     * or with status {@code 400 (Bad Request)} if the contact is not valid,
-     * or with status {@code 404 (Not Found)} if the contact is not found,
+     * or with status {@code 400 (Bad Request)} if the contact is not found or if the patch or the patched contact is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the contact is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the contact couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/contacts/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/contacts/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" }
+    )
     public ResponseEntity<Contact> partialUpdateContact(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Contact contact
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Contact partially : {}, {}", id, contact);
-        if (contact.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, contact.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!contactRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Contact> result = contactRepository
-            .findById(contact.getId())
-            .map(existingContact -> {
-                if (contact.getGeolocalisation() != null) {
-                    existingContact.setGeolocalisation(contact.getGeolocalisation());
-                }
-                if (contact.getNom() != null) {
-                    existingContact.setNom(contact.getNom());
-                }
-                if (contact.getPrenom() != null) {
-                    existingContact.setPrenom(contact.getPrenom());
-                }
-                if (contact.getMail() != null) {
-                    existingContact.setMail(contact.getMail());
-                }
-                if (contact.getMessage() != null) {
-                    existingContact.setMessage(contact.getMessage());
-                }
-
-                return existingContact;
-            })
-            .map(contactRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, contact.getId().toString())
-        );
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Contact partially : {}, {}", id, patch);
+        Contact contact = contactRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, contact.getVersion(), ENTITY_NAME);
+
+        Contact result = contactRepository.saveAndFlush(entityPatcher.patch(contact, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /contacts} : get all the contacts.
+     * {@code GET  /contacts} : get a page of the contacts, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of contacts in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of contacts in body.
      */
     @GetMapping("/contacts")
-    public List<Contact> getAllContacts() {
-        log.debug("REST request to get all Contacts");
-        return contactRepository.findAll();
+    public ResponseEntity<List<Contact>> getAllContacts(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Contacts");
+        return keysetPaginator.getPage(contactRepository, Contact::getId, Contact::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /contacts/:id} : get the "id" contact.
      *
      * @param id the id of the contact to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the contact, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the contact,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/contacts/{id}")
     public ResponseEntity<Contact> getContact(@PathVariable Long id) {
         log.debug("REST request to get Contact : {}", id);
         Optional<Contact> contact = contactRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(contact);
+        return EntityTagUtil.wrapOrNotFound(contact, Contact::getVersion);
     }
 
     /**
@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Design;
 import fr.rif.rh.cvtech.repository.DesignRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Design}.
@@ -34,8 +42,14 @@ public class DesignResource {
 
     private final DesignRepository designRepository;
 
-    public DesignResource(DesignRepository designRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public DesignResource(DesignRepository designRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.designRepository = designRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class DesignResource {
      *
      * @param id the id of the design to save.
      * @param design the design to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the design the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated design,
      * or with status {@code 400 (Bad Request)} if the design is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the design is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the design couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/designs/{id}")
-    public ResponseEntity<Design> updateDesign(@PathVariable(value = "id", required = false) final Long id, @RequestBody Design design)
-        throws URISyntaxException {
+    public ResponseEntity<Design> updateDesign(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Design design,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Design : {}, {}", id, design);
         if (design.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,87 +98,88 @@ public class DesignResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!designRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = designRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            design.setVersion(version);
         }
 
-        Design result = designRepository.save(design);
+        Design result = designRepository.saveAndFlush(design);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, design.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /designs/:id} : Partial updates given fields of an existing design, field will ignore if it is null
+     * {@code PATCH  /designs/:id} : Partial updates given fields of an existing design, with a merge patch or a JSON Patch.
      *
      * @param id the id of the design to save.
-     * @param design the design to update.
+     * @param patch the patch of the design, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the design the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated design,
-     * or with status {@code 400 (Bad Request)} if the design is not valid,
-     * or with status {@code 404 (Not Found)} if the design is not found,
+     * or with status {@code 400 (Bad Request)} if the design is not found or if the patch or the patched design is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the design is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the design couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/designs/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/designs/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
     public ResponseEntity<Design> partialUpdateDesign(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Design design
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Design partially : {}, {}", id, design);
-        if (design.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, design.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!designRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Design> result = designRepository
-            .findById(design.getId())
-            .map(existingDesign -> {
-                if (design.getNomDesign() != null) {
-                    existingDesign.setNomDesign(design.getNomDesign());
-                }
-                if (design.getTauxDeDesign() != null) {
-                    existingDesign.setTauxDeDesign(design.getTauxDeDesign());
-                }
-
-                return existingDesign;
-            })
-            .map(designRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, design.getId().toString())
-        );
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Design partially : {}, {}", id, patch);
+        Design design = designRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, design.getVersion(), ENTITY_NAME);
+
+        Design result = designRepository.saveAndFlush(entityPatcher.patch(design, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /designs} : get all the designs.
+     * {@code GET  /designs} : get a page of the designs, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of designs in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of designs in body.
      */
     @GetMapping("/designs")
-    public List<Design> getAllDesigns() {
-        log.debug("REST request to get all Designs");
-        return designRepository.findAll();
+    public ResponseEntity<List<Design>> getAllDesigns(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Designs");
+        return keysetPaginator.getPage(designRepository, Design::getId, Design::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /designs/:id} : get the "id" design.
      *
      * @param id the id of the design to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the design, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the design,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/designs/{id}")
     public ResponseEntity<Design> getDesign(@PathVariable Long id) {
         log.debug("REST request to get Design : {}", id);
         Optional<Design> design = designRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(design);
+        return EntityTagUtil.wrapOrNotFound(design, Design::getVersion);
     }
 
     /**
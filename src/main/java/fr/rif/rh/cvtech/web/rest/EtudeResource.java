@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Etude;
 import fr.rif.rh.cvtech.repository.EtudeRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Etude}.
@@ -34,8 +42,14 @@ public class EtudeResource {
 
     private final EtudeRepository etudeRepository;
 
-    public EtudeResource(EtudeRepository etudeRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public EtudeResource(EtudeRepository etudeRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.etudeRepository = etudeRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class EtudeResource {
      *
      * @param id the id of the etude to save.
      * @param etude the etude to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the etude the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated etude,
      * or with status {@code 400 (Bad Request)} if the etude is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the etude is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the etude couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/etudes/{id}")
-    public ResponseEntity<Etude> updateEtude(@PathVariable(value = "id", required = false) final Long id, @RequestBody Etude etude)
-        throws URISyntaxException {
+    public ResponseEntity<Etude> updateEtude(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Etude etude,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Etude : {}, {}", id, etude);
         if (etude.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,85 +98,88 @@ public class EtudeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!etudeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = etudeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            etude.setVersion(version);
         }
 
-        Etude result = etudeRepository.save(etude);
+        Etude result = etudeRepository.saveAndFlush(etude);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, etude.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /etudes/:id} : Partial updates given fields of an existing etude, field will ignore if it is null
+     * {@code PATCH  /etudes/:id} : Partial updates given fields of an existing etude, with a merge patch or a JSON Patch.
      *
      * @param id the id of the etude to save.
-     * @param etude the etude to update.
+     * @param patch the patch of the etude, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the etude the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated etude,
-     * or with status {@code 400 (Bad Request)} if the etude is not valid,
-     * or with status {@code 404 (Not Found)} if the etude is not found,
+     * or with status {@code 400 (Bad Request)} if the etude is not found or if the patch or the patched etude is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the etude is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the etude couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/etudes/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Etude> partialUpdateEtude(@PathVariable(value = "id", required = false) final Long id, @RequestBody Etude etude)
-        throws URISyntaxException {
-        log.debug("REST request to partial update Etude partially : {}, {}", id, etude);
-        if (etude.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, etude.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!etudeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Etude> result = etudeRepository
-            .findById(etude.getId())
-            .map(existingEtude -> {
-                if (etude.getNomEtude() != null) {
-                    existingEtude.setNomEtude(etude.getNomEtude());
-                }
-                if (etude.getAnneeEtude() != null) {
-                    existingEtude.setAnneeEtude(etude.getAnneeEtude());
-                }
-
-                return existingEtude;
-            })
-            .map(etudeRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, etude.getId().toString())
-        );
+    @PatchMapping(value = "/etudes/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
+    public ResponseEntity<Etude> partialUpdateEtude(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Etude partially : {}, {}", id, patch);
+        Etude etude = etudeRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, etude.getVersion(), ENTITY_NAME);
+
+        Etude result = etudeRepository.saveAndFlush(entityPatcher.patch(etude, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /etudes} : get all the etudes.
+     * {@code GET  /etudes} : get a page of the etudes, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of etudes in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of etudes in body.
      */
     @GetMapping("/etudes")
-    public List<Etude> getAllEtudes() {
-        log.debug("REST request to get all Etudes");
-        return etudeRepository.findAll();
+    public ResponseEntity<List<Etude>> getAllEtudes(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Etudes");
+        return keysetPaginator.getPage(etudeRepository, Etude::getId, Etude::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /etudes/:id} : get the "id" etude.
      *
      * @param id the id of the etude to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the etude, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the etude,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/etudes/{id}")
     public ResponseEntity<Etude> getEtude(@PathVariable Long id) {
         log.debug("REST request to get Etude : {}", id);
         Optional<Etude> etude = etudeRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(etude);
+        return EntityTagUtil.wrapOrNotFound(etude, Etude::getVersion);
     }
 
     /**
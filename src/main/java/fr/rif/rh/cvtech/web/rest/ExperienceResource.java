@@ -1,8 +1,15 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Experience;
 import fr.rif.rh.cvtech.repository.ExperienceRepository;
+import fr.rif.rh.cvtech.repository.SparseFieldsetRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
+import fr.rif.rh.cvtech.web.rest.util.SparseFieldset;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +18,16 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Experience}.
@@ -34,8 +46,22 @@ public class ExperienceResource {
 
     private final ExperienceRepository experienceRepository;
 
-    public ExperienceResource(ExperienceRepository experienceRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+
+    public ExperienceResource(
+        ExperienceRepository experienceRepository,
+        KeysetPaginator keysetPaginator,
+        EntityPatcher entityPatcher,
+        SparseFieldsetRepository sparseFieldsetRepository
+    ) {
         this.experienceRepository = experienceRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
+        this.sparseFieldsetRepository = sparseFieldsetRepository;
     }
 
     /**
@@ -63,15 +89,18 @@ public class ExperienceResource {
      *
      * @param id the id of the experience to save.
      * @param experience the experience to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the experience the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated experience,
      * or with status {@code 400 (Bad Request)} if the experience is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the experience is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the experience couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/experiences/{id}")
     public ResponseEntity<Experience> updateExperience(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Experience experience
+        @RequestBody Experience experience,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Experience : {}, {}", id, experience);
         if (experience.getId() == null) {
@@ -81,93 +110,166 @@ public class ExperienceResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!experienceRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = experienceRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            experience.setVersion(version);
         }
 
-        Experience result = experienceRepository.save(experience);
+        Experience result = experienceRepository.saveAndFlush(experience);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, experience.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /experiences/:id} : Partial updates given fields of an existing experience, field will ignore if it is null
+     * {@code PATCH  /experiences/:id} : Partial updates given fields of an existing experience, with a merge patch or a JSON Patch.
      *
      * @param id the id of the experience to save.
-     * @param experience the experience to update.
+     * @param patch the patch of the experience, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the experience the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated experience,
-     * or with status {@code 400 (Bad Request)} if the experience is not valid,
-     * or with status {@code 404 (Not Found)} if the experience is not found,
+     * or with status {@code 400 (Bad Request)} if the experience is not found or if the patch or the patched experience is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the experience is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the experience couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/experiences/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/experiences/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" }
+    )
     public ResponseEntity<Experience> partialUpdateExperience(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Experience experience
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Experience partially : {}, {}", id, experience);
-        if (experience.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, experience.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!experienceRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Experience partially : {}, {}", id, patch);
+        Experience experience = experienceRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, experience.getVersion(), ENTITY_NAME);
 
-        Optional<Experience> result = experienceRepository
-            .findById(experience.getId())
-            .map(existingExperience -> {
-                if (experience.getNomEntreprise() != null) {
-                    existingExperience.setNomEntreprise(experience.getNomEntreprise());
-                }
-                if (experience.getNomPoste() != null) {
-                    existingExperience.setNomPoste(experience.getNomPoste());
-                }
-                if (experience.getDateExperience() != null) {
-                    existingExperience.setDateExperience(experience.getDateExperience());
-                }
-                if (experience.getDescriptionExperience() != null) {
-                    existingExperience.setDescriptionExperience(experience.getDescriptionExperience());
-                }
-
-                return existingExperience;
-            })
-            .map(experienceRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, experience.getId().toString())
-        );
+        Experience result = experienceRepository.saveAndFlush(entityPatcher.patch(experience, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /experiences} : get all the experiences.
+     * {@code GET  /experiences} : get a page of the experiences, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of experiences in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of experiences in body.
      */
     @GetMapping("/experiences")
-    public List<Experience> getAllExperiences() {
-        log.debug("REST request to get all Experiences");
-        return experienceRepository.findAll();
+    public ResponseEntity<List<Experience>> getAllExperiences(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Experiences");
+        return keysetPaginator.getPage(
+            experienceRepository,
+            Experience::getId,
+            Experience::getVersion,
+            cursor,
+            size,
+            sort,
+            count,
+            ENTITY_NAME
+        );
+    }
+
+    /**
+     * {@code GET  /experiences?fields=} : get a page of the experiences, ordered by id, with only some of their fields.
+     *
+     * @param fields the fields to read and send besides the id, see {@link SparseFieldset}.
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of experiences in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of experiences in body,
+     * or with status {@code 400 (Bad Request)} if a field is not a field of the experience.
+     */
+    @GetMapping(value = "/experiences", params = SparseFieldset.FIELDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getAllExperiencesWithFields(
+        @RequestParam(SparseFieldset.FIELDS_PARAMETER) List<String> fields,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Experiences with fields : {}", fields);
+        try {
+            ResponseEntity<List<Experience>> page = keysetPaginator.getPage(
+                (afterId, pageable) ->
+                    afterId == null
+                        ? sparseFieldsetRepository.findSlice(Experience.class, fields, pageable)
+                        : sparseFieldsetRepository.findSlice(Experience.class, fields, pageable, afterId),
+                experienceRepository::count,
+                Experience::getId,
+                Experience::getVersion,
+                cursor,
+                size,
+                sort,
+                count,
+                ENTITY_NAME
+            );
+            return SparseFieldset.filter(page, Experience.class, fields);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
     }
 
     /**
      * {@code GET  /experiences/:id} : get the "id" experience.
      *
      * @param id the id of the experience to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the experience, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the experience,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/experiences/{id}")
     public ResponseEntity<Experience> getExperience(@PathVariable Long id) {
         log.debug("REST request to get Experience : {}", id);
         Optional<Experience> experience = experienceRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(experience);
+        return EntityTagUtil.wrapOrNotFound(experience, Experience::getVersion);
+    }
+
+    /**
+     * {@code GET  /experiences/:id?fields=} : get the "id" experience, with only some of its fields.
+     *
+     * @param id the id of the experience to retrieve.
+     * @param fields the fields to read and send besides the id, see {@link SparseFieldset}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the experience,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 400 (Bad Request)} if a field is not a field of the experience,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/experiences/{id}", params = SparseFieldset.FIELDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getExperienceWithFields(
+        @PathVariable Long id,
+        @RequestParam(SparseFieldset.FIELDS_PARAMETER) List<String> fields
+    ) {
+        log.debug("REST request to get Experience : {} with fields : {}", id, fields);
+        Optional<Experience> experience;
+        try {
+            experience = sparseFieldsetRepository.findById(Experience.class, fields, id);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        return SparseFieldset.filter(EntityTagUtil.wrapOrNotFound(experience, Experience::getVersion), Experience.class, fields);
     }
 
     /**
@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Langue;
 import fr.rif.rh.cvtech.repository.LangueRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Langue}.
@@ -34,8 +42,14 @@ public class LangueResource {
 
     private final LangueRepository langueRepository;
 
-    public LangueResource(LangueRepository langueRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public LangueResource(LangueRepository langueRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.langueRepository = langueRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class LangueResource {
      *
      * @param id the id of the langue to save.
      * @param langue the langue to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the langue the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated langue,
      * or with status {@code 400 (Bad Request)} if the langue is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the langue is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the langue couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/langues/{id}")
-    public ResponseEntity<Langue> updateLangue(@PathVariable(value = "id", required = false) final Long id, @RequestBody Langue langue)
-        throws URISyntaxException {
+    public ResponseEntity<Langue> updateLangue(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Langue langue,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Langue : {}, {}", id, langue);
         if (langue.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,84 +98,88 @@ public class LangueResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!langueRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = langueRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            langue.setVersion(version);
         }
 
-        Langue result = langueRepository.save(langue);
+        Langue result = langueRepository.saveAndFlush(langue);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, langue.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /langues/:id} : Partial updates given fields of an existing langue, field will ignore if it is null
+     * {@code PATCH  /langues/:id} : Partial updates given fields of an existing langue, with a merge patch or a JSON Patch.
      *
      * @param id the id of the langue to save.
-     * @param langue the langue to update.
+     * @param patch the patch of the langue, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the langue the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated langue,
-     * or with status {@code 400 (Bad Request)} if the langue is not valid,
-     * or with status {@code 404 (Not Found)} if the langue is not found,
+     * or with status {@code 400 (Bad Request)} if the langue is not found or if the patch or the patched langue is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the langue is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the langue couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/langues/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/langues/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
     public ResponseEntity<Langue> partialUpdateLangue(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Langue langue
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Langue partially : {}, {}", id, langue);
-        if (langue.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, langue.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!langueRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Langue> result = langueRepository
-            .findById(langue.getId())
-            .map(existingLangue -> {
-                if (langue.getLangue() != null) {
-                    existingLangue.setLangue(langue.getLangue());
-                }
-
-                return existingLangue;
-            })
-            .map(langueRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, langue.getId().toString())
-        );
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Langue partially : {}, {}", id, patch);
+        Langue langue = langueRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, langue.getVersion(), ENTITY_NAME);
+
+        Langue result = langueRepository.saveAndFlush(entityPatcher.patch(langue, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /langues} : get all the langues.
+     * {@code GET  /langues} : get a page of the langues, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of langues in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of langues in body.
      */
     @GetMapping("/langues")
-    public List<Langue> getAllLangues() {
-        log.debug("REST request to get all Langues");
-        return langueRepository.findAll();
+    public ResponseEntity<List<Langue>> getAllLangues(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Langues");
+        return keysetPaginator.getPage(langueRepository, Langue::getId, Langue::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /langues/:id} : get the "id" langue.
      *
      * @param id the id of the langue to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the langue, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the langue,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/langues/{id}")
     public ResponseEntity<Langue> getLangue(@PathVariable Long id) {
         log.debug("REST request to get Langue : {}", id);
         Optional<Langue> langue = langueRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(langue);
+        return EntityTagUtil.wrapOrNotFound(langue, Langue::getVersion);
     }
 
     /**
@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Outil;
 import fr.rif.rh.cvtech.repository.OutilRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Outil}.
@@ -34,8 +42,14 @@ public class OutilResource {
 
     private final OutilRepository outilRepository;
 
-    public OutilResource(OutilRepository outilRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public OutilResource(OutilRepository outilRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.outilRepository = outilRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,14 +77,19 @@ public class OutilResource {
      *
      * @param id the id of the outil to save.
      * @param outil the outil to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the outil the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated outil,
      * or with status {@code 400 (Bad Request)} if the outil is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the outil is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the outil couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/outils/{id}")
-    public ResponseEntity<Outil> updateOutil(@PathVariable(value = "id", required = false) final Long id, @RequestBody Outil outil)
-        throws URISyntaxException {
+    public ResponseEntity<Outil> updateOutil(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Outil outil,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Outil : {}, {}", id, outil);
         if (outil.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -79,82 +98,88 @@ public class OutilResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!outilRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = outilRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            outil.setVersion(version);
         }
 
-        Outil result = outilRepository.save(outil);
+        Outil result = outilRepository.saveAndFlush(outil);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, outil.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /outils/:id} : Partial updates given fields of an existing outil, field will ignore if it is null
+     * {@code PATCH  /outils/:id} : Partial updates given fields of an existing outil, with a merge patch or a JSON Patch.
      *
      * @param id the id of the outil to save.
-     * @param outil the outil to update.
+     * @param patch the patch of the outil, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the outil the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated outil,
-     * or with status {@code 400 (Bad Request)} if the outil is not valid,
-     * or with status {@code 404 (Not Found)} if the outil is not found,
+     * or with status {@code 400 (Bad Request)} if the outil is not found or if the patch or the patched outil is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the outil is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the outil couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/outils/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Outil> partialUpdateOutil(@PathVariable(value = "id", required = false) final Long id, @RequestBody Outil outil)
-        throws URISyntaxException {
-        log.debug("REST request to partial update Outil partially : {}, {}", id, outil);
-        if (outil.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, outil.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!outilRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Outil> result = outilRepository
-            .findById(outil.getId())
-            .map(existingOutil -> {
-                if (outil.getNomOutil() != null) {
-                    existingOutil.setNomOutil(outil.getNomOutil());
-                }
-
-                return existingOutil;
-            })
-            .map(outilRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, outil.getId().toString())
-        );
+    @PatchMapping(value = "/outils/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
+    public ResponseEntity<Outil> partialUpdateOutil(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Outil partially : {}, {}", id, patch);
+        Outil outil = outilRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, outil.getVersion(), ENTITY_NAME);
+
+        Outil result = outilRepository.saveAndFlush(entityPatcher.patch(outil, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /outils} : get all the outils.
+     * {@code GET  /outils} : get a page of the outils, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of outils in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of outils in body.
      */
     @GetMapping("/outils")
-    public List<Outil> getAllOutils() {
-        log.debug("REST request to get all Outils");
-        return outilRepository.findAll();
+    public ResponseEntity<List<Outil>> getAllOutils(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Outils");
+        return keysetPaginator.getPage(outilRepository, Outil::getId, Outil::getVersion, cursor, size, sort, count, ENTITY_NAME);
     }
 
     /**
      * {@code GET  /outils/:id} : get the "id" outil.
      *
      * @param id the id of the outil to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outil, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outil,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/outils/{id}")
     public ResponseEntity<Outil> getOutil(@PathVariable Long id) {
         log.debug("REST request to get Outil : {}", id);
         Optional<Outil> outil = outilRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(outil);
+        return EntityTagUtil.wrapOrNotFound(outil, Outil::getVersion);
     }
 
     /**
@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Portfolio;
 import fr.rif.rh.cvtech.repository.PortfolioRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Portfolio}.
@@ -34,8 +42,14 @@ public class PortfolioResource {
 
     private final PortfolioRepository portfolioRepository;
 
-    public PortfolioResource(PortfolioRepository portfolioRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public PortfolioResource(PortfolioRepository portfolioRepository, KeysetPaginator keysetPaginator, EntityPatcher entityPatcher) {
         this.portfolioRepository = portfolioRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,15 +77,18 @@ public class PortfolioResource {
      *
      * @param id the id of the portfolio to save.
      * @param portfolio the portfolio to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the portfolio the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated portfolio,
      * or with status {@code 400 (Bad Request)} if the portfolio is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the portfolio is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the portfolio couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/portfolios/{id}")
     public ResponseEntity<Portfolio> updatePortfolio(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Portfolio portfolio
+        @RequestBody Portfolio portfolio,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Portfolio : {}, {}", id, portfolio);
         if (portfolio.getId() == null) {
@@ -81,87 +98,100 @@ public class PortfolioResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!portfolioRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = portfolioRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            portfolio.setVersion(version);
         }
 
-        Portfolio result = portfolioRepository.save(portfolio);
+        Portfolio result = portfolioRepository.saveAndFlush(portfolio);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, portfolio.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /portfolios/:id} : Partial updates given fields of an existing portfolio, field will ignore if it is null
+     * {@code PATCH  /portfolios/:id} : Partial updates given fields of an existing portfolio, with a merge patch or a JSON Patch.
      *
      * @param id the id of the portfolio to save.
-     * @param portfolio the portfolio to update.
+     * @param patch the patch of the portfolio, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the portfolio the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated portfolio,
-     * or with status {@code 400 (Bad Request)} if the portfolio is not valid,
-     * or with status {@code 404 (Not Found)} if the portfolio is not found,
+     * or with status {@code 400 (Bad Request)} if the portfolio is not found or if the patch or the patched portfolio is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the portfolio is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the portfolio couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/portfolios/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/portfolios/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" }
+    )
     public ResponseEntity<Portfolio> partialUpdatePortfolio(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Portfolio portfolio
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Portfolio partially : {}, {}", id, portfolio);
-        if (portfolio.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, portfolio.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!portfolioRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Portfolio> result = portfolioRepository
-            .findById(portfolio.getId())
-            .map(existingPortfolio -> {
-                if (portfolio.getImage() != null) {
-                    existingPortfolio.setImage(portfolio.getImage());
-                }
-                if (portfolio.getLien() != null) {
-                    existingPortfolio.setLien(portfolio.getLien());
-                }
-
-                return existingPortfolio;
-            })
-            .map(portfolioRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, portfolio.getId().toString())
-        );
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Portfolio partially : {}, {}", id, patch);
+        Portfolio portfolio = portfolioRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, portfolio.getVersion(), ENTITY_NAME);
+
+        Portfolio result = portfolioRepository.saveAndFlush(entityPatcher.patch(portfolio, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /portfolios} : get all the portfolios.
+     * {@code GET  /portfolios} : get a page of the portfolios, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of portfolios in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of portfolios in body.
      */
     @GetMapping("/portfolios")
-    public List<Portfolio> getAllPortfolios() {
-        log.debug("REST request to get all Portfolios");
-        return portfolioRepository.findAll();
+    public ResponseEntity<List<Portfolio>> getAllPortfolios(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Portfolios");
+        return keysetPaginator.getPage(
+            portfolioRepository,
+            Portfolio::getId,
+            Portfolio::getVersion,
+            cursor,
+            size,
+            sort,
+            count,
+            ENTITY_NAME
+        );
     }
 
     /**
      * {@code GET  /portfolios/:id} : get the "id" portfolio.
      *
      * @param id the id of the portfolio to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the portfolio, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the portfolio,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/portfolios/{id}")
     public ResponseEntity<Portfolio> getPortfolio(@PathVariable Long id) {
         log.debug("REST request to get Portfolio : {}", id);
         Optional<Portfolio> portfolio = portfolioRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(portfolio);
+        return EntityTagUtil.wrapOrNotFound(portfolio, Portfolio::getVersion);
     }
 
     /**
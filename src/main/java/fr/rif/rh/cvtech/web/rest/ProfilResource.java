@@ -1,23 +1,34 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Profil;
 import fr.rif.rh.cvtech.repository.ProfilRepository;
+import fr.rif.rh.cvtech.repository.SparseFieldsetRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
+import fr.rif.rh.cvtech.web.rest.util.SparseFieldset;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.Valid;
-import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Profil}.
@@ -36,8 +47,22 @@ public class ProfilResource {
 
     private final ProfilRepository profilRepository;
 
-    public ProfilResource(ProfilRepository profilRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+
+    public ProfilResource(
+        ProfilRepository profilRepository,
+        KeysetPaginator keysetPaginator,
+        EntityPatcher entityPatcher,
+        SparseFieldsetRepository sparseFieldsetRepository
+    ) {
         this.profilRepository = profilRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
+        this.sparseFieldsetRepository = sparseFieldsetRepository;
     }
 
     /**
@@ -65,15 +90,18 @@ public class ProfilResource {
      *
      * @param id the id of the profil to save.
      * @param profil the profil to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the profil the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated profil,
      * or with status {@code 400 (Bad Request)} if the profil is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the profil is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the profil couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/profils/{id}")
     public ResponseEntity<Profil> updateProfil(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Profil profil
+        @Valid @RequestBody Profil profil,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Profil : {}, {}", id, profil);
         if (profil.getId() == null) {
@@ -83,108 +111,154 @@ public class ProfilResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!profilRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = profilRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            profil.setVersion(version);
         }
 
-        Profil result = profilRepository.save(profil);
+        Profil result = profilRepository.saveAndFlush(profil);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, profil.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /profils/:id} : Partial updates given fields of an existing profil, field will ignore if it is null
+     * {@code PATCH  /profils/:id} : Partial updates given fields of an existing profil, with a merge patch or a JSON Patch.
      *
      * @param id the id of the profil to save.
-     * @param profil the profil to update.
+     * @param patch the patch of the profil, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the profil the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated profil,
-     * or with status {@code 400 (Bad Request)} if the profil is not valid,
-     * or with status {@code 404 (Not Found)} if the profil is not found,
+     * or with status {@code 400 (Bad Request)} if the profil is not found or if the patch or the patched profil is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the profil is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the profil couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/profils/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(value = "/profils/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
     public ResponseEntity<Profil> partialUpdateProfil(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Profil profil
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Profil partially : {}, {}", id, profil);
-        if (profil.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, profil.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!profilRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Profil partially : {}, {}", id, patch);
+        Profil profil = profilRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, profil.getVersion(), ENTITY_NAME);
 
-        Optional<Profil> result = profilRepository
-            .findById(profil.getId())
-            .map(existingProfil -> {
-                if (profil.getDateNaissance() != null) {
-                    existingProfil.setDateNaissance(profil.getDateNaissance());
-                }
-                if (profil.getTelResume() != null) {
-                    existingProfil.setTelResume(profil.getTelResume());
-                }
-                if (profil.getAddressLine1() != null) {
-                    existingProfil.setAddressLine1(profil.getAddressLine1());
-                }
-                if (profil.getAddressLine2() != null) {
-                    existingProfil.setAddressLine2(profil.getAddressLine2());
-                }
-                if (profil.getCity() != null) {
-                    existingProfil.setCity(profil.getCity());
-                }
-                if (profil.getCountry() != null) {
-                    existingProfil.setCountry(profil.getCountry());
-                }
-                if (profil.getProfession() != null) {
-                    existingProfil.setProfession(profil.getProfession());
-                }
-                if (profil.getWebsite() != null) {
-                    existingProfil.setWebsite(profil.getWebsite());
-                }
-                if (profil.getDescription() != null) {
-                    existingProfil.setDescription(profil.getDescription());
-                }
-
-                return existingProfil;
-            })
-            .map(profilRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, profil.getId().toString())
-        );
+        Profil result = profilRepository.saveAndFlush(entityPatcher.patch(profil, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /profils} : get all the profils.
+     * {@code GET  /profils} : get a page of the profils, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of profils in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of profils in body.
      */
     @GetMapping("/profils")
-    public List<Profil> getAllProfils() {
-        log.debug("REST request to get all Profils");
-        return profilRepository.findAll();
+    public ResponseEntity<List<Profil>> getAllProfils(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Profils");
+        return keysetPaginator.getPage(profilRepository, Profil::getId, Profil::getVersion, cursor, size, sort, count, ENTITY_NAME);
+    }
+
+    /**
+     * {@code GET  /profils?fields=} : get a page of the profils, ordered by id, with only some of their fields.
+     *
+     * @param fields the fields to read and send besides the id, see {@link SparseFieldset}.
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of profils in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of profils in body,
+     * or with status {@code 400 (Bad Request)} if a field is not a field of the profil.
+     */
+    @GetMapping(value = "/profils", params = SparseFieldset.FIELDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getAllProfilsWithFields(
+        @RequestParam(SparseFieldset.FIELDS_PARAMETER) List<String> fields,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Profils with fields : {}", fields);
+        try {
+            ResponseEntity<List<Profil>> page = keysetPaginator.getPage(
+                (afterId, pageable) ->
+                    afterId == null
+                        ? sparseFieldsetRepository.findSlice(Profil.class, fields, pageable)
+                        : sparseFieldsetRepository.findSlice(Profil.class, fields, pageable, afterId),
+                profilRepository::count,
+                Profil::getId,
+                Profil::getVersion,
+                cursor,
+                size,
+                sort,
+                count,
+                ENTITY_NAME
+            );
+            return SparseFieldset.filter(page, Profil.class, fields);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
     }
 
     /**
      * {@code GET  /profils/:id} : get the "id" profil.
      *
      * @param id the id of the profil to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the profil, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the profil,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/profils/{id}")
     public ResponseEntity<Profil> getProfil(@PathVariable Long id) {
         log.debug("REST request to get Profil : {}", id);
         Optional<Profil> profil = profilRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(profil);
+        return EntityTagUtil.wrapOrNotFound(profil, Profil::getVersion);
+    }
+
+    /**
+     * {@code GET  /profils/:id?fields=} : get the "id" profil, with only some of its fields.
+     *
+     * @param id the id of the profil to retrieve.
+     * @param fields the fields to read and send besides the id, see {@link SparseFieldset}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the profil,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 400 (Bad Request)} if a field is not a field of the profil,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/profils/{id}", params = SparseFieldset.FIELDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getProfilWithFields(
+        @PathVariable Long id,
+        @RequestParam(SparseFieldset.FIELDS_PARAMETER) List<String> fields
+    ) {
+        log.debug("REST request to get Profil : {} with fields : {}", id, fields);
+        Optional<Profil> profil;
+        try {
+            profil = sparseFieldsetRepository.findById(Profil.class, fields, id);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        return SparseFieldset.filter(EntityTagUtil.wrapOrNotFound(profil, Profil::getVersion), Profil.class, fields);
     }
 
     /**
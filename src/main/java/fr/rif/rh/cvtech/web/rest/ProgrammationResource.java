@@ -1,8 +1,13 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rif.rh.cvtech.domain.Programmation;
 import fr.rif.rh.cvtech.repository.ProgrammationRepository;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,11 +16,14 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Programmation}.
@@ -34,8 +42,18 @@ public class ProgrammationResource {
 
     private final ProgrammationRepository programmationRepository;
 
-    public ProgrammationResource(ProgrammationRepository programmationRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    public ProgrammationResource(
+        ProgrammationRepository programmationRepository,
+        KeysetPaginator keysetPaginator,
+        EntityPatcher entityPatcher
+    ) {
         this.programmationRepository = programmationRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
     }
 
     /**
@@ -63,15 +81,18 @@ public class ProgrammationResource {
      *
      * @param id the id of the programmation to save.
      * @param programmation the programmation to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the programmation the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated programmation,
      * or with status {@code 400 (Bad Request)} if the programmation is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the programmation is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the programmation couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/programmations/{id}")
     public ResponseEntity<Programmation> updateProgrammation(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Programmation programmation
+        @RequestBody Programmation programmation,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Programmation : {}, {}", id, programmation);
         if (programmation.getId() == null) {
@@ -81,87 +102,100 @@ public class ProgrammationResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!programmationRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = programmationRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            programmation.setVersion(version);
         }
 
-        Programmation result = programmationRepository.save(programmation);
+        Programmation result = programmationRepository.saveAndFlush(programmation);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, programmation.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /programmations/:id} : Partial updates given fields of an existing programmation, field will ignore if it is null
+     * {@code PATCH  /programmations/:id} : Partial updates given fields of an existing programmation, with a merge patch or a JSON Patch.
      *
      * @param id the id of the programmation to save.
-     * @param programmation the programmation to update.
+     * @param patch the patch of the programmation, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the programmation the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated programmation,
-     * or with status {@code 400 (Bad Request)} if the programmation is not valid,
-     * or with status {@code 404 (Not Found)} if the programmation is not found,
+     * or with status {@code 400 (Bad Request)} if the programmation is not found or if the patch or the patched programmation is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the programmation is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
      * or with status {@code 500 (Internal Server Error)} if the programmation couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/programmations/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/programmations/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" }
+    )
     public ResponseEntity<Programmation> partialUpdateProgrammation(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Programmation programmation
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Programmation partially : {}, {}", id, programmation);
-        if (programmation.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, programmation.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!programmationRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Programmation> result = programmationRepository
-            .findById(programmation.getId())
-            .map(existingProgrammation -> {
-                if (programmation.getNomLangage() != null) {
-                    existingProgrammation.setNomLangage(programmation.getNomLangage());
-                }
-                if (programmation.getTauxDeLangage() != null) {
-                    existingProgrammation.setTauxDeLangage(programmation.getTauxDeLangage());
-                }
-
-                return existingProgrammation;
-            })
-            .map(programmationRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, programmation.getId().toString())
-        );
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Programmation partially : {}, {}", id, patch);
+        Programmation programmation = programmationRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, programmation.getVersion(), ENTITY_NAME);
+
+        Programmation result = programmationRepository.saveAndFlush(entityPatcher.patch(programmation, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /programmations} : get all the programmations.
+     * {@code GET  /programmations} : get a page of the programmations, ordered by id.
      *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of programmations in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code id} is accepted.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of programmations in body.
      */
     @GetMapping("/programmations")
-    public List<Programmation> getAllProgrammations() {
-        log.debug("REST request to get all Programmations");
-        return programmationRepository.findAll();
+    public ResponseEntity<List<Programmation>> getAllProgrammations(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = "id") Sort sort
+    ) {
+        log.debug("REST request to get a page of Programmations");
+        return keysetPaginator.getPage(
+            programmationRepository,
+            Programmation::getId,
+            Programmation::getVersion,
+            cursor,
+            size,
+            sort,
+            count,
+            ENTITY_NAME
+        );
     }
 
     /**
      * {@code GET  /programmations/:id} : get the "id" programmation.
      *
      * @param id the id of the programmation to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the programmation, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the programmation,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/programmations/{id}")
     public ResponseEntity<Programmation> getProgrammation(@PathVariable Long id) {
         log.debug("REST request to get Programmation : {}", id);
         Optional<Programmation> programmation = programmationRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(programmation);
+        return EntityTagUtil.wrapOrNotFound(programmation, Programmation::getVersion);
     }
 
     /**
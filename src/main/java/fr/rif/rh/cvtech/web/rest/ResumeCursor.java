@@ -0,0 +1,46 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset cursor of a resume: its creation date and its id, shared by the pages of the resumes and of their summaries.
+ */
+final class ResumeCursor {
+
+    private static final String ENTITY_NAME = "resume";
+
+    private final ZonedDateTime dateCreation;
+
+    private final Long id;
+
+    private ResumeCursor(ZonedDateTime dateCreation, Long id) {
+        this.dateCreation = dateCreation;
+        this.id = id;
+    }
+
+    ZonedDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    static String encode(ZonedDateTime dateCreation, Long id) {
+        return KeysetPaginationUtil.encodeCursor(dateCreation.toInstant().toString(), id.toString());
+    }
+
+    static ResumeCursor decode(String cursor) {
+        try {
+            String[] keys = KeysetPaginationUtil.decodeCursor(cursor, 2);
+            return new ResumeCursor(ZonedDateTime.ofInstant(Instant.parse(keys[0]), ZoneOffset.UTC), Long.valueOf(keys[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.repository.search.ResumeDashboardCounters;
+import fr.rif.rh.cvtech.repository.search.ResumeDashboardIndex;
+import fr.rif.rh.cvtech.web.rest.vm.ResumeDashboardVM;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the recruiter dashboard, served from the {@link ResumeDashboardIndex} without querying the database.
+ */
+@RestController
+@RequestMapping("/api")
+public class ResumeDashboardResource {
+
+    private final Logger log = LoggerFactory.getLogger(ResumeDashboardResource.class);
+
+    private final ResumeDashboardIndex resumeDashboardIndex;
+
+    public ResumeDashboardResource(ResumeDashboardIndex resumeDashboardIndex) {
+        this.resumeDashboardIndex = resumeDashboardIndex;
+    }
+
+    /**
+     * {@code GET  /resume-dashboard} : get the number of resumes by city, country, profession, language and creation month,
+     * and the average programming language level by programming language.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the statistics,
+     * or with status {@code 503 (Service Unavailable)} if the in-memory indexes are disabled or not built yet.
+     */
+    @GetMapping("/resume-dashboard")
+    public ResponseEntity<ResumeDashboardVM> getResumeDashboard() {
+        log.debug("REST request to get the Resume dashboard");
+        Optional<ResumeDashboardCounters.Snapshot> snapshot = resumeDashboardIndex.snapshot();
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(new ResumeDashboardVM(snapshot.get()));
+    }
+}
@@ -0,0 +1,57 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import fr.rif.rh.cvtech.service.ResumeDeduplicationService;
+import fr.rif.rh.cvtech.service.dto.ResumeDuplicateReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for finding near-duplicate resumes.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ResumeDuplicateResource {
+
+    private final Logger log = LoggerFactory.getLogger(ResumeDuplicateResource.class);
+
+    private final ResumeDeduplicationService resumeDeduplicationService;
+
+    public ResumeDuplicateResource(ResumeDeduplicationService resumeDeduplicationService) {
+        this.resumeDeduplicationService = resumeDeduplicationService;
+    }
+
+    /**
+     * {@code POST  /admin/resume-duplicates} : Start scanning all resumes for near duplicates, unless a scan is running.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the report of the running scan.
+     */
+    @PostMapping("/resume-duplicates")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ResumeDuplicateReport> scanResumeDuplicates() {
+        log.debug("REST request to scan Resumes for duplicates");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resumeDeduplicationService.startScan());
+    }
+
+    /**
+     * {@code GET  /admin/resume-duplicates} : get the report of the running or last scan, with the pairs of near-duplicate
+     * resumes it found, the most similar first.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report, or with status {@code 404 (Not Found)}
+     * if no scan was started.
+     */
+    @GetMapping("/resume-duplicates")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ResumeDuplicateReport> getResumeDuplicates() {
+        log.debug("REST request to get the Resume duplicates");
+        return ResponseUtil.wrapOrNotFound(resumeDeduplicationService.getLatestReport());
+    }
+}
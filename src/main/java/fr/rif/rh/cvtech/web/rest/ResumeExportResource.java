@@ -0,0 +1,73 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import fr.rif.rh.cvtech.service.ResumeExportService;
+import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for exporting resumes in bulk.
+ * <p>
+ * The export is written to the response as the rows are read from the database, from an asynchronous request, instead of
+ * being built in memory first.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ResumeExportResource {
+
+    private static final String ENTITY_NAME = "resumeExport";
+
+    private final Logger log = LoggerFactory.getLogger(ResumeExportResource.class);
+
+    private final ResumeExportService resumeExportService;
+
+    public ResumeExportResource(ResumeExportService resumeExportService) {
+        this.resumeExportService = resumeExportService;
+    }
+
+    /**
+     * {@code GET  /admin/resume-exports} : export all resumes, with their profile and contact.
+     *
+     * @param format the format of the export: {@code csv}, {@code ndjson} or {@code json}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the resumes, as an attachment,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/resume-exports")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<StreamingResponseBody> exportResumes(@RequestParam(value = "format", defaultValue = "csv") String format) {
+        log.debug("REST request to export all Resumes as {}", format);
+        ResumeExportService.Format exportFormat;
+        try {
+            exportFormat = ResumeExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        String extension = exportFormat.name().toLowerCase(Locale.ROOT);
+        return ResponseEntity
+            .ok()
+            .contentType(mediaType(exportFormat))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("resumes." + extension).build().toString())
+            .body(output -> resumeExportService.export(exportFormat, output));
+    }
+
+    private static MediaType mediaType(ResumeExportService.Format format) {
+        switch (format) {
+            case CSV:
+                return new MediaType(MediaType.valueOf(ResumeImportResource.TEXT_CSV_VALUE), StandardCharsets.UTF_8);
+            case NDJSON:
+                return new MediaType(MediaType.valueOf(ResumeImportResource.APPLICATION_NDJSON_VALUE), StandardCharsets.UTF_8);
+            default:
+                return MediaType.APPLICATION_JSON;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import fr.rif.rh.cvtech.service.ResumeImportService;
+import fr.rif.rh.cvtech.service.dto.ResumeImportStatus;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for importing resumes in bulk.
+ * <p>
+ * The upload is read as it arrives, and is never buffered whole in memory or on disk: it is sent as the raw request body,
+ * in CSV with a header line or in NDJSON, and may be gzipped.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ResumeImportResource {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final Logger log = LoggerFactory.getLogger(ResumeImportResource.class);
+
+    private final ResumeImportService resumeImportService;
+
+    public ResumeImportResource(ResumeImportService resumeImportService) {
+        this.resumeImportService = resumeImportService;
+    }
+
+    /**
+     * {@code POST  /admin/resume-imports} : Import resumes from the request body.
+     *
+     * @param contentType the format of the body, {@code text/csv} or {@code application/x-ndjson}.
+     * @param body the records to import.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the status of the import, which tells
+     * whether it completed or failed and which records were rejected.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping(value = "/resume-imports", consumes = { TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ResumeImportStatus> importResumes(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+        throws URISyntaxException {
+        log.debug("REST request to import Resumes from {}", contentType);
+        ResumeImportService.Format format = MediaType.valueOf(APPLICATION_NDJSON_VALUE).includes(contentType)
+            ? ResumeImportService.Format.NDJSON
+            : ResumeImportService.Format.CSV;
+        ResumeImportStatus status = resumeImportService.importResumes(body, format);
+        return ResponseEntity.created(new URI("/api/admin/resume-imports/" + status.getId())).body(status);
+    }
+
+    /**
+     * {@code GET  /admin/resume-imports} : get the status of the running and recently over imports.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the statuses, the oldest import first.
+     */
+    @GetMapping("/resume-imports")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<ResumeImportStatus> getAllResumeImports() {
+        log.debug("REST request to get all Resume imports");
+        return resumeImportService.getStatuses();
+    }
+
+    /**
+     * {@code GET  /admin/resume-imports/:id} : get the status of the "id" import.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the status, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/resume-imports/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ResumeImportStatus> getResumeImport(@PathVariable String id) {
+        log.debug("REST request to get Resume import : {}", id);
+        return ResponseUtil.wrapOrNotFound(resumeImportService.getStatus(id));
+    }
+}
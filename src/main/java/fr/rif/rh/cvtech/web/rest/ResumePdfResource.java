@@ -0,0 +1,88 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.service.ResumePdfService;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for downloading resumes as PDF documents.
+ * <p>
+ * The cached file is copied to the response by {@link FileChannel#transferTo}. As the response is a servlet output stream,
+ * not a channel of the operating system, the copy goes through a small buffer on the heap, chunk by chunk.
+ */
+@RestController
+@RequestMapping("/api")
+public class ResumePdfResource {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final Logger log = LoggerFactory.getLogger(ResumePdfResource.class);
+
+    private final ResumePdfService resumePdfService;
+
+    public ResumePdfResource(ResumePdfService resumePdfService) {
+        this.resumePdfService = resumePdfService;
+    }
+
+    /**
+     * {@code GET  /resumes/:id/pdf} : get the "id" resume as a PDF document, with the titles in the language of the request.
+     *
+     * @param id the id of the resume to render.
+     * @param locale the locale of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the PDF document,
+     * or with status {@code 404 (Not Found)} if the resume does not exist,
+     * or with status {@code 503 (Service Unavailable)} if the document must be rendered and too many renders are waiting.
+     * @throws IOException if the document could not be rendered or read.
+     */
+    @GetMapping("/resumes/{id}/pdf")
+    public ResponseEntity<StreamingResponseBody> getResumePdf(@PathVariable Long id, Locale locale) throws IOException {
+        log.debug("REST request to get Resume : {} as PDF", id);
+        Optional<FileChannel> pdf;
+        try {
+            pdf = resumePdfService.openPdf(id, locale);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
+        }
+        if (pdf.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        FileChannel file = pdf.get();
+        long size;
+        try {
+            size = file.size();
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        return ResponseEntity
+            .ok()
+            .contentType(MediaType.APPLICATION_PDF)
+            .contentLength(size)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().filename("resume-" + id + ".pdf").build().toString())
+            .body(output -> {
+                try (file) {
+                    WritableByteChannel target = Channels.newChannel(output);
+                    for (long position = 0; position < size;) {
+                        position += file.transferTo(position, size - position, target);
+                    }
+                }
+            });
+    }
+}
@@ -1,21 +1,46 @@
 package fr.rif.rh.cvtech.web.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.rif.rh.cvtech.domain.Resume;
 import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.ResumeRepositoryWithEntityGraph;
+import fr.rif.rh.cvtech.repository.SparseFieldsetRepository;
+import fr.rif.rh.cvtech.service.ResumeAggregateService;
 import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.EntityPatcher;
+import fr.rif.rh.cvtech.web.rest.util.EntityTagUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
+import fr.rif.rh.cvtech.web.rest.util.SparseFieldset;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link fr.rif.rh.cvtech.domain.Resume}.
@@ -29,13 +54,53 @@ public class ResumeResource {
 
     private static final String ENTITY_NAME = "resume";
 
+    /**
+     * Parts fetched by the list when the client does not ask for any: the owner, whose login is displayed.
+     */
+    private static final List<String> DEFAULT_LIST_PARTS = List.of("user");
+
+    /**
+     * Parts fetched by the detail when the client does not ask for any: every association of the resume.
+     */
+    private static final List<String> DEFAULT_DETAIL_PARTS = List.of(
+        "porfolio",
+        "programmation",
+        "profil",
+        "design",
+        "experience",
+        "etude",
+        "contact",
+        "langue",
+        "avis",
+        "adresse",
+        "user"
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ResumeRepository resumeRepository;
 
-    public ResumeResource(ResumeRepository resumeRepository) {
+    private final KeysetPaginator keysetPaginator;
+
+    private final EntityPatcher entityPatcher;
+
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+
+    private final ResumeAggregateService resumeAggregateService;
+
+    public ResumeResource(
+        ResumeRepository resumeRepository,
+        KeysetPaginator keysetPaginator,
+        ResumeAggregateService resumeAggregateService,
+        EntityPatcher entityPatcher,
+        SparseFieldsetRepository sparseFieldsetRepository
+    ) {
         this.resumeRepository = resumeRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.entityPatcher = entityPatcher;
+        this.sparseFieldsetRepository = sparseFieldsetRepository;
+        this.resumeAggregateService = resumeAggregateService;
     }
 
     /**
@@ -51,6 +116,9 @@ public class ResumeResource {
         if (resume.getId() != null) {
             throw new BadRequestAlertException("A new resume cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        if (resume.getDateCreation() == null) {
+            resume.setDateCreation(ZonedDateTime.now());
+        }
         Resume result = resumeRepository.save(resume);
         return ResponseEntity
             .created(new URI("/api/resumes/" + result.getId()))
@@ -63,14 +131,19 @@ public class ResumeResource {
      *
      * @param id the id of the resume to save.
      * @param resume the resume to update.
+     * @param ifMatch the {@code If-Match} header, naming the version of the resume the update is based on instead of its body.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated resume,
      * or with status {@code 400 (Bad Request)} if the resume is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the resume is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the resume couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/resumes/{id}")
-    public ResponseEntity<Resume> updateResume(@PathVariable(value = "id", required = false) final Long id, @RequestBody Resume resume)
-        throws URISyntaxException {
+    public ResponseEntity<Resume> updateResume(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Resume resume,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Resume : {}, {}", id, resume);
         if (resume.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -78,88 +151,325 @@ public class ResumeResource {
         if (!Objects.equals(id, resume.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        if (resume.getDateCreation() == null) {
+            throw new BadRequestAlertException("A resume must have a creation date", ENTITY_NAME, "datecreationnull");
+        }
 
-        if (!resumeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = resumeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            resume.setVersion(version);
         }
 
-        Resume result = resumeRepository.save(resume);
+        Resume result = resumeRepository.saveAndFlush(resume);
         return ResponseEntity
             .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, resume.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code PATCH  /resumes/:id} : Partial updates given fields of an existing resume, field will ignore if it is null
+     * {@code POST  /resumes/aggregate} : Create a new resume together with its parts.
+     *
+     * @param resume the resume to create, with its parts nested, see {@link ResumeAggregateService}. Parts without an ID are
+     * created, parts with an ID only are linked, parts with an ID and other fields are updated with these fields.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new resume and its parts,
+     * or with status {@code 400 (Bad Request)} if the resume has already an ID or is not valid,
+     * or with status {@code 409 (Conflict)} if a part is not at the version of its body.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/resumes/aggregate")
+    public ResponseEntity<Resume> createResumeAggregate(@RequestBody ObjectNode resume) throws URISyntaxException {
+        log.debug("REST request to save Resume aggregate : {}", resume);
+        if (resume.hasNonNull("id")) {
+            throw new BadRequestAlertException("A new resume cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (!resume.hasNonNull("dateCreation")) {
+            resume.put("dateCreation", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now()));
+        }
+        Resume result = saveAggregate(resume);
+        return ResponseEntity
+            .created(new URI("/api/resumes/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code PUT  /resumes/aggregate/:id} : Updates an existing resume together with its parts.
+     * <p>
+     * Only the fields present in the body are written, so the body of a {@code GET  /resumes/:id} can be sent back as is,
+     * whatever the parts it was read with.
      *
      * @param id the id of the resume to save.
-     * @param resume the resume to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated resume,
+     * @param resume the resume to update, with its parts nested, see {@link ResumeAggregateService}. Parts without an ID are
+     * created, parts with an ID only are linked, parts with an ID and other fields are updated with these fields, parts set
+     * to {@code null} are unlinked from the resume.
+     * @param ifMatch the {@code If-Match} header, naming the version of the resume the update is based on instead of its body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated resume and its parts,
      * or with status {@code 400 (Bad Request)} if the resume is not valid,
-     * or with status {@code 404 (Not Found)} if the resume is not found,
+     * or with status {@code 409 (Conflict)} if the resume or a part is not at the version of its body,
+     * or with status {@code 412 (Precondition Failed)} if the resume is not at the version of the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the resume couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/resumes/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Resume> partialUpdateResume(
+    @PutMapping("/resumes/aggregate/{id}")
+    public ResponseEntity<Resume> updateResumeAggregate(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Resume resume
-    ) throws URISyntaxException {
-        log.debug("REST request to partial update Resume partially : {}, {}", id, resume);
-        if (resume.getId() == null) {
+        @RequestBody ObjectNode resume,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to update Resume aggregate : {}, {}", id, resume);
+        if (!resume.hasNonNull("id")) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, resume.getId())) {
+        if (!resume.get("id").canConvertToLong() || !Objects.equals(id, resume.get("id").longValue())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        if (resume.has("dateCreation") && resume.get("dateCreation").isNull()) {
+            throw new BadRequestAlertException("A resume must have a creation date", ENTITY_NAME, "datecreationnull");
+        }
 
-        if (!resumeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        long version = resumeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (EntityTagUtil.checkIfMatch(ifMatch, version, ENTITY_NAME)) {
+            resume.put("version", version);
         }
 
-        Optional<Resume> result = resumeRepository
-            .findById(resume.getId())
-            .map(existingResume -> {
-                if (resume.getTitre() != null) {
-                    existingResume.setTitre(resume.getTitre());
-                }
-                if (resume.getDateCreation() != null) {
-                    existingResume.setDateCreation(resume.getDateCreation());
-                }
+        Resume result = saveAggregate(resume);
+        resumeRepository.flush();
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
 
-                return existingResume;
-            })
-            .map(resumeRepository::save);
+    private Resume saveAggregate(ObjectNode resume) {
+        try {
+            return resumeAggregateService.save(resume);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "aggregateinvalid");
+        }
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, resume.getId().toString())
-        );
+    /**
+     * {@code PATCH  /resumes/:id} : Partial updates given fields of an existing resume, with a merge patch or a JSON Patch.
+     *
+     * @param id the id of the resume to save.
+     * @param patch the patch of the resume, see {@link EntityPatcher}.
+     * @param contentType the content type of the patch.
+     * @param ifMatch the {@code If-Match} header, naming the version of the resume the update is based on.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated resume,
+     * or with status {@code 400 (Bad Request)} if the resume is not found or if the patch or the patched resume is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the resume is not at the version of the {@code If-Match} header,
+     * or if a {@code test} operation of the patch fails,
+     * or with status {@code 500 (Internal Server Error)} if the resume couldn't be updated.
+     */
+    @PatchMapping(value = "/resumes/{id}", consumes = { "application/json", "application/merge-patch+json", "application/json-patch+json" })
+    public ResponseEntity<Resume> partialUpdateResume(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to partial update Resume partially : {}, {}", id, patch);
+        Resume resume = resumeRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, resume.getVersion(), ENTITY_NAME);
+
+        Resume result = resumeRepository.saveAndFlush(entityPatcher.patch(resume, patch, contentType, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
     }
 
     /**
-     * {@code GET  /resumes} : get all the resumes.
+     * {@code GET  /resumes} : get a page of the resumes, ordered by creation date then id.
+     * <p>
+     * Pages are addressed by keyset: the {@code Link} and {@value KeysetPaginationUtil#HEADER_NEXT_CURSOR} headers carry
+     * the cursor of the next page, and are absent on the last one.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of resumes in body.
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of resumes in the {@code X-Total-Count} header.
+     * @param include the parts to fetch, see {@link ResumeRepositoryWithEntityGraph}; only the user by default.
+     * @param sort the sort direction, only {@code dateCreation} and {@code id} are accepted and both are always applied.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of resumes in body, tagged with the IDs and
+     * versions of the resumes and of their parts.
      */
     @GetMapping("/resumes")
-    public List<Resume> getAllResumes() {
-        log.debug("REST request to get all Resumes");
-        return resumeRepository.findAll();
+    public ResponseEntity<List<Resume>> getAllResumes(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @RequestParam(value = "include", required = false) List<String> include,
+        @SortDefault(sort = { "dateCreation", "id" }) Sort sort
+    ) {
+        log.debug("REST request to get a page of Resumes");
+        Sort.Direction direction = keysetPaginator.direction(sort, ENTITY_NAME, "dateCreation", "id");
+        int pageSize = keysetPaginator.pageSize(size);
+        Collection<String> parts = include == null ? DEFAULT_LIST_PARTS : include;
+
+        ResumeCursor after = cursor == null ? null : ResumeCursor.decode(cursor);
+        // One extra row tells whether there is a next page without running a count query
+        List<Resume> resumes;
+        try {
+            resumes =
+                after == null
+                    ? resumeRepository.findKeysetPageWithParts(null, null, direction, pageSize + 1, parts)
+                    : resumeRepository.findKeysetPageWithParts(after.getDateCreation(), after.getId(), direction, pageSize + 1, parts);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "includeinvalid");
+        }
+
+        String nextCursor = null;
+        if (resumes.size() > pageSize) {
+            resumes = resumes.subList(0, pageSize);
+            Resume last = resumes.get(pageSize - 1);
+            nextCursor = ResumeCursor.encode(last.getDateCreation(), last.getId());
+        }
+        Long totalCount = count ? resumeRepository.count() : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            totalCount
+        );
+        List<String> keys = new ArrayList<>(resumes.size() + 2);
+        for (Resume resume : resumes) {
+            keys.add(resume.getId() + EntityTagUtil.entityTag(resumeRepository.getVersionsWithParts(resume, parts)));
+        }
+        keys.add(nextCursor);
+        keys.add(String.valueOf(totalCount));
+        return EntityTagUtil.ok(EntityTagUtil.listTag(keys)).headers(headers).body(resumes);
+    }
+
+    /**
+     * {@code GET  /resumes?fields=} : get a page of the resumes, ordered by creation date then id, with only some of their
+     * fields.
+     * <p>
+     * Pages are addressed by keyset like {@code GET  /resumes}, and share its cursors. An association is sent as the id of its
+     * target.
+     *
+     * @param fields the fields to read and send besides the id, see {@link SparseFieldset}.
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param count whether to send the total number of resumes in the {@code X-Total-Count} header.
+     * @param sort the sort direction, only {@code dateCreation} and {@code id} are accepted and both are always applied.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of resumes in body,
+     * or with status {@code 400 (Bad Request)} if a field is not a field of the resume.
+     */
+    @GetMapping(value = "/resumes", params = SparseFieldset.FIELDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getAllResumesWithFields(
+        @RequestParam(SparseFieldset.FIELDS_PARAMETER) List<String> fields,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "count", defaultValue = "false") boolean count,
+        @SortDefault(sort = { "dateCreation", "id" }) Sort sort
+    ) {
+        log.debug("REST request to get a page of Resumes with fields : {}", fields);
+        Sort.Direction direction = keysetPaginator.direction(sort, ENTITY_NAME, "dateCreation", "id");
+        Pageable pageable = PageRequest.of(0, keysetPaginator.pageSize(size), Sort.by(direction, "dateCreation", "id"));
+
+        ResumeCursor after = cursor == null ? null : ResumeCursor.decode(cursor);
+        Slice<Resume> slice;
+        try {
+            slice =
+                after == null
+                    ? sparseFieldsetRepository.findSlice(Resume.class, fields, pageable)
+                    : sparseFieldsetRepository.findSlice(Resume.class, fields, pageable, after.getDateCreation(), after.getId());
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+
+        List<Resume> resumes = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Resume last = resumes.get(resumes.size() - 1);
+            nextCursor = ResumeCursor.encode(last.getDateCreation(), last.getId());
+        }
+        Long totalCount = count ? resumeRepository.count() : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            totalCount
+        );
+        List<String> keys = new ArrayList<>(resumes.size() + 2);
+        for (Resume resume : resumes) {
+            keys.add(resume.getId() + EntityTagUtil.VERSION_SEPARATOR + resume.getVersion());
+        }
+        keys.add(nextCursor);
+        keys.add(String.valueOf(totalCount));
+        return SparseFieldset.filter(EntityTagUtil.ok(EntityTagUtil.listTag(keys)).headers(headers).body(resumes), Resume.class, fields);
     }
 
     /**
      * {@code GET  /resumes/:id} : get the "id" resume.
+     * <p>
+     * The resume is tagged with its version and the versions of its parts, and a request whose {@code If-None-Match} header
+     * matches them is answered from the versions alone, without loading the resume.
      *
      * @param id the id of the resume to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the resume, or with status {@code 404 (Not Found)}.
+     * @param include the parts to fetch, see {@link ResumeRepositoryWithEntityGraph}; all the parts of the resume by default.
+     * @param ifNoneMatch the {@code If-None-Match} header, naming the versions of the resume the client has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the resume,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its versions,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/resumes/{id}")
-    public ResponseEntity<Resume> getResume(@PathVariable Long id) {
+    public ResponseEntity<Resume> getResume(
+        @PathVariable Long id,
+        @RequestParam(value = "include", required = false) List<String> include,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Resume : {}", id);
-        Optional<Resume> resume = resumeRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(resume);
+        Collection<String> parts = include == null ? DEFAULT_DETAIL_PARTS : include;
+        Optional<Resume> resume;
+        try {
+            if (ifNoneMatch != null) {
+                Optional<String> tag = resumeRepository.findVersionsWithParts(id, parts).map(EntityTagUtil::entityTag);
+                if (tag.isPresent() && EntityTagUtil.matchesIfNoneMatch(ifNoneMatch, tag.get())) {
+                    return EntityTagUtil.notModified(tag.get());
+                }
+            }
+            resume = resumeRepository.findOneWithParts(id, parts);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "includeinvalid");
+        }
+        return resume
+            .map(found -> EntityTagUtil.ok(EntityTagUtil.entityTag(resumeRepository.getVersionsWithParts(found, parts))).body(found))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code GET  /resumes/:id?fields=} : get the "id" resume, with only some of its fields.
+     * <p>
+     * An association is sent as the id of its target, and the resume is tagged with its version alone.
+     *
+     * @param id the id of the resume to retrieve.
+     * @param fields the fields to read and send besides the id, see {@link SparseFieldset}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the resume,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header matches its version,
+     * or with status {@code 400 (Bad Request)} if a field is not a field of the resume,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/resumes/{id}", params = SparseFieldset.FIELDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getResumeWithFields(
+        @PathVariable Long id,
+        @RequestParam(SparseFieldset.FIELDS_PARAMETER) List<String> fields
+    ) {
+        log.debug("REST request to get Resume : {} with fields : {}", id, fields);
+        Optional<Resume> resume;
+        try {
+            resume = sparseFieldsetRepository.findById(Resume.class, fields, id);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new BadRequestAlertException(e.getMostSpecificCause().getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        return SparseFieldset.filter(EntityTagUtil.wrapOrNotFound(resume, Resume::getVersion), Resume.class, fields);
     }
 
     /**
@@ -0,0 +1,228 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.search.ResumeFacetIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeSimilarityIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeSkillIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeSkillMatrix;
+import fr.rif.rh.cvtech.repository.search.ResumeTermVectors;
+import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
+import fr.rif.rh.cvtech.web.rest.vm.JobProfileVM;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for searching {@link fr.rif.rh.cvtech.domain.Resume}: full-text and location searches in the database, and
+ * facet counts, skill matches and similar resumes from the in-memory indexes of {@link fr.rif.rh.cvtech.repository.search}.
+ */
+@RestController
+@RequestMapping("/api")
+@Transactional(readOnly = true)
+public class ResumeSearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(ResumeSearchResource.class);
+
+    private static final String ENTITY_NAME = "resume";
+
+    /**
+     * Largest radius of a search around a location, in kilometers.
+     */
+    private static final double MAX_SEARCH_RADIUS_KM = 1000;
+
+    private final ResumeRepository resumeRepository;
+
+    private final KeysetPaginator keysetPaginator;
+
+    private final ResumeFacetIndex resumeFacetIndex;
+
+    private final ResumeSkillIndex resumeSkillIndex;
+
+    private final ResumeSimilarityIndex resumeSimilarityIndex;
+
+    public ResumeSearchResource(
+        ResumeRepository resumeRepository,
+        KeysetPaginator keysetPaginator,
+        ResumeFacetIndex resumeFacetIndex,
+        ResumeSkillIndex resumeSkillIndex,
+        ResumeSimilarityIndex resumeSimilarityIndex
+    ) {
+        this.resumeRepository = resumeRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.resumeFacetIndex = resumeFacetIndex;
+        this.resumeSkillIndex = resumeSkillIndex;
+        this.resumeSimilarityIndex = resumeSimilarityIndex;
+    }
+
+    /**
+     * {@code SEARCH  /_search/resumes?q=:query} : search for the resumes matching the keywords, in the text of the resume and
+     * of its experience, tool, profile and studies, and located near a point if requested.
+     *
+     * @param query the keywords, {@code -} to exclude a word is supported, see {@link fr.rif.rh.cvtech.repository.ResumeSearchRepository}.
+     * @param lang the language of the keywords, {@code fr} or {@code en}, defaults to the language of the request.
+     * @param near the latitude and longitude, in degrees, around which the resumes must be located, for example {@code 45.76,4.84}.
+     * @param radiusKm the radius around {@code near}, in kilometers.
+     * @param pageable the pagination information, the sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of resumes in body, nearest first if
+     * {@code near} is given, or with status {@code 400 (Bad Request)} if there are neither keywords nor location, or if the
+     * location is not valid.
+     */
+    @GetMapping("/_search/resumes")
+    public ResponseEntity<List<Resume>> searchResumes(
+        @RequestParam(value = "q", required = false) String query,
+        @RequestParam(value = "lang", required = false) String lang,
+        @RequestParam(value = "near", required = false) String near,
+        @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm,
+        Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of Resumes for query {} near {}", query, near);
+        String language = lang != null ? lang : LocaleContextHolder.getLocale().getLanguage();
+        Pageable page = PageRequest.of(pageable.getPageNumber(), keysetPaginator.pageSize(pageable.getPageSize()));
+        Page<Resume> result;
+        if (near != null) {
+            double[] center = GeoHash.parse(near).orElseThrow(() -> new BadRequestAlertException("Invalid location", ENTITY_NAME, "nearinvalid"));
+            if (!(radiusKm > 0 && radiusKm <= MAX_SEARCH_RADIUS_KM)) {
+                throw new BadRequestAlertException("Invalid radius", ENTITY_NAME, "radiusinvalid");
+            }
+            result = resumeRepository.searchNear(query, language, center[0], center[1], radiusKm, page);
+        } else if (query != null) {
+            result = resumeRepository.search(query, language, page);
+        } else {
+            throw new BadRequestAlertException("A search needs keywords or a location", ENTITY_NAME, "querynull");
+        }
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), result);
+        return ResponseEntity.ok().headers(headers).body(result.getContent());
+    }
+
+    /**
+     * {@code GET  /_search/resumes/facets?q=:query} : count the resumes of each city, country, profession, language and tool,
+     * among the resumes matching the keywords and the facet values given as filters.
+     *
+     * @param query the keywords, see {@link #searchResumes}; all resumes are counted if there are none.
+     * @param lang the language of the keywords, see {@link #searchResumes}.
+     * @param city the city of the counted resumes, if any.
+     * @param country the country of the counted resumes, if any.
+     * @param profession the profession of the counted resumes, if any.
+     * @param language the language of the counted resumes, if any.
+     * @param tool the tool of the counted resumes, if any.
+     * @param size the number of values to count per facet, most frequent first.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the count of each value, by facet,
+     * or with status {@code 503 (Service Unavailable)} if the facet index is disabled or not built yet.
+     */
+    @GetMapping("/_search/resumes/facets")
+    public ResponseEntity<Map<String, Map<String, Integer>>> countResumeFacets(
+        @RequestParam(value = "q", required = false) String query,
+        @RequestParam(value = "lang", required = false) String lang,
+        @RequestParam(value = "city", required = false) String city,
+        @RequestParam(value = "country", required = false) String country,
+        @RequestParam(value = "profession", required = false) String profession,
+        @RequestParam(value = "language", required = false) String language,
+        @RequestParam(value = "tool", required = false) String tool,
+        @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to count the facets of Resumes for query {}", query);
+        Map<ResumeFacetIndex.Facet, String> filters = new EnumMap<>(ResumeFacetIndex.Facet.class);
+        filters.put(ResumeFacetIndex.Facet.CITY, city);
+        filters.put(ResumeFacetIndex.Facet.COUNTRY, country);
+        filters.put(ResumeFacetIndex.Facet.PROFESSION, profession);
+        filters.put(ResumeFacetIndex.Facet.LANGUAGE, language);
+        filters.put(ResumeFacetIndex.Facet.TOOL, tool);
+        filters.values().removeIf(Objects::isNull);
+        List<Long> resumeIds = null;
+        if (query != null && !query.isBlank()) {
+            resumeIds = resumeRepository.searchIds(query, lang != null ? lang : LocaleContextHolder.getLocale().getLanguage());
+        }
+        Optional<Map<ResumeFacetIndex.Facet, Map<String, Integer>>> counts = resumeFacetIndex.count(
+            resumeIds,
+            filters,
+            keysetPaginator.pageSize(size)
+        );
+        if (counts.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Map<String, Map<String, Integer>> body = new LinkedHashMap<>();
+        counts.get().forEach((facet, values) -> body.put(facet.parameterName(), values));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * {@code POST  /_search/resumes/matches} : rank the resumes against the programming language and design skills of a job
+     * profile, see {@link ResumeSkillMatrix#rank}.
+     *
+     * @param jobProfile the skills of the job profile.
+     * @param size the number of resumes to return, best ranked first.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ID and score of the best ranked resumes,
+     * or with status {@code 400 (Bad Request)} if the job profile is not valid,
+     * or with status {@code 503 (Service Unavailable)} if the in-memory indexes are disabled or not built yet.
+     */
+    @PostMapping("/_search/resumes/matches")
+    public ResponseEntity<List<ResumeSkillMatrix.Match>> matchResumes(
+        @Valid @RequestBody JobProfileVM jobProfile,
+        @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to match Resumes against job profile {}", jobProfile);
+        List<ResumeSkillMatrix.Requirement> requirements = jobProfile
+            .getSkills()
+            .stream()
+            .map(skill -> new ResumeSkillMatrix.Requirement(skill.getName(), skill.getMinimum(), skill.getWeight()))
+            .collect(Collectors.toList());
+        Optional<List<ResumeSkillMatrix.Match>> matches = resumeSkillIndex.rank(requirements, keysetPaginator.pageSize(size));
+        if (matches.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(matches.get());
+    }
+
+    /**
+     * {@code GET  /_search/resumes/:id/similar} : get the resumes most similar to the "id" resume, by the cosine similarity of
+     * the TF-IDF vectors of the text of their experience, education and skills.
+     *
+     * @param id the id of the resume.
+     * @param size the number of resumes to return, most similar first.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ID and similarity of the most similar
+     * resumes, or with status {@code 404 (Not Found)} if the resume does not exist,
+     * or with status {@code 503 (Service Unavailable)} if the in-memory indexes are disabled or not built yet.
+     */
+    @GetMapping("/_search/resumes/{id}/similar")
+    public ResponseEntity<List<ResumeTermVectors.SimilarResume>> getSimilarResumes(
+        @PathVariable Long id,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        log.debug("REST request to get the Resumes similar to Resume : {}", id);
+        if (!resumeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<List<ResumeTermVectors.SimilarResume>> similar = resumeSimilarityIndex.similar(id, keysetPaginator.pageSize(size));
+        if (similar.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(similar.get());
+    }
+}
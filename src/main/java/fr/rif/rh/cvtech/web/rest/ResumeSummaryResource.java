@@ -0,0 +1,111 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.ResumeSummary;
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import fr.rif.rh.cvtech.service.ResumeSummaryService;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST controller for the resume summaries, read from the {@link fr.rif.rh.cvtech.domain.ResumeSummaryEntry} read model.
+ */
+@RestController
+@RequestMapping("/api")
+public class ResumeSummaryResource {
+
+    private static final String ENTITY_NAME = "resume";
+
+    private final Logger log = LoggerFactory.getLogger(ResumeSummaryResource.class);
+
+    private final ResumeRepository resumeRepository;
+
+    private final ResumeSummaryService resumeSummaryService;
+
+    private final KeysetPaginator keysetPaginator;
+
+    public ResumeSummaryResource(
+        ResumeRepository resumeRepository,
+        ResumeSummaryService resumeSummaryService,
+        KeysetPaginator keysetPaginator
+    ) {
+        this.resumeRepository = resumeRepository;
+        this.resumeSummaryService = resumeSummaryService;
+        this.keysetPaginator = keysetPaginator;
+    }
+
+    /**
+     * {@code GET  /resume-summaries} : get a page of the resume summaries, ordered by creation date then id.
+     * <p>
+     * Pages are addressed by keyset like {@code GET  /resumes}, and share its cursors.
+     *
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the size of the page, capped to {@code application.pagination.max-page-size}.
+     * @param sort the sort direction, only {@code dateCreation} and {@code id} are accepted and both are always applied.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of resume summaries in body.
+     */
+    @GetMapping("/resume-summaries")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<ResumeSummary>> getAllResumeSummaries(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @SortDefault(sort = { "dateCreation", "id" }) Sort sort
+    ) {
+        log.debug("REST request to get a page of ResumeSummaries");
+        Sort.Direction direction = keysetPaginator.direction(sort, ENTITY_NAME, "dateCreation", "id");
+        int pageSize = keysetPaginator.pageSize(size);
+        // One extra row tells whether there is a next page without running a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1, Sort.by(direction, "dateCreation", "id"));
+
+        List<ResumeSummary> summaries;
+        if (cursor == null) {
+            summaries = resumeRepository.findFirstSummaryPage(pageable);
+        } else {
+            ResumeCursor after = ResumeCursor.decode(cursor);
+            summaries =
+                direction.isAscending()
+                    ? resumeRepository.findSummaryPageAfter(after.getDateCreation(), after.getId(), pageable)
+                    : resumeRepository.findSummaryPageBefore(after.getDateCreation(), after.getId(), pageable);
+        }
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            ResumeSummary last = summaries.get(pageSize - 1);
+            nextCursor = ResumeCursor.encode(last.getDateCreation(), last.getId());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+        return ResponseEntity.ok().headers(headers).body(summaries);
+    }
+
+    /**
+     * {@code POST  /admin/resume-summaries/rebuild} : Recompute the summaries of all resumes.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of summaries in the {@code X-Total-Count}
+     * header.
+     */
+    @PostMapping("/admin/resume-summaries/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildResumeSummaries() {
+        log.debug("REST request to rebuild the ResumeSummaries");
+        int count = resumeSummaryService.rebuild();
+        return ResponseEntity.ok().header(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT, Integer.toString(count)).build();
+    }
+}
@@ -0,0 +1,70 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import fr.rif.rh.cvtech.repository.search.SuggestionIndex;
+import fr.rif.rh.cvtech.repository.search.SuggestionTrie;
+import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginator;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for typeahead suggestions, served from the {@link SuggestionIndex} without querying the database.
+ */
+@RestController
+@RequestMapping("/api")
+public class SuggestionResource {
+
+    private static final String ENTITY_NAME = "suggestion";
+
+    private final Logger log = LoggerFactory.getLogger(SuggestionResource.class);
+
+    private final SuggestionIndex suggestionIndex;
+
+    private final KeysetPaginator keysetPaginator;
+
+    public SuggestionResource(SuggestionIndex suggestionIndex, KeysetPaginator keysetPaginator) {
+        this.suggestionIndex = suggestionIndex;
+        this.keysetPaginator = keysetPaginator;
+    }
+
+    /**
+     * {@code GET  /_suggest/:field?prefix=:prefix} : suggest the most frequent values of a field starting with a prefix,
+     * ignoring case, accents and punctuation.
+     *
+     * @param field the field: {@code company}, {@code job-title}, {@code city} or {@code tool}.
+     * @param prefix the prefix typed; the most frequent values are suggested if there is none.
+     * @param size the number of values to suggest.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the values with their number of uses,
+     * most frequent first, or with status {@code 400 (Bad Request)} if the field is unknown,
+     * or with status {@code 503 (Service Unavailable)} if the in-memory indexes are disabled or not built yet.
+     */
+    @GetMapping("/_suggest/{field}")
+    public ResponseEntity<List<SuggestionTrie.Suggestion>> suggest(
+        @PathVariable String field,
+        @RequestParam(value = "prefix", defaultValue = "") String prefix,
+        @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to suggest values of {} starting with {}", field, prefix);
+        SuggestionIndex.Field suggestedField = SuggestionIndex.Field
+            .fromParameterName(field)
+            .orElseThrow(() -> new BadRequestAlertException("Unknown field " + field, ENTITY_NAME, "fieldinvalid"));
+        Optional<List<SuggestionTrie.Suggestion>> suggestions = suggestionIndex.suggest(
+            suggestedField,
+            prefix,
+            keysetPaginator.pageSize(size)
+        );
+        if (suggestions.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(suggestions.get());
+    }
+}
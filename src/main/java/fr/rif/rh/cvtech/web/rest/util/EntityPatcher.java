@@ -0,0 +1,193 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fr.rif.rh.cvtech.repository.EntityAccessors;
+import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import fr.rif.rh.cvtech.web.rest.errors.PreconditionFailedAlertException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.hibernate.Hibernate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Helper for the REST controllers applying a patch to a loaded entity, as a JSON Merge Patch (RFC 7396) or as a JSON Patch
+ * (RFC 6902) depending on the content type of the request.
+ * <p>
+ * A merge patch sent as {@code application/merge-patch+json} clears the properties it sets to {@code null}, as RFC 7396
+ * specifies. One sent as plain {@code application/json} keeps ignoring them, as the partial updates did before merge patches
+ * were supported, since clients send whole entities with their empty properties as {@code null}.
+ * <p>
+ * An association is written by the ID of its target, as a number or as an object with an {@code id} member, and set to a
+ * reference to the target, which is not loaded. The ID of the entity cannot be patched, and its version is left to the
+ * {@code If-Match} header: a merge patch may repeat the ID and ignores the version, a JSON Patch may only test them.
+ */
+@Component
+public class EntityPatcher {
+
+    public static final MediaType MERGE_PATCH_JSON = MediaType.valueOf("application/merge-patch+json");
+
+    public static final MediaType JSON_PATCH_JSON = MediaType.valueOf("application/json-patch+json");
+
+    private static final String ID = "id";
+
+    private static final String VERSION = "version";
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ConcurrentMap<Class<?>, EntityAccessors> accessors = new ConcurrentHashMap<>();
+
+    public EntityPatcher(EntityManager entityManager, ObjectMapper objectMapper, Validator validator) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Apply a patch to an entity and validate the result.
+     *
+     * @param entity the managed entity to patch.
+     * @param patch the body of the request.
+     * @param contentType the content type of the request: a JSON Patch for {@code application/json-patch+json}, a merge
+     * patch otherwise, whose {@code null} members are only applied for {@code application/merge-patch+json}.
+     * @param entityName the name of the entity, for the error alerts.
+     * @param <T> type of the entity.
+     * @return the patched entity, to be saved.
+     * @throws BadRequestAlertException if the patch is malformed, or writes the ID or a property which is not writable.
+     * @throws PreconditionFailedAlertException if a {@code test} operation of a JSON Patch fails.
+     * @throws ConstraintViolationException if the patched entity is not valid.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T patch(T entity, JsonNode patch, MediaType contentType, String entityName) {
+        T target = (T) Hibernate.unproxy(entity);
+        EntityAccessors entityAccessors = accessors.computeIfAbsent(
+            target.getClass(),
+            type -> EntityAccessors.of(type, entityManager.getMetamodel(), objectMapper)
+        );
+        if (JSON_PATCH_JSON.isCompatibleWith(contentType)) {
+            applyJsonPatch(target, patch, entityAccessors, entityName);
+        } else {
+            applyMergePatch(target, patch, MERGE_PATCH_JSON.isCompatibleWith(contentType), entityAccessors, entityName);
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(target);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return target;
+    }
+
+    private void applyMergePatch(Object entity, JsonNode patch, boolean applyNulls, EntityAccessors entityAccessors, String entityName) {
+        if (!patch.isObject()) {
+            throw new BadRequestAlertException("A merge patch must be an object", entityName, "patchinvalid");
+        }
+        Object id = persistenceUnitUtil().getIdentifier(entity);
+        for (Iterator<Map.Entry<String, JsonNode>> members = patch.fields(); members.hasNext();) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (ID.equals(member.getKey())) {
+                if (!member.getValue().canConvertToLong() || !Objects.equals(id, member.getValue().longValue())) {
+                    throw new BadRequestAlertException("Invalid ID", entityName, "idinvalid");
+                }
+            } else if (!VERSION.equals(member.getKey()) && (applyNulls || !member.getValue().isNull())) {
+                write(entity, property(entityAccessors, member.getKey(), entityName), member.getValue(), entityName);
+            }
+        }
+    }
+
+    private void applyJsonPatch(Object entity, JsonNode patch, EntityAccessors entityAccessors, String entityName) {
+        ObjectNode document = toDocument(entity, entityAccessors);
+        JsonNode patched;
+        try {
+            patched = JsonPatch.apply(document, patch);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), entityName, "patchinvalid");
+        } catch (IllegalStateException e) {
+            throw new PreconditionFailedAlertException(e.getMessage(), entityName, "patchtestfailed");
+        }
+        if (!patched.isObject()) {
+            throw new BadRequestAlertException("A JSON Patch must leave an object", entityName, "patchinvalid");
+        }
+        if (!JsonPatch.equal(document.get(ID), patched.path(ID)) || !JsonPatch.equal(document.get(VERSION), patched.path(VERSION))) {
+            throw new BadRequestAlertException("The ID and version cannot be patched", entityName, "idinvalid");
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> members = patched.fields(); members.hasNext();) {
+            Map.Entry<String, JsonNode> member = members.next();
+            boolean changed = !document.has(member.getKey()) || !JsonPatch.equal(document.get(member.getKey()), member.getValue());
+            if (changed && !ID.equals(member.getKey()) && !VERSION.equals(member.getKey())) {
+                write(entity, property(entityAccessors, member.getKey(), entityName), member.getValue(), entityName);
+            }
+        }
+        for (EntityAccessors.Property property : entityAccessors.getProperties().values()) {
+            if (!patched.has(property.getName())) {
+                write(entity, property, NullNode.getInstance(), entityName);
+            }
+        }
+    }
+
+    private ObjectNode toDocument(Object entity, EntityAccessors entityAccessors) {
+        PersistenceUnitUtil persistenceUnitUtil = persistenceUnitUtil();
+        ObjectNode document = objectMapper.createObjectNode();
+        document.put(ID, (Long) persistenceUnitUtil.getIdentifier(entity));
+        document.set(VERSION, objectMapper.valueToTree(entityAccessors.getVersion(entity)));
+        for (EntityAccessors.Property property : entityAccessors.getProperties().values()) {
+            Object value = property.get(entity);
+            if (value == null) {
+                document.set(property.getName(), NullNode.getInstance());
+            } else if (property.isAssociation()) {
+                document.putObject(property.getName()).put(ID, (Long) persistenceUnitUtil.getIdentifier(value));
+            } else {
+                document.set(property.getName(), objectMapper.valueToTree(value));
+            }
+        }
+        return document;
+    }
+
+    private void write(Object entity, EntityAccessors.Property property, JsonNode value, String entityName) {
+        if (value.isNull()) {
+            if (property.isPrimitive()) {
+                throw new BadRequestAlertException("The property " + property.getName() + " cannot be null", entityName, "patchinvalid");
+            }
+            property.set(entity, null);
+        } else if (property.isAssociation()) {
+            JsonNode id = value.isObject() ? value.get(ID) : value;
+            if (id == null || !id.canConvertToLong()) {
+                throw new BadRequestAlertException("The property " + property.getName() + " takes an ID", entityName, "patchinvalid");
+            }
+            property.set(entity, entityManager.getReference(property.getTargetType(), id.longValue()));
+        } else {
+            try {
+                property.set(entity, property.getReader().readValue(value));
+            } catch (IOException e) {
+                throw new BadRequestAlertException("Invalid value for the property " + property.getName(), entityName, "patchinvalid");
+            }
+        }
+    }
+
+    private static EntityAccessors.Property property(EntityAccessors entityAccessors, String name, String entityName) {
+        EntityAccessors.Property property = entityAccessors.getProperties().get(name);
+        if (property == null) {
+            throw new BadRequestAlertException("The property " + name + " cannot be patched", entityName, "patchinvalid");
+        }
+        return property;
+    }
+
+    private PersistenceUnitUtil persistenceUnitUtil() {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+    }
+}
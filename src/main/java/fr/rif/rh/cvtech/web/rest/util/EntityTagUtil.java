@@ -0,0 +1,195 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import fr.rif.rh.cvtech.web.rest.errors.PreconditionFailedAlertException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for the entity tags of the REST resources, built from the optimistic locking versions of the entities.
+ * <p>
+ * The tag of an entity is its version, and the tag of an entity with parts is its version followed by the versions of the
+ * parts, separated by {@value #VERSION_SEPARATOR}. The tag of a list is a hash of the IDs and versions of its entities. The
+ * responses carrying a tag may be stored by the client but must be revalidated: Spring MVC answers a {@code GET} whose
+ * {@code If-None-Match} header matches the tag of its {@link ResponseEntity} with {@code 304 (Not Modified)} and no body.
+ * <p>
+ * {@code If-Match} only compares the version of the entity, as an update only writes the entity, not its parts.
+ */
+public final class EntityTagUtil {
+
+    public static final String VERSION_SEPARATOR = ".";
+
+    private static final String ABSENT_VERSION = "-";
+
+    private static final String ANY_TAG = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final int LIST_TAG_LENGTH = 32;
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private EntityTagUtil() {}
+
+    /**
+     * Build the tag of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the strong entity tag, quoted.
+     */
+    public static String entityTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Build the tag of an entity with parts.
+     *
+     * @param versions the version of the entity, then the versions of its parts, {@code null} for a part it does not have.
+     * @return the strong entity tag, quoted.
+     */
+    public static String entityTag(List<Long> versions) {
+        return versions
+            .stream()
+            .map(version -> version == null ? ABSENT_VERSION : version.toString())
+            .collect(Collectors.joining(VERSION_SEPARATOR, "\"", "\""));
+    }
+
+    /**
+     * Build the tag of a list.
+     *
+     * @param keys the keys of the list, such as the ID and version of each entity and the pagination headers.
+     * @return the strong entity tag, quoted.
+     */
+    public static String listTag(List<String> keys) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String key : keys) {
+                digest.update(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            byte[] hash = digest.digest();
+            StringBuilder tag = new StringBuilder(LIST_TAG_LENGTH + 2).append('"');
+            for (int i = 0; i < LIST_TAG_LENGTH / 2; i++) {
+                tag.append(String.format("%02x", hash[i]));
+            }
+            return tag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Start a {@code 200 (OK)} response carrying a tag, to be revalidated before it is reused.
+     *
+     * @param tag the entity tag of the body.
+     * @return the response builder.
+     */
+    public static ResponseEntity.BodyBuilder ok(String tag) {
+        return ResponseEntity.ok().eTag(tag).cacheControl(CACHE_CONTROL);
+    }
+
+    /**
+     * Build a {@code 304 (Not Modified)} response.
+     *
+     * @param tag the entity tag of the representation the client has.
+     * @param <X> type of the response.
+     * @return the response.
+     */
+    public static <X> ResponseEntity<X> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(CACHE_CONTROL).build();
+    }
+
+    /**
+     * Wrap an optional entity into a {@link ResponseEntity} carrying its tag.
+     *
+     * @param maybeResponse the entity to wrap.
+     * @param version the getter of the version of the entity.
+     * @param <X> type of the entity.
+     * @return the response with status {@code 200 (OK)} if the entity is present.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the entity is absent.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, ToLongFunction<? super X> version) {
+        return wrapOrNotFound(maybeResponse, version, null);
+    }
+
+    /**
+     * Wrap an optional entity into a {@link ResponseEntity} carrying its tag and the given headers.
+     *
+     * @param maybeResponse the entity to wrap.
+     * @param version the getter of the version of the entity.
+     * @param header the headers to add to the response, may be {@code null}.
+     * @param <X> type of the entity.
+     * @return the response with status {@code 200 (OK)} if the entity is present.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the entity is absent.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, ToLongFunction<? super X> version, HttpHeaders header) {
+        return maybeResponse
+            .map(response -> ok(entityTag(version.applyAsLong(response))).headers(header).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Check whether an {@code If-None-Match} header matches a tag, with the weak comparison.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request, may be {@code null}.
+     * @param tag the entity tag of the current representation.
+     * @return whether the client has the current representation.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals(ANY_TAG) || candidate.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check an {@code If-Match} header against the current version of an entity, with the strong comparison. A tag of the
+     * entity with parts matches when its first version is the version of the entity.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, may be {@code null}.
+     * @param version the current version of the entity.
+     * @param entityName the name of the entity, for the error alert.
+     * @return {@code true} if the request has an {@code If-Match} header naming the current version, {@code false} if it has none.
+     * @throws PreconditionFailedAlertException if the {@code If-Match} header does not name the current version.
+     */
+    public static boolean checkIfMatch(String ifMatch, long version, String entityName) {
+        if (ifMatch == null) {
+            return false;
+        }
+        String current = Long.toString(version);
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals(ANY_TAG)) {
+                return true;
+            }
+            if (candidate.length() < 2 || !candidate.startsWith("\"") || !candidate.endsWith("\"")) {
+                continue;
+            }
+            String opaqueTag = candidate.substring(1, candidate.length() - 1);
+            int separator = opaqueTag.indexOf(VERSION_SEPARATOR);
+            if (current.equals(separator < 0 ? opaqueTag : opaqueTag.substring(0, separator))) {
+                return true;
+            }
+        }
+        throw new PreconditionFailedAlertException("The " + entityName + " was modified", entityName, "versionmismatch");
+    }
+}
@@ -0,0 +1,167 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Comparator;
+
+/**
+ * Utility class applying a JSON Patch document (RFC 6902) to a JSON document.
+ * <p>
+ * All six operations are supported: {@code add}, {@code remove}, {@code replace}, {@code move}, {@code copy} and {@code test}.
+ * The operations are applied in order to a copy of the document, so that the document is left unchanged if one of them fails.
+ */
+public final class JsonPatch {
+
+    private static final String APPEND = "-";
+
+    private static final Comparator<JsonNode> NUMERIC_COMPARATOR = (left, right) -> {
+        if (left.isNumber() && right.isNumber()) {
+            return left.decimalValue().compareTo(right.decimalValue());
+        }
+        return left.equals(right) ? 0 : 1;
+    };
+
+    private JsonPatch() {}
+
+    /**
+     * Apply a patch to a document.
+     *
+     * @param document the document to patch, which is not modified.
+     * @param patch the array of operations.
+     * @return the patched document.
+     * @throws IllegalArgumentException if the patch is malformed, or if an operation targets a location the document does not have.
+     * @throws IllegalStateException if a {@code test} operation fails.
+     */
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        if (!patch.isArray()) {
+            throw new IllegalArgumentException("A JSON Patch must be an array of operations");
+        }
+        JsonNode result = document.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = text(operation, "op");
+            JsonPointer path = pointer(operation, "path");
+            switch (op) {
+                case "add":
+                    result = add(result, path, value(operation).deepCopy());
+                    break;
+                case "remove":
+                    result = remove(result, path);
+                    break;
+                case "replace":
+                    result = add(remove(result, path), path, value(operation).deepCopy());
+                    break;
+                case "move":
+                    JsonPointer from = pointer(operation, "from");
+                    if (path.toString().startsWith(from.toString() + "/")) {
+                        throw new IllegalArgumentException("Cannot move " + from + " into one of its children");
+                    }
+                    JsonNode moved = get(result, from);
+                    result = add(remove(result, from), path, moved);
+                    break;
+                case "copy":
+                    result = add(result, path, get(result, pointer(operation, "from")).deepCopy());
+                    break;
+                case "test":
+                    if (!equal(get(result, path), value(operation))) {
+                        throw new IllegalStateException("Test failed at " + path);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + op);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compare two JSON values as the {@code test} operation does: numbers are equal when their values are, whatever their
+     * representation.
+     *
+     * @param left a value.
+     * @param right another value.
+     * @return whether the values are equal.
+     */
+    static boolean equal(JsonNode left, JsonNode right) {
+        return left.equals(NUMERIC_COMPARATOR, right);
+    }
+
+    private static JsonNode add(JsonNode document, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value;
+        }
+        JsonNode parent = get(document, path.head());
+        String name = path.last().getMatchingProperty();
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(name, value);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            if (APPEND.equals(name)) {
+                array.add(value);
+            } else {
+                array.insert(index(array, name, array.size()), value);
+            }
+        } else {
+            throw new IllegalArgumentException("No object or array at " + path.head());
+        }
+        return document;
+    }
+
+    private static JsonNode remove(JsonNode document, JsonPointer path) {
+        if (path.matches()) {
+            throw new IllegalArgumentException("Cannot remove the whole document");
+        }
+        JsonNode parent = get(document, path.head());
+        String name = path.last().getMatchingProperty();
+        if (parent.isObject() && parent.has(name)) {
+            ((ObjectNode) parent).remove(name);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            array.remove(index(array, name, array.size() - 1));
+        } else {
+            throw new IllegalArgumentException("No value at " + path);
+        }
+        return document;
+    }
+
+    private static JsonNode get(JsonNode document, JsonPointer path) {
+        JsonNode node = document.at(path);
+        if (node.isMissingNode()) {
+            throw new IllegalArgumentException("No value at " + path);
+        }
+        return node;
+    }
+
+    private static int index(ArrayNode array, String name, int max) {
+        try {
+            int index = Integer.parseInt(name);
+            if (index >= 0 && index <= max && !name.startsWith("+") && (index == 0 || !name.startsWith("0"))) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid index " + name + " in an array of " + array.size() + " elements");
+    }
+
+    private static String text(JsonNode operation, String member) {
+        JsonNode node = operation.get(member);
+        if (node == null || !node.isTextual()) {
+            throw new IllegalArgumentException("Missing " + member + " in operation " + operation);
+        }
+        return node.asText();
+    }
+
+    private static JsonPointer pointer(JsonNode operation, String member) {
+        return JsonPointer.compile(text(operation, member));
+    }
+
+    private static JsonNode value(JsonNode operation) {
+        JsonNode value = operation.get("value");
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value in operation " + operation);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,101 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (a.k.a. seek or cursor) pagination.
+ * <p>
+ * A page is addressed by an opaque cursor holding the sort key of the last row of the previous page, instead of an offset,
+ * so that fetching a page costs an index range scan whatever its depth. The next page is advertised with a {@code Link}
+ * header and with the raw cursor in the {@value #HEADER_NEXT_CURSOR} header.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    public static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode the sort key of a row into an opaque, URL-safe cursor.
+     *
+     * @param keys the values of the sort key, most significant first.
+     * @return the cursor.
+     */
+    public static String encodeCursor(String... keys) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.join(SEPARATOR, keys).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encodeCursor(String...)}.
+     *
+     * @param cursor the cursor sent by the client.
+     * @param keyCount the number of values the sort key is made of.
+     * @return the values of the sort key, most significant first.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static String[] decodeCursor(String cursor, int keyCount) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] keys = SEPARATOR_PATTERN.split(decoded, -1);
+        if (keys.length != keyCount) {
+            throw new IllegalArgumentException("Expected " + keyCount + " keys in cursor but got " + keys.length);
+        }
+        return keys;
+    }
+
+    /**
+     * Clamp the page size requested by the client to {@code [1, maxPageSize]}.
+     *
+     * @param requestedSize the page size sent by the client, may be {@code null}.
+     * @param defaultPageSize the page size used when the client does not send one.
+     * @param maxPageSize the hard server-side cap.
+     * @return the page size to use.
+     */
+    public static int pageSize(Integer requestedSize, int defaultPageSize, int maxPageSize) {
+        int size = requestedSize == null ? defaultPageSize : requestedSize;
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    /**
+     * Generate keyset pagination headers.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next page, or {@code null} if this is the last page.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor) {
+        return generateKeysetHttpHeaders(uriBuilder, nextCursor, null);
+    }
+
+    /**
+     * Generate keyset pagination headers.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next page, or {@code null} if this is the last page.
+     * @param totalCount the total number of rows, or {@code null} if it was not requested.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, Long totalCount) {
+        HttpHeaders headers = new HttpHeaders();
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        if (nextCursor != null) {
+            headers.add(HEADER_NEXT_CURSOR, nextCursor);
+            String link = uriBuilder.replaceQueryParam(CURSOR_PARAMETER, nextCursor).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
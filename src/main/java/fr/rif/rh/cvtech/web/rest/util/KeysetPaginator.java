@@ -0,0 +1,188 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import fr.rif.rh.cvtech.repository.KeysetRepository;
+import fr.rif.rh.cvtech.web.rest.errors.BadRequestAlertException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Helper for the REST controllers serving keyset pages of an entity, see {@link KeysetPaginationUtil}.
+ * <p>
+ * The page size is bounded by {@code application.pagination.max-page-size}, so that the heap used by a request does not
+ * grow with the size of the table.
+ */
+@Component
+public class KeysetPaginator {
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
+    public KeysetPaginator(ApplicationProperties applicationProperties) {
+        this.defaultPageSize = applicationProperties.getPagination().getDefaultPageSize();
+        this.maxPageSize = applicationProperties.getPagination().getMaxPageSize();
+    }
+
+    /**
+     * Clamp the page size requested by the client to the configured bounds.
+     *
+     * @param requestedSize the page size sent by the client, may be {@code null}.
+     * @return the page size to use.
+     */
+    public int pageSize(Integer requestedSize) {
+        return KeysetPaginationUtil.pageSize(requestedSize, defaultPageSize, maxPageSize);
+    }
+
+    /**
+     * Read the seek direction from the sort sent by the client, which may only use the given properties, in a single direction.
+     *
+     * @param sort the sort sent by the client.
+     * @param entityName the name of the entity, for the error alert.
+     * @param properties the properties of the sort key.
+     * @return the direction of the seek, ascending by default.
+     */
+    public Sort.Direction direction(Sort sort, String entityName, String... properties) {
+        List<String> allowed = List.of(properties);
+        Sort.Direction direction = null;
+        for (Sort.Order order : sort) {
+            if (!allowed.contains(order.getProperty()) || (direction != null && direction != order.getDirection())) {
+                throw new BadRequestAlertException("Sort is only allowed on " + allowed, entityName, "sortinvalid");
+            }
+            direction = order.getDirection();
+        }
+        return direction == null ? Sort.Direction.ASC : direction;
+    }
+
+    /**
+     * Get a page of entities seeking on their primary key.
+     *
+     * @param repository the repository of the entity.
+     * @param idExtractor the getter of the primary key.
+     * @param versionExtractor the getter of the version, for the entity tag of the page.
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the page size sent by the client, may be {@code null}.
+     * @param sort the sort sent by the client, only {@code id} is accepted.
+     * @param count whether to send the total number of entities in the {@code X-Total-Count} header.
+     * @param entityName the name of the entity, for the error alerts.
+     * @param <T> the type of the entity.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of entities in body, tagged with the IDs and
+     * versions of the entities.
+     */
+    public <T> ResponseEntity<List<T>> getPage(
+        KeysetRepository<T> repository,
+        Function<T, Long> idExtractor,
+        ToLongFunction<T> versionExtractor,
+        String cursor,
+        Integer size,
+        Sort sort,
+        boolean count,
+        String entityName
+    ) {
+        return getPage(
+            (afterId, pageable) -> {
+                if (afterId == null) {
+                    return repository.findAllBy(pageable);
+                }
+                return pageable.getSort().getOrderFor("id").isAscending()
+                    ? repository.findByIdGreaterThan(afterId, pageable)
+                    : repository.findByIdLessThan(afterId, pageable);
+            },
+            repository::count,
+            idExtractor,
+            versionExtractor,
+            cursor,
+            size,
+            sort,
+            count,
+            entityName
+        );
+    }
+
+    /**
+     * Get a page of entities seeking on their primary key, read by the given query.
+     *
+     * @param query the query reading a page of entities.
+     * @param counter the query counting all the entities.
+     * @param idExtractor the getter of the primary key.
+     * @param versionExtractor the getter of the version, for the entity tag of the page.
+     * @param cursor the cursor of the page to retrieve, or {@code null} for the first page.
+     * @param size the page size sent by the client, may be {@code null}.
+     * @param sort the sort sent by the client, only {@code id} is accepted.
+     * @param count whether to send the total number of entities in the {@code X-Total-Count} header.
+     * @param entityName the name of the entity, for the error alerts.
+     * @param <T> the type of the entity.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of entities in body, tagged with the IDs and
+     * versions of the entities.
+     */
+    public <T> ResponseEntity<List<T>> getPage(
+        KeysetQuery<T> query,
+        LongSupplier counter,
+        Function<T, Long> idExtractor,
+        ToLongFunction<T> versionExtractor,
+        String cursor,
+        Integer size,
+        Sort sort,
+        boolean count,
+        String entityName
+    ) {
+        Sort.Direction direction = direction(sort, entityName, "id");
+        Pageable pageable = PageRequest.of(0, pageSize(size), Sort.by(direction, "id"));
+        Slice<T> slice = query.find(cursor == null ? null : decodeIdCursor(cursor, entityName), pageable);
+
+        List<T> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            nextCursor = KeysetPaginationUtil.encodeCursor(idExtractor.apply(content.get(content.size() - 1)).toString());
+        }
+        Long totalCount = count ? counter.getAsLong() : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            totalCount
+        );
+        List<String> keys = new ArrayList<>(content.size() + 2);
+        for (T entity : content) {
+            keys.add(idExtractor.apply(entity) + EntityTagUtil.VERSION_SEPARATOR + versionExtractor.applyAsLong(entity));
+        }
+        keys.add(nextCursor);
+        keys.add(String.valueOf(totalCount));
+        return EntityTagUtil.ok(EntityTagUtil.listTag(keys)).headers(headers).body(content);
+    }
+
+    private Long decodeIdCursor(String cursor, String entityName) {
+        try {
+            return Long.valueOf(KeysetPaginationUtil.decodeCursor(cursor, 1)[0]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * A query reading a page of entities seeking on their primary key.
+     *
+     * @param <T> the type of the entity.
+     */
+    @FunctionalInterface
+    public interface KeysetQuery<T> {
+        /**
+         * Read a page of entities.
+         *
+         * @param afterId the primary key of the last entity of the previous page, or {@code null} for the first page.
+         * @param pageable the first page, sorted on {@code id} in the direction of the seek.
+         * @return the page.
+         */
+        Slice<T> find(Long afterId, Pageable pageable);
+    }
+}
@@ -0,0 +1,81 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Utility class for the sparse fieldsets of the REST resources: a {@code GET} with a {@value #FIELDS_PARAMETER} parameter
+ * only reads and writes the listed properties of the entities, and their ID.
+ * <p>
+ * The entities are read by {@link fr.rif.rh.cvtech.repository.SparseFieldsetRepository}, which only selects the columns of
+ * these properties, and written through the {@value #FILTER_ID} filter, which only writes these properties: the others were
+ * not read, and would otherwise be written as {@code null}. The filter is bound to the entities by a {@link Filtered} mix-in,
+ * and writes every property of the responses which do not set it.
+ */
+public final class SparseFieldset {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    public static final String FILTER_ID = "sparseFieldset";
+
+    private static final String ID = "id";
+
+    private SparseFieldset() {}
+
+    /**
+     * Mix-in binding an entity to the {@value #FILTER_ID} filter.
+     */
+    @JsonFilter(FILTER_ID)
+    public interface Filtered {}
+
+    /**
+     * Build the filters of the responses which do not have a sparse fieldset, writing every property.
+     *
+     * @return the filter provider.
+     */
+    public static SimpleFilterProvider defaultFilters() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Restrict the body of a response to a sparse fieldset.
+     *
+     * @param response the response, whose body holds entities read with the fieldset, or a list of them.
+     * @param type the entity class.
+     * @param fields the names of the properties to write, besides the ID.
+     * @param <X> type of the body.
+     * @return the response, with the same status and headers.
+     */
+    public static <X> ResponseEntity<MappingJacksonValue> filter(ResponseEntity<X> response, Class<?> type, Collection<String> fields) {
+        MappingJacksonValue body = new MappingJacksonValue(response.getBody());
+        body.setFilters(defaultFilters().addFilter(FILTER_ID, propertyFilter(type, fields)));
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(body);
+    }
+
+    private static PropertyFilter propertyFilter(Class<?> type, Collection<String> fields) {
+        Set<String> names = new HashSet<>(fields);
+        names.add(ID);
+        return new SimpleBeanPropertyFilter() {
+            @Override
+            public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider, PropertyWriter writer)
+                throws Exception {
+                // Only the entities of the response are restricted, not the associations they reach
+                if (!type.isInstance(pojo) || names.contains(writer.getName())) {
+                    writer.serializeAsField(pojo, generator, provider);
+                } else if (!generator.canOmitFields()) {
+                    writer.serializeAsOmittedField(pojo, generator, provider);
+                }
+            }
+        };
+    }
+}
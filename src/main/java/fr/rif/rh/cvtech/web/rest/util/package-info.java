@@ -0,0 +1,4 @@
+/**
+ * Utility classes shared by the REST controllers.
+ */
+package fr.rif.rh.cvtech.web.rest.util;
@@ -0,0 +1,79 @@
+package fr.rif.rh.cvtech.web.rest.vm;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * View Model object for storing the skills of a job profile, to rank resumes against.
+ */
+public class JobProfileVM {
+
+    @NotEmpty
+    @Valid
+    private List<SkillVM> skills = new ArrayList<>();
+
+    public List<SkillVM> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(List<SkillVM> skills) {
+        this.skills = skills;
+    }
+
+    @Override
+    public String toString() {
+        return "JobProfileVM{" + "skills=" + skills + "}";
+    }
+
+    /**
+     * A skill of the job profile: a programming language or design skill, with the minimum rate a resume must have it at if
+     * it is required, and the weight of its rate in the score of the resume.
+     */
+    public static class SkillVM {
+
+        @NotBlank
+        private String name;
+
+        @Min(0)
+        @Max(100)
+        private Integer minimum;
+
+        @PositiveOrZero
+        private double weight = 1;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getMinimum() {
+            return minimum;
+        }
+
+        public void setMinimum(Integer minimum) {
+            this.minimum = minimum;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        @Override
+        public String toString() {
+            return "SkillVM{" + "name='" + name + "'" + ", minimum=" + minimum + ", weight=" + weight + "}";
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package fr.rif.rh.cvtech.web.rest.vm;
+
+import fr.rif.rh.cvtech.repository.search.ResumeDashboardCounters;
+import java.util.Map;
+
+/**
+ * View Model object for the recruiter dashboard: the number of resumes by city, country, profession, language and creation
+ * month, in {@code yyyy-MM} format, and the average programming language level by programming language.
+ */
+public class ResumeDashboardVM {
+
+    private final long resumes;
+
+    private final Map<String, Long> cities;
+
+    private final Map<String, Long> countries;
+
+    private final Map<String, Long> professions;
+
+    private final Map<String, Long> languages;
+
+    private final Map<String, Long> months;
+
+    private final Map<String, Double> averageTauxDeLangage;
+
+    public ResumeDashboardVM(ResumeDashboardCounters.Snapshot snapshot) {
+        Map<ResumeDashboardCounters.Dimension, Map<String, Long>> counts = snapshot.getCounts();
+        this.resumes = snapshot.getResumes();
+        this.cities = counts.get(ResumeDashboardCounters.Dimension.CITY);
+        this.countries = counts.get(ResumeDashboardCounters.Dimension.COUNTRY);
+        this.professions = counts.get(ResumeDashboardCounters.Dimension.PROFESSION);
+        this.languages = counts.get(ResumeDashboardCounters.Dimension.LANGUAGE);
+        this.months = counts.get(ResumeDashboardCounters.Dimension.MONTH);
+        this.averageTauxDeLangage = snapshot.getAverageLevels();
+    }
+
+    public long getResumes() {
+        return resumes;
+    }
+
+    public Map<String, Long> getCities() {
+        return cities;
+    }
+
+    public Map<String, Long> getCountries() {
+        return countries;
+    }
+
+    public Map<String, Long> getProfessions() {
+        return professions;
+    }
+
+    public Map<String, Long> getLanguages() {
+        return languages;
+    }
+
+    public Map<String, Long> getMonths() {
+        return months;
+    }
+
+    public Map<String, Double> getAverageTauxDeLangage() {
+        return averageTauxDeLangage;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumeDashboardVM{" + "resumes=" + resumes + "}";
+    }
+}
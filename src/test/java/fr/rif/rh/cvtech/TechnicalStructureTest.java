@@ -29,5 +29,9 @@ class TechnicalStructureTest {
         .whereLayer("Persistence").mayOnlyBeAccessedByLayers("Service", "Security", "Web", "Config")
         .whereLayer("Domain").mayOnlyBeAccessedByLayers("Persistence", "Service", "Security", "Web", "Config")
 
-        .ignoreDependency(belongToAnyOf(CvthequeApp.class), alwaysTrue());
+        .ignoreDependency(belongToAnyOf(CvthequeApp.class), alwaysTrue())
+        .ignoreDependency(alwaysTrue(), belongToAnyOf(
+            fr.rif.rh.cvtech.config.Constants.class,
+            fr.rif.rh.cvtech.config.ApplicationProperties.class
+        ));
 }
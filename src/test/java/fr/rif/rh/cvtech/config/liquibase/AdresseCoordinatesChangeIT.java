@@ -0,0 +1,70 @@
+package fr.rif.rh.cvtech.config.liquibase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
+import java.util.Map;
+import javax.sql.DataSource;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AdresseCoordinatesChange} Liquibase change.
+ */
+@IntegrationTest
+class AdresseCoordinatesChangeIT {
+
+    private static final long LOCATED_ID = 999_000_001L;
+
+    private static final long UNKNOWN_ID = 999_000_002L;
+
+    private static final long OWN_COORDINATES_ID = 999_000_003L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Transactional
+    void geocodesAddressesWithoutCoordinates() throws Exception {
+        jdbcTemplate.update("insert into adresse (id, code_postale) values (?, ?)", LOCATED_ID, 69100);
+        jdbcTemplate.update("insert into adresse (id, code_postale) values (?, ?)", UNKNOWN_ID, 99999);
+        jdbcTemplate.update(
+            "insert into adresse (id, code_postale, latitude, longitude) values (?, ?, ?, ?)",
+            OWN_COORDINATES_ID,
+            69100,
+            45.0,
+            4.0
+        );
+
+        AdresseCoordinatesChange change = new AdresseCoordinatesChange();
+        change.setDataset("classpath:config/geocoder/postal-codes.csv");
+        // Run on the connection of the test transaction, so that it is rolled back with it
+        Database database = DatabaseFactory
+            .getInstance()
+            .findCorrectDatabaseImplementation(new JdbcConnection(DataSourceUtils.getConnection(dataSource)));
+        assertThat(change.validate(database).hasErrors()).isFalse();
+        change.execute(database);
+
+        assertThat(coordinates(LOCATED_ID))
+            .containsEntry("LATITUDE", 45.7719)
+            .containsEntry("LONGITUDE", 4.8902)
+            .containsEntry("GEOHASH", GeoHash.of(45.7719, 4.8902));
+        assertThat(coordinates(UNKNOWN_ID)).containsEntry("LATITUDE", null).containsEntry("GEOHASH", null);
+        assertThat(coordinates(OWN_COORDINATES_ID)).containsEntry("LATITUDE", 45.0).containsEntry("LONGITUDE", 4.0);
+        assertThat(change.getConfirmationMessage()).isEqualTo("Geocoded 1 addresses");
+    }
+
+    private Map<String, Object> coordinates(long id) {
+        return jdbcTemplate.queryForMap("select latitude, longitude, geohash from adresse where id = ?", id);
+    }
+}
@@ -0,0 +1,53 @@
+package fr.rif.rh.cvtech.domain.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GeoHashTest {
+
+    @Test
+    void encodeInterleavesLongitudeAndLatitudeBits() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(45.764, 4.8357, 5)).isEqualTo("u05kq");
+        assertThat(GeoHash.of(45.764, 4.8357)).hasSize(GeoHash.MAX_PRECISION).startsWith("u05kq");
+        assertThat(GeoHash.of(null, 4.8357)).isNull();
+        assertThat(GeoHash.of(91.0, 4.8357)).isNull();
+    }
+
+    @Test
+    void parseReadsDecimalCoordinates() {
+        assertThat(GeoHash.parse("45.764, 4.8357")).hasValueSatisfying(coordinates -> assertThat(coordinates).containsExactly(45.764, 4.8357));
+        assertThat(GeoHash.parse("-33.86;151.2")).hasValueSatisfying(coordinates -> assertThat(coordinates).containsExactly(-33.86, 151.2));
+        assertThat(GeoHash.parse("Lyon")).isEmpty();
+        assertThat(GeoHash.parse("95, 4")).isEmpty();
+        assertThat(GeoHash.parse(null)).isEmpty();
+    }
+
+    @Test
+    void distanceIsGreatCircleDistance() {
+        // Lyon to Paris
+        assertThat(GeoHash.distanceKm(45.764, 4.8357, 48.8566, 2.3522)).isCloseTo(392, within(2.0));
+        assertThat(GeoHash.distanceKm(45.764, 4.8357, 45.764, 4.8357)).isZero();
+    }
+
+    @Test
+    void coveringCellsContainEveryPointWithinTheRadius() {
+        double latitude = 45.764;
+        double longitude = 4.8357;
+        List<String> cells = GeoHash.coveringCells(latitude, longitude, 30);
+
+        assertThat(cells).isNotEmpty().hasSizeLessThanOrEqualTo(9);
+        for (int bearing = 0; bearing < 360; bearing += 15) {
+            // A point 29.9 km away in each direction
+            double angle = Math.toRadians(bearing);
+            double pointLatitude = latitude + Math.cos(angle) * 29.9 / 111.195;
+            double pointLongitude = longitude + Math.sin(angle) * 29.9 / (111.195 * Math.cos(Math.toRadians(pointLatitude)));
+            String hash = GeoHash.of(pointLatitude, pointLongitude);
+            assertThat(cells).anyMatch(hash::startsWith);
+        }
+        assertThat(GeoHash.coveringCells(89.9, 0, 30)).isEmpty();
+    }
+}
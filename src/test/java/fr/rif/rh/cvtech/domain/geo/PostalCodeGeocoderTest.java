@@ -0,0 +1,71 @@
+package fr.rif.rh.cvtech.domain.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class PostalCodeGeocoderTest {
+
+    private static final String DATASET = String.join(
+        "\n",
+        "# Sample",
+        "code;city;latitude;longitude",
+        "69001;Lyon;45.7676;4.8344",
+        "42000;Saint-Étienne;45.4397;4.3872",
+        "97400;Saint-Denis;-20.8821;55.4507",
+        "97400;Sainte-Marie;-20.8969;55.5492",
+        ""
+    );
+
+    @Test
+    void locateResolvesPostalCodesToPackedCoordinates() throws IOException {
+        PostalCodeGeocoder geocoder = PostalCodeGeocoder.load(stream(DATASET));
+
+        long lyon = geocoder.locate(69001);
+        assertThat(PostalCodeGeocoder.latitude(lyon)).isEqualTo(45.7676);
+        assertThat(PostalCodeGeocoder.longitude(lyon)).isEqualTo(4.8344);
+        long saintDenis = geocoder.locate(97400);
+        assertThat(PostalCodeGeocoder.latitude(saintDenis)).isEqualTo(-20.8821);
+        assertThat(PostalCodeGeocoder.longitude(saintDenis)).isEqualTo(55.4507);
+        assertThat(geocoder.locate(75001)).isEqualTo(PostalCodeGeocoder.NOT_FOUND);
+        assertThat(geocoder.size()).isEqualTo(3);
+    }
+
+    @Test
+    void cityNamesAreNormalized() throws IOException {
+        PostalCodeGeocoder geocoder = PostalCodeGeocoder.load(stream(DATASET));
+
+        assertThat(geocoder.city(97400)).isEqualTo("Saint-Denis");
+        assertThat(geocoder.city(75001)).isNull();
+        assertThat(geocoder.normalizeCity("SAINT ETIENNE")).isEqualTo("Saint-Étienne");
+        assertThat(geocoder.normalizeCity("lyon")).isEqualTo("Lyon");
+        assertThat(geocoder.normalizeCity("Sainte-Marie")).isNull();
+        assertThat(geocoder.normalizeCity(null)).isNull();
+    }
+
+    @Test
+    void bundledDatasetIsValid() throws IOException {
+        try (InputStream dataset = getClass().getResourceAsStream("/config/geocoder/postal-codes.csv")) {
+            PostalCodeGeocoder geocoder = PostalCodeGeocoder.load(dataset);
+
+            assertThat(geocoder.size()).isGreaterThan(100);
+            assertThat(geocoder.city(69100)).isEqualTo("Villeurbanne");
+        }
+    }
+
+    @Test
+    void invalidLinesAreRejected() {
+        assertThatThrownBy(() -> PostalCodeGeocoder.load(stream("code;city;latitude;longitude\n69001;Lyon;95;4.8")))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("line 2");
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import org.junit.jupiter.api.Test;
+
+class ResumeDashboardCountersTest {
+
+    @Test
+    void countsResumesAndAveragesLevels() {
+        ResumeDashboardCounters counters = new ResumeDashboardCounters();
+        counters.set(1L, contribution("Lyon", "2024-01", "Java", 4));
+        counters.set(2L, contribution("Lyon", "2024-02", "Java", 2));
+        counters.set(3L, contribution("Paris", "2024-02", "Go", null));
+        counters.set(4L, contribution(null, "2024-02", null, null));
+
+        ResumeDashboardCounters.Snapshot snapshot = counters.snapshot();
+
+        assertThat(snapshot.getResumes()).isEqualTo(4);
+        assertThat(snapshot.getCounts().get(ResumeDashboardCounters.Dimension.CITY)).containsExactly(entry("Lyon", 2L), entry("Paris", 1L));
+        assertThat(snapshot.getCounts().get(ResumeDashboardCounters.Dimension.MONTH))
+            .containsExactly(entry("2024-01", 1L), entry("2024-02", 3L));
+        assertThat(snapshot.getCounts().get(ResumeDashboardCounters.Dimension.COUNTRY)).containsExactly(entry("France", 4L));
+        assertThat(snapshot.getAverageLevels()).containsExactly(entry("Java", 3.0));
+    }
+
+    @Test
+    void setReplacesAndRemoveSubtracts() {
+        ResumeDashboardCounters counters = new ResumeDashboardCounters();
+        counters.set(1L, contribution("Lyon", "2024-01", "Java", 4));
+        counters.set(2L, contribution("Lyon", "2024-01", "Java", 2));
+
+        counters.set(1L, contribution("Nantes", "2024-01", "Kotlin", 5));
+        counters.remove(2L);
+
+        ResumeDashboardCounters.Snapshot snapshot = counters.snapshot();
+        assertThat(snapshot.getResumes()).isEqualTo(1);
+        assertThat(snapshot.getCounts().get(ResumeDashboardCounters.Dimension.CITY)).containsExactly(entry("Nantes", 1L));
+        assertThat(snapshot.getAverageLevels()).containsExactly(entry("Kotlin", 5.0));
+    }
+
+    @Test
+    void repeatedChangesAreIdempotent() {
+        ResumeDashboardCounters counters = new ResumeDashboardCounters();
+        counters.set(1L, contribution("Lyon", "2024-01", "Java", 4));
+        counters.set(1L, contribution("Lyon", "2024-01", "Java", 4));
+        counters.remove(2L);
+        counters.set(2L, contribution("Lyon", "2024-01", "Java", 2));
+        counters.remove(2L);
+        counters.remove(2L);
+
+        ResumeDashboardCounters.Snapshot snapshot = counters.snapshot();
+        assertThat(snapshot.getCounts().get(ResumeDashboardCounters.Dimension.CITY)).containsExactly(entry("Lyon", 1L));
+        assertThat(snapshot.getAverageLevels()).containsExactly(entry("Java", 4.0));
+    }
+
+    private static ResumeDashboardCounters.Contribution contribution(String city, String month, String language, Integer level) {
+        return new ResumeDashboardCounters.Contribution(new String[] { city, "France", "Développeur", "FRENCH", month }, language, level);
+    }
+}
@@ -0,0 +1,49 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ResumeFacetIndexTest {
+
+    @Test
+    void countsValuesOfSelectedResumes() {
+        ResumeFacetIndex.Bitmaps bitmaps = new ResumeFacetIndex.Bitmaps();
+        bitmaps.set(1L, values("Lyon", "Java"));
+        bitmaps.set(2L, values("Lyon", "Scala"));
+        bitmaps.set(3L, values("Paris", null));
+
+        Map<ResumeFacetIndex.Facet, Map<String, Integer>> counts = ResumeFacetIndex.count(
+            bitmaps,
+            null,
+            Map.of(ResumeFacetIndex.Facet.CITY, "Lyon"),
+            10
+        );
+
+        assertThat(counts.get(ResumeFacetIndex.Facet.CITY)).containsExactly(entry("Lyon", 2));
+        assertThat(counts.get(ResumeFacetIndex.Facet.TOOL)).containsExactly(entry("Java", 1), entry("Scala", 1));
+    }
+
+    @Test
+    void setReplacesAndRemoveClearsPreviousValues() {
+        ResumeFacetIndex.Bitmaps bitmaps = new ResumeFacetIndex.Bitmaps();
+        bitmaps.set(1L, values("Lyon", "Java"));
+        bitmaps.set(2L, values("Lyon", "Java"));
+
+        bitmaps.set(1L, values("Nantes", "Kotlin"));
+        bitmaps.remove(2L);
+        bitmaps.remove(2L);
+
+        Map<ResumeFacetIndex.Facet, Map<String, Integer>> counts = ResumeFacetIndex.count(bitmaps, null, Map.of(), 10);
+        assertThat(counts.get(ResumeFacetIndex.Facet.CITY)).containsExactly(entry("Nantes", 1));
+        assertThat(counts.get(ResumeFacetIndex.Facet.TOOL)).containsExactly(entry("Kotlin", 1));
+        counts = ResumeFacetIndex.count(bitmaps, null, Map.of(ResumeFacetIndex.Facet.CITY, "Lyon"), 10);
+        assertThat(counts.get(ResumeFacetIndex.Facet.TOOL)).isEmpty();
+    }
+
+    private static String[] values(String city, String tool) {
+        return new String[] { city, "France", "Développeur", "FRENCH", tool };
+    }
+}
@@ -0,0 +1,96 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResumeIndexSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void searchIndexLoadedFromSegment() throws IOException {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Ingénieur Java");
+        index.index(2L, "Ingénieur Kotlin");
+        index.index(3L, "Chef de projet");
+        index.remove(3L);
+        Path file = directory.resolve("segment-1.seg");
+        index.writeSegment(file);
+
+        ResumeInvertedIndex loaded = new ResumeInvertedIndex(ResumeIndexSegment.open(file));
+
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.search("ingenieur", 0, 10).getResumeIds()).containsExactly(2L, 1L);
+        assertThat(loaded.search("ingénieur -kotlin", 0, 10).getResumeIds()).containsExactly(1L);
+        assertThat(loaded.search("chef", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void changesOnTopOfSegmentAreMergedIntoNextSegment() throws IOException {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Java");
+        index.index(2L, "Java Kotlin");
+        Path first = directory.resolve("segment-1.seg");
+        index.writeSegment(first);
+        ResumeInvertedIndex loaded = new ResumeInvertedIndex(ResumeIndexSegment.open(first));
+
+        loaded.index(1L, "Kotlin");
+        loaded.remove(2L);
+        loaded.index(3L, "Java");
+
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.search("java", 0, 10).getResumeIds()).containsExactly(3L);
+        assertThat(loaded.search("kotlin", 0, 10).getResumeIds()).containsExactly(1L);
+
+        Path second = directory.resolve("segment-2.seg");
+        loaded.writeSegment(second);
+        ResumeInvertedIndex reloaded = new ResumeInvertedIndex(ResumeIndexSegment.open(second));
+
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.search("java", 0, 10).getResumeIds()).containsExactly(3L);
+        assertThat(reloaded.search("kotlin", 0, 10).getResumeIds()).containsExactly(1L);
+    }
+
+    @Test
+    void openCorruptedSegment() throws IOException {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Java");
+        Path file = directory.resolve("segment-1.seg");
+        index.writeSegment(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> ResumeIndexSegment.open(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void logIsReplayedUpToItsLastCompleteRecord() throws IOException {
+        Path file = directory.resolve("changes-1.log");
+        try (ResumeIndexLog log = ResumeIndexLog.openAndReplay(file, new ResumeInvertedIndex())) {
+            log.appendIndex(Map.of(1L, "Java", 2L, "Kotlin"));
+            log.appendRemove(List.of(2L));
+        }
+        long size = Files.size(file);
+        // A record torn by a crash
+        Files.write(file, new byte[] { 0, 0, 0, 20, 1, 2 }, StandardOpenOption.APPEND);
+
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        try (ResumeIndexLog log = ResumeIndexLog.openAndReplay(file, index)) {
+            assertThat(log.size()).isEqualTo(size);
+        }
+
+        assertThat(index.search("java", 0, 10).getResumeIds()).containsExactly(1L);
+        assertThat(index.search("kotlin", 0, 10).getTotal()).isZero();
+    }
+}
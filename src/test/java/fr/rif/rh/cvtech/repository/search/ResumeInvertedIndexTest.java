@@ -0,0 +1,113 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ResumeInvertedIndexTest {
+
+    @Test
+    void searchMatchesEveryWordWithoutCaseOrAccents() {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Ingénieur Java, Spring");
+        index.index(2L, "Ingénieur Kotlin");
+        index.index(3L, null);
+
+        assertThat(index.search("INGENIEUR", 0, 10).getResumeIds()).containsExactly(2L, 1L);
+        assertThat(index.search("ingénieur java", 0, 10).getResumeIds()).containsExactly(1L);
+        assertThat(index.search("ingénieur -java", 0, 10).getResumeIds()).containsExactly(2L);
+        assertThat(index.search("ingénieur python", 0, 10).getTotal()).isZero();
+        assertThat(index.search("-java", 0, 10).getTotal()).isZero();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void searchMatchesAnyAlternative() {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Ingénieur Java, Spring");
+        index.index(2L, "Ingénieur Kotlin");
+        index.index(3L, "Développeur Python");
+
+        assertThat(index.search("java or python", 0, 10).getResumeIds()).containsExactly(3L, 1L);
+        assertThat(index.search("ingénieur -java OR python", 0, 10).getResumeIds()).containsExactly(3L, 2L);
+        assertThat(index.search("or kotlin or", 0, 10).getResumeIds()).containsExactly(2L);
+        assertThat(index.search("ingénieur or spring", 0, 10).getTotal()).isEqualTo(2);
+        assertThat(ResumeInvertedIndex.supports("java or -python")).isFalse();
+        assertThat(ResumeInvertedIndex.supports("\"ingénieur java\"")).isFalse();
+        assertThat(ResumeInvertedIndex.supports("ingénieur -java or python")).isTrue();
+    }
+
+    @Test
+    void searchReturnsRequestedPage() {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.index(id, "Développeur");
+        }
+
+        ResumeInvertedIndex.Hits hits = index.search("développeur", 1, 2);
+
+        assertThat(hits.getTotal()).isEqualTo(5);
+        assertThat(hits.getResumeIds()).containsExactly(4L, 3L);
+        assertThat(index.search("développeur", 5, 2).getResumeIds()).isEmpty();
+    }
+
+    @Test
+    void indexReplacesPreviousTextAndRemoveDeletes() {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Java");
+        index.index(2L, "Java");
+
+        index.index(1L, "Kotlin");
+        index.remove(2L);
+
+        assertThat(index.search("java", 0, 10).getTotal()).isZero();
+        assertThat(index.search("kotlin", 0, 10).getResumeIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void copyIsNotChangedByIndex() {
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.index(1L, "Ingénieur Java");
+        index.index(2L, "Ingénieur Kotlin");
+
+        ResumeInvertedIndex copy = index.copy();
+        index.index(1L, "Chef de projet");
+        index.remove(2L);
+        index.index(3L, "Ingénieur Scala");
+
+        assertThat(copy.size()).isEqualTo(2);
+        assertThat(copy.search("ingénieur", 0, 10).getResumeIds()).containsExactly(2L, 1L);
+        assertThat(copy.search("chef or scala", 0, 10).getTotal()).isZero();
+        assertThat(index.search("ingénieur", 0, 10).getResumeIds()).containsExactly(3L);
+    }
+
+    @Test
+    void indexAllAndCompactionKeepMatches() {
+        int count = 5000;
+        long[] ids = new long[count];
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            texts[i] = "Développeur " + (i % 2 == 0 ? "Java" : "Kotlin");
+        }
+        ResumeInvertedIndex index = new ResumeInvertedIndex();
+        index.indexAll(ids, texts, count, ForkJoinPool.commonPool());
+
+        assertThat(index.search("java", 0, 3).getResumeIds()).containsExactly(4999L, 4997L, 4995L);
+        assertThat(index.search("développeur", 0, 0).getTotal()).isEqualTo(count);
+
+        // Removing most resumes triggers a compaction
+        for (long id = 1; id <= 4000; id++) {
+            index.remove(id);
+        }
+
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.search("java", 0, 10).getTotal()).isEqualTo(500);
+        assertThat(index.search("kotlin", 0, 2).getResumeIds()).containsExactly(5000L, 4998L);
+        index.index(4001L, "Python");
+        assertThat(index.search("python", 0, 10).getResumeIds()).containsExactly(4001L);
+        assertThat(index.search("java", 0, 10).getTotal()).isEqualTo(499);
+    }
+}
@@ -0,0 +1,107 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class ResumeSkillMatrixTest {
+
+    @Test
+    void rankScoresWeightedRatesOfTheProfileSkills() {
+        ResumeSkillMatrix matrix = new ResumeSkillMatrix();
+        matrix.set(1L, new ResumeSkillMatrix.Skills("Java", 80, "Figma", 40));
+        matrix.set(2L, new ResumeSkillMatrix.Skills("java", 60, "Figma", 90));
+        matrix.set(3L, new ResumeSkillMatrix.Skills("Kotlin", 90, null, null));
+        matrix.set(4L, new ResumeSkillMatrix.Skills(null, null, null, null));
+
+        List<ResumeSkillMatrix.Match> matches = rank(
+            matrix,
+            10,
+            new ResumeSkillMatrix.Requirement("JAVA", null, 1),
+            new ResumeSkillMatrix.Requirement("Figma", null, 2)
+        );
+
+        assertThat(matches).extracting(ResumeSkillMatrix.Match::getResumeId).containsExactly(2L, 1L);
+        assertThat(matches).extracting(ResumeSkillMatrix.Match::getScore).containsExactly(240.0, 160.0);
+    }
+
+    @Test
+    void rankKeepsOnlyResumesWithRequiredSkillsAtTheirMinimum() {
+        ResumeSkillMatrix matrix = new ResumeSkillMatrix();
+        matrix.set(1L, new ResumeSkillMatrix.Skills("Java", 80, "Figma", 40));
+        matrix.set(2L, new ResumeSkillMatrix.Skills("Java", 60, "Figma", 90));
+        matrix.set(3L, new ResumeSkillMatrix.Skills("Kotlin", 90, "Figma", 100));
+
+        assertThat(ids(rank(matrix, 10, new ResumeSkillMatrix.Requirement("Java", 70, 1), new ResumeSkillMatrix.Requirement("Figma", null, 1))))
+            .containsExactly(1L);
+        assertThat(ids(rank(matrix, 10, new ResumeSkillMatrix.Requirement("Figma", 50, 1), new ResumeSkillMatrix.Requirement("Java", null, 1))))
+            .containsExactly(2L, 3L);
+        assertThat(rank(matrix, 10, new ResumeSkillMatrix.Requirement("Scala", 0, 1), new ResumeSkillMatrix.Requirement("Java", null, 1)))
+            .isEmpty();
+    }
+
+    @Test
+    void setReplacesSkillsAndRemoveDeletes() {
+        ResumeSkillMatrix matrix = new ResumeSkillMatrix();
+        matrix.set(1L, new ResumeSkillMatrix.Skills("Java", 80, null, null));
+        matrix.set(2L, new ResumeSkillMatrix.Skills("Java", 70, null, null));
+
+        matrix.set(1L, new ResumeSkillMatrix.Skills("Kotlin", 80, null, null));
+        matrix.remove(2L);
+
+        assertThat(rank(matrix, 10, new ResumeSkillMatrix.Requirement("Java", null, 1))).isEmpty();
+        assertThat(ids(rank(matrix, 10, new ResumeSkillMatrix.Requirement("Kotlin", null, 1)))).containsExactly(1L);
+        assertThat(matrix.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rankReturnsTheBestAcrossChunks() {
+        ResumeSkillMatrix matrix = new ResumeSkillMatrix();
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            matrix.set(i + 1, new ResumeSkillMatrix.Skills("Java", i % 101, i % 3 == 0 ? "Figma" : null, 50));
+        }
+
+        List<ResumeSkillMatrix.Match> matches = rank(
+            matrix,
+            5,
+            new ResumeSkillMatrix.Requirement("Java", 100, 1),
+            new ResumeSkillMatrix.Requirement("Figma", null, 1)
+        );
+
+        // Rated 100 in Java every 101 resumes, with Figma every third of them, ties in the order the resumes were added
+        assertThat(ids(matches)).containsExactly(202L, 505L, 808L, 1111L, 1414L);
+        assertThat(matches).extracting(ResumeSkillMatrix.Match::getScore).containsOnly(150.0);
+    }
+
+    @Test
+    void compactionKeepsLiveResumesInOrder() {
+        ResumeSkillMatrix matrix = new ResumeSkillMatrix();
+        for (long id = 1; id <= 3000; id++) {
+            matrix.set(id, new ResumeSkillMatrix.Skills("Java", 50, null, null));
+        }
+        for (long id = 1; id <= 3000; id++) {
+            if (id % 1000 != 0) {
+                matrix.remove(id);
+            }
+        }
+        matrix.set(4000L, new ResumeSkillMatrix.Skills("Java", 50, null, null));
+        matrix.set(2000L, new ResumeSkillMatrix.Skills("Java", 90, null, null));
+
+        List<ResumeSkillMatrix.Match> matches = rank(matrix, 10, new ResumeSkillMatrix.Requirement("Java", null, 1));
+
+        assertThat(matrix.size()).isEqualTo(4);
+        assertThat(ids(matches)).containsExactly(2000L, 1000L, 3000L, 4000L);
+    }
+
+    private static List<ResumeSkillMatrix.Match> rank(ResumeSkillMatrix matrix, int limit, ResumeSkillMatrix.Requirement... requirements) {
+        return matrix.rank(List.of(requirements), limit, ForkJoinPool.commonPool());
+    }
+
+    private static List<Long> ids(List<ResumeSkillMatrix.Match> matches) {
+        return matches.stream().map(ResumeSkillMatrix.Match::getResumeId).collect(Collectors.toList());
+    }
+}
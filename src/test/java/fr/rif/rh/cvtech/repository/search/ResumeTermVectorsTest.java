@@ -0,0 +1,72 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ResumeTermVectorsTest {
+
+    @Test
+    void similarRanksResumesByCosineSimilarity() {
+        ResumeTermVectors vectors = new ResumeTermVectors();
+        vectors.set(1L, "Développeur Java Spring Boot, microservices Kubernetes, Master informatique");
+        vectors.set(2L, "Developpeur Java Spring, microservices, Master informatique");
+        vectors.set(3L, "Développeur Java, applications bancaires");
+        vectors.set(4L, "Infirmière de bloc opératoire");
+        vectors.set(5L, null);
+
+        List<ResumeTermVectors.SimilarResume> similar = vectors.similar(1L, 10);
+
+        assertThat(similar).extracting(ResumeTermVectors.SimilarResume::getResumeId).containsExactly(2L, 3L);
+        assertThat(similar.get(0).getScore()).isGreaterThan(similar.get(1).getScore()).isLessThan(1);
+        assertThat(vectors.similar(1L, 1)).extracting(ResumeTermVectors.SimilarResume::getResumeId).containsExactly(2L);
+        assertThat(vectors.similar(4L, 10)).isEmpty();
+        assertThat(vectors.similar(5L, 10)).isEmpty();
+        assertThat(vectors.size()).isEqualTo(4);
+    }
+
+    @Test
+    void identicalResumesHaveASimilarityOfOne() {
+        ResumeTermVectors vectors = new ResumeTermVectors();
+        vectors.set(1L, "Chef de projet digital");
+        vectors.set(2L, "chef de projet DIGITAL");
+        vectors.set(3L, "Data scientist");
+
+        List<ResumeTermVectors.SimilarResume> similar = vectors.similar(1L, 10);
+
+        assertThat(similar).hasSize(1);
+        assertThat(similar.get(0).getScore()).isCloseTo(1, offset(1e-6));
+    }
+
+    @Test
+    void setReplacesVectorsAndRemoveDeletes() {
+        ResumeTermVectors vectors = new ResumeTermVectors();
+        vectors.set(1L, "Administrateur Linux");
+        vectors.set(2L, "Administrateur Windows");
+        vectors.set(3L, "Administrateur réseaux");
+
+        vectors.set(2L, "Comptable");
+        vectors.remove(3L);
+
+        assertThat(vectors.similar(1L, 10)).isEmpty();
+        assertThat(vectors.size()).isEqualTo(2);
+    }
+
+    @Test
+    void compactionKeepsLiveVectors() {
+        ResumeTermVectors vectors = new ResumeTermVectors();
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 1000; id++) {
+                vectors.set(id, "Consultant SAP module " + id + " round " + round);
+            }
+        }
+        vectors.set(1001L, "Consultant SAP module 77");
+
+        List<ResumeTermVectors.SimilarResume> similar = vectors.similar(1001L, 1);
+
+        assertThat(vectors.size()).isEqualTo(1001);
+        assertThat(similar).extracting(ResumeTermVectors.SimilarResume::getResumeId).containsExactly(77L);
+    }
+}
@@ -0,0 +1,64 @@
+package fr.rif.rh.cvtech.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SuggestionTrieTest {
+
+    @Test
+    void suggestMostFrequentValuesStartingWithPrefix() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Capgemini", 3);
+        trie.add("Cap Vert", 5);
+        trie.add("Carrefour", 10);
+        trie.add("Atos", 20);
+        trie.add("Capitaine Train", 3);
+
+        List<SuggestionTrie.Suggestion> suggestions = trie.suggest("cap", 10);
+
+        assertThat(suggestions).extracting(SuggestionTrie.Suggestion::getValue).containsExactly("Cap Vert", "Capgemini", "Capitaine Train");
+        assertThat(suggestions).extracting(SuggestionTrie.Suggestion::getCount).containsExactly(5, 3, 3);
+        assertThat(trie.suggest("ca", 2)).extracting(SuggestionTrie.Suggestion::getValue).containsExactly("Carrefour", "Cap Vert");
+        assertThat(trie.suggest("", 1)).extracting(SuggestionTrie.Suggestion::getValue).containsExactly("Atos");
+        assertThat(trie.suggest("z", 10)).isEmpty();
+    }
+
+    @Test
+    void variantsOfAValueAreOneSuggestionWithTheMostFrequentSpelling() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Saint-Étienne", 4);
+        trie.add("saint etienne", 1);
+        trie.add("Saint-Denis", 2);
+
+        List<SuggestionTrie.Suggestion> suggestions = trie.suggest("ST", 10);
+        assertThat(suggestions).isEmpty();
+        suggestions = trie.suggest("SAINT E", 10);
+
+        assertThat(suggestions).extracting(SuggestionTrie.Suggestion::getValue).containsExactly("Saint-Étienne");
+        assertThat(suggestions).extracting(SuggestionTrie.Suggestion::getCount).containsExactly(5);
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removedUsesAreNoLongerSuggested() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Java", 2);
+        trie.add("JavaScript", 1);
+        trie.add("Jira", 5);
+
+        trie.add("Jira", -5);
+        trie.add("Java", -1);
+        trie.add("Jenkins", -1);
+
+        assertThat(trie.suggest("j", 10)).extracting(SuggestionTrie.Suggestion::getValue).containsExactly("Java", "JavaScript");
+        assertThat(trie.suggest("ji", 10)).isEmpty();
+        assertThat(trie.size()).isEqualTo(2);
+
+        trie.add("Java", -1);
+        trie.add("JavaScript", -1);
+        assertThat(trie.suggest("", 10)).isEmpty();
+        assertThat(trie.size()).isZero();
+    }
+}
@@ -0,0 +1,76 @@
+package fr.rif.rh.cvtech.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class NearDuplicateDetectorTest {
+
+    private static final String TEXT =
+        "Développeur Java senior chez Capgemini, conception et développement de services REST avec Spring Boot," +
+        " migration vers Kubernetes, encadrement d'une équipe de quatre développeurs, Ingénieur diplômé de l'INSA de Lyon";
+
+    @Test
+    void shinglesIgnoreCaseAccentsAndNameOrder() {
+        assertThat(NearDuplicateDetector.shingles("Ingénieur ÉTUDES, Lyon", "Martin", "Zoé", " Zoe.Martin@Example.com "))
+            .contains("ingenieur etudes", "etudes lyon", "name: ma", "name:zoe", "mail:zoe.martin@example.com");
+        assertThat(NearDuplicateDetector.shingles(null, "Zoé", "Martin", null))
+            .isEqualTo(NearDuplicateDetector.shingles("", "Martin", "Zoe", ""));
+        assertThat(NearDuplicateDetector.shingles("  ", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void findPairsOfNearDuplicates() {
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        detector.add(1L, NearDuplicateDetector.shingles(TEXT, "Martin", "Zoé", "zoe.martin@example.com"));
+        detector.add(2L, NearDuplicateDetector.shingles("Chef de projet digital, pilotage de refontes de sites", "Durand", "Paul", null));
+        // The same resume, re-imported with another email address and a typo
+        detector.add(3L, NearDuplicateDetector.shingles(TEXT.replace("quatre", "quatres"), "MARTIN", "Zoe", "zoe@example.org"));
+        detector.add(4L, NearDuplicateDetector.shingles(null, null, null, null));
+
+        List<NearDuplicateDetector.Pair> pairs = detector.findPairs(0.7, 100);
+
+        assertThat(detector.size()).isEqualTo(3);
+        assertThat(pairs).hasSize(1);
+        assertThat(pairs.get(0).getFirstId()).isEqualTo(1L);
+        assertThat(pairs.get(0).getSecondId()).isEqualTo(3L);
+        assertThat(pairs.get(0).getSimilarity()).isGreaterThan(0.7);
+    }
+
+    @Test
+    void findPairsSkipsOversizedBuckets() {
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        for (long id = 1; id <= 5; id++) {
+            detector.add(id, Set.of("curriculum vitae"));
+        }
+
+        assertThat(detector.findPairs(0.9, 5)).hasSize(10);
+        assertThat(detector.getSkippedBuckets()).isZero();
+        assertThat(detector.findPairs(0.9, 4)).isEmpty();
+        assertThat(detector.getSkippedBuckets()).isEqualTo(NearDuplicateDetector.BANDS);
+    }
+
+    @Test
+    void estimatedSimilarityFollowsJaccardSimilarity() {
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        // 180 shingles shared out of 200, a Jaccard similarity of 0.9
+        detector.add(1L, range(0, 190));
+        detector.add(2L, range(10, 200));
+
+        List<NearDuplicateDetector.Pair> pairs = detector.findPairs(0, Integer.MAX_VALUE);
+
+        assertThat(pairs).hasSize(1);
+        assertThat(pairs.get(0).getSimilarity()).isBetween(0.8, 1.0);
+    }
+
+    private static Set<String> range(int from, int to) {
+        Set<String> shingles = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            shingles.add("word" + i);
+        }
+        return shingles;
+    }
+}
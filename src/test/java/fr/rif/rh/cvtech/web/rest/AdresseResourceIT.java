@@ -7,7 +7,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import fr.rif.rh.cvtech.IntegrationTest;
 import fr.rif.rh.cvtech.domain.Adresse;
+import fr.rif.rh.cvtech.domain.geo.GeoHash;
 import fr.rif.rh.cvtech.repository.AdresseRepository;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,9 +18,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -118,6 +122,40 @@ class AdresseResourceIT {
         assertThat(adresseList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createAdresseGeocodesPostalCode() throws Exception {
+        // An address with a known postal code and no coordinates nor city
+        Adresse located = new Adresse().adresse(DEFAULT_ADRESSE).codePostale(69100);
+        // An address with its own coordinates, whose city name is only normalized
+        Adresse named = new Adresse().adresse(DEFAULT_ADRESSE).nomVille("lyon").codePostale(69001).latitude(45.0).longitude(4.0);
+
+        adresseRepository.saveAndFlush(located);
+        adresseRepository.saveAndFlush(named);
+        // The managed entities are enriched along with the rows
+        assertThat(located.getLatitude()).isEqualTo(45.7719);
+        assertThat(located.getGeohash()).isEqualTo(GeoHash.of(45.7719, 4.8902));
+        assertThat(named.getNomVille()).isEqualTo("Lyon");
+        em.clear();
+
+        Adresse geocoded = adresseRepository.findById(located.getId()).orElseThrow();
+        assertThat(geocoded.getNomVille()).isEqualTo("Villeurbanne");
+        assertThat(geocoded.getLatitude()).isEqualTo(45.7719);
+        assertThat(geocoded.getLongitude()).isEqualTo(4.8902);
+        assertThat(geocoded.getGeohash()).isEqualTo(GeoHash.of(45.7719, 4.8902));
+        Adresse normalized = adresseRepository.findById(named.getId()).orElseThrow();
+        assertThat(normalized.getNomVille()).isEqualTo("Lyon");
+        assertThat(normalized.getLatitude()).isEqualTo(45.0);
+
+        // Changing the postal code moves the address along with it
+        normalized.setCodePostale(69100);
+        normalized.setNomVille(null);
+        adresseRepository.saveAndFlush(normalized);
+        em.clear();
+        assertThat(adresseRepository.findById(named.getId()).orElseThrow().getNomVille()).isEqualTo("Villeurbanne");
+        assertThat(adresseRepository.findById(named.getId()).orElseThrow().getLatitude()).isEqualTo(45.7719);
+    }
+
     @Test
     @Transactional
     void getAllAdresses() throws Exception {
@@ -135,6 +173,41 @@ class AdresseResourceIT {
             .andExpect(jsonPath("$.[*].codePostale").value(hasItem(DEFAULT_CODE_POSTALE)));
     }
 
+    @Test
+    @Transactional
+    void getAllAdressesByKeyset() throws Exception {
+        // Initialize the database
+        Adresse first = adresseRepository.saveAndFlush(createEntity(em));
+        Adresse second = adresseRepository.saveAndFlush(createEntity(em));
+        Adresse third = adresseRepository.saveAndFlush(createEntity(em));
+
+        // Get the first page, newest first
+        MvcResult firstPage = restAdresseMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=2&count=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(header().string(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT, String.valueOf(adresseRepository.count())))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String cursor = firstPage.getResponse().getHeader(KeysetPaginationUtil.HEADER_NEXT_CURSOR);
+        assertThat(cursor).isNotNull();
+
+        // Get the next page from the cursor
+        restAdresseMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=2&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.HEADER_X_TOTAL_COUNT));
+    }
+
+    @Test
+    @Transactional
+    void getAllAdressesWithInvalidSort() throws Exception {
+        restAdresseMockMvc.perform(get(ENTITY_API_URL + "?sort=nomVille,asc")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAdresse() throws Exception {
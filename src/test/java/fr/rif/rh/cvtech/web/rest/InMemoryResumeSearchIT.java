@@ -0,0 +1,382 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.config.ApplicationProperties;
+import fr.rif.rh.cvtech.domain.Design;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Programmation;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.DesignRepository;
+import fr.rif.rh.cvtech.repository.ExperienceRepository;
+import fr.rif.rh.cvtech.repository.ProfilRepository;
+import fr.rif.rh.cvtech.repository.ProgrammationRepository;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.search.InMemoryResumeSearchIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeFacetIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeSimilarityIndex;
+import fr.rif.rh.cvtech.repository.search.ResumeSkillIndex;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Integration tests for the {@link ResumeSearchResource} REST controller, served by the {@link InMemoryResumeSearchIndex}
+ * and the other in-memory indexes.
+ * <p>
+ * The index only sees committed resumes, so these tests commit their data and delete it afterwards instead of being
+ * transactional.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.search.in-memory-index=true",
+        "application.search.facet-index=true",
+        "application.search.skill-index=true",
+        "application.search.similarity-index=true"
+    }
+)
+class InMemoryResumeSearchIT {
+
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/resumes";
+
+    @Autowired
+    private InMemoryResumeSearchIndex inMemoryResumeSearchIndex;
+
+    @Autowired
+    private ResumeFacetIndex resumeFacetIndex;
+
+    @Autowired
+    private ResumeSkillIndex resumeSkillIndex;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ResumeSimilarityIndex resumeSimilarityIndex;
+
+    @Autowired
+    private ProgrammationRepository programmationRepository;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private DesignRepository designRepository;
+
+    @Autowired
+    private ProfilRepository profilRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeMockMvc;
+
+    private Profil profil;
+
+    private Resume resume;
+
+    @BeforeEach
+    public void initTest() {
+        profil = profilRepository.saveAndFlush(ProfilResourceIT.createEntity(em).profession("Ingénieur").city("Lyon"));
+        resume = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Développeur Kotlin").profil(profil));
+        inMemoryResumeSearchIndex.rebuild();
+        resumeFacetIndex.rebuild();
+        resumeSkillIndex.rebuild();
+        resumeSimilarityIndex.rebuild();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        resumeRepository.findById(resume.getId()).ifPresent(resumeRepository::delete);
+        profilRepository.deleteById(profil.getId());
+    }
+
+    @Test
+    void searchResumesFromMemory() throws Exception {
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin ingenieur"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].id").value(resume.getId().intValue()));
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin -ingénieur"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=scala or ingenieur"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(resume.getId().intValue()));
+    }
+
+    @Test
+    void committedChangesUpdateTheIndex() throws Exception {
+        Resume other = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Chef de projet Kotlin"));
+        try {
+            restResumeMockMvc
+                .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+                .andExpect(jsonPath("$.[1].id").value(resume.getId().intValue()));
+
+            // Writing a part on its own re-indexes the resume
+            profilRepository.saveAndFlush(profil.profession("Architecte"));
+            restResumeMockMvc
+                .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin architecte"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(resume.getId().intValue()));
+            restResumeMockMvc
+                .perform(get(ENTITY_SEARCH_API_URL + "?q=ingénieur"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        } finally {
+            resumeRepository.deleteById(other.getId());
+        }
+
+        // Deleting a resume removes it from the index
+        restResumeMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?q=chef")).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void rolledBackChangesDoNotUpdateTheIndex() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Testeur Kotlin"));
+            status.setRollbackOnly();
+        });
+
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=testeur"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void countResumeFacets() throws Exception {
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/facets?q=kotlin"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city.Lyon").value(1))
+            .andExpect(jsonPath("$.profession['Ingénieur']").value(1))
+            .andExpect(jsonPath("$.tool").isEmpty());
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/facets?q=kotlin&city=Paris"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city").isEmpty());
+
+        // A committed change moves the resume to its new value
+        profilRepository.saveAndFlush(profil.city("Paris"));
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/facets?q=kotlin&city=Paris"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city.Paris").value(1))
+            .andExpect(jsonPath("$.city.Lyon").doesNotExist())
+            .andExpect(jsonPath("$.profession['Ingénieur']").value(1));
+    }
+
+    @Test
+    void matchResumeSkills() throws Exception {
+        String jobProfile =
+            "{\"skills\": [{\"name\": \"scala\", \"minimum\": 50}, {\"name\": \"Sketch\", \"weight\": 2}]}";
+        restResumeMockMvc
+            .perform(post(ENTITY_SEARCH_API_URL + "/matches").contentType(MediaType.APPLICATION_JSON).content(jobProfile))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Committed skills are ranked without rebuilding the matrix
+        Programmation programmation = programmationRepository.saveAndFlush(new Programmation().nomLangage("Scala").tauxDeLangage(70));
+        Design design = designRepository.saveAndFlush(new Design().nomDesign("Sketch").tauxDeDesign(40));
+        resume = resumeRepository.saveAndFlush(resume.programmation(programmation).design(design));
+        try {
+            restResumeMockMvc
+                .perform(post(ENTITY_SEARCH_API_URL + "/matches").contentType(MediaType.APPLICATION_JSON).content(jobProfile))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].resumeId").value(resume.getId().intValue()))
+                .andExpect(jsonPath("$.[0].score").value(150.0));
+
+            programmation = programmationRepository.saveAndFlush(programmation.tauxDeLangage(30));
+            restResumeMockMvc
+                .perform(post(ENTITY_SEARCH_API_URL + "/matches").contentType(MediaType.APPLICATION_JSON).content(jobProfile))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        } finally {
+            resumeRepository.delete(resume);
+            programmationRepository.delete(programmation);
+            designRepository.delete(design);
+        }
+
+        restResumeMockMvc
+            .perform(post(ENTITY_SEARCH_API_URL + "/matches").contentType(MediaType.APPLICATION_JSON).content("{\"skills\": []}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSimilarResumes() throws Exception {
+        Experience kotlin = experienceRepository.saveAndFlush(
+            ExperienceResourceIT
+                .createEntity(em)
+                .nomEntreprise("Studio Nord")
+                .nomPoste("Développeur Kotlin")
+                .descriptionExperience("Applications Android en Kotlin")
+        );
+        Experience android = experienceRepository.saveAndFlush(
+            ExperienceResourceIT
+                .createEntity(em)
+                .nomEntreprise("Appli Factory")
+                .nomPoste("Développeur mobile")
+                .descriptionExperience("Applications Android, Kotlin et Java")
+        );
+        Experience comptable = experienceRepository.saveAndFlush(
+            ExperienceResourceIT
+                .createEntity(em)
+                .nomEntreprise("Cabinet Durand")
+                .nomPoste("Comptable")
+                .descriptionExperience("Comptabilité fournisseurs")
+        );
+        resume = resumeRepository.saveAndFlush(resume.experience(kotlin));
+        Resume similar = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).experience(android));
+        Resume other = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).experience(comptable));
+        try {
+            restResumeMockMvc
+                .perform(get(ENTITY_SEARCH_API_URL + "/{id}/similar", resume.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].resumeId").value(similar.getId().intValue()))
+                .andExpect(jsonPath("$.[0].score").isNumber());
+
+            // Committed changes of a part update the vector of its resume
+            comptable =
+                experienceRepository.saveAndFlush(
+                    comptable
+                        .nomEntreprise("Studio Nord")
+                        .nomPoste("Développeur Kotlin")
+                        .descriptionExperience("Applications Android en Kotlin")
+                );
+            restResumeMockMvc
+                .perform(get(ENTITY_SEARCH_API_URL + "/{id}/similar", resume.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].resumeId").value(other.getId().intValue()))
+                .andExpect(jsonPath("$.[0].score").value(closeTo(1.0, 1e-6)))
+                .andExpect(jsonPath("$.[1].resumeId").value(similar.getId().intValue()));
+        } finally {
+            resumeRepository.delete(similar);
+            resumeRepository.delete(other);
+            resumeRepository.saveAndFlush(resume.experience(null));
+            experienceRepository.deleteAll(List.of(kotlin, android, comptable));
+        }
+
+        restResumeMockMvc.perform(get(ENTITY_SEARCH_API_URL + "/{id}/similar", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void restartLoadsCheckpointAndChangeLog(@TempDir Path directory) throws Exception {
+        InMemoryResumeSearchIndex persistentIndex = new InMemoryResumeSearchIndex(jdbcTemplate, null, persistentIndexProperties(directory));
+        persistentIndex.rebuild();
+        persistentIndex.update(Map.of(resume.getId(), "Architecte Scala"));
+        persistentIndex.remove(List.of(Long.MAX_VALUE));
+        persistentIndex.close();
+        assertThat(Files.exists(directory.resolve("segment-1.seg"))).isTrue();
+        assertThat(Files.size(directory.resolve("changes-1.log"))).isPositive();
+
+        // The restarted index is loaded from the files, not from the database where the resume is still a Kotlin one
+        InMemoryResumeSearchIndex restartedIndex = new InMemoryResumeSearchIndex(jdbcTemplate, null, persistentIndexProperties(directory));
+        restartedIndex.onApplicationReady();
+        try {
+            assertThat(restartedIndex.search("scala", 0, 10).orElseThrow().getResumeIds()).containsExactly(resume.getId());
+            assertThat(restartedIndex.search("kotlin ingénieur", 0, 10).orElseThrow().getTotal()).isZero();
+
+            // A checkpoint folds the log into a new segment
+            restartedIndex.checkpoint();
+            assertThat(Files.exists(directory.resolve("segment-2.seg"))).isTrue();
+            assertThat(Files.exists(directory.resolve("segment-1.seg"))).isFalse();
+            assertThat(restartedIndex.search("scala", 0, 10).orElseThrow().getResumeIds()).containsExactly(resume.getId());
+
+            // The changes made after the checkpoint go to the log of the new segment
+            restartedIndex.update(Map.of(resume.getId(), "Architecte Rust"));
+            assertThat(Files.size(directory.resolve("changes-2.log"))).isPositive();
+            assertThat(restartedIndex.search("rust", 0, 10).orElseThrow().getResumeIds()).containsExactly(resume.getId());
+        } finally {
+            restartedIndex.close();
+        }
+    }
+
+    @Test
+    void restartRebuildsIndexBehindDatabase(@TempDir Path directory) throws Exception {
+        InMemoryResumeSearchIndex persistentIndex = new InMemoryResumeSearchIndex(jdbcTemplate, null, persistentIndexProperties(directory));
+        persistentIndex.rebuild();
+        persistentIndex.close();
+
+        // A resume written while the node was stopped is only in the database
+        Resume other = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Testeur Kotlin"));
+        InMemoryResumeSearchIndex restartedIndex = new InMemoryResumeSearchIndex(jdbcTemplate, null, persistentIndexProperties(directory));
+        try {
+            restartedIndex.onApplicationReady();
+            assertThat(restartedIndex.search("kotlin", 0, 10).orElseThrow().getResumeIds()).containsExactly(other.getId(), resume.getId());
+            assertThat(Files.exists(directory.resolve("segment-2.seg"))).isTrue();
+        } finally {
+            restartedIndex.close();
+            resumeRepository.deleteById(other.getId());
+        }
+    }
+
+    @Test
+    void reconcileCorrectsResumesUpdatedWhileStopped(@TempDir Path directory) throws Exception {
+        InMemoryResumeSearchIndex persistentIndex = new InMemoryResumeSearchIndex(jdbcTemplate, null, persistentIndexProperties(directory));
+        persistentIndex.rebuild();
+        persistentIndex.close();
+
+        // A resume updated while the node was stopped holds as many resumes, up to the same ID
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("update resume set search_text = 'Architecte Scala' where id = ?", resume.getId())
+        );
+        InMemoryResumeSearchIndex restartedIndex = new InMemoryResumeSearchIndex(jdbcTemplate, null, persistentIndexProperties(directory));
+        try {
+            restartedIndex.onApplicationReady();
+            assertThat(restartedIndex.search("scala", 0, 10).orElseThrow().getTotal()).isZero();
+
+            restartedIndex.reconcile();
+            assertThat(restartedIndex.search("scala", 0, 10).orElseThrow().getResumeIds()).containsExactly(resume.getId());
+            assertThat(restartedIndex.search("kotlin ingénieur", 0, 10).orElseThrow().getTotal()).isZero();
+        } finally {
+            restartedIndex.close();
+        }
+    }
+
+    private static ApplicationProperties persistentIndexProperties(Path directory) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().setInMemoryIndex(true);
+        applicationProperties.getSearch().setInMemoryIndexReconcileInterval(null);
+        applicationProperties.getSearch().setIndexDirectory(directory.toString());
+        applicationProperties.getSearch().setCheckpointLogSize(DataSize.ofMegabytes(1));
+        return applicationProperties;
+    }
+}
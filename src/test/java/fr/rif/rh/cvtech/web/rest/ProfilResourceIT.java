@@ -18,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -225,6 +226,120 @@ class ProfilResourceIT {
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
+    @Test
+    @Transactional
+    void getProfilWithMatchingEntityTag() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL_ID, profil.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL_ID, profil.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllProfilsWithMatchingEntityTag() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        String tag = restProfilMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, tag))
+            .andExpect(status().isNotModified());
+
+        // Updating a profil of the page changes its tag
+        profilRepository.findById(profil.getId()).get().setCity(UPDATED_CITY);
+        profilRepository.flush();
+
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, tag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].city").value(hasItem(UPDATED_CITY)));
+    }
+
+    @Test
+    @Transactional
+    void getProfilWithFields() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        // Get the profil with only some of its fields
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?fields=city,profession", profil.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.id").value(profil.getId().intValue()))
+            .andExpect(jsonPath("$.city").value(DEFAULT_CITY))
+            .andExpect(jsonPath("$.profession").value(DEFAULT_PROFESSION))
+            .andExpect(jsonPath("$.description").doesNotExist())
+            .andExpect(jsonPath("$.version").doesNotExist());
+
+        restProfilMockMvc.perform(get(ENTITY_API_URL_ID + "?fields=unknown", profil.getId())).andExpect(status().isBadRequest());
+        restProfilMockMvc.perform(get(ENTITY_API_URL_ID + "?fields=city", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getProfilWithFieldsIsSmallerThanFullProfil() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        // Get the profil with all of its fields, then with only one
+        byte[] full = restProfilMockMvc
+            .perform(get(ENTITY_API_URL_ID, profil.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        byte[] sparse = restProfilMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?fields=city", profil.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city").value(DEFAULT_CITY))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        assertThat(sparse.length).isLessThan(full.length);
+    }
+
+    @Test
+    @Transactional
+    void getAllProfilsWithFields() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        // Get the page of profils with only some of their fields
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=city"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(profil.getId().intValue())))
+            .andExpect(jsonPath("$.[*].city").value(hasItem(DEFAULT_CITY)))
+            .andExpect(jsonPath("$.[*].description").doesNotExist());
+
+        // The full profils are not restricted
+        restProfilMockMvc
+            .perform(get(ENTITY_API_URL_ID, profil.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
+    }
+
     @Test
     @Transactional
     void getNonExistingProfil() throws Exception {
@@ -278,6 +393,74 @@ class ProfilResourceIT {
         assertThat(testProfil.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void putProfilWithIfMatch() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        // The version of the If-Match header replaces the version of the body
+        Profil updatedProfil = createUpdatedEntity(em);
+        updatedProfil.setId(profil.getId());
+        updatedProfil.setVersion(42);
+
+        restProfilMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedProfil.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedProfil))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        assertThat(profilRepository.findVersionById(profil.getId())).contains(1L);
+    }
+
+    @Test
+    @Transactional
+    void putProfilWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        Profil updatedProfil = createUpdatedEntity(em);
+        updatedProfil.setId(profil.getId());
+
+        restProfilMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedProfil.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"1\", W/\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedProfil))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Profil in the database
+        Profil testProfil = profilRepository.findById(profil.getId()).get();
+        assertThat(testProfil.getCity()).isEqualTo(DEFAULT_CITY);
+        assertThat(testProfil.getVersion()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void putProfilWithStaleVersion() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        Profil updatedProfil = createUpdatedEntity(em);
+        updatedProfil.setId(profil.getId());
+        updatedProfil.setVersion(1);
+
+        restProfilMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedProfil.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedProfil))
+            )
+            .andExpect(status().isConflict());
+    }
+
     @Test
     @Transactional
     void putNonExistingProfil() throws Exception {
@@ -417,6 +600,141 @@ class ProfilResourceIT {
         assertThat(testProfil.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void patchProfilWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        Profil partialUpdatedProfil = new Profil();
+        partialUpdatedProfil.setId(profil.getId());
+        partialUpdatedProfil.city(UPDATED_CITY);
+
+        restProfilMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedProfil.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedProfil))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Profil in the database
+        Profil testProfil = profilRepository.findById(profil.getId()).get();
+        assertThat(testProfil.getCity()).isEqualTo(DEFAULT_CITY);
+    }
+
+    @Test
+    @Transactional
+    void patchProfilWithJsonPatch() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        restProfilMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, profil.getId())
+                    .contentType("application/json-patch+json")
+                    .content(
+                        "[{\"op\":\"test\",\"path\":\"/city\",\"value\":\"" +
+                        DEFAULT_CITY +
+                        "\"}," +
+                        "{\"op\":\"replace\",\"path\":\"/city\",\"value\":\"" +
+                        UPDATED_CITY +
+                        "\"}," +
+                        "{\"op\":\"copy\",\"from\":\"/city\",\"path\":\"/country\"}," +
+                        "{\"op\":\"remove\",\"path\":\"/description\"}]"
+                    )
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // Validate the Profil in the database
+        Profil testProfil = profilRepository.findById(profil.getId()).get();
+        assertThat(testProfil.getCity()).isEqualTo(UPDATED_CITY);
+        assertThat(testProfil.getCountry()).isEqualTo(UPDATED_CITY);
+        assertThat(testProfil.getDescription()).isNull();
+        assertThat(testProfil.getProfession()).isEqualTo(DEFAULT_PROFESSION);
+    }
+
+    @Test
+    @Transactional
+    void patchProfilWithFailedJsonPatchTest() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        restProfilMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, profil.getId())
+                    .contentType("application/json-patch+json")
+                    .content(
+                        "[{\"op\":\"replace\",\"path\":\"/city\",\"value\":\"" +
+                        UPDATED_CITY +
+                        "\"}," +
+                        "{\"op\":\"test\",\"path\":\"/city\",\"value\":\"" +
+                        DEFAULT_CITY +
+                        "\"}]"
+                    )
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        restProfilMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, profil.getId())
+                    .contentType("application/json-patch+json")
+                    .content("[{\"op\":\"replace\",\"path\":\"/id\",\"value\":" + count.incrementAndGet() + "}]")
+            )
+            .andExpect(status().isBadRequest());
+
+        // Validate the Profil in the database
+        Profil testProfil = profilRepository.findById(profil.getId()).get();
+        assertThat(testProfil.getCity()).isEqualTo(DEFAULT_CITY);
+    }
+
+    @Test
+    @Transactional
+    void patchProfilWithMergePatchNull() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        restProfilMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, profil.getId())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"description\":null,\"city\":\"" + UPDATED_CITY + "\"}")
+            )
+            .andExpect(status().isOk());
+
+        restProfilMockMvc
+            .perform(patch(ENTITY_API_URL_ID, profil.getId()).contentType("application/merge-patch+json").content("{\"unknown\":1}"))
+            .andExpect(status().isBadRequest());
+
+        // Validate the Profil in the database
+        Profil testProfil = profilRepository.findById(profil.getId()).get();
+        assertThat(testProfil.getDescription()).isNull();
+        assertThat(testProfil.getCity()).isEqualTo(UPDATED_CITY);
+        assertThat(testProfil.getCountry()).isEqualTo(DEFAULT_COUNTRY);
+    }
+
+    @Test
+    @Transactional
+    void patchProfilWithJsonIgnoresNull() throws Exception {
+        // Initialize the database
+        profilRepository.saveAndFlush(profil);
+
+        restProfilMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, profil.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\":null,\"city\":\"" + UPDATED_CITY + "\"}")
+            )
+            .andExpect(status().isOk());
+
+        // Validate the Profil in the database
+        Profil testProfil = profilRepository.findById(profil.getId()).get();
+        assertThat(testProfil.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+        assertThat(testProfil.getCity()).isEqualTo(UPDATED_CITY);
+    }
+
     @Test
     @Transactional
     void patchNonExistingProfil() throws Exception {
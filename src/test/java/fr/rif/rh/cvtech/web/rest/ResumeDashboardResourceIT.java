@@ -0,0 +1,120 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Programmation;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ProfilRepository;
+import fr.rif.rh.cvtech.repository.ProgrammationRepository;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.search.ResumeDashboardIndex;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link ResumeDashboardResource} REST controller.
+ * <p>
+ * The counters only count committed resumes, so these tests commit their data and delete it afterwards instead of being
+ * transactional.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+@IntegrationTest
+@TestPropertySource(properties = "application.dashboard.counters=true")
+class ResumeDashboardResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/resume-dashboard";
+
+    @Autowired
+    private ResumeDashboardIndex resumeDashboardIndex;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ProfilRepository profilRepository;
+
+    @Autowired
+    private ProgrammationRepository programmationRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeDashboardMockMvc;
+
+    private Profil profil;
+
+    private Programmation programmation;
+
+    private Resume resume;
+
+    @BeforeEach
+    public void initTest() {
+        profil = profilRepository.saveAndFlush(ProfilResourceIT.createEntity(em).city("Carcassonne").profession("Vigneron"));
+        programmation = programmationRepository.saveAndFlush(
+            ProgrammationResourceIT.createEntity(em).nomLangage("Elixir").tauxDeLangage(4)
+        );
+        resume =
+            resumeRepository.saveAndFlush(
+                ResumeResourceIT
+                    .createEntity(em)
+                    .dateCreation(ZonedDateTime.of(1901, 3, 15, 12, 0, 0, 0, ZoneOffset.UTC))
+                    .profil(profil)
+                    .programmation(programmation)
+            );
+        resumeDashboardIndex.rebuild();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        resumeRepository.findById(resume.getId()).ifPresent(resumeRepository::delete);
+        profilRepository.deleteById(profil.getId());
+        programmationRepository.deleteById(programmation.getId());
+    }
+
+    @Test
+    void getResumeDashboard() throws Exception {
+        restResumeDashboardMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cities.Carcassonne").value(1))
+            .andExpect(jsonPath("$.professions.Vigneron").value(1))
+            .andExpect(jsonPath("$.months.1901-03").value(1))
+            .andExpect(jsonPath("$.averageTauxDeLangage.Elixir").value(4.0));
+    }
+
+    @Test
+    void committedChangesUpdateTheDashboard() throws Exception {
+        profilRepository.saveAndFlush(profil.city("Narbonne"));
+        programmationRepository.saveAndFlush(programmation.tauxDeLangage(2));
+
+        restResumeDashboardMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cities.Narbonne").value(1))
+            .andExpect(jsonPath("$.cities.Carcassonne").doesNotExist())
+            .andExpect(jsonPath("$.averageTauxDeLangage.Elixir").value(2.0));
+
+        resumeRepository.deleteById(resume.getId());
+        resumeRepository.flush();
+
+        restResumeDashboardMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cities.Narbonne").doesNotExist())
+            .andExpect(jsonPath("$.averageTauxDeLangage.Elixir").doesNotExist());
+    }
+}
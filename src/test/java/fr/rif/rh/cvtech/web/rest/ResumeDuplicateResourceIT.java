@@ -0,0 +1,109 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ContactRepository;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link ResumeDuplicateResource} REST controller.
+ * <p>
+ * The scan runs in the background and reads the committed resumes, so these tests commit their data and delete it
+ * afterwards instead of being transactional.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class ResumeDuplicateResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/resume-duplicates";
+
+    private static final String TITRE = "Architecte logiciel Java et Kubernetes, référent technique des équipes de développement";
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeDuplicateMockMvc;
+
+    private final List<Resume> resumes = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        for (Resume resume : resumes) {
+            resumeRepository.deleteById(resume.getId());
+            contactRepository.deleteById(resume.getContact().getId());
+        }
+    }
+
+    @Test
+    void scanResumeDuplicates() throws Exception {
+        resumes.add(saveResume(TITRE, new Contact().nom("Lefèvre").prenom("Camille").mail("camille.lefevre@example.com")));
+        resumes.add(saveResume(TITRE + ".", new Contact().nom("LEFEVRE").prenom("Camille").mail("camille.lefevre@example.com")));
+        resumes.add(saveResume("Comptable", new Contact().nom("Bernard").prenom("Louis").mail("louis.bernard@example.com")));
+
+        restResumeDuplicateMockMvc.perform(post(ENTITY_API_URL)).andExpect(status().isAccepted()).andExpect(jsonPath("$.id").exists());
+
+        JsonNode report = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = restResumeDuplicateMockMvc
+                .perform(get(ENTITY_API_URL))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            report = objectMapper.readTree(body);
+            if (!"RUNNING".equals(report.get("state").asText())) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        assertThat(report.get("state").asText()).isEqualTo("COMPLETED");
+        assertThat(report.get("resumesScanned").asLong()).isGreaterThanOrEqualTo(3);
+        List<Long> pairIds = new ArrayList<>();
+        for (JsonNode pair : report.get("pairs")) {
+            if (pair.get("firstId").asLong() == resumes.get(0).getId()) {
+                pairIds.add(pair.get("secondId").asLong());
+            }
+        }
+        assertThat(pairIds).containsExactly(resumes.get(1).getId());
+    }
+
+    @Test
+    @WithMockUser
+    void scanResumeDuplicatesAsUser() throws Exception {
+        restResumeDuplicateMockMvc.perform(post(ENTITY_API_URL)).andExpect(status().isForbidden());
+    }
+
+    private Resume saveResume(String titre, Contact contact) {
+        Resume resume = ResumeResourceIT.createEntity(em).titre(titre).contact(contactRepository.saveAndFlush(contact));
+        return resumeRepository.saveAndFlush(resume);
+    }
+}
@@ -0,0 +1,154 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Programmation;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ContactRepository;
+import fr.rif.rh.cvtech.repository.ProfilRepository;
+import fr.rif.rh.cvtech.repository.ProgrammationRepository;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link ResumeExportResource} REST controller.
+ * <p>
+ * The export runs in a transaction of its own, on the thread of the asynchronous request, so these tests commit their data
+ * and delete it afterwards instead of being transactional.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class ResumeExportResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/resume-exports";
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ProfilRepository profilRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ProgrammationRepository programmationRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeExportMockMvc;
+
+    private Resume resume;
+
+    @BeforeEach
+    public void initTest() {
+        Profil profil = profilRepository.saveAndFlush(ProfilResourceIT.createEntity(em).city("Lyon"));
+        Contact contact = contactRepository.saveAndFlush(ContactResourceIT.createEntity(em).mail("martin@example.com"));
+        Programmation programmation = programmationRepository.saveAndFlush(
+            ProgrammationResourceIT.createEntity(em).nomLangage("Kotlin").tauxDeLangage(80)
+        );
+        resume =
+            resumeRepository.saveAndFlush(
+                ResumeResourceIT
+                    .createEntity(em)
+                    .titre("Développeur Java")
+                    .dateCreation(ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC))
+                    .profil(profil)
+                    .contact(contact)
+                    .programmation(programmation)
+            );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        resumeRepository.deleteById(resume.getId());
+        profilRepository.deleteById(resume.getProfil().getId());
+        contactRepository.deleteById(resume.getContact().getId());
+        programmationRepository.deleteById(resume.getProgrammation().getId());
+    }
+
+    @Test
+    void exportResumesAsCsv() throws Exception {
+        MvcResult result = restResumeExportMockMvc
+            .perform(get(ENTITY_API_URL + "?format=csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String csv = restResumeExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(ResumeImportResource.TEXT_CSV_VALUE))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resumes.csv\""))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+        assertThat(csv)
+            .startsWith("id,titre,dateCreation,userLogin,dateNaissance,profession,city,country,website,description,nom,prenom,mail,nomEntreprise,nomPoste,dateExperience,descriptionExperience,nomEtude,anneeEtude,langue,nomLangage,tauxDeLangage,nomDesign,tauxDeDesign,adresse,nomVille,codePostale\n")
+            .contains(resume.getId() + ",\"Développeur Java\",2020-01-01T00:00:00Z,")
+            .contains("Lyon")
+            .contains("martin@example.com")
+            .contains(",Kotlin,80,");
+    }
+
+    @Test
+    void exportResumesAsNdjson() throws Exception {
+        MvcResult result = restResumeExportMockMvc
+            .perform(get(ENTITY_API_URL + "?format=ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String ndjson = restResumeExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(ResumeImportResource.APPLICATION_NDJSON_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+        assertThat(ndjson.split("\n")).anyMatch(line -> line.startsWith("{\"id\":" + resume.getId() + ",\"titre\":\"Développeur Java\""));
+        assertThat(ndjson).endsWith("}\n");
+    }
+
+    @Test
+    void exportResumesAsJson() throws Exception {
+        MvcResult result = restResumeExportMockMvc
+            .perform(get(ENTITY_API_URL + "?format=json"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restResumeExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resume.getId().intValue())))
+            .andExpect(jsonPath("$.[*].city").value(hasItem("Lyon")))
+            .andExpect(jsonPath("$.[*].mail").value(hasItem("martin@example.com")));
+    }
+
+    @Test
+    void exportResumesWithUnsupportedFormat() throws Exception {
+        restResumeExportMockMvc.perform(get(ENTITY_API_URL + "?format=xml")).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,93 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ProfilRepository;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.search.ResumeFacetIndex;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the facet counts of the {@link ResumeSearchResource} REST controller when the in-memory search index
+ * is disabled, as it is by default: the resumes matching the keywords are searched in the database.
+ * <p>
+ * The facet index only sees committed resumes, so these tests commit their data and delete it afterwards instead of being
+ * transactional.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+@IntegrationTest
+@TestPropertySource(properties = { "application.search.in-memory-index=false", "application.search.facet-index=true" })
+class ResumeFacetSearchIT {
+
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/resumes";
+
+    @Autowired
+    private ResumeFacetIndex resumeFacetIndex;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ProfilRepository profilRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeMockMvc;
+
+    private Profil profil;
+
+    private Profil otherProfil;
+
+    private Resume resume;
+
+    private Resume other;
+
+    @BeforeEach
+    public void initTest() {
+        profil = profilRepository.saveAndFlush(ProfilResourceIT.createEntity(em).profession("Ingénieur").city("Lyon"));
+        resume = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Développeur Kotlin").profil(profil));
+        otherProfil = profilRepository.saveAndFlush(ProfilResourceIT.createEntity(em).profession("Chef de projet").city("Lyon"));
+        other = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Chef de projet").profil(otherProfil));
+        resumeFacetIndex.rebuild();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        resumeRepository.deleteById(resume.getId());
+        resumeRepository.deleteById(other.getId());
+        profilRepository.deleteById(profil.getId());
+        profilRepository.deleteById(otherProfil.getId());
+    }
+
+    @Test
+    void countResumeFacetsOfDatabaseSearch() throws Exception {
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/facets?q=kotlin"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city.Lyon").value(1))
+            .andExpect(jsonPath("$.profession['Ingénieur']").value(1));
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/facets"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city.Lyon").value(2));
+        restResumeMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/facets?q=scala"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.city").isEmpty());
+    }
+}
@@ -0,0 +1,165 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ResumeImportResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class ResumeImportResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/resume-imports";
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restResumeImportMockMvc;
+
+    @Test
+    @Transactional
+    void importResumesFromCsv() throws Exception {
+        long databaseSizeBeforeImport = resumeRepository.count();
+        String csv =
+            "titre,dateCreation,dateNaissance,profession,city,nom,mail\n" +
+            "Développeur Java,2020-01-01T00:00:00Z,1990-01-01T00:00:00Z,Développeur,Lyon,Martin,martin@example.com\n" +
+            "Chef de projet,,1980-01-01T00:00:00Z,Chef de projet,Paris,,\n" +
+            "Architecte,not-a-date,1980-01-01T00:00:00Z,Architecte,Nantes,,\n" +
+            "Testeur,2020-01-01T00:00:00Z,1990-01-01T00:00:00Z,Testeur,Lille,Durand,not-a-mail\n" +
+            "Designer,2020-01-01T00:00:00Z,,Designer,Lille,,\n" +
+            "Administrateur,2021-01-01T00:00:00Z,,,,,\n";
+
+        restResumeImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(ResumeImportResource.TEXT_CSV_VALUE).content(csv))
+            .andExpect(status().isCreated())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.state").value("COMPLETED"))
+            .andExpect(jsonPath("$.format").value("CSV"))
+            .andExpect(jsonPath("$.recordsRead").value(6))
+            .andExpect(jsonPath("$.recordsImported").value(3))
+            .andExpect(jsonPath("$.recordsRejected").value(3))
+            .andExpect(jsonPath("$.errors.length()").value(3));
+
+        // Validate the imported resumes and their parts in the database
+        assertThat(resumeRepository.count()).isEqualTo(databaseSizeBeforeImport + 3);
+        List<Resume> resumeList = resumeRepository.findAll();
+        Resume testResume = resumeList
+            .stream()
+            .filter(resume -> "Développeur Java".equals(resume.getTitre()))
+            .findFirst()
+            .orElseThrow();
+        assertThat(testResume.getProfil().getCity()).isEqualTo("Lyon");
+        assertThat(testResume.getContact().getMail()).isEqualTo("martin@example.com");
+        Resume resumeWithoutParts = resumeList
+            .stream()
+            .filter(resume -> "Administrateur".equals(resume.getTitre()))
+            .findFirst()
+            .orElseThrow();
+        assertThat(resumeWithoutParts.getProfil()).isNull();
+        assertThat(resumeWithoutParts.getContact()).isNull();
+    }
+
+    @Test
+    @Transactional
+    void importResumesFromGzippedNdjson() throws Exception {
+        long databaseSizeBeforeImport = resumeRepository.count();
+        String ndjson =
+            "{\"titre\":\"Développeur Java\",\"dateNaissance\":\"1990-01-01T00:00:00Z\",\"city\":\"Lyon\"}\n" +
+            "{\"titre\":\"Chef de projet\",\"dateCreation\":\"2020-01-01T00:00:00Z\"}\n" +
+            "{\"titre\":\"Architecte\",\"dateCreation\":\"not-a-date\"}\n";
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(ndjson.getBytes(StandardCharsets.UTF_8));
+        }
+
+        restResumeImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(ResumeImportResource.APPLICATION_NDJSON_VALUE).content(gzipped.toByteArray()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.state").value("COMPLETED"))
+            .andExpect(jsonPath("$.format").value("NDJSON"))
+            .andExpect(jsonPath("$.recordsImported").value(2))
+            .andExpect(jsonPath("$.recordsRejected").value(1));
+
+        assertThat(resumeRepository.count()).isEqualTo(databaseSizeBeforeImport + 2);
+    }
+
+    @Test
+    @Transactional
+    void importResumesFromMalformedNdjson() throws Exception {
+        String ndjson = "{\"titre\":\"Développeur Java\"}\n" + "{\"titre\": \n";
+
+        restResumeImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(ResumeImportResource.APPLICATION_NDJSON_VALUE).content(ndjson))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.state").value("FAILED"))
+            .andExpect(jsonPath("$.failure").isNotEmpty());
+    }
+
+    @Test
+    @Transactional
+    void importResumesWithUnsupportedFormat() throws Exception {
+        restResumeImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType("application/xml").content("<resumes/>"))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @Transactional
+    void getResumeImport() throws Exception {
+        MvcResult result = restResumeImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(ResumeImportResource.TEXT_CSV_VALUE).content("titre\nDéveloppeur Java\n"))
+            .andExpect(status().isCreated())
+            .andReturn();
+        JsonNode importStatus = objectMapper.readTree(result.getResponse().getContentAsString());
+        String id = importStatus.get("id").asText();
+
+        // Get the import, alone and among all imports
+        restResumeImportMockMvc
+            .perform(get(ENTITY_API_URL + "/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(id))
+            .andExpect(jsonPath("$.recordsImported").value(1));
+        restResumeImportMockMvc.perform(get(ENTITY_API_URL)).andExpect(status().isOk()).andExpect(jsonPath("$.[*].id").value(hasItem(id)));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingResumeImport() throws Exception {
+        restResumeImportMockMvc.perform(get(ENTITY_API_URL + "/{id}", "unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void importResumesAsNonAdmin() throws Exception {
+        restResumeImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(ResumeImportResource.TEXT_CSV_VALUE).content("titre\nDéveloppeur Java\n"))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,170 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ResumePdfResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ResumePdfResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/resumes/{id}/pdf";
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumePdfMockMvc;
+
+    @Value("${application.pdf.cache-directory}")
+    private String cacheDirectory;
+
+    private Profil profil;
+
+    private Resume resume;
+
+    @BeforeEach
+    public void initTest() {
+        profil = ProfilResourceIT.createEntity(em).profession("Chargée de recrutement").city("Rennes");
+        Contact contact = ContactResourceIT.createEntity(em).nom("Morel").prenom("Inès");
+        resume = ResumeResourceIT.createEntity(em).profil(profil).contact(contact);
+    }
+
+    @AfterEach
+    public void deleteCachedVersions() throws IOException {
+        // The IDs of the resumes start over with the database, the cache directory does not
+        if (resume.getId() != null) {
+            for (Path version : cachedVersions()) {
+                Files.deleteIfExists(version);
+            }
+        }
+    }
+
+    @Test
+    @Transactional
+    void getResumePdf() throws Exception {
+        em.persist(profil);
+        em.persist(resume.getContact());
+        resumeRepository.saveAndFlush(resume);
+
+        byte[] pdf = getPdf(Locale.FRENCH);
+
+        assertThat(new String(pdf, 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+        assertThat(cachedVersions()).hasSize(1);
+
+        // A repeat download is served from the cache
+        Path cached = cachedVersions().get(0);
+        long modified = Files.getLastModifiedTime(cached).toMillis();
+        assertThat(getPdf(Locale.FRENCH)).isEqualTo(pdf);
+        assertThat(cachedVersions()).containsExactly(cached);
+        assertThat(Files.getLastModifiedTime(cached).toMillis()).isEqualTo(modified);
+
+        // A change of the resume renders a new version, which replaces the previous one
+        profil.setCity("Brest");
+        em.flush();
+        getPdf(Locale.FRENCH);
+        assertThat(cachedVersions()).hasSize(1).doesNotContain(cached);
+    }
+
+    @Test
+    @Transactional
+    void getResumePdfCachesEachLocale() throws Exception {
+        em.persist(profil);
+        em.persist(resume.getContact());
+        resumeRepository.saveAndFlush(resume);
+
+        getPdf(Locale.FRENCH);
+        List<Path> french = cachedVersions();
+        getPdf(Locale.ENGLISH);
+        List<Path> english = cachedVersions();
+        english.removeAll(french);
+        assertThat(english).hasSize(1);
+
+        // Each locale is served from its own cached version
+        getPdf(Locale.FRENCH);
+        getPdf(Locale.ENGLISH);
+        assertThat(cachedVersions()).hasSize(2).containsAll(french).containsAll(english);
+
+        // A new version only replaces the previous one of its locale
+        profil.setCity("Brest");
+        em.flush();
+        getPdf(Locale.ENGLISH);
+        assertThat(cachedVersions()).hasSize(2).containsAll(french).doesNotContainAnyElementsOf(english);
+    }
+
+    @Test
+    @Transactional
+    void getResumePdfRendersADeletedVersionAgain() throws Exception {
+        em.persist(profil);
+        em.persist(resume.getContact());
+        resumeRepository.saveAndFlush(resume);
+
+        byte[] pdf = getPdf(Locale.FRENCH);
+        Files.delete(cachedVersions().get(0));
+
+        assertThat(getPdf(Locale.FRENCH)).hasSameSizeAs(pdf);
+        assertThat(cachedVersions()).hasSize(1);
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingResumePdf() throws Exception {
+        restResumePdfMockMvc.perform(get(ENTITY_API_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    private byte[] getPdf(Locale locale) throws Exception {
+        MvcResult result = restResumePdfMockMvc
+            .perform(get(ENTITY_API_URL, resume.getId()).locale(locale))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return restResumePdfMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    }
+
+    private List<Path> cachedVersions() throws IOException {
+        List<Path> versions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(cacheDirectory), resume.getId() + "_*.pdf")) {
+            files.forEach(versions::add);
+        }
+        return versions;
+    }
+}
@@ -6,9 +6,20 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Adresse;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Outil;
+import fr.rif.rh.cvtech.domain.Profil;
 import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.domain.User;
 import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.ResumeSummaryEntryRepository;
+import fr.rif.rh.cvtech.web.rest.util.KeysetPaginationUtil;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -17,13 +28,17 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -49,6 +64,9 @@ class ResumeResourceIT {
     @Autowired
     private ResumeRepository resumeRepository;
 
+    @Autowired
+    private ResumeSummaryEntryRepository resumeSummaryEntryRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -119,6 +137,141 @@ class ResumeResourceIT {
         assertThat(resumeList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createResumeAggregate() throws Exception {
+        int databaseSizeBeforeCreate = resumeRepository.findAll().size();
+        // Create the Resume with new parts, nested two levels deep
+        Outil outil = OutilResourceIT.createEntity(em);
+        Adresse adresse = AdresseResourceIT.createEntity(em);
+        Experience experience = ExperienceResourceIT.createEntity(em).outil(outil).adresseExperience(adresse);
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Développeur");
+        resume.experience(experience).profil(profil);
+
+        restResumeMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/aggregate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(resume))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNumber())
+            .andExpect(jsonPath("$.profil.id").isNumber())
+            .andExpect(jsonPath("$.experience.outil.id").isNumber())
+            .andExpect(jsonPath("$.experience.adresseExperience.id").isNumber());
+
+        // Validate the Resume and its parts in the database
+        em.flush();
+        em.clear();
+        List<Resume> resumeList = resumeRepository.findAll();
+        assertThat(resumeList).hasSize(databaseSizeBeforeCreate + 1);
+        Resume testResume = resumeList.get(resumeList.size() - 1);
+        assertThat(testResume.getTitre()).isEqualTo(DEFAULT_TITRE);
+        assertThat(testResume.getProfil().getProfession()).isEqualTo("Développeur");
+        assertThat(testResume.getExperience().getOutil().getId()).isNotNull();
+        assertThat(testResume.getExperience().getAdresseExperience().getId()).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    void updateResumeAggregate() throws Exception {
+        // Initialize the database with a resume and its profile
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Développeur");
+        em.persist(profil);
+        resumeRepository.saveAndFlush(resume.profil(profil));
+        em.detach(resume);
+        em.detach(profil);
+
+        // Update the resume and its profile, and add a contact
+        Contact contact = ContactResourceIT.createEntity(em);
+        resume.titre(UPDATED_TITRE).contact(contact);
+        profil.profession("Architecte");
+
+        restResumeMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/aggregate/{id}", resume.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(resume))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.profil.id").value(profil.getId().intValue()))
+            .andExpect(jsonPath("$.contact.id").isNumber());
+
+        // Validate the Resume and its parts in the database
+        em.flush();
+        em.clear();
+        Resume testResume = resumeRepository.findById(resume.getId()).orElseThrow();
+        assertThat(testResume.getTitre()).isEqualTo(UPDATED_TITRE);
+        assertThat(testResume.getProfil().getProfession()).isEqualTo("Architecte");
+        assertThat(testResume.getContact().getId()).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    void updateResumeAggregateWithBodyOfGet() throws Exception {
+        // Initialize the database with a resume whose experience has a tool and an address, which the detail does not fetch
+        Outil outil = OutilResourceIT.createEntity(em).nomOutil("Gradle");
+        em.persist(outil);
+        Adresse adresse = AdresseResourceIT.createEntity(em).adresse("3 rue Mercière");
+        em.persist(adresse);
+        Experience experience = ExperienceResourceIT.createEntity(em).nomPoste("Développeur").outil(outil).adresseExperience(adresse);
+        em.persist(experience);
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Développeur");
+        em.persist(profil);
+        resumeRepository.saveAndFlush(resume.experience(experience).profil(profil));
+        em.clear();
+
+        // Get the resume, change its title and the profession of its profile, and send it back
+        String body = restResumeMockMvc
+            .perform(get(ENTITY_API_URL_ID, resume.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.experience.outil.nomOutil").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+        ObjectNode json = (ObjectNode) new ObjectMapper().readTree(body);
+        json.put("titre", UPDATED_TITRE);
+        ((ObjectNode) json.get("profil")).put("profession", "Architecte");
+        em.clear();
+
+        restResumeMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/aggregate/{id}", resume.getId()).contentType(MediaType.APPLICATION_JSON).content(json.toString())
+            )
+            .andExpect(status().isOk());
+
+        // The parts the body only held the ID of are left unchanged
+        em.flush();
+        em.clear();
+        Resume testResume = resumeRepository.findById(resume.getId()).orElseThrow();
+        assertThat(testResume.getTitre()).isEqualTo(UPDATED_TITRE);
+        assertThat(testResume.getProfil().getProfession()).isEqualTo("Architecte");
+        assertThat(testResume.getExperience().getNomPoste()).isEqualTo("Développeur");
+        assertThat(testResume.getExperience().getOutil().getNomOutil()).isEqualTo("Gradle");
+        assertThat(testResume.getExperience().getOutil().getVersion()).isZero();
+        assertThat(testResume.getExperience().getAdresseExperience().getAdresse()).isEqualTo("3 rue Mercière");
+
+        // A part at another version than its body is a conflict
+        json.put("version", testResume.getVersion());
+        restResumeMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/aggregate/{id}", resume.getId()).contentType(MediaType.APPLICATION_JSON).content(json.toString())
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Transactional
+    void updateResumeAggregateWithIdMismatch() throws Exception {
+        resume.setId(count.incrementAndGet());
+
+        restResumeMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/aggregate/{id}", count.incrementAndGet())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(resume))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAllResumes() throws Exception {
@@ -135,6 +288,78 @@ class ResumeResourceIT {
             .andExpect(jsonPath("$.[*].dateCreation").value(hasItem(sameInstant(DEFAULT_DATE_CREATION))));
     }
 
+    @Test
+    @Transactional
+    void getAllResumesByKeyset() throws Exception {
+        // Initialize the database with resumes created before any other, two of them sharing the same creation date
+        ZonedDateTime dateCreation = ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        Resume first = resumeRepository.saveAndFlush(createEntity(em).dateCreation(dateCreation));
+        Resume second = resumeRepository.saveAndFlush(createEntity(em).dateCreation(dateCreation));
+        Resume third = resumeRepository.saveAndFlush(createEntity(em).dateCreation(dateCreation.plusDays(1)));
+
+        // Get the first page
+        MvcResult firstPage = restResumeMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String cursor = firstPage.getResponse().getHeader(KeysetPaginationUtil.HEADER_NEXT_CURSOR);
+        assertThat(cursor).isNotNull();
+
+        // Get the next page from the cursor
+        restResumeMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllResumesRunsConstantNumberOfQueries() throws Exception {
+        // Initialize the database with resumes created before any other, each with its own profile and owner
+        ZonedDateTime dateCreation = ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < 30; i++) {
+            Profil profil = ProfilResourceIT.createEntity(em).profession("Développeur");
+            em.persist(profil);
+            User user = UserResourceIT.createEntity(em);
+            em.persist(user);
+            resumeRepository.save(createEntity(em).dateCreation(dateCreation.plusMinutes(i)).profil(profil).user(user));
+        }
+        resumeRepository.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            // Get the page with its parts: a single query whatever the page size
+            restResumeMockMvc
+                .perform(get(ENTITY_API_URL + "?size=30&include=user,profil"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(30))
+                .andExpect(jsonPath("$.[*].profil.profession").value(hasItem("Développeur")));
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllResumesWithInvalidCursor() throws Exception {
+        restResumeMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllResumesWithInvalidSort() throws Exception {
+        restResumeMockMvc.perform(get(ENTITY_API_URL + "?sort=titre,asc")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getResume() throws Exception {
@@ -151,6 +376,153 @@ class ResumeResourceIT {
             .andExpect(jsonPath("$.dateCreation").value(sameInstant(DEFAULT_DATE_CREATION)));
     }
 
+    @Test
+    @Transactional
+    void getResumeWithIncludedParts() throws Exception {
+        // Initialize the database with a resume and some of its parts
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Développeur");
+        em.persist(profil);
+        Outil outil = OutilResourceIT.createEntity(em).nomOutil("Maven");
+        em.persist(outil);
+        Experience experience = ExperienceResourceIT.createEntity(em).outil(outil);
+        em.persist(experience);
+        Contact contact = ContactResourceIT.createEntity(em);
+        em.persist(contact);
+        resumeRepository.saveAndFlush(resume.profil(profil).experience(experience).contact(contact));
+        em.clear();
+
+        // Get the resume with only the requested parts
+        restResumeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?include=profil,experience.outil", resume.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.profil.profession").value("Développeur"))
+            .andExpect(jsonPath("$.experience.outil.nomOutil").value("Maven"))
+            .andExpect(jsonPath("$.contact.id").value(contact.getId().intValue()))
+            .andExpect(jsonPath("$.contact.nom").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getResumeWithMatchingEntityTag() throws Exception {
+        // Initialize the database with a resume and one of its parts
+        Profil profil = ProfilResourceIT.createEntity(em);
+        em.persist(profil);
+        resumeRepository.saveAndFlush(resume.profil(profil));
+        em.clear();
+
+        // The tag holds the versions of the resume, of the profil, and of the missing experience and tool
+        String url = ENTITY_API_URL_ID + "?include=profil,experience.outil";
+        restResumeMockMvc
+            .perform(get(url, resume.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0.0.-.-\""));
+
+        restResumeMockMvc
+            .perform(get(url, resume.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0.0.-.-\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Updating a part changes the tag of the resume
+        em.find(Profil.class, profil.getId()).setProfession("Architecte");
+        em.flush();
+        em.clear();
+
+        restResumeMockMvc
+            .perform(get(url, resume.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0.0.-.-\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0.1.-.-\""))
+            .andExpect(jsonPath("$.profil.profession").value("Architecte"));
+
+        // An update of the resume only checks the version of the resume
+        restResumeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, resume.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0.1.-.-\"")
+                    .contentType("application/merge-patch+json")
+                    .content("{\"id\":" + resume.getId() + ",\"titre\":\"" + UPDATED_TITRE + "\"}")
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    @Transactional
+    void patchResumeAssociationById() throws Exception {
+        // Initialize the database
+        Profil profil = ProfilResourceIT.createEntity(em);
+        em.persist(profil);
+        resumeRepository.saveAndFlush(resume);
+        em.clear();
+
+        // The profil is linked by its ID, without being loaded
+        restResumeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, resume.getId())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"profil\":{\"id\":" + profil.getId() + "}}")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.profil.id").value(profil.getId().intValue()));
+        em.flush();
+        em.clear();
+        assertThat(resumeRepository.findById(resume.getId()).get().getProfil().getId()).isEqualTo(profil.getId());
+
+        restResumeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, resume.getId())
+                    .contentType("application/json-patch+json")
+                    .content(
+                        "[{\"op\":\"test\",\"path\":\"/profil/id\",\"value\":" +
+                        profil.getId() +
+                        "},{\"op\":\"remove\",\"path\":\"/profil\"}]"
+                    )
+            )
+            .andExpect(status().isOk());
+        em.flush();
+        em.clear();
+        assertThat(resumeRepository.findById(resume.getId()).get().getProfil()).isNull();
+    }
+
+    @Test
+    @Transactional
+    void getResumeWithInvalidInclude() throws Exception {
+        // Initialize the database
+        resumeRepository.saveAndFlush(resume);
+
+        restResumeMockMvc.perform(get(ENTITY_API_URL_ID + "?include=titre", resume.getId())).andExpect(status().isBadRequest());
+        restResumeMockMvc.perform(get(ENTITY_API_URL_ID + "?include=unknown", resume.getId())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getResumesWithFields() throws Exception {
+        // Initialize the database
+        Profil profil = ProfilResourceIT.createEntity(em);
+        em.persist(profil);
+        resumeRepository.saveAndFlush(resume.profil(profil));
+        em.clear();
+
+        // The association is sent as the id of its target
+        restResumeMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=titre,profil"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resume.getId().intValue())))
+            .andExpect(jsonPath("$.[*].titre").value(hasItem(DEFAULT_TITRE)))
+            .andExpect(jsonPath("$.[*].profil.id").value(hasItem(profil.getId().intValue())))
+            .andExpect(jsonPath("$.[*].profil.profession").doesNotExist())
+            .andExpect(jsonPath("$.[*].dateCreation").doesNotExist());
+
+        restResumeMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?fields=dateCreation,adresse", resume.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.dateCreation").value(sameInstant(DEFAULT_DATE_CREATION)))
+            .andExpect(jsonPath("$.titre").doesNotExist())
+            .andExpect(jsonPath("$.profil").doesNotExist());
+
+        restResumeMockMvc.perform(get(ENTITY_API_URL + "?fields=experience.outil")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingResume() throws Exception {
@@ -376,5 +748,6 @@ class ResumeResourceIT {
         // Validate the database contains one less item
         List<Resume> resumeList = resumeRepository.findAll();
         assertThat(resumeList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(resumeSummaryEntryRepository.findById(resume.getId())).isEmpty();
     }
 }
@@ -0,0 +1,118 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Adresse;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Outil;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the database searches of the {@link ResumeSearchResource} REST controller, see
+ * {@link InMemoryResumeSearchIT} for the searches served from the in-memory indexes.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ResumeSearchResourceIT {
+
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/resumes";
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeSearchMockMvc;
+
+    private Resume resume;
+
+    @BeforeEach
+    public void initTest() {
+        resume = ResumeResourceIT.createEntity(em);
+    }
+
+    @Test
+    @Transactional
+    void searchResumes() throws Exception {
+        // Initialize the database with a resume whose experience, tool and profile hold the keywords
+        Outil outil = OutilResourceIT.createEntity(em).nomOutil("Gradle");
+        em.persist(outil);
+        Experience experience = ExperienceResourceIT.createEntity(em).nomPoste("Développeur Kotlin").outil(outil);
+        em.persist(experience);
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Ingénieur");
+        em.persist(profil);
+        resume = resumeRepository.saveAndFlush(resume.experience(experience).profil(profil));
+
+        // Search on keywords spread over several parts
+        restResumeSearchMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin ingénieur gradle"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resume.getId().intValue())));
+        restResumeSearchMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin maven"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+
+        // Writing a part on its own updates the search text of the resume
+        outil.setNomOutil("Maven");
+        em.flush();
+        restResumeSearchMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin maven"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resume.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchResumesNear() throws Exception {
+        // Initialize the database with a resume located by its contact in Lyon, one by its address in Villeurbanne, and one in Paris
+        Contact lyon = ContactResourceIT.createEntity(em).geolocalisation("45.764, 4.8357");
+        em.persist(lyon);
+        Adresse villeurbanne = AdresseResourceIT.createEntity(em).latitude(45.7719).longitude(4.8902);
+        em.persist(villeurbanne);
+        Contact paris = ContactResourceIT.createEntity(em).latitude(48.8566).longitude(2.3522);
+        em.persist(paris);
+        resume = resumeRepository.saveAndFlush(resume.titre("Développeur Kotlin").contact(lyon));
+        Resume other = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Développeur Java").adresse(villeurbanne));
+        Resume far = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).titre("Développeur Kotlin").contact(paris));
+        assertThat(lyon.getLatitude()).isEqualTo(45.764);
+        assertThat(lyon.getGeohash()).startsWith("u05kq");
+
+        // Nearest first, within the radius only
+        restResumeSearchMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?near=45.7719,4.89&radiusKm=30"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(resume.getId().intValue()));
+        restResumeSearchMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?q=kotlin&near=45.7719,4.89&radiusKm=500"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[0].id").value(resume.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(far.getId().intValue()));
+
+        restResumeSearchMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?near=Lyon")).andExpect(status().isBadRequest());
+        restResumeSearchMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?near=45.76,4.84&radiusKm=0")).andExpect(status().isBadRequest());
+        restResumeSearchMockMvc.perform(get(ENTITY_SEARCH_API_URL)).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,130 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Contact;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.domain.Profil;
+import fr.rif.rh.cvtech.domain.Resume;
+import fr.rif.rh.cvtech.domain.ResumeSummaryEntry;
+import fr.rif.rh.cvtech.domain.User;
+import fr.rif.rh.cvtech.repository.ResumeRepository;
+import fr.rif.rh.cvtech.repository.ResumeSummaryEntryRepository;
+import fr.rif.rh.cvtech.security.AuthoritiesConstants;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ResumeSummaryResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ResumeSummaryResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/resume-summaries";
+    private static final String ENTITY_API_URL_REBUILD = "/api/admin/resume-summaries/rebuild";
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private ResumeSummaryEntryRepository resumeSummaryEntryRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restResumeSummaryMockMvc;
+
+    @Test
+    @Transactional
+    void getAllResumeSummaries() throws Exception {
+        // Initialize the database with a resume created before any other, with its profile, contact, experience and owner
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Développeur").city("Lyon");
+        em.persist(profil);
+        Contact contact = ContactResourceIT.createEntity(em).nom("Martin").prenom("Léa");
+        em.persist(contact);
+        Experience experience = ExperienceResourceIT.createEntity(em).nomPoste("Développeuse Java");
+        em.persist(experience);
+        User user = UserResourceIT.createEntity(em);
+        em.persist(user);
+        Resume resume = resumeRepository.saveAndFlush(
+            ResumeResourceIT
+                .createEntity(em)
+                .dateCreation(ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC))
+                .profil(profil)
+                .contact(contact)
+                .experience(experience)
+                .user(user)
+        );
+
+        // Get the summaries
+        restResumeSummaryMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(resume.getId().intValue()))
+            .andExpect(jsonPath("$.[0].titre").value(resume.getTitre()))
+            .andExpect(jsonPath("$.[0].profession").value("Développeur"))
+            .andExpect(jsonPath("$.[0].city").value("Lyon"))
+            .andExpect(jsonPath("$.[0].userLogin").value(user.getLogin()))
+            .andExpect(jsonPath("$.[0].nom").value("Martin"))
+            .andExpect(jsonPath("$.[0].prenom").value("Léa"))
+            .andExpect(jsonPath("$.[0].nomPoste").value("Développeuse Java"))
+            .andExpect(jsonPath("$.[0].profil").doesNotExist());
+
+        // Update a part of the resume, the summary follows
+        profil.setCity("Grenoble");
+        em.flush();
+
+        restResumeSummaryMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(resume.getId().intValue()))
+            .andExpect(jsonPath("$.[0].city").value("Grenoble"));
+    }
+
+    @Test
+    @Transactional
+    void rebuildResumeSummaries() throws Exception {
+        // Initialize the database with a resume written by SQL, which the summaries do not follow
+        Profil profil = ProfilResourceIT.createEntity(em).profession("Ergonome");
+        em.persist(profil);
+        Resume resume = resumeRepository.saveAndFlush(ResumeResourceIT.createEntity(em).profil(profil));
+        em
+            .createNativeQuery("update profil set profession = 'UX designer' where id = :id")
+            .setParameter("id", profil.getId())
+            .executeUpdate();
+        assertThat(resumeSummaryEntryRepository.findById(resume.getId()))
+            .map(ResumeSummaryEntry::getProfession)
+            .hasValue("Ergonome");
+        em.clear();
+
+        // Rebuild the summaries
+        restResumeSummaryMockMvc.perform(post(ENTITY_API_URL_REBUILD)).andExpect(status().isOk()).andExpect(header().exists("X-Total-Count"));
+
+        assertThat(resumeSummaryEntryRepository.findById(resume.getId()))
+            .map(ResumeSummaryEntry::getProfession)
+            .hasValue("UX designer");
+        assertThat(resumeSummaryEntryRepository.count()).isEqualTo(resumeRepository.count());
+    }
+
+    @Test
+    @WithMockUser
+    void rebuildResumeSummariesAsUser() throws Exception {
+        restResumeSummaryMockMvc.perform(post(ENTITY_API_URL_REBUILD)).andExpect(status().isForbidden());
+    }
+}
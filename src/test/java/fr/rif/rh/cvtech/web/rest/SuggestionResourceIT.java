@@ -0,0 +1,106 @@
+package fr.rif.rh.cvtech.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import fr.rif.rh.cvtech.IntegrationTest;
+import fr.rif.rh.cvtech.domain.Experience;
+import fr.rif.rh.cvtech.repository.ExperienceRepository;
+import fr.rif.rh.cvtech.repository.search.SuggestionIndex;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link SuggestionResource} REST controller.
+ * <p>
+ * The suggestions only count committed values, so these tests commit their data and delete it afterwards instead of being
+ * transactional.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+@IntegrationTest
+@TestPropertySource(properties = "application.search.suggestion-index=true")
+class SuggestionResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/_suggest/{field}";
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSuggestionMockMvc;
+
+    private final List<Experience> experiences = new ArrayList<>();
+
+    @BeforeEach
+    public void initTest() {
+        experiences.add(experienceRepository.saveAndFlush(ExperienceResourceIT.createEntity(em).nomEntreprise("Zénith Conseil")));
+        experiences.add(experienceRepository.saveAndFlush(ExperienceResourceIT.createEntity(em).nomEntreprise("Zenith conseil")));
+        experiences.add(experienceRepository.saveAndFlush(ExperienceResourceIT.createEntity(em).nomEntreprise("Zephyr")));
+        suggestionIndex.rebuild();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        experiences.forEach(experience -> experienceRepository.findById(experience.getId()).ifPresent(experienceRepository::delete));
+    }
+
+    @Test
+    void suggestMostFrequentValues() throws Exception {
+        restSuggestionMockMvc
+            .perform(get(ENTITY_API_URL + "?prefix=ZE", "company"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].value").value("Zenith conseil"))
+            .andExpect(jsonPath("$.[0].count").value(2))
+            .andExpect(jsonPath("$.[1].value").value("Zephyr"));
+    }
+
+    @Test
+    void committedChangesUpdateTheSuggestions() throws Exception {
+        experienceRepository.saveAndFlush(experiences.get(2).nomEntreprise("Zénith Conseil"));
+        experiences.add(experienceRepository.saveAndFlush(ExperienceResourceIT.createEntity(em).nomEntreprise("Zoom Partners")));
+        transactionTemplate.executeWithoutResult(status -> {
+            experienceRepository.saveAndFlush(ExperienceResourceIT.createEntity(em).nomEntreprise("Zorro"));
+            status.setRollbackOnly();
+        });
+
+        restSuggestionMockMvc
+            .perform(get(ENTITY_API_URL + "?prefix=z", "company"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].value").value("Zénith Conseil"))
+            .andExpect(jsonPath("$.[0].count").value(3))
+            .andExpect(jsonPath("$.[1].value").value("Zoom Partners"));
+
+        experienceRepository.delete(experiences.get(3));
+        restSuggestionMockMvc
+            .perform(get(ENTITY_API_URL + "?prefix=zo", "company"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void suggestUnknownField() throws Exception {
+        restSuggestionMockMvc.perform(get(ENTITY_API_URL + "?prefix=z", "salary")).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,64 @@
+package fr.rif.rh.cvtech.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class JsonPatchTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void appliesOperationsInOrder() throws JsonProcessingException {
+        JsonNode document = json("{'titre':'CV','tags':['java'],'profil':{'id':1}}");
+
+        JsonNode patched = JsonPatch.apply(
+            document,
+            json(
+                "[{'op':'test','path':'/titre','value':'CV'}," +
+                "{'op':'replace','path':'/titre','value':'Resume'}," +
+                "{'op':'add','path':'/tags/-','value':'sql'}," +
+                "{'op':'add','path':'/tags/0','value':'go'}," +
+                "{'op':'copy','from':'/titre','path':'/copie'}," +
+                "{'op':'move','from':'/profil/id','path':'/profilId'}," +
+                "{'op':'remove','path':'/profil'}]"
+            )
+        );
+
+        assertThat(patched).isEqualTo(json("{'titre':'Resume','tags':['go','java','sql'],'copie':'Resume','profilId':1}"));
+        assertThat(document).isEqualTo(json("{'titre':'CV','tags':['java'],'profil':{'id':1}}"));
+    }
+
+    @Test
+    void failedTestIsReported() throws JsonProcessingException {
+        JsonNode document = json("{'titre':'CV','id':1}");
+
+        assertThat(JsonPatch.apply(document, json("[{'op':'test','path':'/id','value':1.0}]"))).isEqualTo(document);
+        assertThatThrownBy(() -> JsonPatch.apply(document, json("[{'op':'test','path':'/titre','value':'Resume'}]")))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void malformedPatchIsRejected() throws JsonProcessingException {
+        JsonNode document = json("{'titre':'CV','tags':[]}");
+
+        assertThatThrownBy(() -> JsonPatch.apply(document, json("{'op':'remove','path':'/titre'}")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.apply(document, json("[{'op':'rename','path':'/titre'}]")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.apply(document, json("[{'op':'replace','path':'/absent','value':1}]")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.apply(document, json("[{'op':'add','path':'/tags/1','value':1}]")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.apply(document, json("[{'op':'add','path':'/titre'}]")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JsonNode json(String content) throws JsonProcessingException {
+        return mapper.readTree(content.replace('\'', '"'));
+    }
+}